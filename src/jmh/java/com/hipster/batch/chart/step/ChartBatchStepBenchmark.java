@@ -0,0 +1,105 @@
+package com.hipster.batch.chart.step;
+
+import com.hipster.batch.chart.dto.ChartScoreDto;
+import com.hipster.batch.chart.dto.ChartSummaryRow;
+import com.hipster.batch.chart.repository.ChartReleaseMetadataQueryRepository.ChartReleaseMetadata;
+import com.hipster.chart.config.ChartAlgorithmProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
+import com.hipster.global.domain.Language;
+import com.hipster.release.domain.ReleaseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 차트 점수 step 의 item 단위 hot path. (processor 점수 계산, writer 의 metadata 보강)
+ * 입력은 고정 seed 로 만든 4,096 건을 순환하며, 1 op = item 1건이다.
+ *
+ * 실행 방법:
+ *   ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChartBatchStepBenchmark {
+
+    private static final int ITEM_COUNT = 4_096;
+    private static final int INDEX_MASK = ITEM_COUNT - 1;
+    private static final ReleaseType[] RELEASE_TYPES = ReleaseType.values();
+
+    private final ChartItemProcessor doubleProcessor = newProcessor(ChartAlgorithmProperties.CalculationMode.DOUBLE);
+    private final ChartItemProcessor decimalProcessor = newProcessor(ChartAlgorithmProperties.CalculationMode.DECIMAL);
+
+    private ChartSummaryRow[] rows;
+    private ChartScoreDto[] scores;
+    private Map<Long, ChartReleaseMetadata> metadataByReleaseId;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StepExecution stepExecution = new StepExecution("chartScoreUpdateStep", new JobExecution(1L));
+        stepExecution.getJobExecution().getExecutionContext().put(ChartItemProcessor.GLOBAL_AVG_KEY, BigDecimal.valueOf(3.5));
+        doubleProcessor.beforeStep(stepExecution);
+        decimalProcessor.beforeStep(stepExecution);
+
+        final Random random = new Random(42L);
+        rows = new ChartSummaryRow[ITEM_COUNT];
+        scores = new ChartScoreDto[ITEM_COUNT];
+        metadataByReleaseId = new HashMap<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            final long releaseId = i + 1L;
+            final double weightedCountSum = random.nextInt(1_000_000) / 10_000.0;
+            final double weightedScoreSum = weightedCountSum * (0.5 + random.nextInt(10) * 0.5);
+            rows[i] = new ChartSummaryRow(releaseId, releaseId, random.nextInt(5_000), weightedScoreSum, weightedCountSum);
+            scores[i] = doubleProcessor.process(rows[i]);
+            metadataByReleaseId.put(releaseId, new ChartReleaseMetadata(
+                    releaseId,
+                    RELEASE_TYPES[random.nextInt(RELEASE_TYPES.length)],
+                    1960 + random.nextInt(65),
+                    (long) random.nextInt(200),
+                    new int[]{random.nextInt(500), random.nextInt(500)},
+                    new int[]{random.nextInt(500)},
+                    new int[]{random.nextInt(300), random.nextInt(300)},
+                    ChartFacetCodec.languageMask(Language.EN, Language.KO)
+            ));
+        }
+    }
+
+    @Benchmark
+    public ChartScoreDto processDoublePath() {
+        return doubleProcessor.process(rows[next()]);
+    }
+
+    @Benchmark
+    public ChartScoreDto processDecimalPath() {
+        return decimalProcessor.process(rows[next()]);
+    }
+
+    @Benchmark
+    public ChartScoreDto writerEnrich() {
+        return ChartItemWriter.enrich(scores[next()], metadataByReleaseId);
+    }
+
+    private int next() {
+        return cursor++ & INDEX_MASK;
+    }
+
+    private static ChartItemProcessor newProcessor(final ChartAlgorithmProperties.CalculationMode mode) {
+        final ChartAlgorithmProperties properties = new ChartAlgorithmProperties();
+        properties.setCalculationMode(mode);
+        return new ChartItemProcessor(properties);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hipster.chart.algorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BayesianScoreCalculator 의 BigDecimal 경로와 double 경로 비교.
+ * 1,000만 건의 합성 summary 를 한 번 순회하는 것을 1 invocation 으로 측정한다. (-prof gc 로 할당량 비교)
+ *
+ * 실행 방법:
+ *   ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BayesianScoreCalculatorBenchmark {
+
+    private static final int SUMMARY_COUNT = 10_000_000;
+
+    private final BayesianScoreCalculator calculator =
+            new BayesianScoreCalculator(BigDecimal.valueOf(50.0), BigDecimal.valueOf(1.0));
+    private final BigDecimal c = BigDecimal.valueOf(3.5);
+    private final double cValue = 3.5;
+
+    private BigDecimal[] weightedScoreSums;
+    private BigDecimal[] weightedCountSums;
+    private double[] weightedScoreSumValues;
+    private double[] weightedCountSumValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42L);
+        weightedScoreSums = new BigDecimal[SUMMARY_COUNT];
+        weightedCountSums = new BigDecimal[SUMMARY_COUNT];
+        weightedScoreSumValues = new double[SUMMARY_COUNT];
+        weightedCountSumValues = new double[SUMMARY_COUNT];
+
+        for (int i = 0; i < SUMMARY_COUNT; i++) {
+            // DECIMAL(18,4) 컬럼에서 읽힌 값과 같은 scale 로 만든다
+            final BigDecimal countSum = BigDecimal.valueOf(random.nextInt(1_000_000), 4);
+            final BigDecimal scoreSum = countSum.multiply(BigDecimal.valueOf(5 + random.nextInt(46), 1))
+                    .setScale(4, java.math.RoundingMode.HALF_UP);
+            weightedCountSums[i] = countSum;
+            weightedScoreSums[i] = scoreSum;
+            weightedCountSumValues[i] = countSum.doubleValue();
+            weightedScoreSumValues[i] = scoreSum.doubleValue();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUMMARY_COUNT)
+    public void decimalPath(final Blackhole blackhole) {
+        for (int i = 0; i < SUMMARY_COUNT; i++) {
+            blackhole.consume(calculator.calculate(weightedScoreSums[i], weightedCountSums[i], c));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUMMARY_COUNT)
+    public void doublePath(final Blackhole blackhole) {
+        for (int i = 0; i < SUMMARY_COUNT; i++) {
+            final double weightedCountSum = weightedCountSumValues[i];
+            blackhole.consume(calculator.calculateScore(weightedScoreSumValues[i], weightedCountSum, cValue));
+            blackhole.consume(calculator.isEsoteric(weightedCountSum));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hipster.chart.service;
+
+import com.hipster.batch.chart.dto.ChartScoreDto;
+import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.domain.ChartFacetCodec;
+import com.hipster.chart.dto.request.ChartFilterRequest;
+import com.hipster.chart.publish.service.ChartPublishedVersionService;
+import com.hipster.chart.repository.ChartScoreIndexSourceQueryRepository.ChartScoreIndexRow;
+import com.hipster.global.domain.Language;
+import com.hipster.release.domain.ReleaseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ES 문서 변환, 필터 컬럼 디코딩(ChartFacetCodec), 차트 캐시 키 생성.
+ * 입력은 고정 seed 로 만든 4,096 건을 순환하며, 1 op = 문서 1건 / row 1건 / 키 1개다.
+ *
+ * 실행 방법:
+ *   ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChartServiceBenchmark {
+
+    private static final int ITEM_COUNT = 4_096;
+    private static final int INDEX_MASK = ITEM_COUNT - 1;
+    private static final ReleaseType[] RELEASE_TYPES = ReleaseType.values();
+
+    // 문서 변환만 측정하므로 ES / DB 의존성은 넘기지 않는다.
+    private final ChartElasticsearchIndexService indexService =
+            new ChartElasticsearchIndexService(null, null, null, null, null, null);
+    private final ChartCacheKeyGenerator cacheKeyGenerator =
+            new ChartCacheKeyGenerator(new FixedPublishedVersionService("v20261018090000000"));
+
+    private String[] encodedGenreIds;
+    private ChartScoreIndexRow[] indexRows;
+    private ChartScoreDto[] scores;
+    private ChartFilterRequest[] filters;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42L);
+        encodedGenreIds = new String[ITEM_COUNT];
+        indexRows = new ChartScoreIndexRow[ITEM_COUNT];
+        scores = new ChartScoreDto[ITEM_COUNT];
+        filters = new ChartFilterRequest[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            final long releaseId = i + 1L;
+            final ReleaseType releaseType = RELEASE_TYPES[random.nextInt(RELEASE_TYPES.length)];
+            final int[] genreIds = {random.nextInt(500), random.nextInt(500)};
+            final int[] primaryGenreIds = {genreIds[0]};
+            final int[] descriptorIds = {random.nextInt(300), random.nextInt(300)};
+            final long languageMask = ChartFacetCodec.languageMask(Language.EN, Language.KO);
+            final int releaseYear = 1960 + random.nextInt(65);
+            final long locationId = random.nextInt(200);
+
+            // MySQL JSON 컬럼을 문자열로 읽으면 원소 사이에 공백이 들어간다.
+            encodedGenreIds[i] = ChartFacetCodec.encodeIds(genreIds).replace(",", ", ");
+            indexRows[i] = new ChartScoreIndexRow(releaseId, releaseId, random.nextDouble() * 5, random.nextBoolean(),
+                    releaseType.name(), releaseYear, locationId, genreIds, primaryGenreIds, descriptorIds, languageMask);
+            scores[i] = new ChartScoreDto(releaseId, random.nextDouble() * 5, random.nextDouble() * 5,
+                    random.nextDouble() * 100, (long) random.nextInt(5_000), random.nextBoolean(),
+                    genreIds, primaryGenreIds, releaseType, releaseYear, descriptorIds, locationId, languageMask);
+            filters[i] = (i & 3) == 0
+                    ? ChartFilterRequest.empty()
+                    : new ChartFilterRequest(null, List.of((long) random.nextInt(500), (long) random.nextInt(500)),
+                    null, (i & 1) == 0 ? locationId : null, Language.EN, releaseYear, releaseType, (i & 2) == 0);
+        }
+    }
+
+    @Benchmark
+    public int[] decodeFacetIds() {
+        return ChartFacetCodec.decodeIds(encodedGenreIds[next()]);
+    }
+
+    @Benchmark
+    public ChartDocument toDocumentFromIndexRow() {
+        return indexService.toDocument(indexRows[next()]);
+    }
+
+    @Benchmark
+    public ChartDocument toDocumentFromScoreDto() {
+        return indexService.toDocument(scores[next()]);
+    }
+
+    @Benchmark
+    public String generateCacheKey() {
+        final int index = next();
+        return cacheKeyGenerator.generateKey(filters[index], index & 7);
+    }
+
+    private int next() {
+        return cursor++ & INDEX_MASK;
+    }
+
+    /** Redis / DB 조회 없이 고정 published version 을 돌려준다. */
+    private static final class FixedPublishedVersionService extends ChartPublishedVersionService {
+
+        private final String version;
+
+        private FixedPublishedVersionService(final String version) {
+            super(null, null, null);
+            this.version = version;
+        }
+
+        @Override
+        public String getPublishedVersion() {
+            return version;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.hipster.batch.antientropy;
 
 import com.hipster.batch.antientropy.AntiEntropyQueryRepository;
+import com.hipster.batch.antientropy.AntiEntropyQueryRepository.DriftReport;
+import com.hipster.batch.antientropy.AntiEntropyQueryRepository.SummaryDrift;
 import com.hipster.rating.metrics.RatingMetricsRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * Anti-Entropy Full 배치.
+ * Anti-Entropy 배치.
  *
- * 매일 새벽 03:00에 ratings JOIN users를 전체 재집계하여
- * 실시간 파이프라인(RabbitMQ At-Least-Once)의 이중 누적 오염을 자동 교정합니다.
+ * Incremental: 매시간 마지막 동기화 이후 평점 쓰기가 있었던 release(dirty set)만 작은 청크로 재집계하여
+ * 실시간 파이프라인(RabbitMQ At-Least-Once)의 이중 누적 오염을 일 단위 변경량에 비례하는 비용으로 교정합니다.
  *
- * 실행 시간 모니터링 기준:
+ * Full: 매주 일요일 03:00(또는 수동 트리거)에 ratings JOIN users를 전체 재집계합니다.
+ * 가중치 재계산처럼 평점 쓰기 없이 summary 가 어긋나는 경우는 Full 재집계가 담당합니다.
+ * release_id 를 keyset 으로 1000건씩 읽어 antiEntropyExecutor 에서 최대 parallelism 개 구간을 동시에 처리하고,
+ * 앞 구간이 모두 끝난 위치를 체크포인트로 남겨 중단된 실행은 다음 실행에서 이어서 처리합니다.
+ *
+ * compare-before-write 모드(기본)에서는 두 모드 모두 source-of-truth 와 비교하여 어긋난 row 만 다시 쓰고,
+ * 어긋난 크기를 RatingMetricsRecorder 의 drift 히스토그램으로 남깁니다.
+ *
+ * Full 실행 시간 모니터링 기준:
  *  - 1시간 초과: 쿼리 최적화 검토
  *  - 2시간 초과: 파티셔닝 도입 검토
  *  - 4시간 초과: 즉각 대응 (새벽 저점 구간 초과)
@@ -27,51 +47,226 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AntiEntropyBatchJob {
 
+    static final String FULL_SWEEP_NAME = "anti_entropy_full";
+
     private final AntiEntropyQueryRepository antiEntropyQueryRepository;
+    private final AntiEntropySweepCheckpointRepository antiEntropySweepCheckpointRepository;
     private final RatingMetricsRecorder ratingMetricsRecorder;
+    @Qualifier("antiEntropyExecutor")
+    private final AsyncTaskExecutor antiEntropyExecutor;
+
+    @Value("${hipster.batch.anti-entropy.parallelism:4}")
+    private int fullSweepParallelism;
+
+    @Value("${hipster.batch.anti-entropy.chunk-time-budget-ms:120000}")
+    private long chunkTimeBudgetMillis;
+
+    @Value("${hipster.batch.anti-entropy.compare-before-write:true}")
+    private boolean compareBeforeWrite;
+
+    @Value("${hipster.batch.anti-entropy.drift-tolerance:0.0001}")
+    private BigDecimal driftTolerance;
+
+    @Value("${hipster.batch.anti-entropy-incremental.lookback-minutes:180}")
+    private long incrementalLookbackMinutes;
 
-    @Scheduled(cron = "${hipster.batch.anti-entropy-cron:0 0 3 * * ?}")
+    @Value("${hipster.batch.anti-entropy-incremental.sync-overlap-seconds:60}")
+    private long incrementalSyncOverlapSeconds;
+
+    @Value("${hipster.batch.anti-entropy-incremental.chunk-size:200}")
+    private int incrementalChunkSize;
+
+    @Scheduled(cron = "${hipster.batch.anti-entropy-cron:0 0 3 ? * SUN}")
     @SchedulerLock(name = "antiEntropyFullBatch", lockAtLeastFor = "30s", lockAtMostFor = "4h")
     public void runAntiEntropyFull() {
         final LocalDateTime batchSyncedAt = LocalDateTime.now();
-        log.info("[AntiEntropy] Full 재집계 시작 batchSyncedAt={}", batchSyncedAt);
+        final AntiEntropySweepCheckpoint checkpoint = antiEntropySweepCheckpointRepository.findById(FULL_SWEEP_NAME)
+                .orElseGet(() -> AntiEntropySweepCheckpoint.start(FULL_SWEEP_NAME));
+        if (checkpoint.isCompleted()) {
+            checkpoint.restart();
+        } else {
+            checkpoint.resume();
+        }
+        antiEntropySweepCheckpointRepository.save(checkpoint);
+
+        final long resumeAfterReleaseId = checkpoint.resumeAfterReleaseId();
+        log.info("[AntiEntropy] Full 재집계 시작 batchSyncedAt={}, resumeAfterReleaseId={}, parallelism={}",
+                batchSyncedAt, resumeAfterReleaseId, fullSweepParallelism);
+        if (resumeAfterReleaseId > 0) {
+            ratingMetricsRecorder.recordAntiEntropy("resumed");
+        }
 
+        final Deque<RangeTask> inFlight = new ArrayDeque<>();
         try {
-            final List<Long> allReleaseIds = antiEntropyQueryRepository.findAllReleaseIds();
-            final List<List<Long>> chunks = AntiEntropyQueryRepository.partition(allReleaseIds);
-
-            log.info("[AntiEntropy] 대상 앨범 수={}, 청크 수={}", allReleaseIds.size(), chunks.size());
-
-            for (int chunkIndex = 0; chunkIndex < chunks.size(); chunkIndex++) {
-                final List<Long> chunk = chunks.get(chunkIndex);
-                try {
-                    antiEntropyQueryRepository.reconcileChunk(chunk, batchSyncedAt);
-                } catch (Exception e) {
-                    log.error("[AntiEntropy] 청크 실패 batchSyncedAt={}, chunkIndex={}, chunkSize={}, firstReleaseId={}, lastReleaseId={}",
-                            batchSyncedAt,
-                            chunkIndex + 1,
-                            chunk.size(),
-                            firstReleaseId(chunk),
-                            lastReleaseId(chunk),
-                            e);
-                    throw e;
+            final int parallelism = Math.max(fullSweepParallelism, 1);
+            long cursor = resumeAfterReleaseId;
+            final DriftTally driftTally = new DriftTally();
+            int submittedChunks = 0;
+
+            while (true) {
+                final List<Long> releaseIds =
+                        antiEntropyQueryRepository.findReleaseIdsAfter(cursor, AntiEntropyQueryRepository.CHUNK_SIZE);
+                if (releaseIds.isEmpty()) {
+                    break;
+                }
+                cursor = releaseIds.get(releaseIds.size() - 1);
+
+                if (inFlight.size() >= parallelism) {
+                    driftTally.add(awaitRange(inFlight.pollFirst(), checkpoint));
                 }
+                inFlight.addLast(submitRange(++submittedChunks, releaseIds, batchSyncedAt));
 
-                final int processedChunks = chunkIndex + 1;
-                if (processedChunks % 10 == 0) {
-                    log.info("[AntiEntropy] 진행 중: {}/{} 청크 완료", processedChunks, chunks.size());
+                if (submittedChunks % 10 == 0) {
+                    log.info("[AntiEntropy] 진행 중: {} 청크 제출, 완료 워터마크 releaseId={}",
+                            submittedChunks, checkpoint.getLastCompletedReleaseId());
                 }
+                if (releaseIds.size() < AntiEntropyQueryRepository.CHUNK_SIZE) {
+                    break;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                driftTally.add(awaitRange(inFlight.pollFirst(), checkpoint));
             }
 
-            log.info("[AntiEntropy] Full 재집계 완료. 총 처리 앨범 수={}", allReleaseIds.size());
+            checkpoint.markCompleted();
+            antiEntropySweepCheckpointRepository.save(checkpoint);
+
+            log.info("[AntiEntropy] Full 재집계 완료. 총 처리 앨범 수={}, 청크 수={}, 실시간 건수/평균 불일치 앨범 수={}, 재기록 앨범 수={}",
+                    checkpoint.getProcessedReleaseCount(), submittedChunks,
+                    driftTally.liveStatsDriftCount, driftTally.rewrittenReleaseCount());
+            recordRun(driftTally);
             ratingMetricsRecorder.recordAntiEntropy("success");
 
         } catch (Exception e) {
+            inFlight.forEach(task -> task.future().cancel(true));
+            checkpoint.markFailed();
+            antiEntropySweepCheckpointRepository.save(checkpoint);
             ratingMetricsRecorder.recordAntiEntropy("failed");
-            log.error("[AntiEntropy] Full 재집계 실패. batchSyncedAt={}", batchSyncedAt, e);
+            log.error("[AntiEntropy] Full 재집계 실패. batchSyncedAt={}, 재개 위치 releaseId={}",
+                    batchSyncedAt, checkpoint.getLastCompletedReleaseId(), e);
         }
     }
 
+    @Scheduled(cron = "${hipster.batch.anti-entropy-incremental-cron:0 15 * * * ?}")
+    @SchedulerLock(name = "antiEntropyIncrementalBatch", lockAtLeastFor = "30s", lockAtMostFor = "50m")
+    public void runAntiEntropyIncremental() {
+        final LocalDateTime batchSyncedAt = LocalDateTime.now();
+        final LocalDateTime touchedSince = batchSyncedAt.minusMinutes(incrementalLookbackMinutes);
+        log.info("[AntiEntropy] Incremental 재집계 시작 batchSyncedAt={}, touchedSince={}", batchSyncedAt, touchedSince);
+
+        try {
+            final List<Long> dirtyReleaseIds =
+                    antiEntropyQueryRepository.findDirtyReleaseIds(touchedSince, incrementalSyncOverlapSeconds);
+            final long totalReleaseCount = antiEntropyQueryRepository.countSummaryReleases();
+            ratingMetricsRecorder.recordAntiEntropyDirtySet(dirtyReleaseIds.size(), totalReleaseCount);
+
+            final List<List<Long>> chunks = AntiEntropyQueryRepository.partition(dirtyReleaseIds, incrementalChunkSize);
+            log.info("[AntiEntropy] dirty 앨범 수={}, 전체 앨범 수={}, 청크 수={}",
+                    dirtyReleaseIds.size(), totalReleaseCount, chunks.size());
+
+            final DriftTally driftTally = reconcileChunks(chunks, batchSyncedAt);
+
+            log.info("[AntiEntropy] Incremental 재집계 완료. 처리 앨범 수={}, 실시간 건수/평균 불일치 앨범 수={}, 재기록 앨범 수={}",
+                    dirtyReleaseIds.size(), driftTally.liveStatsDriftCount, driftTally.rewrittenReleaseCount());
+            recordRun(driftTally);
+            ratingMetricsRecorder.recordAntiEntropy("incremental_success");
+
+        } catch (Exception e) {
+            ratingMetricsRecorder.recordAntiEntropy("incremental_failed");
+            log.error("[AntiEntropy] Incremental 재집계 실패. batchSyncedAt={}", batchSyncedAt, e);
+        }
+    }
+
+    private DriftTally reconcileChunks(final List<List<Long>> chunks, final LocalDateTime batchSyncedAt) {
+        final DriftTally driftTally = new DriftTally();
+        for (int chunkIndex = 0; chunkIndex < chunks.size(); chunkIndex++) {
+            final List<Long> chunk = chunks.get(chunkIndex);
+            try {
+                final DriftReport report = reconcileRange(chunk, batchSyncedAt);
+                recordDriftRows(report);
+                driftTally.add(report);
+            } catch (Exception e) {
+                log.error("[AntiEntropy] 청크 실패 batchSyncedAt={}, chunkIndex={}, chunkSize={}, firstReleaseId={}, lastReleaseId={}",
+                        batchSyncedAt,
+                        chunkIndex + 1,
+                        chunk.size(),
+                        firstReleaseId(chunk),
+                        lastReleaseId(chunk),
+                        e);
+                throw e;
+            }
+
+            final int processedChunks = chunkIndex + 1;
+            if (processedChunks % 10 == 0) {
+                log.info("[AntiEntropy] 진행 중: {}/{} 청크 완료", processedChunks, chunks.size());
+            }
+        }
+        return driftTally;
+    }
+
+    /**
+     * compare-before-write 모드면 어긋난 row 만 다시 쓰고, 아니면 청크 전체를 덮어쓴다.
+     */
+    private DriftReport reconcileRange(final List<Long> releaseIds, final LocalDateTime batchSyncedAt) {
+        if (compareBeforeWrite) {
+            return antiEntropyQueryRepository.reconcileDriftedChunk(releaseIds, batchSyncedAt, driftTolerance);
+        }
+        return DriftReport.overwritten(releaseIds.size(), antiEntropyQueryRepository.reconcileChunk(releaseIds, batchSyncedAt));
+    }
+
+    private void recordDriftRows(final DriftReport report) {
+        for (final SummaryDrift drift : report.drifts()) {
+            ratingMetricsRecorder.recordAntiEntropyDriftRow(drift.ratingCountDelta(), drift.weightedCountDelta().doubleValue());
+        }
+    }
+
+    private void recordRun(final DriftTally driftTally) {
+        ratingMetricsRecorder.recordAntiEntropyLiveStatsDrift(driftTally.liveStatsDriftCount);
+        if (compareBeforeWrite) {
+            ratingMetricsRecorder.recordAntiEntropyDriftRun(driftTally.checkedReleaseCount, driftTally.driftedReleaseCount);
+        }
+    }
+
+    private RangeTask submitRange(final int chunkIndex, final List<Long> releaseIds, final LocalDateTime batchSyncedAt) {
+        final Future<DriftReport> future = antiEntropyExecutor.submit(() -> reconcileRange(releaseIds, batchSyncedAt));
+        return new RangeTask(chunkIndex, releaseIds, System.currentTimeMillis(), future);
+    }
+
+    /**
+     * 제출 순서대로 구간 완료를 기다린다. 시간 예산을 넘긴 구간은 취소하고 실행 전체를 실패로 끝내며,
+     * 완료된 구간까지만 체크포인트가 전진한다.
+     */
+    private DriftReport awaitRange(final RangeTask task, final AntiEntropySweepCheckpoint checkpoint) {
+        final long elapsedMillis = System.currentTimeMillis() - task.submittedAtMillis();
+        final long remainingMillis = Math.max(chunkTimeBudgetMillis - elapsedMillis, 0L);
+        final DriftReport report;
+        try {
+            report = task.future().get(remainingMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.future().cancel(true);
+            ratingMetricsRecorder.recordAntiEntropy("chunk_timeout");
+            log.error("[AntiEntropy] 청크 시간 예산 초과 chunkIndex={}, budgetMs={}, firstReleaseId={}, lastReleaseId={}",
+                    task.chunkIndex(), chunkTimeBudgetMillis, firstReleaseId(task.releaseIds()), lastReleaseId(task.releaseIds()));
+            throw new IllegalStateException("Anti-entropy chunk exceeded time budget", e);
+        } catch (ExecutionException e) {
+            log.error("[AntiEntropy] 청크 실패 chunkIndex={}, chunkSize={}, firstReleaseId={}, lastReleaseId={}",
+                    task.chunkIndex(),
+                    task.releaseIds().size(),
+                    firstReleaseId(task.releaseIds()),
+                    lastReleaseId(task.releaseIds()),
+                    e.getCause());
+            throw new IllegalStateException("Anti-entropy chunk failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Anti-entropy sweep interrupted", e);
+        }
+
+        checkpoint.advance(lastReleaseId(task.releaseIds()), task.releaseIds().size());
+        antiEntropySweepCheckpointRepository.save(checkpoint);
+        recordDriftRows(report);
+        return report;
+    }
+
     private Long firstReleaseId(final List<Long> chunk) {
         return chunk == null || chunk.isEmpty() ? null : chunk.get(0);
     }
@@ -79,5 +274,28 @@ public class AntiEntropyBatchJob {
     private Long lastReleaseId(final List<Long> chunk) {
         return chunk == null || chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
     }
-}
 
+    private record RangeTask(int chunkIndex, List<Long> releaseIds, long submittedAtMillis, Future<DriftReport> future) {
+    }
+
+    /**
+     * 실행 한 번의 청크 결과 누적. overwrite 모드에서는 검사 수만 쌓이고 drift 수는 0 이다.
+     */
+    private static final class DriftTally {
+        private long checkedReleaseCount;
+        private long driftedReleaseCount;
+        private long orphanDeletedCount;
+        private long liveStatsDriftCount;
+
+        private void add(final DriftReport report) {
+            checkedReleaseCount += report.checkedReleaseCount();
+            driftedReleaseCount += report.drifts().size();
+            orphanDeletedCount += report.orphanDeletedCount();
+            liveStatsDriftCount += report.liveStatsDriftCount();
+        }
+
+        private long rewrittenReleaseCount() {
+            return driftedReleaseCount + orphanDeletedCount;
+        }
+    }
+}
@@ -6,40 +6,92 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Anti-Entropy Full 배치 전용 레포지토리.
  *
- * ratings JOIN users를 Source of Truth로 삼아 release_rating_summary를 전체 재집계합니다.
+ * ratings JOIN users를 Source of Truth로 삼아 release_rating_summary를 재집계합니다.
  * Chunk 단위(1000건) 페이징으로 Master DB 부하를 분산합니다.
+ * Incremental 모드는 rating_event_outbox 로 찾은 dirty set 만 같은 reconcileChunk 로 재집계합니다.
  */
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class AntiEntropyQueryRepository {
 
-    private static final int CHUNK_SIZE = 1000;
+    public static final int CHUNK_SIZE = 1000;
 
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     /**
-     * 대상 release_id 목록을 조회합니다.
+     * afterReleaseId 다음부터 최대 limit 개의 대상 release_id 를 keyset 방식으로 조회합니다.
      * 원본 ratings 와 기존 summary 양쪽을 모두 본다.
      * 그래야 마지막 평점 삭제 뒤 0건이 된 release 도 정리할 수 있다.
+     * 양쪽 모두 release_id 인덱스 구간만 읽으므로 전체 id 를 한 번에 적재하지 않고 청크 단위로 스트리밍할 수 있다.
      */
-    public List<Long> findAllReleaseIds() {
+    public List<Long> findReleaseIdsAfter(final long afterReleaseId, final int limit) {
         String sql = """
             SELECT release_id
             FROM (
-                SELECT DISTINCT release_id FROM ratings
+                (SELECT DISTINCT release_id FROM ratings
+                 WHERE release_id > :afterReleaseId
+                 ORDER BY release_id
+                 LIMIT :limit)
                 UNION
-                SELECT release_id FROM release_rating_summary
+                (SELECT release_id FROM release_rating_summary
+                 WHERE release_id > :afterReleaseId
+                 ORDER BY release_id
+                 LIMIT :limit)
             ) candidate_release_ids
             ORDER BY release_id
+            LIMIT :limit
             """;
-        return namedParameterJdbcTemplate.queryForList(sql, new MapSqlParameterSource(), Long.class);
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterReleaseId", afterReleaseId)
+                .addValue("limit", limit);
+        return namedParameterJdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    /**
+     * 마지막 동기화 이후 평점 쓰기가 발생한 release_id 목록(dirty set)을 조회합니다.
+     * 평점 생성/수정/삭제는 모두 같은 트랜잭션으로 rating_event_outbox 에 남으므로 삭제까지 빠짐없이 잡힌다.
+     * batch_synced_at 직전 syncOverlapSeconds 안의 이벤트도 다시 포함하여,
+     * 직전 재집계 시점에 아직 커밋되지 않았던 평점 트랜잭션을 한 번 더 반영한다.
+     *
+     * @param touchedSince      outbox 조회 하한 (outbox 보존 기간 이내여야 한다)
+     * @param syncOverlapSeconds batch_synced_at 과 겹쳐 보는 구간(초)
+     */
+    public List<Long> findDirtyReleaseIds(final LocalDateTime touchedSince, final long syncOverlapSeconds) {
+        String sql = """
+            SELECT o.release_id
+            FROM rating_event_outbox o
+            LEFT JOIN release_rating_summary s ON s.release_id = o.release_id
+            WHERE o.event_ts >= :touchedSince
+              AND (s.batch_synced_at IS NULL
+                   OR o.event_ts > s.batch_synced_at - INTERVAL :syncOverlapSeconds SECOND)
+            GROUP BY o.release_id
+            ORDER BY o.release_id
+            """;
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("touchedSince", touchedSince)
+                .addValue("syncOverlapSeconds", syncOverlapSeconds);
+        return namedParameterJdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    /**
+     * Full 재집계 대상 규모의 근사치(summary row 수)를 조회합니다. dirty set 비율 지표의 분모로 쓴다.
+     */
+    public long countSummaryReleases() {
+        final Long count = namedParameterJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM release_rating_summary", new MapSqlParameterSource(), Long.class);
+        return count == null ? 0L : count;
     }
 
     /**
@@ -48,15 +100,109 @@ public class AntiEntropyQueryRepository {
      *
      * @param releaseIds  이번 청크에서 처리할 release_id 목록
      * @param batchSyncedAt 배치 시작 시각 (batch_synced_at 기록용)
+     * @return 덮어쓰기 전 실시간 통계(total_rating_count, score_sum)가 source-of-truth 와 어긋나 있던 row 수
      */
-    public void reconcileChunk(final List<Long> releaseIds, final LocalDateTime batchSyncedAt) {
-        if (releaseIds == null || releaseIds.isEmpty()) return;
+    public int reconcileChunk(final List<Long> releaseIds, final LocalDateTime batchSyncedAt) {
+        if (releaseIds == null || releaseIds.isEmpty()) return 0;
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("releaseIds", releaseIds);
         params.addValue("batchSyncedAt", batchSyncedAt);
 
+        // 실시간 경로가 유지하는 건수/점수 합이 실제로 맞았는지 덮어쓰기 전에 검증한다.
+        final String verifySql = """
+            SELECT COUNT(*)
+            FROM (
+                SELECT r.release_id, COUNT(*) AS total_rating_count, SUM(r.score) AS score_sum
+                FROM ratings r
+                JOIN users u ON r.user_id = u.id
+                WHERE r.release_id IN (:releaseIds)
+                GROUP BY r.release_id
+            ) truth
+            JOIN release_rating_summary s ON s.release_id = truth.release_id
+            WHERE s.total_rating_count <> truth.total_rating_count
+               OR ABS(s.score_sum - truth.score_sum) > 0.0001
+            """;
+        final Integer liveStatsDriftCount = namedParameterJdbcTemplate.queryForObject(verifySql, params, Integer.class);
+
         // 마지막 평점이 삭제되어 source-of-truth 에 더 이상 존재하지 않는 release summary 를 먼저 정리한다.
+        deleteOrphanSummaries(params);
+        upsertFromSourceOfTruth(params);
+        return liveStatsDriftCount == null ? 0 : liveStatsDriftCount;
+    }
+
+    /**
+     * source-of-truth 와 저장된 summary 를 먼저 비교하고, 허용 오차를 넘게 어긋난 row 만 다시 씁니다.
+     * 대부분의 row 가 이미 맞는 상황에서 redo/binlog 와 replica lag 를 drift 크기에 비례하게 줄인다.
+     * 어긋난 row 는 기존과 같은 INSERT ... SELECT 로 다시 계산하여 쓰므로, 비교와 쓰기 사이의 실시간 반영분도 덮어쓰기 시점 기준으로 맞춰진다.
+     * 어긋나지 않은 row 는 batch_synced_at 도 갱신하지 않는다.
+     *
+     * @param tolerance weighted/score 합 비교 허용 오차 (건수는 정확히 비교)
+     */
+    public DriftReport reconcileDriftedChunk(final List<Long> releaseIds,
+                                             final LocalDateTime batchSyncedAt,
+                                             final BigDecimal tolerance) {
+        if (releaseIds == null || releaseIds.isEmpty()) {
+            return DriftReport.empty();
+        }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource().addValue("releaseIds", releaseIds);
+        final Map<Long, SummaryAggregate> truth = toAggregateMap(namedParameterJdbcTemplate.query("""
+            SELECT
+                r.release_id,
+                SUM(r.score * u.weighting_score)   AS weighted_score_sum,
+                SUM(u.weighting_score)              AS weighted_count_sum,
+                COUNT(*)                            AS total_rating_count,
+                SUM(r.score)                        AS score_sum
+            FROM ratings r
+            JOIN users u ON r.user_id = u.id
+            WHERE r.release_id IN (:releaseIds)
+            GROUP BY r.release_id
+            """, params, (rs, rowNum) -> SummaryAggregate.from(rs)));
+        final Map<Long, SummaryAggregate> stored = toAggregateMap(namedParameterJdbcTemplate.query("""
+            SELECT release_id, weighted_score_sum, weighted_count_sum, total_rating_count, score_sum
+            FROM release_rating_summary
+            WHERE release_id IN (:releaseIds)
+            """, params, (rs, rowNum) -> SummaryAggregate.from(rs)));
+
+        final List<SummaryDrift> drifts = findDrifts(truth, stored, tolerance);
+        final List<Long> orphanReleaseIds = stored.keySet().stream()
+                .filter(releaseId -> !truth.containsKey(releaseId))
+                .toList();
+
+        if (!orphanReleaseIds.isEmpty()) {
+            deleteOrphanSummaries(new MapSqlParameterSource().addValue("releaseIds", orphanReleaseIds));
+        }
+        if (!drifts.isEmpty()) {
+            final List<Long> driftedReleaseIds = drifts.stream().map(SummaryDrift::releaseId).toList();
+            upsertFromSourceOfTruth(new MapSqlParameterSource()
+                    .addValue("releaseIds", driftedReleaseIds)
+                    .addValue("batchSyncedAt", batchSyncedAt));
+        }
+
+        final int liveStatsDriftCount = (int) drifts.stream()
+                .filter(drift -> drift.stored() != null && drift.isLiveStatsDrift(tolerance))
+                .count();
+        return new DriftReport(releaseIds.size(), liveStatsDriftCount, drifts, orphanReleaseIds.size());
+    }
+
+    /**
+     * 저장된 summary 가 source-of-truth 와 허용 오차 이상 다르거나 아예 없는 release 를 찾습니다.
+     */
+    static List<SummaryDrift> findDrifts(final Map<Long, SummaryAggregate> truth,
+                                         final Map<Long, SummaryAggregate> stored,
+                                         final BigDecimal tolerance) {
+        final List<SummaryDrift> drifts = new ArrayList<>();
+        for (final SummaryAggregate expected : truth.values()) {
+            final SummaryDrift drift = new SummaryDrift(expected, stored.get(expected.releaseId()));
+            if (drift.stored() == null || drift.exceeds(tolerance)) {
+                drifts.add(drift);
+            }
+        }
+        return drifts;
+    }
+
+    private void deleteOrphanSummaries(final MapSqlParameterSource params) {
         final String deleteSql = """
             DELETE FROM release_rating_summary
             WHERE release_id IN (:releaseIds)
@@ -67,18 +213,26 @@ public class AntiEntropyQueryRepository {
               )
             """;
         namedParameterJdbcTemplate.update(deleteSql, params);
+    }
 
+    /**
+     * batch_synced_at 은 Consumer 의 중복 반영 방지 기준이라 배치 시작 시각으로 남기고, updated_at 에는 실제 쓰기 시각을 남긴다.
+     * 긴 Full 재집계가 그 사이 차트 실행의 watermark 보다 늦게 덮어쓴 row 도 다음 incremental publish 가 updated_at 으로 찾는다.
+     */
+    private void upsertFromSourceOfTruth(final MapSqlParameterSource params) {
         final String upsertSql = """
             INSERT INTO release_rating_summary
                 (release_id, weighted_score_sum, weighted_count_sum,
-                 total_rating_count, average_score, batch_synced_at)
+                 total_rating_count, score_sum, average_score, batch_synced_at, updated_at)
             SELECT
                 r.release_id,
                 SUM(r.score * u.weighting_score)   AS weighted_score_sum,
                 SUM(u.weighting_score)              AS weighted_count_sum,
                 COUNT(*)                            AS total_rating_count,
+                SUM(r.score)                        AS score_sum,
                 AVG(r.score)                        AS average_score,
-                :batchSyncedAt
+                :batchSyncedAt,
+                NOW()
             FROM ratings r
             JOIN users u ON r.user_id = u.id
             WHERE r.release_id IN (:releaseIds)
@@ -87,21 +241,121 @@ public class AntiEntropyQueryRepository {
                 weighted_score_sum = VALUES(weighted_score_sum),
                 weighted_count_sum = VALUES(weighted_count_sum),
                 total_rating_count = VALUES(total_rating_count),
+                score_sum          = VALUES(score_sum),
                 average_score      = VALUES(average_score),
-                batch_synced_at    = VALUES(batch_synced_at)
+                batch_synced_at    = VALUES(batch_synced_at),
+                updated_at         = NOW()
             """;
         namedParameterJdbcTemplate.update(upsertSql, params);
     }
 
+    private static Map<Long, SummaryAggregate> toAggregateMap(final Collection<SummaryAggregate> aggregates) {
+        final Map<Long, SummaryAggregate> byReleaseId = new LinkedHashMap<>();
+        for (final SummaryAggregate aggregate : aggregates) {
+            byReleaseId.put(aggregate.releaseId(), aggregate);
+        }
+        return byReleaseId;
+    }
+
     /**
      * release_id 목록을 CHUNK_SIZE 단위로 분할합니다.
      */
     public static List<List<Long>> partition(final List<Long> list) {
+        return partition(list, CHUNK_SIZE);
+    }
+
+    /**
+     * release_id 목록을 chunkSize 단위로 분할합니다. (Incremental 모드의 작은 청크용)
+     */
+    public static List<List<Long>> partition(final List<Long> list, final int chunkSize) {
+        final int size = Math.max(chunkSize, 1);
         final List<List<Long>> partitions = new java.util.ArrayList<>();
-        for (int i = 0; i < list.size(); i += CHUNK_SIZE) {
-            partitions.add(list.subList(i, Math.min(i + CHUNK_SIZE, list.size())));
+        for (int i = 0; i < list.size(); i += size) {
+            partitions.add(list.subList(i, Math.min(i + size, list.size())));
         }
         return partitions;
     }
-}
 
+    /**
+     * release 한 건의 summary 합계 (source-of-truth 또는 저장값).
+     */
+    public record SummaryAggregate(Long releaseId,
+                                   BigDecimal weightedScoreSum,
+                                   BigDecimal weightedCountSum,
+                                   long totalRatingCount,
+                                   BigDecimal scoreSum) {
+
+        static SummaryAggregate from(final java.sql.ResultSet rs) throws java.sql.SQLException {
+            return new SummaryAggregate(
+                    rs.getLong("release_id"),
+                    zeroIfNull(rs.getBigDecimal("weighted_score_sum")),
+                    zeroIfNull(rs.getBigDecimal("weighted_count_sum")),
+                    rs.getLong("total_rating_count"),
+                    zeroIfNull(rs.getBigDecimal("score_sum")));
+        }
+
+        private static BigDecimal zeroIfNull(final BigDecimal value) {
+            return value == null ? BigDecimal.ZERO : value;
+        }
+    }
+
+    /**
+     * source-of-truth 대비 저장값의 차이. stored 가 null 이면 summary row 자체가 없었던 경우다.
+     * 양수 delta 는 저장값이 더 크다는 뜻이다. (at-least-once 중복 반영)
+     */
+    public record SummaryDrift(SummaryAggregate truth, SummaryAggregate stored) {
+
+        public Long releaseId() {
+            return truth.releaseId();
+        }
+
+        public long ratingCountDelta() {
+            return storedOrEmpty().totalRatingCount() - truth.totalRatingCount();
+        }
+
+        public BigDecimal weightedCountDelta() {
+            return storedOrEmpty().weightedCountSum().subtract(truth.weightedCountSum());
+        }
+
+        public BigDecimal weightedScoreDelta() {
+            return storedOrEmpty().weightedScoreSum().subtract(truth.weightedScoreSum());
+        }
+
+        public BigDecimal scoreSumDelta() {
+            return storedOrEmpty().scoreSum().subtract(truth.scoreSum());
+        }
+
+        boolean exceeds(final BigDecimal tolerance) {
+            return weightedScoreDelta().abs().compareTo(tolerance) > 0
+                    || weightedCountDelta().abs().compareTo(tolerance) > 0
+                    || isLiveStatsDrift(tolerance);
+        }
+
+        boolean isLiveStatsDrift(final BigDecimal tolerance) {
+            return ratingCountDelta() != 0 || scoreSumDelta().abs().compareTo(tolerance) > 0;
+        }
+
+        private SummaryAggregate storedOrEmpty() {
+            return stored != null
+                    ? stored
+                    : new SummaryAggregate(truth.releaseId(), BigDecimal.ZERO, BigDecimal.ZERO, 0L, BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * compare-then-write 청크 한 번의 결과.
+     */
+    public record DriftReport(int checkedReleaseCount,
+                              int liveStatsDriftCount,
+                              List<SummaryDrift> drifts,
+                              int orphanDeletedCount) {
+
+        public static DriftReport empty() {
+            return new DriftReport(0, 0, List.of(), 0);
+        }
+
+        public static DriftReport overwritten(final int checkedReleaseCount, final int liveStatsDriftCount) {
+            return new DriftReport(checkedReleaseCount, liveStatsDriftCount, List.of(), 0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hipster.batch.antientropy;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Anti-Entropy Full 재집계 진행 위치.
+ *
+ * lastCompletedReleaseId 는 "이 id 까지의 모든 구간이 완료됨"을 뜻하는 연속 워터마크다.
+ * 병렬 구간이 순서와 다르게 끝나도 앞 구간이 모두 끝난 뒤에만 전진하므로,
+ * 중단된 재집계는 이 id 다음부터 다시 시작하면 된다. (재실행된 구간은 멱등하게 덮어쓴다)
+ */
+@Entity
+@Getter
+@Table(name = "anti_entropy_sweep_checkpoint")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AntiEntropySweepCheckpoint {
+
+    @Id
+    @Column(name = "sweep_name", nullable = false, updatable = false, length = 100)
+    private String sweepName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AntiEntropySweepStatus status;
+
+    @Column(name = "last_completed_release_id")
+    private Long lastCompletedReleaseId;
+
+    @Column(name = "processed_release_count", nullable = false)
+    private long processedReleaseCount;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    private AntiEntropySweepCheckpoint(final String sweepName) {
+        this.sweepName = sweepName;
+        restart();
+    }
+
+    public static AntiEntropySweepCheckpoint start(final String sweepName) {
+        return new AntiEntropySweepCheckpoint(sweepName);
+    }
+
+    public void restart() {
+        status = AntiEntropySweepStatus.RUNNING;
+        lastCompletedReleaseId = null;
+        processedReleaseCount = 0L;
+        startedAt = LocalDateTime.now();
+        completedAt = null;
+    }
+
+    public void resume() {
+        status = AntiEntropySweepStatus.RUNNING;
+    }
+
+    public boolean isCompleted() {
+        return status == AntiEntropySweepStatus.COMPLETED;
+    }
+
+    public long resumeAfterReleaseId() {
+        return lastCompletedReleaseId == null ? 0L : lastCompletedReleaseId;
+    }
+
+    public void advance(final Long completedReleaseId, final int completedReleaseCount) {
+        lastCompletedReleaseId = completedReleaseId;
+        processedReleaseCount += completedReleaseCount;
+    }
+
+    public void markFailed() {
+        status = AntiEntropySweepStatus.FAILED;
+    }
+
+    public void markCompleted() {
+        status = AntiEntropySweepStatus.COMPLETED;
+        completedAt = LocalDateTime.now();
+    }
+}
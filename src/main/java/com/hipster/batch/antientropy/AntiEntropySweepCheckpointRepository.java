@@ -0,0 +1,8 @@
+package com.hipster.batch.antientropy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AntiEntropySweepCheckpointRepository extends JpaRepository<AntiEntropySweepCheckpoint, String> {
+}
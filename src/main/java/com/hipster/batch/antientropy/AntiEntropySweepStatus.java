@@ -0,0 +1,7 @@
+package com.hipster.batch.antientropy;
+
+public enum AntiEntropySweepStatus {
+    RUNNING,
+    FAILED,
+    COMPLETED
+}
@@ -1,14 +1,16 @@
 package com.hipster.batch.chart.config;
 
 import com.hipster.batch.chart.dto.ChartScoreDto;
+import com.hipster.batch.chart.dto.ChartSummaryRow;
 import com.hipster.batch.chart.step.ChartItemProcessor;
-import com.hipster.batch.chart.step.ChartItemReaderConfig;
 import com.hipster.batch.chart.step.ChartItemWriter;
+import com.hipster.batch.chart.step.ChartScoreRangePartitioner;
+import com.hipster.batch.chart.step.ChartSummaryCursorItemReader;
 import com.hipster.chart.config.ChartAlgorithmProperties;
 import com.hipster.chart.publish.service.ChartPublishOrchestratorService;
 import com.hipster.chart.publish.service.ChartPublishStateService;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
-import com.hipster.rating.domain.ReleaseRatingSummary;
+import com.hipster.chart.service.ReleaseChartMetadataService;
 import com.hipster.rating.repository.ReleaseRatingSummaryRepository;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
@@ -21,13 +23,17 @@ import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
-import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static com.hipster.batch.chart.step.ChartItemProcessor.GLOBAL_AVG_KEY;
 
@@ -37,6 +43,8 @@ import static com.hipster.batch.chart.step.ChartItemProcessor.GLOBAL_AVG_KEY;
 public class ChartJobConfig {
 
     private static final int CHUNK_SIZE = 2_000;
+    private static final String METADATA_REFRESH_AFTER_ID_KEY = "releaseMetadataRefreshAfterId";
+    private static final String METADATA_REFRESHED_COUNT_KEY = "releaseMetadataRefreshedCount";
 
     private final JobRepository jobRepository;
     private final EntityManagerFactory entityManagerFactory;
@@ -44,17 +52,34 @@ public class ChartJobConfig {
     private final ChartAlgorithmProperties chartAlgorithmProperties;
     private final ChartPublishOrchestratorService chartPublishOrchestratorService;
     private final ChartPublishStateService chartPublishStateService;
-    private final ChartItemReaderConfig readerConfig;
     private final ChartItemProcessor processor;
     private final ChartItemWriter writer;
-    private final SqlPagingQueryProviderFactoryBean chartQueryProvider;
     private final ChartElasticsearchIndexService chartElasticsearchIndexService;
+    private final ReleaseChartMetadataService releaseChartMetadataService;
+    private final ChartScoreRangePartitioner chartScoreRangePartitioner;
+    @Qualifier("chartItemReader")
+    private final ChartSummaryCursorItemReader chartItemReader;
+    @Qualifier("chartPartitionItemReader")
+    private final ChartSummaryCursorItemReader chartPartitionItemReader;
+    @Qualifier("chartPartitionExecutor")
+    private final ThreadPoolTaskExecutor chartPartitionExecutor;
+
+    @Value("${hipster.batch.chart.partition.enabled:true}")
+    private boolean partitionEnabled;
+
+    @Value("${hipster.batch.chart.partition.grid-size:4}")
+    private int partitionGridSize;
+
+    /** true 면 chartScoreUpdateStep 의 writer 가 청크마다 ES candidate index 에도 바로 색인한다. (단일 패스) */
+    @Value("${hipster.batch.chart.fused-es-indexing.enabled:true}")
+    private boolean fusedEsIndexingEnabled;
 
     @Bean
     public Job chartUpdateJob() throws Exception {
         return new JobBuilder("chartUpdateJob", jobRepository)
                 .start(globalAvgCalculationStep())
                 .next(prepareCandidateVersionStep())
+                .next(releaseMetadataRefreshStep())
                 .next(chartScoreUpdateStep())
                 .next(elasticsearchSyncStep())
                 .next(cacheEvictionStep())
@@ -95,32 +120,110 @@ public class ChartJobConfig {
     @Bean
     public Tasklet prepareCandidateVersionTasklet() {
         return (contribution, chunkContext) -> {
-            final var context = chartPublishOrchestratorService.generateCandidateVersion();
             final var executionContext = chunkContext.getStepContext()
                     .getStepExecution()
                     .getJobExecution()
                     .getExecutionContext();
+            final BigDecimal globalAverage = (BigDecimal) executionContext.get(GLOBAL_AVG_KEY);
+
+            final var plan = chartPublishOrchestratorService.planCandidateVersion(globalAverage);
+            final var context = plan.context();
             executionContext.putString(ChartPublishOrchestratorService.CANDIDATE_VERSION_KEY, context.version());
             executionContext.putString(
                     ChartPublishOrchestratorService.CANDIDATE_LOGICAL_AS_OF_KEY,
                     context.logicalAsOfAt().toString()
             );
+            if (fusedEsIndexingEnabled) {
+                final String esIndexName = chartElasticsearchIndexService.prepareCandidateIndex(context.version(), plan.incremental());
+                executionContext.putString(ChartItemWriter.CANDIDATE_ES_INDEX_KEY, esIndexName);
+            } else {
+                executionContext.remove(ChartItemWriter.CANDIDATE_ES_INDEX_KEY);
+            }
+            if (plan.incremental()) {
+                executionContext.putString(ChartPublishOrchestratorService.CHANGED_SINCE_KEY, plan.changedSince().toString());
+                executionContext.putString(ChartPublishOrchestratorService.SOURCE_WATERMARK_KEY, plan.sourceWatermarkAt().toString());
+            } else {
+                executionContext.remove(ChartPublishOrchestratorService.CHANGED_SINCE_KEY);
+                executionContext.remove(ChartPublishOrchestratorService.SOURCE_WATERMARK_KEY);
+            }
 
             log.info(
-                    "[CHART BATCH] Candidate version prepared. version={}, mysqlStage={}, esIndex={}",
+                    "[CHART BATCH] Candidate version prepared. version={}, mysqlStage={}, esIndex={}, incremental={}, changedSince={}",
                     context.version(),
                     context.candidateMysqlProjectionRef(),
-                    context.candidateEsIndexRef()
+                    context.candidateEsIndexRef(),
+                    plan.incremental(),
+                    plan.changedSince()
             );
             return RepeatStatus.FINISHED;
         };
     }
 
+    /**
+     * chartScoreUpdateStep 의 writer 가 PK 조회만 하도록 release_chart_metadata projection 의 stale 분을 먼저 맞춘다.
+     */
+    @Bean
+    public Step releaseMetadataRefreshStep() {
+        return new StepBuilder("releaseMetadataRefreshStep", jobRepository)
+                .tasklet(releaseMetadataRefreshTasklet(), new JpaTransactionManager(entityManagerFactory))
+                .build();
+    }
+
+    /**
+     * 한 번 호출에 stale release 한 청크만 다시 만들고 CONTINUABLE 을 돌려, 청크마다 tasklet 트랜잭션이 따로 커밋되게 한다.
+     * 진행 위치는 step ExecutionContext 에 남아 실패 후 재시작하면 이어서 따라잡는다.
+     */
+    @Bean
+    public Tasklet releaseMetadataRefreshTasklet() {
+        return (contribution, chunkContext) -> {
+            final var stepContext = chunkContext.getStepContext()
+                    .getStepExecution()
+                    .getExecutionContext();
+            final long afterId = stepContext.getLong(METADATA_REFRESH_AFTER_ID_KEY, 0L);
+            final long refreshedSoFar = stepContext.getLong(METADATA_REFRESHED_COUNT_KEY, 0L);
+
+            final List<Long> refreshedIds = releaseChartMetadataService.refreshStaleChunk(afterId);
+            if (refreshedIds.isEmpty()) {
+                log.info("[CHART BATCH] Release metadata projection refreshed. releases={}", refreshedSoFar);
+                return RepeatStatus.FINISHED;
+            }
+
+            contribution.incrementWriteCount(refreshedIds.size());
+            stepContext.putLong(METADATA_REFRESH_AFTER_ID_KEY, refreshedIds.get(refreshedIds.size() - 1));
+            stepContext.putLong(METADATA_REFRESHED_COUNT_KEY, refreshedSoFar + refreshedIds.size());
+            return RepeatStatus.CONTINUABLE;
+        };
+    }
+
+    /**
+     * 파티션 모드에서는 release_rating_summary 를 id 구간으로 나눠 worker step 들이 chart_scores_stage 에 동시에 쓴다.
+     * 구간끼리 release_id 가 겹치지 않으므로 stage UPSERT 간 row lock 경합이 없다.
+     */
     @Bean
     public Step chartScoreUpdateStep() throws Exception {
+        if (!partitionEnabled) {
+            return new StepBuilder("chartScoreUpdateStep", jobRepository)
+                    .<ChartSummaryRow, ChartScoreDto>chunk(CHUNK_SIZE, new JpaTransactionManager(entityManagerFactory))
+                    .reader(chartItemReader)
+                    .processor(processor)
+                    .writer(writer)
+                    .listener(entityManagerClearListener())
+                    .build();
+        }
+
         return new StepBuilder("chartScoreUpdateStep", jobRepository)
-                .<ReleaseRatingSummary, ChartScoreDto>chunk(CHUNK_SIZE, new JpaTransactionManager(entityManagerFactory))
-                .reader(readerConfig.chartItemReader(chartQueryProvider))
+                .partitioner("chartScoreUpdateWorkerStep", chartScoreRangePartitioner)
+                .step(chartScoreUpdateWorkerStep())
+                .gridSize(partitionGridSize)
+                .taskExecutor(chartPartitionExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step chartScoreUpdateWorkerStep() {
+        return new StepBuilder("chartScoreUpdateWorkerStep", jobRepository)
+                .<ChartSummaryRow, ChartScoreDto>chunk(CHUNK_SIZE, new JpaTransactionManager(entityManagerFactory))
+                .reader(chartPartitionItemReader)
                 .processor(processor)
                 .writer(writer)
                 .listener(entityManagerClearListener())
@@ -152,14 +255,28 @@ public class ChartJobConfig {
     @Bean
     public Tasklet elasticsearchSyncTasklet() {
         return (contribution, chunkContext) -> {
-            final String candidateVersion = chunkContext.getStepContext()
+            final var executionContext = chunkContext.getStepContext()
                     .getStepExecution()
                     .getJobExecution()
-                    .getExecutionContext()
-                    .getString(ChartPublishOrchestratorService.CANDIDATE_VERSION_KEY);
+                    .getExecutionContext();
+            final String candidateVersion = executionContext.getString(ChartPublishOrchestratorService.CANDIDATE_VERSION_KEY);
+
+            if (executionContext.containsKey(ChartItemWriter.CANDIDATE_ES_INDEX_KEY)) {
+                // 단일 패스: 문서는 chartScoreUpdateStep 에서 이미 색인됐으므로 refresh 만 한다.
+                chartElasticsearchIndexService.finalizeCandidateIndex(candidateVersion);
+                log.info("[CHART BATCH] Step 3 completed. fused candidate index finalized, version={}", candidateVersion);
+                return RepeatStatus.FINISHED;
+            }
 
             log.info("[CHART BATCH] Step 3 started. chart_scores_stage -> ES candidate rebuild, version={}", candidateVersion);
-            chartElasticsearchIndexService.rebuildCandidateIndex(candidateVersion, CHUNK_SIZE);
+            if (executionContext.containsKey(ChartPublishOrchestratorService.SOURCE_WATERMARK_KEY)) {
+                // 이월된 row 는 직전 ES index 에 이미 있으므로, 이번 실행에 stage 에 다시 쓴 row 만 색인한다.
+                final LocalDateTime sourceWatermarkAt = LocalDateTime.parse(
+                        executionContext.getString(ChartPublishOrchestratorService.SOURCE_WATERMARK_KEY));
+                chartElasticsearchIndexService.rebuildCandidateIndexIncrementally(candidateVersion, sourceWatermarkAt, CHUNK_SIZE);
+            } else {
+                chartElasticsearchIndexService.rebuildCandidateIndex(candidateVersion, CHUNK_SIZE);
+            }
             log.info("[CHART BATCH] Step 3 completed. candidate ES rebuild complete, version={}", candidateVersion);
             return RepeatStatus.FINISHED;
         };
@@ -1,10 +1,10 @@
 package com.hipster.batch.chart.dto;
 
 import com.hipster.release.domain.ReleaseType;
-import com.hipster.global.domain.Language;
 
 /**
  * Processor → Writer 구간에서 ChartScore 계산 결과를 전달하는 DTO.
+ * 장르/디스크립터는 id 배열, 언어는 ChartFacetCodec 의 bit mask 로 들고 다닌다.
  */
 public record ChartScoreDto(
         Long releaseId,
@@ -13,11 +13,12 @@ public record ChartScoreDto(
         Double effectiveVotes,
         Long totalRatings,
         Boolean isEsoteric,
-        String genreIds,
+        int[] genreIds,
+        int[] primaryGenreIds,
         ReleaseType releaseType,
         Integer releaseYear,
-        String descriptorIds,
+        int[] descriptorIds,
         Long locationId,
-        String languages
+        long languageMask
 ) {
 }
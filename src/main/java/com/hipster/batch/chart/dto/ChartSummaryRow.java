@@ -0,0 +1,16 @@
+package com.hipster.batch.chart.dto;
+
+/**
+ * Reader → Processor 구간에서 release_rating_summary 한 행을 전달하는 DTO.
+ * 점수 계산에 필요한 값만 primitive 로 들고 다니며, JPA 엔티티를 만들지 않는다.
+ *
+ * @param id release_rating_summary.id (재시작 기준 키)
+ */
+public record ChartSummaryRow(
+        long id,
+        long releaseId,
+        long totalRatingCount,
+        double weightedScoreSum,
+        double weightedCountSum
+) {
+}
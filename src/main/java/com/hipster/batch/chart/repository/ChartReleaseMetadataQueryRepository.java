@@ -1,5 +1,6 @@
 package com.hipster.batch.chart.repository;
 
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.release.domain.ReleaseType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -8,61 +9,153 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class ChartReleaseMetadataQueryRepository {
 
+    /**
+     * 원본 테이블에서 release 별 메타데이터를 집계한다. (:releaseIds 로 범위 제한)
+     * 장르/디스크립터는 정수 JSON 배열, 언어는 bit mask 로 만든다. (ChartFacetCodec)
+     */
+    private static final String AGGREGATE_SELECT = """
+            SELECT
+                r.id AS release_id,
+                r.release_type AS release_type,
+                YEAR(r.release_date) AS release_year,
+                r.location_id AS location_id,
+                genre_meta.genre_ids AS genre_ids,
+                primary_genre_meta.primary_genre_ids AS primary_genre_ids,
+                descriptor_meta.descriptor_ids AS descriptor_ids,
+                COALESCE(language_meta.language_mask, 0) AS language_mask,
+                r.updated_at AS source_updated_at
+            FROM releases r
+            LEFT JOIN (
+                SELECT
+                    rg.release_id,
+                    JSON_ARRAYAGG(rg.genre_id) AS genre_ids
+                FROM release_genres rg
+                WHERE rg.release_id IN (:releaseIds)
+                GROUP BY rg.release_id
+            ) genre_meta ON genre_meta.release_id = r.id
+            LEFT JOIN (
+                SELECT
+                    rg.release_id,
+                    JSON_ARRAYAGG(rg.genre_id) AS primary_genre_ids
+                FROM release_genres rg
+                WHERE rg.release_id IN (:releaseIds)
+                  AND rg.is_primary = TRUE
+                GROUP BY rg.release_id
+            ) primary_genre_meta ON primary_genre_meta.release_id = r.id
+            LEFT JOIN (
+                SELECT
+                    rd.release_id,
+                    JSON_ARRAYAGG(rd.descriptor_id) AS descriptor_ids
+                FROM release_descriptors rd
+                WHERE rd.release_id IN (:releaseIds)
+                GROUP BY rd.release_id
+            ) descriptor_meta ON descriptor_meta.release_id = r.id
+            LEFT JOIN (
+                SELECT
+                    rl.release_id,
+                    BIT_OR(1 << %s) AS language_mask
+                FROM release_languages rl
+                WHERE rl.release_id IN (:releaseIds)
+                GROUP BY rl.release_id
+            ) language_meta ON language_meta.release_id = r.id
+            WHERE r.id IN (:releaseIds)
+            """.formatted(ChartFacetCodec.languageOrdinalSql("rl.language"));
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    /**
+     * 원본 테이블을 JSON_ARRAYAGG / BIT_OR 로 직접 집계한다.
+     * projection 에 아직 없는 release 의 fallback 과 projection 갱신의 기준으로 쓴다.
+     */
     public Map<Long, ChartReleaseMetadata> findMetadataByReleaseIds(final Collection<Long> releaseIds) {
         if (releaseIds == null || releaseIds.isEmpty()) {
             return Map.of();
         }
+        return queryMetadata(AGGREGATE_SELECT, releaseIds);
+    }
+
+    /**
+     * release_chart_metadata projection 을 PK 로 조회한다. 집계 없이 row 를 그대로 읽는다.
+     * projection 에 없는 release 는 결과에 포함되지 않는다.
+     */
+    public Map<Long, ChartReleaseMetadata> findProjectedMetadataByReleaseIds(final Collection<Long> releaseIds) {
+        if (releaseIds == null || releaseIds.isEmpty()) {
+            return Map.of();
+        }
 
         final String sql = """
+                SELECT release_id, release_type, release_year, location_id,
+                       genre_ids, primary_genre_ids, descriptor_ids, language_mask
+                FROM release_chart_metadata
+                WHERE release_id IN (:releaseIds)
+                """;
+        return queryMetadata(sql, releaseIds);
+    }
+
+    /**
+     * 주어진 release 들의 projection 을 원본 집계로 다시 만든다. (INSERT ... SELECT 한 문장)
+     *
+     * @return 영향받은 row 수 (MySQL ODKU 기준: 신규 1, 갱신 2, 변경 없음 0)
+     */
+    public int refreshProjection(final Collection<Long> releaseIds) {
+        if (releaseIds == null || releaseIds.isEmpty()) {
+            return 0;
+        }
+
+        final String sql = """
+                INSERT INTO release_chart_metadata (
+                    release_id, release_type, release_year, location_id,
+                    genre_ids, primary_genre_ids, descriptor_ids, language_mask, source_updated_at, refreshed_at
+                )
                 SELECT
-                    r.id AS release_id,
-                    r.release_type AS release_type,
-                    YEAR(r.release_date) AS release_year,
-                    r.location_id AS location_id,
-                    genre_meta.genre_ids AS genre_ids,
-                    descriptor_meta.descriptor_ids AS descriptor_ids,
-                    language_meta.languages AS languages
+                    src.release_id, src.release_type, src.release_year, src.location_id,
+                    src.genre_ids, src.primary_genre_ids, src.descriptor_ids, src.language_mask, src.source_updated_at, NOW(6)
+                FROM (
+                """ + AGGREGATE_SELECT + """
+                ) src
+                ON DUPLICATE KEY UPDATE
+                    release_type      = VALUES(release_type),
+                    release_year      = VALUES(release_year),
+                    location_id       = VALUES(location_id),
+                    genre_ids         = VALUES(genre_ids),
+                    primary_genre_ids = VALUES(primary_genre_ids),
+                    descriptor_ids    = VALUES(descriptor_ids),
+                    language_mask     = VALUES(language_mask),
+                    source_updated_at = VALUES(source_updated_at),
+                    refreshed_at      = VALUES(refreshed_at)
+                """;
+
+        return namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource().addValue("releaseIds", releaseIds));
+    }
+
+    /**
+     * projection 이 없거나 releases.updated_at 과 어긋난 release id 를 id 순으로 limit 만큼 찾는다. (keyset)
+     */
+    public List<Long> findStaleReleaseIds(final long afterId, final int limit) {
+        final String sql = """
+                SELECT r.id
                 FROM releases r
-                LEFT JOIN (
-                    SELECT
-                        rg.release_id,
-                        JSON_ARRAYAGG(
-                            JSON_OBJECT(
-                                'id', rg.genre_id,
-                                'isPrimary', rg.is_primary
-                            )
-                        ) AS genre_ids
-                    FROM release_genres rg
-                    WHERE rg.release_id IN (:releaseIds)
-                    GROUP BY rg.release_id
-                ) genre_meta ON genre_meta.release_id = r.id
-                LEFT JOIN (
-                    SELECT
-                        rd.release_id,
-                        JSON_ARRAYAGG(rd.descriptor_id) AS descriptor_ids
-                    FROM release_descriptors rd
-                    WHERE rd.release_id IN (:releaseIds)
-                    GROUP BY rd.release_id
-                ) descriptor_meta ON descriptor_meta.release_id = r.id
-                LEFT JOIN (
-                    SELECT
-                        rl.release_id,
-                        JSON_ARRAYAGG(rl.language) AS languages
-                    FROM release_languages rl
-                    WHERE rl.release_id IN (:releaseIds)
-                    GROUP BY rl.release_id
-                ) language_meta ON language_meta.release_id = r.id
-                WHERE r.id IN (:releaseIds)
+                LEFT JOIN release_chart_metadata m ON m.release_id = r.id
+                WHERE r.id > :afterId
+                  AND (m.release_id IS NULL OR m.source_updated_at <> r.updated_at)
+                ORDER BY r.id
+                LIMIT :limit
                 """;
 
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return namedParameterJdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    private Map<Long, ChartReleaseMetadata> queryMetadata(final String sql, final Collection<Long> releaseIds) {
         final MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("releaseIds", releaseIds);
 
@@ -76,9 +169,10 @@ public class ChartReleaseMetadataQueryRepository {
                     releaseTypeValue != null ? ReleaseType.valueOf(releaseTypeValue) : null,
                     toInteger(rs.getObject("release_year")),
                     toLong(rs.getObject("location_id")),
-                    rs.getString("genre_ids"),
-                    rs.getString("descriptor_ids"),
-                    rs.getString("languages")
+                    ChartFacetCodec.decodeIds(rs.getString("genre_ids")),
+                    ChartFacetCodec.decodeIds(rs.getString("primary_genre_ids")),
+                    ChartFacetCodec.decodeIds(rs.getString("descriptor_ids")),
+                    rs.getLong("language_mask")
             ));
         });
         return result;
@@ -103,9 +197,10 @@ public class ChartReleaseMetadataQueryRepository {
             ReleaseType releaseType,
             Integer releaseYear,
             Long locationId,
-            String genreIds,
-            String descriptorIds,
-            String languages
+            int[] genreIds,
+            int[] primaryGenreIds,
+            int[] descriptorIds,
+            long languageMask
     ) {
     }
 }
@@ -2,10 +2,12 @@ package com.hipster.batch.chart.repository;
 
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -37,10 +39,10 @@ public class ChartScoreQueryRepository {
                 INSERT INTO %s (
                     release_id, bayesian_score, weighted_avg_rating,
                     effective_votes, total_ratings, is_esoteric,
-                    genre_ids, release_type, release_year, descriptor_ids, location_id, languages,
+                    genre_ids, primary_genre_ids, release_type, release_year, descriptor_ids, location_id, language_mask,
                     last_updated, created_at, updated_at
                 )
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW(), NOW())
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW(), NOW())
                 ON DUPLICATE KEY UPDATE
                     bayesian_score      = VALUES(bayesian_score),
                     weighted_avg_rating = VALUES(weighted_avg_rating),
@@ -48,11 +50,12 @@ public class ChartScoreQueryRepository {
                     total_ratings       = VALUES(total_ratings),
                     is_esoteric         = VALUES(is_esoteric),
                     genre_ids           = VALUES(genre_ids),
+                    primary_genre_ids   = VALUES(primary_genre_ids),
                     release_type        = VALUES(release_type),
                     release_year        = VALUES(release_year),
                     descriptor_ids      = VALUES(descriptor_ids),
                     location_id         = VALUES(location_id),
-                    languages           = VALUES(languages),
+                    language_mask       = VALUES(language_mask),
                     last_updated        = NOW(),
                     updated_at          = NOW()
                 """).formatted(tableName);
@@ -67,6 +70,28 @@ public class ChartScoreQueryRepository {
         jdbcTemplate.execute("TRUNCATE TABLE " + chartPublishProperties.getStageTableName());
     }
 
+    /**
+     * incremental publish: 직전 published projection 을 그대로 stage 로 이월한다.
+     * 이후 writer 의 UPSERT 가 바뀐 release 의 row 만 덮어쓴다.
+     * writer 는 summary 가 있는 release 만 다시 쓰므로, Anti-Entropy 가 summary 를 지운 release 는 이월 직후 stage 에서 뺀다.
+     */
+    public void carryForwardPublishedToStage() {
+        preparePublishStageTable();
+        final String stageTableName = chartPublishProperties.getStageTableName();
+        jdbcTemplate.execute("INSERT INTO " + stageTableName + " SELECT * FROM " + PUBLISHED_TABLE);
+        jdbcTemplate.update("""
+                DELETE s
+                FROM %s s
+                LEFT JOIN release_rating_summary r ON r.release_id = s.release_id
+                WHERE r.release_id IS NULL
+                """.formatted(stageTableName));
+    }
+
+    /** 변경 감지 기준 시각. updated_at 과 같은 DB 시계를 쓰고, NOW() 의 초 단위 값과 비교되도록 초 단위로 자른다. */
+    public LocalDateTime currentDatabaseTime() {
+        return jdbcTemplate.queryForObject("SELECT NOW()", LocalDateTime.class);
+    }
+
     public long countPublishStageRows() {
         final Long count = jdbcTemplate.queryForObject(
                 "SELECT COUNT(*) FROM " + chartPublishProperties.getStageTableName(),
@@ -84,6 +109,16 @@ public class ChartScoreQueryRepository {
         jdbcTemplate.execute("CREATE TABLE " + chartPublishProperties.getStageTableName() + " LIKE " + PUBLISHED_TABLE);
     }
 
+    /** rollback 대상인 이전 published 테이블이 남아 있는지. (스키마 변경 migration 이 prev 를 버렸을 수 있다) */
+    public boolean previousTableExists() {
+        final Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class,
+                chartPublishProperties.getPreviousTableName()
+        );
+        return count != null && count > 0;
+    }
+
     public void rollbackPublishedTable() {
         jdbcTemplate.execute("DROP TABLE IF EXISTS " + FAILED_PUBLISHED_TABLE);
         jdbcTemplate.execute(
@@ -102,11 +137,16 @@ public class ChartScoreQueryRepository {
         ps.setLong(5, dto.totalRatings());
         ps.setBoolean(6, dto.isEsoteric());
 
-        if (dto.genreIds() != null) ps.setString(7, dto.genreIds()); else ps.setNull(7, java.sql.Types.VARCHAR);
-        if (dto.releaseType() != null) ps.setString(8, dto.releaseType().name()); else ps.setNull(8, java.sql.Types.VARCHAR);
-        if (dto.releaseYear() != null) ps.setInt(9, dto.releaseYear()); else ps.setNull(9, java.sql.Types.INTEGER);
-        if (dto.descriptorIds() != null) ps.setString(10, dto.descriptorIds()); else ps.setNull(10, java.sql.Types.VARCHAR);
-        if (dto.locationId() != null) ps.setLong(11, dto.locationId()); else ps.setNull(11, java.sql.Types.BIGINT);
-        if (dto.languages() != null) ps.setString(12, dto.languages()); else ps.setNull(12, java.sql.Types.VARCHAR);
+        setNullableString(ps, 7, ChartFacetCodec.encodeIds(dto.genreIds()));
+        setNullableString(ps, 8, ChartFacetCodec.encodeIds(dto.primaryGenreIds()));
+        if (dto.releaseType() != null) ps.setString(9, dto.releaseType().name()); else ps.setNull(9, java.sql.Types.VARCHAR);
+        if (dto.releaseYear() != null) ps.setInt(10, dto.releaseYear()); else ps.setNull(10, java.sql.Types.INTEGER);
+        setNullableString(ps, 11, ChartFacetCodec.encodeIds(dto.descriptorIds()));
+        if (dto.locationId() != null) ps.setLong(12, dto.locationId()); else ps.setNull(12, java.sql.Types.BIGINT);
+        ps.setLong(13, dto.languageMask());
+    }
+
+    private void setNullableString(final java.sql.PreparedStatement ps, final int index, final String value) throws java.sql.SQLException {
+        if (value != null) ps.setString(index, value); else ps.setNull(index, java.sql.Types.VARCHAR);
     }
 }
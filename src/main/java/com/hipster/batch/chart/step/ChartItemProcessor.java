@@ -1,10 +1,10 @@
 package com.hipster.batch.chart.step;
 
 import com.hipster.batch.chart.dto.ChartScoreDto;
+import com.hipster.batch.chart.dto.ChartSummaryRow;
 import com.hipster.chart.algorithm.BayesianResult;
 import com.hipster.chart.algorithm.BayesianScoreCalculator;
 import com.hipster.chart.config.ChartAlgorithmProperties;
-import com.hipster.rating.domain.ReleaseRatingSummary;
 import org.springframework.lang.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,62 +17,89 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 /**
- * ReleaseRatingSummary 단건을 받아 BayesianScore를 계산하고 ChartScoreDto로 변환.
+ * release_rating_summary 한 행(ChartSummaryRow)을 받아 BayesianScore를 계산하고 ChartScoreDto로 변환.
  * 글로벌 평균 C는 Step 1(Tasklet)이 JobExecutionContext에 저장한 값을 @BeforeStep으로 주입받는다.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ChartItemProcessor implements ItemProcessor<ReleaseRatingSummary, ChartScoreDto> {
+public class ChartItemProcessor implements ItemProcessor<ChartSummaryRow, ChartScoreDto> {
 
     public static final String GLOBAL_AVG_KEY = "globalWeightedAverage";
 
     private final ChartAlgorithmProperties chartAlgorithmProperties;
 
-    private BayesianScoreCalculator calculator;
-    private BigDecimal C;
+    // 파티션 worker 들이 같은 인스턴스를 공유하므로, 각 worker 의 @BeforeStep 이 (같은 값으로) 다시 써도 보이도록 volatile
+    private volatile BayesianScoreCalculator calculator;
+    private volatile BigDecimal C;
+    private volatile double cValue;
+    private volatile boolean decimalMode;
 
     @BeforeStep
     public void beforeStep(final StepExecution stepExecution) {
-        this.C = (BigDecimal) stepExecution.getJobExecution()
+        BigDecimal globalAverage = (BigDecimal) stepExecution.getJobExecution()
                 .getExecutionContext()
                 .get(GLOBAL_AVG_KEY);
 
-        if (this.C == null) {
-            this.C = chartAlgorithmProperties.getGlobalAvgFallback();
-            log.warn("[CHART BATCH] JobExecutionContext에 globalWeightedAverage 없음. 폴백값 사용: {}", this.C);
+        if (globalAverage == null) {
+            globalAverage = chartAlgorithmProperties.getGlobalAvgFallback();
+            log.warn("[CHART BATCH] JobExecutionContext에 globalWeightedAverage 없음. 폴백값 사용: {}", globalAverage);
         }
 
         this.calculator = new BayesianScoreCalculator(
                 chartAlgorithmProperties.getPriorWeightM(),
                 chartAlgorithmProperties.getEsotericMultiplierK()
         );
+        this.C = globalAverage;
+        this.cValue = globalAverage.doubleValue();
+        this.decimalMode = chartAlgorithmProperties.getCalculationMode() == ChartAlgorithmProperties.CalculationMode.DECIMAL;
 
-        log.info("[CHART BATCH] Step 2 시작. 글로벌 가중 평균 C = {}", this.C);
+        log.info("[CHART BATCH] Step 2 시작. step={}, 글로벌 가중 평균 C = {}, mode={}",
+                stepExecution.getStepName(), globalAverage, chartAlgorithmProperties.getCalculationMode());
     }
 
     @Override
-    public ChartScoreDto process(final @NonNull ReleaseRatingSummary summary) {
-        final BayesianResult result = calculator.calculate(
-                summary.getWeightedScoreSum(),
-                summary.getWeightedCountSum(),
-                C
+    public ChartScoreDto process(final @NonNull ChartSummaryRow row) {
+        if (decimalMode) {
+            return processDecimal(row);
+        }
+
+        // fast path: 중간 BigDecimal/BayesianResult 없이 double 로 계산한다
+        final double weightedScoreSum = row.weightedScoreSum();
+        final double weightedCountSum = row.weightedCountSum();
+        final boolean hasVotes = weightedCountSum > 0.0;
+
+        return new ChartScoreDto(
+                row.releaseId(),
+                calculator.calculateScore(weightedScoreSum, weightedCountSum, cValue),
+                hasVotes ? weightedScoreSum / weightedCountSum : 0.0,
+                weightedCountSum,
+                row.totalRatingCount(),
+                weightedCountSum == 0.0 || calculator.isEsoteric(weightedCountSum),
+                null, null, null, null, null, null, 0L
         );
+    }
+
+    /**
+     * 기준 구현(BigDecimal) 경로. DECIMAL(19,4) 컬럼 값은 double 에서 BigDecimal.valueOf 로 그대로 복원된다.
+     */
+    private ChartScoreDto processDecimal(final ChartSummaryRow row) {
+        final BigDecimal weightedScoreSum = BigDecimal.valueOf(row.weightedScoreSum());
+        final BigDecimal weightedCountSum = BigDecimal.valueOf(row.weightedCountSum());
+        final BayesianResult result = calculator.calculate(weightedScoreSum, weightedCountSum, C);
 
-        final double weightedAvgRating = summary.getWeightedCountSum().signum() > 0
-                ? summary.getWeightedScoreSum()
-                        .divide(summary.getWeightedCountSum(), 10, RoundingMode.HALF_UP)
-                        .doubleValue()
+        final double weightedAvgRating = weightedCountSum.signum() > 0
+                ? weightedScoreSum.divide(weightedCountSum, 10, RoundingMode.HALF_UP).doubleValue()
                 : 0.0;
 
         return new ChartScoreDto(
-                summary.getReleaseId(),
+                row.releaseId(),
                 result.score().doubleValue(),
                 weightedAvgRating,
-                summary.getWeightedCountSum().doubleValue(),
-                summary.getTotalRatingCount(),
+                row.weightedCountSum(),
+                row.totalRatingCount(),
                 result.isEsoteric(),
-                null, null, null, null, null, null
+                null, null, null, null, null, null, 0L
         );
     }
 }
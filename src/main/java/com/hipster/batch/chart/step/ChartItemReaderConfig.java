@@ -1,56 +1,53 @@
 package com.hipster.batch.chart.step;
 
-import com.hipster.rating.domain.ReleaseRatingSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.RowMapper;
 
 import javax.sql.DataSource;
+import java.time.LocalDateTime;
 
 @Configuration
 @RequiredArgsConstructor
 public class ChartItemReaderConfig {
-    private static final int FETCH_SIZE = 2000;
 
     private final DataSource dataSource;
 
+    @Value("${hipster.batch.chart.reader.fetch-size:2000}")
+    private int fetchSize;
+
+    /**
+     * 단일 step 모드 reader. release_rating_summary 를 id 순으로 읽는다. (incremental publish 면 바뀐 행만)
+     * step scope 로 두어 재실행마다 cursor 와 lastId 를 새로 잡는다.
+     */
     @Bean
-    public org.springframework.batch.item.database.JdbcPagingItemReader<ReleaseRatingSummary> chartItemReader(
-            org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean queryProvider
-    ) throws Exception {
-        return new org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder<ReleaseRatingSummary>()
-                .fetchSize(FETCH_SIZE)
-                .pageSize(FETCH_SIZE)
-                .dataSource(dataSource)
-                .rowMapper(releaseRatingSummaryRowMapper())
-                .queryProvider(queryProvider.getObject())
-                .name("chartItemReader")
-                .build();
+    @StepScope
+    public ChartSummaryCursorItemReader chartItemReader(
+            @Value("#{jobExecutionContext['chartPublishChangedSince']}") final String changedSince
+    ) {
+        return new ChartSummaryCursorItemReader(
+                dataSource, "chartItemReader", 0L, Long.MAX_VALUE, fetchSize, parseChangedSince(changedSince));
     }
 
+    /**
+     * 파티션 worker 전용 reader. ChartScoreRangePartitioner 가 배분한 id 구간만 읽는다.
+     * worker 마다 step scope 인스턴스가 따로 만들어지므로 reader 상태를 스레드 간에 공유하지 않는다.
+     */
     @Bean
-    public org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean chartQueryProvider() {
-        org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean factory = new org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean();
-        factory.setDataSource(dataSource);
-        factory.setSelectClause("SELECT id, release_id, total_rating_count, average_score, weighted_score_sum, weighted_count_sum, batch_synced_at, updated_at");
-        factory.setFromClause("FROM release_rating_summary");
-        factory.setSortKey("id");
-        return factory;
+    @StepScope
+    public ChartSummaryCursorItemReader chartPartitionItemReader(
+            @Value("#{stepExecutionContext['minId']}") final Long minId,
+            @Value("#{stepExecutionContext['maxId']}") final Long maxId,
+            @Value("#{jobExecutionContext['chartPublishChangedSince']}") final String changedSince
+    ) {
+        return new ChartSummaryCursorItemReader(
+                dataSource, "chartPartitionItemReader", minId, maxId, fetchSize, parseChangedSince(changedSince));
     }
 
-    private RowMapper<ReleaseRatingSummary> releaseRatingSummaryRowMapper() {
-        return (rs, rowNum) -> {
-            ReleaseRatingSummary summary = new ReleaseRatingSummary(
-                    rs.getLong("release_id")
-            );
-            summary.recalculate(
-                    rs.getLong("total_rating_count"),
-                    rs.getDouble("average_score"),
-                    rs.getBigDecimal("weighted_score_sum"),
-                    rs.getBigDecimal("weighted_count_sum")
-            );
-            return summary;
-        };
+    /** incremental publish 면 prepareCandidateVersionStep 이 job context 에 변경 감지 기준 시각을 남긴다. */
+    private static LocalDateTime parseChangedSince(final String changedSince) {
+        return changedSince == null ? null : LocalDateTime.parse(changedSince);
     }
 }
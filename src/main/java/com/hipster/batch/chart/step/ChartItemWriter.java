@@ -3,25 +3,51 @@ package com.hipster.batch.chart.step;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartReleaseMetadataQueryRepository;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
+import com.hipster.chart.service.ChartElasticsearchIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ChartItemWriter implements ItemWriter<ChartScoreDto> {
 
+    /** fused 모드에서 prepareCandidateVersionStep 이 job context 에 남기는 candidate ES index 이름 */
+    public static final String CANDIDATE_ES_INDEX_KEY = "chartCandidateEsIndex";
+
     private final ChartScoreQueryRepository chartScoreQueryRepository;
     private final ChartReleaseMetadataQueryRepository chartReleaseMetadataQueryRepository;
+    private final ChartElasticsearchIndexService chartElasticsearchIndexService;
+    @Qualifier("chartEsIndexExecutor")
+    private final ThreadPoolTaskExecutor chartEsIndexExecutor;
+
+    // 파티션 worker 들이 같은 인스턴스를 공유하므로 volatile. null 이면 ES 는 elasticsearchSyncStep 이 따로 채운다.
+    private volatile String candidateEsIndexName;
+
+    @BeforeStep
+    public void beforeStep(final StepExecution stepExecution) {
+        final ExecutionContext jobContext = stepExecution.getJobExecution().getExecutionContext();
+        this.candidateEsIndexName = jobContext.containsKey(CANDIDATE_ES_INDEX_KEY)
+                ? jobContext.getString(CANDIDATE_ES_INDEX_KEY)
+                : null;
+    }
 
     @Override
     public void write(final @NonNull Chunk<? extends ChartScoreDto> chunk) {
@@ -31,7 +57,7 @@ public class ChartItemWriter implements ItemWriter<ChartScoreDto> {
     public WriteBreakdown writeWithBreakdown(final @NonNull Chunk<? extends ChartScoreDto> chunk) {
         final List<ChartScoreDto> items = new ArrayList<>(chunk.getItems());
         if (items.isEmpty()) {
-            return new WriteBreakdown(0, 0, 0, 0);
+            return new WriteBreakdown(0, 0, 0, 0, 0);
         }
 
         final List<Long> releaseIds = items.stream()
@@ -40,7 +66,7 @@ public class ChartItemWriter implements ItemWriter<ChartScoreDto> {
 
         final long metadataFetchStart = System.nanoTime();
         final Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> releaseMetadataMap =
-                chartReleaseMetadataQueryRepository.findMetadataByReleaseIds(releaseIds);
+                findReleaseMetadata(releaseIds);
         final long metadataFetchMillis = Duration.ofNanos(System.nanoTime() - metadataFetchStart).toMillis();
 
         final long serializationStart = System.nanoTime();
@@ -49,23 +75,72 @@ public class ChartItemWriter implements ItemWriter<ChartScoreDto> {
                 .toList();
         final long serializationMillis = Duration.ofNanos(System.nanoTime() - serializationStart).toMillis();
 
+        // fused 모드: 같은 청크를 ES 에 색인하는 작업을 별도 스레드에서 UPSERT 와 겹쳐 실행한다.
+        final String esIndexName = this.candidateEsIndexName;
+        final CompletableFuture<Void> esIndexing = esIndexName == null
+                ? null
+                : CompletableFuture.runAsync(
+                        () -> chartElasticsearchIndexService.indexChartScores(esIndexName, enrichedItems),
+                        chartEsIndexExecutor);
+
         final long upsertStart = System.nanoTime();
         chartScoreQueryRepository.bulkUpsertPublishStageChartScores(enrichedItems);
         final long upsertMillis = Duration.ofNanos(System.nanoTime() - upsertStart).toMillis();
 
-        log.debug("[CHART BATCH] chunk={} metadata={}ms serialization={}ms upsert={}ms",
-                enrichedItems.size(), metadataFetchMillis, serializationMillis, upsertMillis);
+        final long esWaitStart = System.nanoTime();
+        awaitEsIndexing(esIndexing);
+        final long esIndexWaitMillis = Duration.ofNanos(System.nanoTime() - esWaitStart).toMillis();
+
+        log.debug("[CHART BATCH] chunk={} metadata={}ms serialization={}ms upsert={}ms esWait={}ms",
+                enrichedItems.size(), metadataFetchMillis, serializationMillis, upsertMillis, esIndexWaitMillis);
 
         return new WriteBreakdown(
                 enrichedItems.size(),
                 metadataFetchMillis,
                 serializationMillis,
-                upsertMillis
+                upsertMillis,
+                esIndexWaitMillis
         );
     }
 
-    private ChartScoreDto enrich(final ChartScoreDto dto,
-                                 final Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> releaseMetadataMap) {
+    /** ES 색인이 실패하면 청크 트랜잭션도 실패시켜 stage 와 candidate index 가 어긋난 채 진행되지 않게 한다. */
+    private static void awaitEsIndexing(final CompletableFuture<Void> esIndexing) {
+        if (esIndexing == null) {
+            return;
+        }
+        try {
+            esIndexing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * release_chart_metadata projection 을 PK 로 읽고, projection 에 없는 release 만 원본 집계로 보충한다.
+     * projection 은 chartJob 의 releaseMetadataRefreshStep 이 이번 실행 전에 맞춰 둔다.
+     */
+    private Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> findReleaseMetadata(final List<Long> releaseIds) {
+        final Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> projected =
+                chartReleaseMetadataQueryRepository.findProjectedMetadataByReleaseIds(releaseIds);
+        if (projected.size() == releaseIds.size()) {
+            return projected;
+        }
+
+        final List<Long> missingIds = releaseIds.stream()
+                .filter(releaseId -> !projected.containsKey(releaseId))
+                .toList();
+        final Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> merged = new HashMap<>(projected);
+        merged.putAll(chartReleaseMetadataQueryRepository.findMetadataByReleaseIds(missingIds));
+        log.debug("[CHART BATCH] release metadata projection miss={}", missingIds.size());
+        return merged;
+    }
+
+    // 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+    static ChartScoreDto enrich(final ChartScoreDto dto,
+                                final Map<Long, ChartReleaseMetadataQueryRepository.ChartReleaseMetadata> releaseMetadataMap) {
         final ChartReleaseMetadataQueryRepository.ChartReleaseMetadata metadata = releaseMetadataMap.get(dto.releaseId());
         if (metadata == null) {
             return dto;
@@ -79,22 +154,27 @@ public class ChartItemWriter implements ItemWriter<ChartScoreDto> {
                 dto.totalRatings(),
                 dto.isEsoteric(),
                 metadata.genreIds(),
+                metadata.primaryGenreIds(),
                 metadata.releaseType(),
                 metadata.releaseYear(),
                 metadata.descriptorIds(),
                 metadata.locationId(),
-                metadata.languages()
+                metadata.languageMask()
         );
     }
 
+    /**
+     * @param esIndexWaitMillis UPSERT 이후 ES 색인 완료를 추가로 기다린 시간 (겹쳐 실행된 구간은 포함하지 않음)
+     */
     public record WriteBreakdown(
             int itemCount,
             long metadataFetchMillis,
             long serializationMillis,
-            long upsertMillis
+            long upsertMillis,
+            long esIndexWaitMillis
     ) {
         public long totalMillis() {
-            return metadataFetchMillis + serializationMillis + upsertMillis;
+            return metadataFetchMillis + serializationMillis + upsertMillis + esIndexWaitMillis;
         }
     }
 }
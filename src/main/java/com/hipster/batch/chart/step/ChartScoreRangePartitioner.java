@@ -0,0 +1,74 @@
+package com.hipster.batch.chart.step;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * release_rating_summary 를 id 구간으로 나눠 chartScoreUpdateStep worker 에게 배분한다.
+ * id 는 AUTO_INCREMENT 라 구간 길이를 균등하게 자르면 worker 별 처리량도 거의 균등해진다.
+ * 각 구간은 [minId, maxId] 닫힌 구간이며 서로 겹치지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChartScoreRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+    public static final String PARTITION_PREFIX = "partition";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, ExecutionContext> partition(final int gridSize) {
+        final Map<String, Long> bounds = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM release_rating_summary",
+                (rs, rowNum) -> {
+                    final Map<String, Long> row = new LinkedHashMap<>();
+                    row.put(MIN_ID_KEY, rs.getObject("min_id") == null ? null : rs.getLong("min_id"));
+                    row.put(MAX_ID_KEY, rs.getObject("max_id") == null ? null : rs.getLong("max_id"));
+                    return row;
+                });
+
+        final Long minId = bounds == null ? null : bounds.get(MIN_ID_KEY);
+        final Long maxId = bounds == null ? null : bounds.get(MAX_ID_KEY);
+        final Map<String, ExecutionContext> partitions = split(minId, maxId, gridSize);
+        log.info("[CHART BATCH] chart score partitions prepared. minId={}, maxId={}, partitions={}", minId, maxId, partitions.size());
+        return partitions;
+    }
+
+    static Map<String, ExecutionContext> split(final Long minId, final Long maxId, final int gridSize) {
+        final Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (minId == null || maxId == null) {
+            // 빈 테이블: 아무것도 읽지 않는 구간 하나로 worker step 흐름은 그대로 유지한다
+            partitions.put(PARTITION_PREFIX + 0, range(1L, 0L));
+            return partitions;
+        }
+
+        final long span = maxId - minId + 1;
+        final int partitionCount = (int) Math.max(1, Math.min(gridSize, span));
+        final long rangeSize = (span + partitionCount - 1) / partitionCount;
+
+        long start = minId;
+        for (int i = 0; i < partitionCount && start <= maxId; i++) {
+            final long end = Math.min(start + rangeSize - 1, maxId);
+            partitions.put(PARTITION_PREFIX + i, range(start, end));
+            start = end + 1;
+        }
+        return partitions;
+    }
+
+    private static ExecutionContext range(final long minId, final long maxId) {
+        final ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID_KEY, minId);
+        context.putLong(MAX_ID_KEY, maxId);
+        return context;
+    }
+}
@@ -0,0 +1,118 @@
+package com.hipster.batch.chart.step;
+
+import com.hipster.batch.chart.dto.ChartSummaryRow;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * release_rating_summary 를 id 순으로 한 번만 훑는 forward-only cursor reader.
+ *
+ * 페이지마다 정렬 쿼리를 다시 계획하는 JdbcPagingItemReader 대신, 커넥션 하나로 결과를 fetchSize 단위로 흘려받는다.
+ * (MySQL 은 jdbc-url 의 useCursorFetch=true 일 때 서버 cursor 로 fetchSize 만큼씩 가져온다)
+ *
+ * 재시작은 읽은 행 수가 아니라 마지막으로 커밋된 id 를 기준으로 한다.
+ * 기본 cursor reader 처럼 이미 처리한 행을 다시 읽어 건너뛰지 않고, {@code id > lastId} 로 바로 이어서 연다.
+ */
+public class ChartSummaryCursorItemReader extends JdbcCursorItemReader<ChartSummaryRow> {
+
+    public static final String LAST_ID_KEY = "lastId";
+
+    private static final String SQL =
+            "SELECT id, release_id, total_rating_count, weighted_score_sum, weighted_count_sum "
+                    + "FROM release_rating_summary "
+                    + "WHERE id > ? AND id <= ? "
+                    + "ORDER BY id";
+
+    /** incremental publish: summary 가 바뀌었거나 release 메타데이터 projection 이 다시 만들어진 행만 읽는다. */
+    private static final String CHANGED_SINCE_SQL =
+            "SELECT s.id, s.release_id, s.total_rating_count, s.weighted_score_sum, s.weighted_count_sum "
+                    + "FROM release_rating_summary s "
+                    + "WHERE s.id > ? AND s.id <= ? "
+                    + "AND (s.updated_at > ? OR s.batch_synced_at > ? "
+                    + "OR EXISTS (SELECT 1 FROM release_chart_metadata m WHERE m.release_id = s.release_id AND m.refreshed_at > ?)) "
+                    + "ORDER BY s.id";
+
+    private final long maxId;
+    private long lastReadId;
+
+    public ChartSummaryCursorItemReader(final DataSource dataSource,
+                                        final String name,
+                                        final long minId,
+                                        final long maxId,
+                                        final int fetchSize) {
+        this(dataSource, name, minId, maxId, fetchSize, null);
+    }
+
+    /**
+     * @param minId        읽기 시작 id (포함)
+     * @param maxId        읽기 종료 id (포함)
+     * @param changedSince null 이 아니면 이 시각 이후 입력이 바뀐 행만 읽는다 (incremental publish)
+     */
+    public ChartSummaryCursorItemReader(final DataSource dataSource,
+                                        final String name,
+                                        final long minId,
+                                        final long maxId,
+                                        final int fetchSize,
+                                        final LocalDateTime changedSince) {
+        this.maxId = maxId;
+        this.lastReadId = minId - 1;
+
+        setName(name);
+        setDataSource(dataSource);
+        setSql(changedSince == null ? SQL : CHANGED_SINCE_SQL);
+        setFetchSize(fetchSize);
+        setRowMapper((rs, rowNum) -> new ChartSummaryRow(
+                rs.getLong("id"),
+                rs.getLong("release_id"),
+                rs.getLong("total_rating_count"),
+                rs.getDouble("weighted_score_sum"),
+                rs.getDouble("weighted_count_sum")
+        ));
+        setPreparedStatementSetter(ps -> {
+            ps.setLong(1, lastReadId);
+            ps.setLong(2, this.maxId);
+            if (changedSince != null) {
+                final Timestamp since = Timestamp.valueOf(changedSince);
+                ps.setTimestamp(3, since);
+                ps.setTimestamp(4, since);
+                ps.setTimestamp(5, since);
+            }
+        });
+        // 행 수 기반 재시작(jumpToItem)은 쓰지 않고 LAST_ID_KEY 만 저장한다.
+        setSaveState(false);
+    }
+
+    @Override
+    public void open(final ExecutionContext executionContext) throws ItemStreamException {
+        final String lastIdKey = getExecutionContextKey(LAST_ID_KEY);
+        if (executionContext.containsKey(lastIdKey)) {
+            lastReadId = executionContext.getLong(lastIdKey);
+        }
+        super.open(executionContext);
+    }
+
+    @Override
+    public ChartSummaryRow read() throws Exception {
+        final ChartSummaryRow row = super.read();
+        if (row != null) {
+            lastReadId = row.id();
+        }
+        return row;
+    }
+
+    /** 청크 커밋 직전에 호출되므로, 저장되는 lastId 는 해당 청크의 마지막 행과 같다. */
+    @Override
+    public void update(final ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        executionContext.putLong(getExecutionContextKey(LAST_ID_KEY), lastReadId);
+    }
+
+    long getLastReadId() {
+        return lastReadId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hipster.batch.ui;
 
+import com.hipster.batch.antientropy.AntiEntropyBatchJob;
 import com.hipster.user.service.UserWeightingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class TestBatchController {
     private final Job weightingRecalculationJob;
     @Qualifier("chartUpdateJob")
     private final Job chartUpdateJob;
+    private final AntiEntropyBatchJob antiEntropyBatchJob;
 
     @PostMapping("/trigger")
     public ResponseEntity<String> triggerBatch() {
@@ -67,6 +69,16 @@ public class TestBatchController {
 
         return ResponseEntity.ok("Chart Batch Triggered and Completed in " + duration + " ms.");
     }
-}
 
+    @PostMapping("/trigger/anti-entropy")
+    public ResponseEntity<String> triggerAntiEntropyFull() {
+        log.info("Manual trigger for anti-entropy full sweep started.");
+
+        long startTime = System.currentTimeMillis();
+        antiEntropyBatchJob.runAntiEntropyFull();
+        long duration = System.currentTimeMillis() - startTime;
 
+        log.info("Anti-entropy full sweep finished in {} ms", duration);
+        return ResponseEntity.ok("Anti-Entropy Full Sweep Triggered and Completed in " + duration + " ms.");
+    }
+}
@@ -3,6 +3,7 @@ package com.hipster.batch.weighting.step;
 import com.hipster.batch.weighting.step.WeightingCalculator;
 import com.hipster.batch.weighting.dto.UserWeightingStatsDto;
 import com.hipster.batch.weighting.repository.WeightingStatsQueryRepository;
+import com.hipster.rating.service.RatingReferenceCache;
 
 import com.hipster.user.domain.User;
 import com.hipster.user.domain.UserWeightStats;
@@ -29,6 +30,7 @@ public class WeightingItemWriter implements ItemWriter<User> {
 
 
     private final WeightingStatsQueryRepository queryRepository;
+    private final RatingReferenceCache ratingReferenceCache;
     private final WeightingCalculator calculator = new WeightingCalculator();
 
     @Override
@@ -67,6 +69,9 @@ public class WeightingItemWriter implements ItemWriter<User> {
         // 4. Summary Table 벌크 Upsert (JdbcTemplate Batch Update)
         queryRepository.bulkUpsertUserWeightStats(weightStatsList);
 
+        // 5. 평점 쓰기 경로 near-cache 의 가중치를 청크 커밋 직후 무효화
+        ratingReferenceCache.evictUsers(userIds);
+
 
 
         logHeapUsage("청크 완료 (" + users.size() + "명)");
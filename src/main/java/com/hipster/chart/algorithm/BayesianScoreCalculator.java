@@ -12,6 +12,9 @@ import java.math.RoundingMode;
  * isEsoteric = weightedCountSum < m * k
  * </pre>
  *
+ * BigDecimal(scale 10) 경로가 기준 구현이며, 배치 hot path 용으로 할당 없는 double 경로를 함께 제공한다.
+ * 두 경로의 차이는 BayesianScoreCalculatorTest 가 MAX_DOUBLE_PATH_DEVIATION 이내로 검증한다.
+ *
  * @param m 사전 가중치 (Prior Weight) — 전체 통계에 수렴시키는 강도
  * @param k is_esoteric 판정 배수. weightedCountSum < m*k 이면 esoteric
  */
@@ -19,12 +22,19 @@ public class BayesianScoreCalculator {
 
     private static final int SCORE_SCALE = 10;
 
+    /** double 경로와 BigDecimal 경로의 허용 오차. 공개 점수 정밀도(scale 10)의 반올림 단위 수준. */
+    public static final double MAX_DOUBLE_PATH_DEVIATION = 1e-9;
+
     private final BigDecimal m;
     private final BigDecimal k;
+    private final double mValue;
+    private final double esotericThreshold;
 
     public BayesianScoreCalculator(BigDecimal m, BigDecimal k) {
         this.m = m;
         this.k = k;
+        this.mValue = m.doubleValue();
+        this.esotericThreshold = m.multiply(k).doubleValue();
     }
 
     /**
@@ -49,4 +59,24 @@ public class BayesianScoreCalculator {
 
         return new BayesianResult(score, isEsoteric);
     }
+
+    /**
+     * calculate 와 같은 식을 double 로 계산한다. 객체를 만들지 않는다.
+     *
+     * @param c 글로벌 가중 평균 (double)
+     * @return 베이지안 점수. 투표 수가 0이면 c
+     */
+    public double calculateScore(double weightedScoreSum, double weightedCountSum, double c) {
+        if (weightedCountSum == 0.0) {
+            return c;
+        }
+        return (c * mValue + weightedScoreSum) / (mValue + weightedCountSum);
+    }
+
+    /**
+     * calculate 의 isEsoteric 판정을 double 로 수행한다. (weightedCountSum < m * k)
+     */
+    public boolean isEsoteric(double weightedCountSum) {
+        return weightedCountSum < esotericThreshold;
+    }
 }
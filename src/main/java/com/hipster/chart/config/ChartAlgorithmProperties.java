@@ -16,6 +16,7 @@ import java.math.BigDecimal;
  *     prior-weight-m: 50.0   # 사전 가중치 — 전체 평균으로 수렴시키는 강도
  *     esoteric-multiplier-k: 1.0  # is_esoteric 판정 배수 (weightedCountSum < m * k)
  *     global-avg-fallback: 3.0    # 평점 데이터 없을 때 C 폴백값
+ *     calculation-mode: DOUBLE    # 배치 점수 계산 경로 (DOUBLE: 할당 없는 fast path, DECIMAL: BigDecimal 기준 구현)
  * </pre>
  */
 @Getter
@@ -32,4 +33,14 @@ public class ChartAlgorithmProperties {
 
     /** 평점 데이터가 전혀 없을 때 C(글로벌 가중 평균) 폴백값. */
     private BigDecimal globalAvgFallback = BigDecimal.valueOf(3.0);
+
+    /** 차트 배치 점수 계산 경로. DECIMAL 과의 차이는 BayesianScoreCalculator.MAX_DOUBLE_PATH_DEVIATION 이내. */
+    private CalculationMode calculationMode = CalculationMode.DOUBLE;
+
+    public enum CalculationMode {
+        /** BigDecimal(scale 10) 기준 구현 */
+        DECIMAL,
+        /** double 정밀도 fast path */
+        DOUBLE
+    }
 }
@@ -0,0 +1,69 @@
+package com.hipster.chart.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 차트 candidate index 의 적재(load) / 서비스(serve) 설정.
+ *
+ * 적재 중에는 replica, refresh, fsync 를 모두 끄고, alias 전환 전에 segment 병합 → serve 설정 복원
+ * → health 대기 → warm-up 순서로 조회용 상태를 만든다.
+ *
+ * <pre>
+ * chart:
+ *   search:
+ *     index-lifecycle:
+ *       load:
+ *         number-of-shards: 1
+ *         refresh-interval: -1
+ *         translog-durability: async
+ *       serve:
+ *         number-of-replicas: 0        # 운영 클러스터에서는 1 이상
+ *         refresh-interval: 1s
+ *         translog-durability: request
+ *         force-merge-max-segments: 1  # 0 이면 병합하지 않는다
+ *         wait-for-status: green
+ *         wait-for-status-timeout: 300s
+ *         warmup-enabled: true
+ *         warmup-page-size: 20
+ * </pre>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "chart.search.index-lifecycle")
+public class ChartIndexLifecycleProperties {
+
+    private Load load = new Load();
+    private Serve serve = new Serve();
+
+    @Getter
+    @Setter
+    public static class Load {
+
+        private int numberOfShards = 1;
+        private String refreshInterval = "-1";
+        private String translogDurability = "async";
+        private int maxResultWindow = 50_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Serve {
+
+        private int numberOfReplicas = 0;
+        private String refreshInterval = "1s";
+        private String translogDurability = "request";
+        private int forceMergeMaxSegments = 1;
+
+        /** alias 전환 전에 기다릴 index health. (green / yellow) */
+        private String waitForStatus = "green";
+        private String waitForStatusTimeout = "300s";
+
+        /** 차트 조회와 같은 모양의 쿼리로 cache / segment 를 미리 데운다. */
+        private boolean warmupEnabled = true;
+        private int warmupPageSize = 20;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
 @Component
@@ -16,12 +18,38 @@ public class ChartPublishProperties {
     private String stageTableName = "chart_scores_stage";
     private String previousTableName = "chart_scores_prev";
     private String publishedVersionCacheKey = "chart-meta:published-version:v1";
+
+    /** published version 을 Redis 에서 다시 읽기 전까지 노드 로컬로 재사용하는 시간. 0 이면 매번 Redis 를 읽는다. */
+    private long publishedVersionLocalTtlMillis = 1000;
     private String aliasName;
 
+    /**
+     * FULL: 매번 stage 를 비우고 전체 release 를 다시 계산한다.
+     * INCREMENTAL: 직전 published projection 을 stage 로 이월하고, 입력이 바뀐 release 만 다시 계산한다.
+     */
+    private PublishMode mode = PublishMode.FULL;
+    private Incremental incremental = new Incremental();
+
     public String resolveAliasName(final String baseIndexName) {
         if (StringUtils.hasText(aliasName)) {
             return aliasName;
         }
         return baseIndexName + "_published";
     }
+
+    public enum PublishMode {
+        FULL,
+        INCREMENTAL
+    }
+
+    @Getter
+    @Setter
+    public static class Incremental {
+
+        /** 글로벌 평균 C 가 직전 publish 대비 이만큼 넘게 움직이면 전체 release 를 다시 계산한다. */
+        private BigDecimal globalAverageRescoreThreshold = new BigDecimal("0.01");
+
+        /** 변경 감지 기준 시각을 이만큼 앞당겨 경계 시점의 변경 누락을 막는다. (중복 재계산은 멱등) */
+        private long watermarkOverlapSeconds = 60;
+    }
 }
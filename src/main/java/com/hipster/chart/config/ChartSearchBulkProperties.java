@@ -0,0 +1,35 @@
+package com.hipster.chart.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 차트 ES candidate index 색인용 bulk ingestion 설정.
+ *
+ * <pre>
+ * chart:
+ *   search:
+ *     bulk:
+ *       max-in-flight-requests: 4   # 동시에 ES 로 나가는 bulk 요청 수. 다 차면 생산자(MySQL 읽기/청크 writer)가 기다린다
+ *       max-actions: 2000           # bulk 1건당 최대 문서 수
+ *       max-bytes: 5242880          # bulk 1건당 최대 본문 크기 (문서 JSON 기준 추정치)
+ *       max-retries: 5              # 429(es_rejected_execution) 문서 재시도 횟수
+ *       initial-backoff-millis: 100 # 재시도 대기 시간. 시도마다 2배씩 늘린다
+ *       max-backoff-millis: 5000
+ * </pre>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "chart.search.bulk")
+public class ChartSearchBulkProperties {
+
+    private int maxInFlightRequests = 4;
+    private int maxActions = 2_000;
+    private long maxBytes = 5L * 1024 * 1024;
+    private int maxRetries = 5;
+    private long initialBackoffMillis = 100;
+    private long maxBackoffMillis = 5_000;
+}
@@ -1,13 +1,16 @@
 package com.hipster.chart.controller;
 
 import com.hipster.chart.dto.request.ChartFilterRequest;
-import com.hipster.chart.dto.response.TopChartResponse;
+import com.hipster.chart.dto.response.ChartPayload;
 import com.hipster.chart.service.ChartService;
-import com.hipster.global.dto.response.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,12 +22,50 @@ public class ChartController {
 
     private final ChartService chartService;
 
+    /**
+     * 응답 본문은 ApiResponse&lt;TopChartResponse&gt; JSON 이며, 캐시된 바이트를 그대로 내려보낸다.
+     * Accept-Encoding 에 gzip 이 있으면 미리 압축해 둔 본문을, If-None-Match 가 일치하면 304 를 돌려준다.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<TopChartResponse>> getCharts(
+    public ResponseEntity<byte[]> getCharts(
             @ModelAttribute final ChartFilterRequest filter,
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "20") final int size) {
-        final TopChartResponse response = chartService.getCharts(filter, page, size);
-        return ResponseEntity.ok(ApiResponse.ok(response));
+            @RequestParam(defaultValue = "20") final int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        final ChartPayload payload = chartService.getChartPayload(filter, page, size);
+        final boolean gzip = payload.hasGzipBody() && acceptsGzip(acceptEncoding);
+        final String etag = gzip ? payload.gzipEtag() : payload.etag();
+
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzipBody());
+        }
+        return builder.body(payload.body());
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            // gzip;q=0 은 거부 의사
+            return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
     }
 }
@@ -0,0 +1,132 @@
+package com.hipster.chart.domain;
+
+import com.hipster.global.domain.Language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * chart_scores / release_chart_metadata 의 필터용 컬럼 인코딩.
+ *
+ * - 장르/대표 장르/디스크립터: 정수만 담은 JSON 배열("[12,40]"). MySQL multi-valued index 대상이며,
+ *   Jackson 없이 아래 decodeIds 로 바로 int[] 로 읽는다. 비어 있으면 NULL 로 저장한다.
+ * - 언어: Language.ordinal() 을 bit 위치로 쓰는 BIGINT mask. 새 언어는 enum 의 맨 끝에만 추가해야 한다.
+ */
+public final class ChartFacetCodec {
+
+    public static final int[] EMPTY_IDS = new int[0];
+
+    private static final Language[] LANGUAGES = Language.values();
+
+    private ChartFacetCodec() {
+    }
+
+    public static String encodeIds(final int[] ids) {
+        if (ids == null || ids.length == 0) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder(ids.length * 4 + 2).append('[');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(ids[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * MySQL 이 돌려주는 "[12, 40]" 형태(공백 포함)도 읽는다. 숫자가 아닌 문자는 구분자로 취급한다.
+     */
+    public static int[] decodeIds(final String encoded) {
+        if (encoded == null || encoded.length() <= 2) {
+            return EMPTY_IDS;
+        }
+
+        int[] ids = new int[8];
+        int count = 0;
+        int value = 0;
+        boolean inNumber = false;
+        boolean negative = false;
+        for (int i = 0; i < encoded.length(); i++) {
+            final char c = encoded.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                inNumber = true;
+            } else if (c == '-' && !inNumber) {
+                negative = true;
+            } else {
+                if (inNumber) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = negative ? -value : value;
+                }
+                value = 0;
+                inNumber = false;
+                negative = false;
+            }
+        }
+        if (inNumber) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count + 1);
+            }
+            ids[count++] = negative ? -value : value;
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    public static List<Integer> toList(final int[] ids) {
+        if (ids == null || ids.length == 0) {
+            return List.of();
+        }
+        final List<Integer> list = new ArrayList<>(ids.length);
+        for (final int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    public static long languageBit(final Language language) {
+        return 1L << language.ordinal();
+    }
+
+    public static long languageMask(final Language... languages) {
+        return languageMask(Arrays.asList(languages));
+    }
+
+    public static long languageMask(final Collection<Language> languages) {
+        long mask = 0L;
+        for (final Language language : languages) {
+            mask |= languageBit(language);
+        }
+        return mask;
+    }
+
+    public static List<String> languageNames(final long mask) {
+        if (mask == 0L) {
+            return List.of();
+        }
+        final List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (final Language language : LANGUAGES) {
+            if ((mask & languageBit(language)) != 0L) {
+                names.add(language.name());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * release_languages.language(enum 이름) 를 bit 위치로 바꾸는 SQL 식. BIT_OR(1 << 식) 으로 mask 를 만든다.
+     * 알 수 없는 값은 FIELD() 가 0 을 돌려 음수 shift 가 되고, MySQL 에서는 0 bit 로 계산된다.
+     */
+    public static String languageOrdinalSql(final String column) {
+        final String names = Arrays.stream(LANGUAGES)
+                .map(language -> "'" + language.name() + "'")
+                .collect(Collectors.joining(", "));
+        return "(FIELD(" + column + ", " + names + ") - 1)";
+    }
+}
@@ -44,9 +44,13 @@ public class ChartScore {
     @Column(nullable = false)
     private LocalDateTime lastUpdated;
 
+    // 정수 JSON 배열 / 언어 bit mask. 인코딩은 ChartFacetCodec 참고
     @Column(name = "genre_ids", columnDefinition = "JSON")
     private String genreIds;
 
+    @Column(name = "primary_genre_ids", columnDefinition = "JSON")
+    private String primaryGenreIds;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "release_type")
     private ReleaseType releaseType;
@@ -60,8 +64,8 @@ public class ChartScore {
     @Column(name = "location_id")
     private Long locationId;
 
-    @Column(name = "languages", columnDefinition = "JSON")
-    private String languages;
+    @Column(name = "language_mask", nullable = false)
+    private Long languageMask = 0L;
 
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
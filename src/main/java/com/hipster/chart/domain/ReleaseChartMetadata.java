@@ -0,0 +1,60 @@
+package com.hipster.chart.domain;
+
+import com.hipster.release.domain.ReleaseType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 차트 배치가 chart_scores 에 복사하는 release 메타데이터의 사전 집계 projection.
+ *
+ * 장르/디스크립터 id 배열과 언어 mask(ChartFacetCodec) 를 release 마다 한 번만 만들어 두고, 배치 writer 는 PK 조회만 한다.
+ * sourceUpdatedAt 은 projection 을 만들 때의 releases.updated_at 이며, 값이 다르면 stale 로 보고 다시 만든다.
+ * 쓰기는 ChartReleaseMetadataQueryRepository 의 INSERT ... SELECT 로만 한다.
+ */
+@Entity
+@Getter
+@Table(name = "release_chart_metadata")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ReleaseChartMetadata {
+
+    @Id
+    @Column(name = "release_id", nullable = false, updatable = false)
+    private Long releaseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "release_type", length = 50)
+    private ReleaseType releaseType;
+
+    @Column(name = "release_year")
+    private Integer releaseYear;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "genre_ids", columnDefinition = "JSON")
+    private String genreIds;
+
+    @Column(name = "primary_genre_ids", columnDefinition = "JSON")
+    private String primaryGenreIds;
+
+    @Column(name = "descriptor_ids", columnDefinition = "JSON")
+    private String descriptorIds;
+
+    @Column(name = "language_mask", nullable = false)
+    private Long languageMask;
+
+    @Column(name = "source_updated_at", nullable = false)
+    private LocalDateTime sourceUpdatedAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
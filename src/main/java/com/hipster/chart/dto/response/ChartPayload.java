@@ -0,0 +1,42 @@
+package com.hipster.chart.dto.response;
+
+import java.util.Arrays;
+
+/**
+ * 직렬화가 끝난 차트 응답. ApiResponse 로 감싼 JSON 바이트를 그대로 HTTP 응답에 쓴다.
+ *
+ * @param body     ApiResponse&lt;TopChartResponse&gt; JSON (UTF-8)
+ * @param gzipBody body 를 미리 gzip 한 값. 크기가 작아 압축 이득이 없으면 null
+ * @param etag     published version 과 body 체크섬으로 만든 strong ETag (따옴표 포함)
+ */
+public record ChartPayload(
+        byte[] body,
+        byte[] gzipBody,
+        String etag
+) {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gz\"";
+
+    public boolean hasGzipBody() {
+        return gzipBody != null;
+    }
+
+    /** gzip 표현은 바이트가 다르므로 ETag 도 구분한다. */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX;
+    }
+
+    /**
+     * If-None-Match 값이 이 응답(원본 또는 gzip 표현)과 일치하는지 본다. 약한 비교(W/ 무시)를 쓴다.
+     */
+    public boolean matches(final String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        final String gzipEtag = gzipEtag();
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag));
+    }
+}
@@ -0,0 +1,154 @@
+package com.hipster.chart.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 차트 캐시 조회 결과와 publish 직후 warm-up 지표.
+ *
+ * published version 이 바뀐 시점부터, steady-state.window-size 건 단위로 본 적중률이
+ * steady-state.hit-ratio 이상이 되기까지 걸린 시간을 chart.cache.steady_state 로 남긴다.
+ */
+@Component
+public class ChartCacheMetricsRecorder {
+
+    public static final String TIER_L1 = "l1";
+    public static final String TIER_REDIS = "redis";
+    public static final String TIER_MISS = "miss";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> lookupCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> warmupTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> singleFlightCounters = new ConcurrentHashMap<>();
+    private final Counter warmedKeys;
+    private final Timer steadyStateTimer;
+    private final double steadyStateHitRatio;
+    private final long windowSize;
+
+    private final AtomicLong windowHits = new AtomicLong();
+    private final AtomicLong windowLookups = new AtomicLong();
+    private volatile VersionWindow versionWindow;
+
+    public ChartCacheMetricsRecorder(final MeterRegistry meterRegistry,
+                                     @Value("${hipster.chart.cache-metrics.steady-state.hit-ratio:0.9}") final double steadyStateHitRatio,
+                                     @Value("${hipster.chart.cache-metrics.steady-state.window-size:200}") final long windowSize) {
+        this.meterRegistry = meterRegistry;
+        this.steadyStateHitRatio = steadyStateHitRatio;
+        this.windowSize = Math.max(windowSize, 1);
+        this.warmedKeys = Counter.builder("chart.cache.warmup.keys")
+                .description("Chart cache keys precomputed after a publish")
+                .register(meterRegistry);
+        this.steadyStateTimer = Timer.builder("chart.cache.steady_state")
+                .description("Time from a published version switch until the chart cache hit ratio reaches steady state")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 새 published version 이 반영된 시각을 기록한다. publish 한 노드는 즉시, 다른 노드는 첫 조회에서 시작된다.
+     */
+    public void markVersionSwitched(final String publishedVersion) {
+        versionWindow = new VersionWindow(publishedVersion, System.nanoTime());
+        windowHits.set(0);
+        windowLookups.set(0);
+    }
+
+    /**
+     * @param tier l1 / redis / miss
+     */
+    public void recordLookup(final String publishedVersion, final String tier) {
+        lookupCounters.computeIfAbsent(tier, key ->
+                Counter.builder("chart.cache.lookups")
+                        .description("Chart response cache lookups by serving tier")
+                        .tag("tier", key)
+                        .register(meterRegistry)
+        ).increment();
+
+        VersionWindow window = versionWindow;
+        if (window == null || !Objects.equals(window.version(), publishedVersion)) {
+            markVersionSwitched(publishedVersion);
+            window = versionWindow;
+        }
+        if (window.reached()) {
+            return;
+        }
+
+        if (!TIER_MISS.equals(tier)) {
+            windowHits.incrementAndGet();
+        }
+        if (windowLookups.incrementAndGet() < windowSize) {
+            return;
+        }
+
+        final long hits = windowHits.getAndSet(0);
+        final long lookups = windowLookups.getAndSet(0);
+        if (lookups > 0 && (double) hits / lookups >= steadyStateHitRatio && window.markReached()) {
+            steadyStateTimer.record(System.nanoTime() - window.switchedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * publish 후 warm-up 1회의 소요 시간과 미리 채운 키 수. (success / partial / failed)
+     */
+    public void recordWarmup(final String outcome, final long elapsedNanos, final int warmedKeyCount) {
+        warmupTimers.computeIfAbsent(outcome, key ->
+                Timer.builder("chart.cache.warmup")
+                        .description("Chart cache warm-up duration after publish")
+                        .tag("outcome", key)
+                        .register(meterRegistry)
+        ).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        warmedKeys.increment(warmedKeyCount);
+    }
+
+    /**
+     * 캐시 miss 처리 결과. (leader / coalesced / lease_wait_hit / timeout / leader_failed)
+     */
+    public void recordSingleFlight(final String outcome) {
+        singleFlightCounters.computeIfAbsent(outcome, key ->
+                Counter.builder("chart.cache.single_flight")
+                        .description("Chart cache miss loads by single-flight outcome")
+                        .tag("outcome", key)
+                        .register(meterRegistry)
+        ).increment();
+    }
+
+    private static final class VersionWindow {
+
+        private final String version;
+        private final long switchedAtNanos;
+        private volatile boolean reached;
+
+        private VersionWindow(final String version, final long switchedAtNanos) {
+            this.version = version;
+            this.switchedAtNanos = switchedAtNanos;
+        }
+
+        private String version() {
+            return version;
+        }
+
+        private long switchedAtNanos() {
+            return switchedAtNanos;
+        }
+
+        private boolean reached() {
+            return reached;
+        }
+
+        private synchronized boolean markReached() {
+            if (reached) {
+                return false;
+            }
+            reached = true;
+            return true;
+        }
+    }
+}
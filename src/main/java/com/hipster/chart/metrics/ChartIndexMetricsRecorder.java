@@ -0,0 +1,78 @@
+package com.hipster.chart.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ChartIndexMetricsRecorder {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> bulkLatencyTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> indexPhaseTimers = new ConcurrentHashMap<>();
+    private final DistributionSummary bulkDocs;
+    private final DistributionSummary bulkBytes;
+    private final Counter retriedDocs;
+    private final Counter backpressureWaits;
+
+    public ChartIndexMetricsRecorder(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.bulkDocs = DistributionSummary.builder("chart.es.bulk.docs")
+                .description("Documents per chart ES bulk request")
+                .register(meterRegistry);
+        this.bulkBytes = DistributionSummary.builder("chart.es.bulk.bytes")
+                .description("Estimated body size per chart ES bulk request")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.retriedDocs = Counter.builder("chart.es.bulk.retried.docs")
+                .description("Chart ES documents re-sent after a 429 rejection")
+                .register(meterRegistry);
+        this.backpressureWaits = Counter.builder("chart.es.bulk.backpressure.waits")
+                .description("Times a chart ES bulk producer blocked because all in-flight slots were busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * bulk 요청 1건의 왕복 시간을 기록한다. (success / rejected / failed)
+     * 히스토그램을 함께 내보내므로 p50/p99 를 대시보드에서 바로 볼 수 있다.
+     */
+    public void recordBulk(final String outcome, final long elapsedNanos, final int docCount, final long estimatedBytes) {
+        final String normalizedOutcome = outcome.toLowerCase(Locale.ROOT);
+        bulkLatencyTimers.computeIfAbsent(normalizedOutcome, key ->
+                Timer.builder("chart.es.bulk.latency")
+                        .description("Chart ES bulk request latency")
+                        .tag("outcome", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        ).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        bulkDocs.record(docCount);
+        bulkBytes.record(estimatedBytes);
+    }
+
+    public void recordRetriedDocs(final int count) {
+        retriedDocs.increment(count);
+    }
+
+    public void recordBackpressureWait() {
+        backpressureWaits.increment();
+    }
+
+    /**
+     * candidate index 마무리 단계(refresh / force_merge / serve_settings / wait_for_status / warmup) 별 소요 시간.
+     */
+    public void recordIndexPhase(final String phase, final long elapsedNanos) {
+        indexPhaseTimers.computeIfAbsent(phase, key ->
+                Timer.builder("chart.es.index.phase")
+                        .description("Chart candidate index finalize phase duration")
+                        .tag("phase", key)
+                        .register(meterRegistry)
+        ).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -66,6 +67,30 @@ public class ChartPublishState {
     @Column(name = "published_at")
     private LocalDateTime publishedAt;
 
+    /** 현재 published version 을 계산할 때 쓴 글로벌 평균 C */
+    @Column(name = "global_average", precision = 19, scale = 10)
+    private BigDecimal globalAverage;
+
+    @Column(name = "candidate_global_average", precision = 19, scale = 10)
+    private BigDecimal candidateGlobalAverage;
+
+    /**
+     * 마지막 FULL 재계산에 쓴 글로벌 평균 C. 이월된 점수는 이 C 로 계산되어 있으므로 incremental publish 의 전체 재계산 판단 기준이 된다.
+     * INCREMENTAL 실행은 이 값을 그대로 넘겨, 실행마다 임계값 아래로 조금씩 움직인 C 가 누적되어도 드리프트가 드러나게 한다.
+     */
+    @Column(name = "rescore_global_average", precision = 19, scale = 10)
+    private BigDecimal rescoreGlobalAverage;
+
+    @Column(name = "candidate_rescore_global_average", precision = 19, scale = 10)
+    private BigDecimal candidateRescoreGlobalAverage;
+
+    /** 현재 published version 의 입력을 읽기 시작한 DB 시각. 이후 바뀐 summary/metadata 만 incremental 대상이 된다 */
+    @Column(name = "source_watermark_at")
+    private LocalDateTime sourceWatermarkAt;
+
+    @Column(name = "candidate_source_watermark_at")
+    private LocalDateTime candidateSourceWatermarkAt;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "last_validation_status", nullable = false, length = 32)
     private ChartValidationStatus lastValidationStatus;
@@ -104,6 +129,16 @@ public class ChartPublishState {
         this.lastErrorMessage = null;
     }
 
+    public void recordCandidateInputs(final String version,
+                                      final BigDecimal globalAverage,
+                                      final BigDecimal rescoreGlobalAverage,
+                                      final LocalDateTime sourceWatermarkAt) {
+        assertCandidate(version);
+        this.candidateGlobalAverage = globalAverage;
+        this.candidateRescoreGlobalAverage = rescoreGlobalAverage;
+        this.candidateSourceWatermarkAt = sourceWatermarkAt;
+    }
+
     public void markValidating(final String version) {
         assertCandidate(version);
         this.status = ChartPublishStatus.VALIDATING;
@@ -137,6 +172,9 @@ public class ChartPublishState {
         this.previousLogicalAsOfAt = null;
         this.candidateLogicalAsOfAt = null;
         this.publishedAt = publishedAt;
+        this.globalAverage = null;
+        this.rescoreGlobalAverage = null;
+        this.sourceWatermarkAt = null;
         this.status = ChartPublishStatus.PUBLISHED;
         this.lastValidationStatus = ChartValidationStatus.PASSED;
         this.lastErrorCode = null;
@@ -156,6 +194,9 @@ public class ChartPublishState {
         this.mysqlProjectionRef = publishedMysqlProjectionRef;
         this.esIndexRef = this.candidateEsIndexRef;
         this.logicalAsOfAt = this.candidateLogicalAsOfAt;
+        this.globalAverage = this.candidateGlobalAverage;
+        this.rescoreGlobalAverage = this.candidateRescoreGlobalAverage;
+        this.sourceWatermarkAt = this.candidateSourceWatermarkAt;
         this.publishedAt = publishedAt;
         this.status = ChartPublishStatus.PUBLISHED;
         this.lastValidationStatus = ChartValidationStatus.PASSED;
@@ -177,6 +218,10 @@ public class ChartPublishState {
         this.mysqlProjectionRef = this.previousMysqlProjectionRef;
         this.esIndexRef = this.previousEsIndexRef;
         this.logicalAsOfAt = this.previousLogicalAsOfAt;
+        // 이전 version 의 입력 기준은 보관하지 않으므로, 롤백 후 첫 실행은 FULL 로 다시 만든다.
+        this.globalAverage = null;
+        this.rescoreGlobalAverage = null;
+        this.sourceWatermarkAt = null;
         this.publishedAt = rollbackAt;
         this.status = ChartPublishStatus.ROLLED_BACK;
         this.lastValidationStatus = ChartValidationStatus.WARNING;
@@ -188,6 +233,9 @@ public class ChartPublishState {
         this.candidateMysqlProjectionRef = null;
         this.candidateEsIndexRef = null;
         this.candidateLogicalAsOfAt = null;
+        this.candidateGlobalAverage = null;
+        this.candidateRescoreGlobalAverage = null;
+        this.candidateSourceWatermarkAt = null;
         this.lastErrorCode = null;
         this.lastErrorMessage = null;
     }
@@ -1,18 +1,20 @@
 package com.hipster.chart.publish.service;
 
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.publish.domain.ChartPublishState;
+import com.hipster.chart.service.ChartCacheSweeper;
+import com.hipster.chart.service.ChartCacheWarmer;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
 import com.hipster.rating.repository.ReleaseRatingSummaryRepository;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Set;
 
 @Slf4j
 @Service
@@ -21,6 +23,8 @@ public class ChartPublishOrchestratorService {
 
     public static final String CANDIDATE_VERSION_KEY = "chartPublishCandidateVersion";
     public static final String CANDIDATE_LOGICAL_AS_OF_KEY = "chartPublishLogicalAsOfAt";
+    public static final String CHANGED_SINCE_KEY = "chartPublishChangedSince";
+    public static final String SOURCE_WATERMARK_KEY = "chartPublishSourceWatermarkAt";
 
     private final ChartPublishProperties chartPublishProperties;
     private final ReleaseRatingSummaryRepository releaseRatingSummaryRepository;
@@ -29,22 +33,45 @@ public class ChartPublishOrchestratorService {
     private final ChartPublishStateService chartPublishStateService;
     private final ChartPublishedVersionService chartPublishedVersionService;
     private final ChartLastUpdatedService chartLastUpdatedService;
-    private final StringRedisTemplate redisTemplate;
+    private final ChartCacheSweeper chartCacheSweeper;
+    private final ChartCacheWarmer chartCacheWarmer;
 
     @Transactional
     public ChartPublishStateService.CandidateVersionContext generateCandidateVersion() {
+        return planCandidateVersion(null).context();
+    }
+
+    /**
+     * candidate version 을 만들고 이번 실행을 FULL / INCREMENTAL 중 무엇으로 계산할지 정한다.
+     * INCREMENTAL 이면 직전 published projection 을 stage 로 이월하고, changedSince 이후 입력이 바뀐 release 만 다시 계산한다.
+     *
+     * @param globalAverage 이번 실행의 글로벌 평균 C. 마지막 FULL 재계산의 C 와 비교해 전체 재계산 여부를 정한다
+     */
+    @Transactional
+    public CandidatePlan planCandidateVersion(final BigDecimal globalAverage) {
+        final LocalDateTime sourceWatermarkAt = chartScoreQueryRepository.currentDatabaseTime();
+        final ChartPublishState published = chartPublishStateService.findState().orElse(null);
+        final LocalDateTime changedSince = resolveChangedSince(globalAverage, published);
+        final BigDecimal rescoreGlobalAverage = changedSince == null ? globalAverage : published.getRescoreGlobalAverage();
+
         final LocalDateTime logicalAsOfAt = resolveLogicalAsOfAt();
         final String candidateVersion = chartPublishStateService.generateNextVersion();
         final String candidateEsIndex = chartElasticsearchIndexService.buildCandidateIndexName(candidateVersion);
 
-        chartScoreQueryRepository.preparePublishStageTable();
+        if (changedSince == null) {
+            chartScoreQueryRepository.preparePublishStageTable();
+        } else {
+            chartScoreQueryRepository.carryForwardPublishedToStage();
+        }
 
-        return chartPublishStateService.startCandidateGeneration(
+        final var context = chartPublishStateService.startCandidateGeneration(
                 candidateVersion,
                 logicalAsOfAt,
                 chartPublishProperties.getStageTableName(),
                 candidateEsIndex
         );
+        chartPublishStateService.recordCandidateInputs(candidateVersion, globalAverage, rescoreGlobalAverage, sourceWatermarkAt);
+        return new CandidatePlan(context, changedSince, sourceWatermarkAt);
     }
 
     @Transactional
@@ -84,8 +111,9 @@ public class ChartPublishOrchestratorService {
 
             final var publishedState = chartPublishStateService.markPublished(version);
             chartPublishedVersionService.cachePublishedVersion(publishedState.getCurrentVersion());
-            evictChartCache();
+            chartCacheSweeper.sweepRetiredVersionAsync(publishedState.getPreviousVersion());
             chartLastUpdatedService.cacheLastUpdated(publishedState.getLogicalAsOfAt());
+            chartCacheWarmer.warmAfterPublish(publishedState.getCurrentVersion());
         } catch (Exception e) {
             log.error("[ChartPublish] publish failed. version={}", version, e);
             chartPublishStateService.markFailed("PUBLISH_FAILED", e.getMessage());
@@ -103,6 +131,11 @@ public class ChartPublishOrchestratorService {
             log.warn("[ChartPublish] rollback skipped. previousVersion is null");
             return;
         }
+        if (state.getPreviousMysqlProjectionRef() == null || !chartScoreQueryRepository.previousTableExists()) {
+            log.warn("[ChartPublish] rollback skipped. previous MySQL projection is not available. previousVersion={}",
+                    state.getPreviousVersion());
+            return;
+        }
 
         chartScoreQueryRepository.rollbackPublishedTable();
         if (state.getPreviousEsIndexRef() != null) {
@@ -110,10 +143,39 @@ public class ChartPublishOrchestratorService {
         }
         final var rolledBackState = chartPublishStateService.markRolledBack(state.getCurrentVersion(), reason);
         chartPublishedVersionService.cachePublishedVersion(rolledBackState.getCurrentVersion());
-        evictChartCache();
+        chartCacheSweeper.sweepRetiredVersionAsync(state.getCurrentVersion());
         if (rolledBackState.getLogicalAsOfAt() != null) {
             chartLastUpdatedService.cacheLastUpdated(rolledBackState.getLogicalAsOfAt());
         }
+        chartCacheWarmer.warmAfterPublish(rolledBackState.getCurrentVersion());
+    }
+
+    /**
+     * @return INCREMENTAL 로 계산할 때의 변경 감지 기준 시각. FULL 로 계산해야 하면 null
+     */
+    private LocalDateTime resolveChangedSince(final BigDecimal globalAverage, final ChartPublishState published) {
+        if (chartPublishProperties.getMode() != ChartPublishProperties.PublishMode.INCREMENTAL || globalAverage == null) {
+            return null;
+        }
+
+        if (published == null
+                || published.getCurrentVersion() == null
+                || published.getRescoreGlobalAverage() == null
+                || published.getSourceWatermarkAt() == null) {
+            log.info("[ChartPublish] 직전 publish 의 입력 기준이 없어 FULL 로 계산합니다.");
+            return null;
+        }
+
+        // 직전 실행이 아니라 이월된 점수를 계산한 마지막 FULL 재계산의 C 와 비교해야 작은 변동이 누적된 경우도 잡힌다.
+        final BigDecimal drift = globalAverage.subtract(published.getRescoreGlobalAverage()).abs();
+        if (drift.compareTo(chartPublishProperties.getIncremental().getGlobalAverageRescoreThreshold()) > 0) {
+            log.info("[ChartPublish] 글로벌 평균 변동으로 전체 재계산. rescoreBaseline={}, current={}, drift={}",
+                    published.getRescoreGlobalAverage(), globalAverage, drift);
+            return null;
+        }
+
+        return published.getSourceWatermarkAt()
+                .minusSeconds(chartPublishProperties.getIncremental().getWatermarkOverlapSeconds());
     }
 
     private LocalDateTime resolveLogicalAsOfAt() {
@@ -122,10 +184,17 @@ public class ChartPublishOrchestratorService {
                 .orElse(LocalDateTime.now());
     }
 
-    private void evictChartCache() {
-        final Set<String> keys = redisTemplate.keys("chart:v1:*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+    /**
+     * @param changedSince      INCREMENTAL 실행의 변경 감지 기준 시각. FULL 이면 null
+     * @param sourceWatermarkAt 이번 실행이 입력을 읽기 시작한 DB 시각. 이후 stage 에 쓰인 row 가 이번 실행의 변경분이다
+     */
+    public record CandidatePlan(
+            ChartPublishStateService.CandidateVersionContext context,
+            LocalDateTime changedSince,
+            LocalDateTime sourceWatermarkAt
+    ) {
+        public boolean incremental() {
+            return changedSince != null;
         }
     }
 }
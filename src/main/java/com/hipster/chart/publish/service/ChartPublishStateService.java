@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
@@ -65,6 +66,21 @@ public class ChartPublishStateService {
         );
     }
 
+    @Transactional
+    public void recordCandidateInputs(final String version,
+                                      final BigDecimal globalAverage,
+                                      final BigDecimal rescoreGlobalAverage,
+                                      final LocalDateTime sourceWatermarkAt) {
+        final ChartPublishState state = requireState();
+        state.recordCandidateInputs(version, globalAverage, rescoreGlobalAverage, sourceWatermarkAt);
+        chartPublishStateRepository.save(state);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ChartPublishState> findState() {
+        return chartPublishStateRepository.findById(chartPublishProperties.getChartName());
+    }
+
     @Transactional(readOnly = true)
     public ChartPublishState requireState() {
         return chartPublishStateRepository.findById(chartPublishProperties.getChartName())
@@ -7,6 +7,8 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,10 +18,22 @@ public class ChartPublishedVersionService {
     private final ChartPublishProperties chartPublishProperties;
     private final ChartPublishStateService chartPublishStateService;
 
+    /**
+     * Redis 에서 읽은 published version 의 노드 로컬 사본. 차트 조회마다 Redis 를 왕복하지 않도록
+     * published-version-local-ttl-millis 동안 재사용하고, 이 노드의 publish 는 즉시 반영한다.
+     */
+    private volatile LocalVersion localVersion;
+
     public String getPublishedVersion() {
+        final LocalVersion local = localVersion;
+        if (local != null && local.isFresh()) {
+            return local.version();
+        }
+
         try {
             final String cached = redisTemplate.opsForValue().get(chartPublishProperties.getPublishedVersionCacheKey());
             if (StringUtils.hasText(cached)) {
+                rememberLocally(cached);
                 return cached;
             }
         } catch (Exception e) {
@@ -34,10 +48,26 @@ public class ChartPublishedVersionService {
         if (!StringUtils.hasText(version)) {
             return;
         }
+        rememberLocally(version);
         try {
             redisTemplate.opsForValue().set(chartPublishProperties.getPublishedVersionCacheKey(), version);
         } catch (Exception e) {
             log.warn("[ChartPublishedVersion] Redis write failed. reason={}", e.getMessage());
         }
     }
+
+    private void rememberLocally(final String version) {
+        final long ttlMillis = chartPublishProperties.getPublishedVersionLocalTtlMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        localVersion = new LocalVersion(version, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    private record LocalVersion(String version, long expiresAtNanos) {
+
+        private boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+    }
 }
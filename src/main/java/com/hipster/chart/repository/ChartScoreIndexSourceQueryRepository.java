@@ -1,10 +1,13 @@
 package com.hipster.chart.repository;
 
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,9 +26,23 @@ public class ChartScoreIndexSourceQueryRepository {
     public List<ChartScoreIndexRow> findBatchAfterId(final ChartScoreIndexSourceType sourceType,
                                                      final long afterId,
                                                      final int limit) {
+        return findBatchAfterId(sourceType, null, afterId, limit);
+    }
+
+    /**
+     * @param updatedSince null 이 아니면 updated_at 이 이 시각 이후인 row 만 읽는다 (incremental publish 의 변경분)
+     */
+    public List<ChartScoreIndexRow> findBatchAfterId(final ChartScoreIndexSourceType sourceType,
+                                                     final LocalDateTime updatedSince,
+                                                     final long afterId,
+                                                     final int limit) {
         final String tableName = resolveTableName(sourceType);
         final String cursorColumn = resolveCursorColumn(sourceType);
         final String selectIdExpression = resolveSelectIdExpression(sourceType);
+        final String updatedSinceCondition = updatedSince == null ? "" : "AND updated_at >= ?";
+        final Object[] args = updatedSince == null
+                ? new Object[]{afterId, limit}
+                : new Object[]{afterId, Timestamp.valueOf(updatedSince), limit};
         return jdbcTemplate.query(
                 ("""
                 SELECT %s AS id,
@@ -36,13 +53,14 @@ public class ChartScoreIndexSourceQueryRepository {
                        release_year,
                        location_id,
                        genre_ids,
+                       primary_genre_ids,
                        descriptor_ids,
-                       languages
+                       language_mask
                 FROM %s
-                WHERE %s > ?
+                WHERE %s > ? %s
                 ORDER BY %s ASC
                 LIMIT ?
-                """).formatted(selectIdExpression, tableName, cursorColumn, cursorColumn),
+                """).formatted(selectIdExpression, tableName, cursorColumn, updatedSinceCondition, cursorColumn),
                 (rs, rowNum) -> new ChartScoreIndexRow(
                         rs.getLong("id"),
                         rs.getLong("release_id"),
@@ -51,12 +69,27 @@ public class ChartScoreIndexSourceQueryRepository {
                         rs.getString("release_type"),
                         getNullableInt(rs, "release_year"),
                         getNullableLong(rs, "location_id"),
-                        rs.getString("genre_ids"),
-                        rs.getString("descriptor_ids"),
-                        rs.getString("languages")
+                        ChartFacetCodec.decodeIds(rs.getString("genre_ids")),
+                        ChartFacetCodec.decodeIds(rs.getString("primary_genre_ids")),
+                        ChartFacetCodec.decodeIds(rs.getString("descriptor_ids")),
+                        rs.getLong("language_mask")
                 ),
-                afterId,
-                limit
+                args
+        );
+    }
+
+    /**
+     * incremental publish 에서 published index 를 복사한 뒤 지워야 할 문서. stage 이월 시 summary 가 사라져 빠진 release 다.
+     */
+    public List<Long> findPublishedReleaseIdsMissingFromStage() {
+        return jdbcTemplate.queryForList(
+                ("""
+                SELECT p.release_id
+                FROM %s p
+                LEFT JOIN %s s ON s.release_id = p.release_id
+                WHERE s.release_id IS NULL
+                """).formatted(PUBLISHED_TABLE, chartPublishProperties.getStageTableName()),
+                Long.class
         );
     }
 
@@ -127,9 +160,10 @@ public class ChartScoreIndexSourceQueryRepository {
             String releaseType,
             Integer releaseYear,
             Long locationId,
-            String genreIds,
-            String descriptorIds,
-            String languages
+            int[] genreIds,
+            int[] primaryGenreIds,
+            int[] descriptorIds,
+            long languageMask
     ) {
     }
 
@@ -1,5 +1,6 @@
 package com.hipster.chart.repository;
 
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.domain.ChartScore;
 import com.hipster.chart.domain.QChartScore;
 import com.hipster.chart.dto.request.ChartFilterRequest;
@@ -49,6 +50,9 @@ public class ChartScoreRepositoryImpl implements ChartScoreRepositoryCustom {
         return chartScore.isEsoteric.eq(false);
     }
 
+    /**
+     * genre_ids / descriptor_ids 는 정수 JSON 배열이며 multi-valued index 가 걸려 있다. (MEMBER OF)
+     */
     private BooleanExpression genreIdsContainAll(List<Long> genreIds) {
         if (genreIds == null || genreIds.isEmpty()) {
             return null;
@@ -57,8 +61,8 @@ public class ChartScoreRepositoryImpl implements ChartScoreRepositoryCustom {
         BooleanExpression combined = null;
         for (Long genreId : genreIds) {
             final BooleanExpression containsGenre = Expressions.booleanTemplate(
-                    "function('json_contains', {0}, function('json_object', 'id', {1})) = true",
-                    chartScore.genreIds, genreId
+                    "function('json_member_of', {0}, {1})",
+                    genreId, chartScore.genreIds
             );
             combined = combined == null ? containsGenre : combined.and(containsGenre);
         }
@@ -70,8 +74,8 @@ public class ChartScoreRepositoryImpl implements ChartScoreRepositoryCustom {
             return null;
         }
         return Expressions.booleanTemplate(
-                "function('json_contains', {0}, {1}) = true",
-                chartScore.descriptorIds, String.valueOf(descriptorId)
+                "function('json_member_of', {0}, {1})",
+                descriptorId, chartScore.descriptorIds
         );
     }
 
@@ -79,14 +83,18 @@ public class ChartScoreRepositoryImpl implements ChartScoreRepositoryCustom {
         return locationId != null ? chartScore.locationId.eq(locationId) : null;
     }
 
+    /**
+     * language_mask 는 Language.ordinal() 위치의 bit 를 모은 값이다. (ChartFacetCodec)
+     */
     private BooleanExpression languageContains(Language language) {
         if (language == null) {
             return null;
         }
-        return Expressions.booleanTemplate(
-                "function('json_contains', {0}, {1}) = true",
-                chartScore.languages, "\"" + language.name() + "\""
-        );
+        return Expressions.numberTemplate(
+                Long.class,
+                "function('bitand', {0}, {1})",
+                chartScore.languageMask, ChartFacetCodec.languageBit(language)
+        ).ne(0L);
     }
 
     private BooleanExpression releaseTypeEq(ReleaseType releaseType) {
@@ -0,0 +1,264 @@
+package com.hipster.chart.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.json.JsonData;
+import com.hipster.chart.config.ChartSearchBulkProperties;
+import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.metrics.ChartIndexMetricsRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 차트 candidate index 용 bulk ingestion.
+ *
+ * 문서를 max-actions / max-bytes 단위로 묶어 chartEsBulkExecutor 에서 최대 max-in-flight-requests 개를 동시에 보낸다.
+ * 슬롯이 모두 차 있으면 add() 가 기다리므로 MySQL 읽기 속도가 ES 처리량을 넘어 메모리에 쌓이지 않는다.
+ * 429(es_rejected_execution) 로 거절된 문서만 지수 backoff 후 다시 보내고, 그 외 문서 오류는 색인 실패로 본다.
+ */
+@Slf4j
+@Component
+public class ChartBulkIngester {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    // bulk action 메타 라인({"index":{"_id":"..."}}) 과 줄바꿈
+    private static final int ACTION_LINE_BYTES = 48;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchConverter elasticsearchConverter;
+    private final ThreadPoolTaskExecutor chartEsBulkExecutor;
+    private final ChartSearchBulkProperties properties;
+    private final ChartIndexMetricsRecorder chartIndexMetricsRecorder;
+    private final Semaphore inFlightSlots;
+
+    public ChartBulkIngester(final ElasticsearchClient elasticsearchClient,
+                             final ElasticsearchOperations elasticsearchOperations,
+                             @Qualifier("chartEsBulkExecutor") final ThreadPoolTaskExecutor chartEsBulkExecutor,
+                             final ChartSearchBulkProperties properties,
+                             final ChartIndexMetricsRecorder chartIndexMetricsRecorder) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchConverter = elasticsearchOperations.getElasticsearchConverter();
+        this.chartEsBulkExecutor = chartEsBulkExecutor;
+        this.properties = properties;
+        this.chartIndexMetricsRecorder = chartIndexMetricsRecorder;
+        // 파티션 worker 들이 각자 session 을 열어도 ES 로 나가는 요청 수는 전체에서 이만큼으로 제한한다.
+        this.inFlightSlots = new Semaphore(Math.max(properties.getMaxInFlightRequests(), 1));
+    }
+
+    public Session open(final String indexName) {
+        return new Session(indexName);
+    }
+
+    /**
+     * index 하나에 대한 색인 단위. 한 스레드에서 add() 하고 awaitCompletion() 으로 마무리한다.
+     */
+    public final class Session {
+
+        private final String indexName;
+        private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final AtomicLong indexedCount = new AtomicLong();
+        private List<PendingDocument> buffer = new ArrayList<>();
+        private long bufferedBytes;
+
+        private Session(final String indexName) {
+            this.indexName = indexName;
+        }
+
+        public void add(final ChartDocument document) {
+            throwIfFailed();
+
+            // Spring Data 의 bulkIndex 와 같은 converter 로 변환하여 필드명/_class 를 맞춘다.
+            final String json = elasticsearchConverter.mapObject(document).toJson();
+            buffer.add(new PendingDocument(String.valueOf(document.getReleaseId()), json));
+            bufferedBytes += json.length() + ACTION_LINE_BYTES;
+
+            if (buffer.size() >= properties.getMaxActions() || bufferedBytes >= properties.getMaxBytes()) {
+                flush();
+            }
+        }
+
+        /**
+         * 남은 문서를 보내고 이 session 의 bulk 가 모두 끝날 때까지 기다린다.
+         *
+         * @return 색인된 문서 수
+         */
+        public long awaitCompletion() {
+            if (failure.get() == null) {
+                flush();
+            }
+            for (final CompletableFuture<Void> future : inFlight) {
+                try {
+                    future.join();
+                } catch (CompletionException ignored) {
+                    // 첫 실패는 failure 에 이미 기록되어 있다.
+                }
+            }
+            inFlight.clear();
+            throwIfFailed();
+            return indexedCount.get();
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            final List<PendingDocument> documents = buffer;
+            final long estimatedBytes = bufferedBytes;
+            buffer = new ArrayList<>();
+            bufferedBytes = 0;
+
+            acquireSlot();
+            try {
+                inFlight.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        sendWithRetry(indexName, documents, estimatedBytes);
+                        indexedCount.addAndGet(documents.size());
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        inFlightSlots.release();
+                    }
+                }, chartEsBulkExecutor));
+            } catch (RuntimeException e) {
+                inFlightSlots.release();
+                throw e;
+            }
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+
+        private void throwIfFailed() {
+            final RuntimeException cause = failure.get();
+            if (cause != null) {
+                throw cause;
+            }
+        }
+    }
+
+    private void acquireSlot() {
+        if (inFlightSlots.tryAcquire()) {
+            return;
+        }
+        chartIndexMetricsRecorder.recordBackpressureWait();
+        try {
+            inFlightSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an ES bulk slot", e);
+        }
+    }
+
+    private void sendWithRetry(final String indexName, final List<PendingDocument> documents, final long estimatedBytes) {
+        List<PendingDocument> pending = documents;
+        long pendingBytes = estimatedBytes;
+        int attempt = 0;
+
+        while (true) {
+            final List<PendingDocument> rejected = sendOnce(indexName, pending, pendingBytes);
+            if (rejected.isEmpty()) {
+                return;
+            }
+
+            attempt++;
+            if (attempt > properties.getMaxRetries()) {
+                throw new IllegalStateException("ES bulk rejected after retries. index=" + indexName
+                        + ", rejected=" + rejected.size() + ", attempts=" + attempt);
+            }
+            chartIndexMetricsRecorder.recordRetriedDocs(rejected.size());
+            log.warn("[CHART BATCH] ES bulk rejected (429). Retrying. index={}, rejected={}, attempt={}",
+                    indexName, rejected.size(), attempt);
+            sleep(backoffMillis(attempt));
+
+            pendingBytes = pendingBytes * rejected.size() / Math.max(pending.size(), 1);
+            pending = rejected;
+        }
+    }
+
+    /**
+     * @return 429 로 거절되어 다시 보내야 하는 문서. 요청 전체가 429 면 전부 돌려준다
+     */
+    private List<PendingDocument> sendOnce(final String indexName,
+                                           final List<PendingDocument> documents,
+                                           final long estimatedBytes) {
+        final List<BulkOperation> operations = new ArrayList<>(documents.size());
+        for (final PendingDocument document : documents) {
+            operations.add(BulkOperation.of(operation -> operation.index(index -> index
+                    .id(document.id())
+                    .document(JsonData.fromJson(document.json())))));
+        }
+
+        final long startedAt = System.nanoTime();
+        final BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(BulkRequest.of(bulk -> bulk.index(indexName).operations(operations)));
+        } catch (ElasticsearchException e) {
+            if (e.status() == TOO_MANY_REQUESTS) {
+                chartIndexMetricsRecorder.recordBulk("rejected", System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+                return documents;
+            }
+            chartIndexMetricsRecorder.recordBulk("failed", System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+            throw e;
+        } catch (IOException e) {
+            chartIndexMetricsRecorder.recordBulk("failed", System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+            throw new IllegalStateException("Failed to send ES bulk request. index=" + indexName, e);
+        }
+
+        if (!response.errors()) {
+            chartIndexMetricsRecorder.recordBulk("success", System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+            return List.of();
+        }
+
+        final List<PendingDocument> rejected = new ArrayList<>();
+        final List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < items.size(); i++) {
+            final BulkResponseItem item = items.get(i);
+            if (item.error() == null) {
+                continue;
+            }
+            if (item.status() != TOO_MANY_REQUESTS) {
+                chartIndexMetricsRecorder.recordBulk("failed", System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+                throw new IllegalStateException("ES bulk item failed. index=" + indexName
+                        + ", id=" + item.id() + ", status=" + item.status() + ", reason=" + item.error().reason());
+            }
+            rejected.add(documents.get(i));
+        }
+        chartIndexMetricsRecorder.recordBulk(rejected.isEmpty() ? "success" : "rejected",
+                System.nanoTime() - startedAt, documents.size(), estimatedBytes);
+        return rejected;
+    }
+
+    private long backoffMillis(final int attempt) {
+        final long backoff = properties.getInitialBackoffMillis() << Math.min(attempt - 1, 20);
+        return Math.min(backoff, properties.getMaxBackoffMillis());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during ES bulk retry backoff", e);
+        }
+    }
+
+    private record PendingDocument(String id, String json) {
+    }
+}
@@ -13,13 +13,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChartCacheKeyGenerator {
 
-    private static final String CACHE_PREFIX = "chart:v1:";
+    public static final String CACHE_PREFIX = "chart:v1:";
+
     private final ChartPublishedVersionService chartPublishedVersionService;
 
     public String generateKey(final ChartFilterRequest filter, final int page) {
-        final String prefix = resolveCachePrefix();
+        return generateKey(filter, page, chartPublishedVersionService.getPublishedVersion());
+    }
+
+    /**
+     * 이미 읽어 둔 published version 으로 키를 만든다. 한 요청 안에서 L1 / Redis / 응답 version 을 일치시킬 때 쓴다.
+     */
+    public String generateKey(final ChartFilterRequest filter, final int page, final String publishedVersion) {
+        return versionPrefix(publishedVersion) + normalizedKey(filter, page);
+    }
+
+    /**
+     * version 을 뺀 키 본문. 같은 차트 페이지를 가리키는 요청은 version 이 바뀌어도 같은 값이 된다.
+     */
+    public String normalizedKey(final ChartFilterRequest filter, final int page) {
         if (filter == null || isFilterEmpty(filter)) {
-            return prefix + "all:page:" + page;
+            return "all:page:" + page;
         }
 
         // 파라미터를 알파벳 순서(TreeMap)로 정렬하여 직렬화
@@ -40,11 +54,12 @@ public class ChartCacheKeyGenerator {
                 .map(e -> e.getKey() + "=" + e.getValue())
                 .collect(Collectors.joining("&"));
 
-        return prefix + serializedParams + ":page:" + page;
+        return serializedParams + ":page:" + page;
     }
 
-    private String resolveCachePrefix() {
-        return CACHE_PREFIX + chartPublishedVersionService.getPublishedVersion() + ":";
+    /** 한 published version 의 차트 캐시 키가 공유하는 prefix. */
+    public static String versionPrefix(final String publishedVersion) {
+        return CACHE_PREFIX + publishedVersion + ":";
     }
 
     private boolean isFilterEmpty(final ChartFilterRequest filter) {
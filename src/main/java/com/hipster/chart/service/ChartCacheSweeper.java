@@ -0,0 +1,144 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.publish.service.ChartPublishedVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * published version 이 바뀐 뒤 이전 버전 차트 캐시 키를 백그라운드에서 정리한다.
+ *
+ * 캐시 키에 version 이 들어 있어 publish 는 version 포인터만 바꾸면 이전 키는 더 이상 읽히지 않는다.
+ * 남은 키는 SCAN 으로 조금씩 훑어 UNLINK(메모리 해제는 Redis 백그라운드 스레드)로 지우므로 KEYS 처럼 Redis 를 멈추지 않는다.
+ * 정리는 물러난 version 의 prefix 로만 SCAN 하고, UNLINK 직전마다 그 version 이 다시 published 되지 않았는지 확인한다.
+ * (publish 직후 롤백처럼 정리가 밀려 있는 사이 version 이 되돌아가도 warm-up 이 채운 현재 키를 지우지 않는다)
+ * 정리가 중간에 실패하거나 건너뛰어져도 키마다 TTL 이 있어 결국 만료된다.
+ */
+@Slf4j
+@Component
+public class ChartCacheSweeper {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChartPublishedVersionService chartPublishedVersionService;
+    private final ThreadPoolTaskExecutor chartCacheSweepExecutor;
+
+    @Value("${hipster.chart.cache-sweep.scan-count:500}")
+    private int scanCount = 500;
+
+    @Value("${hipster.chart.cache-sweep.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${hipster.chart.cache-sweep.pause-millis:10}")
+    private long pauseMillis = 10;
+
+    public ChartCacheSweeper(final StringRedisTemplate redisTemplate,
+                             final ChartPublishedVersionService chartPublishedVersionService,
+                             @Qualifier("chartCacheSweepExecutor") final ThreadPoolTaskExecutor chartCacheSweepExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.chartPublishedVersionService = chartPublishedVersionService;
+        this.chartCacheSweepExecutor = chartCacheSweepExecutor;
+    }
+
+    /**
+     * publish / rollback 경로에서 물러난 version 을 넘겨 호출한다. 정리는 별도 스레드에서 하므로 publish 지연이 캐시 크기에 좌우되지 않는다.
+     * version 마다 별도 작업으로 쌓이며, 대기열이 가득 차 거절된 version 의 키는 TTL 로 만료된다.
+     */
+    public void sweepRetiredVersionAsync(final String retiredVersion) {
+        if (!StringUtils.hasText(retiredVersion)) {
+            return;
+        }
+        try {
+            chartCacheSweepExecutor.execute(() -> {
+                try {
+                    sweepRetiredVersion(retiredVersion);
+                } catch (Exception e) {
+                    log.warn("[ChartCacheSweep] 이전 버전 캐시 정리 실패. 남은 키는 TTL 로 만료됩니다. retiredVersion={}, reason={}",
+                            retiredVersion, e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("[ChartCacheSweep] 정리 대기열이 가득 차 건너뜁니다. 남은 키는 TTL 로 만료됩니다. retiredVersion={}", retiredVersion);
+        }
+    }
+
+    /**
+     * 물러난 version 의 차트 캐시 키를 batch-size 단위로 UNLINK 한다.
+     * 그 사이 같은 version 이 다시 published 되면(롤백) 남은 키는 지우지 않고 멈춘다.
+     *
+     * @return 지운 키 수
+     */
+    public long sweepRetiredVersion(final String retiredVersion) {
+        final ScanOptions options = ScanOptions.scanOptions()
+                .match(ChartCacheKeyGenerator.versionPrefix(retiredVersion) + "*")
+                .count(scanCount)
+                .build();
+
+        final long startedAt = System.currentTimeMillis();
+        final Long unlinked = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long count = 0;
+            final List<byte[]> batch = new ArrayList<>(batchSize);
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() >= batchSize) {
+                        if (isPublished(retiredVersion)) {
+                            return count;
+                        }
+                        count += unlink(connection, batch);
+                        pause();
+                    }
+                }
+            }
+            if (isPublished(retiredVersion)) {
+                return count;
+            }
+            return count + unlink(connection, batch);
+        });
+
+        final long total = unlinked == null ? 0 : unlinked;
+        log.info("[ChartCacheSweep] 이전 버전 캐시 정리 완료. retiredVersion={}, unlinked={}, elapsedMs={}",
+                retiredVersion, total, System.currentTimeMillis() - startedAt);
+        return total;
+    }
+
+    private boolean isPublished(final String retiredVersion) {
+        if (!retiredVersion.equals(chartPublishedVersionService.getPublishedVersion())) {
+            return false;
+        }
+        log.info("[ChartCacheSweep] 정리 대상 version 이 다시 published 되어 정리를 멈춥니다. version={}", retiredVersion);
+        return true;
+    }
+
+    private static long unlink(final RedisConnection connection, final List<byte[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        final Long removed = connection.keyCommands().unlink(batch.toArray(new byte[0][]));
+        batch.clear();
+        return removed == null ? 0 : removed;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during chart cache sweep", e);
+        }
+    }
+}
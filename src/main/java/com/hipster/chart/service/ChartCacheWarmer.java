@@ -0,0 +1,111 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * publish 로 published version 이 바뀐 직후, 조회 빈도 상위 페이지를 미리 계산해 Redis / L1 에 채운다.
+ *
+ * version 이 바뀌면 모든 차트 키가 miss 가 되어 첫 트래픽이 한꺼번에 ES + MySQL 로 몰리므로,
+ * 상위 top-n 개를 chartCacheWarmExecutor(concurrency 개 스레드)로 나눠 먼저 채워 둔다.
+ * publish 트랜잭션 커밋 후에 시작하고, 실패해도 publish 에는 영향을 주지 않는다.
+ */
+@Slf4j
+@Component
+public class ChartCacheWarmer {
+
+    private final ChartService chartService;
+    private final ChartRequestFrequencyTracker chartRequestFrequencyTracker;
+    private final ChartCacheMetricsRecorder chartCacheMetricsRecorder;
+    private final ThreadPoolTaskExecutor chartCacheWarmExecutor;
+
+    @Value("${hipster.chart.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${hipster.chart.warmup.top-n:200}")
+    private int topN = 200;
+
+    public ChartCacheWarmer(final ChartService chartService,
+                            final ChartRequestFrequencyTracker chartRequestFrequencyTracker,
+                            final ChartCacheMetricsRecorder chartCacheMetricsRecorder,
+                            @Qualifier("chartCacheWarmExecutor") final ThreadPoolTaskExecutor chartCacheWarmExecutor) {
+        this.chartService = chartService;
+        this.chartRequestFrequencyTracker = chartRequestFrequencyTracker;
+        this.chartCacheMetricsRecorder = chartCacheMetricsRecorder;
+        this.chartCacheWarmExecutor = chartCacheWarmExecutor;
+    }
+
+    public void warmAfterPublish(final String publishedVersion) {
+        chartCacheMetricsRecorder.markVersionSwitched(publishedVersion);
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    warm(publishedVersion);
+                }
+            });
+            return;
+        }
+        warm(publishedVersion);
+    }
+
+    /**
+     * 대상 계산 작업을 executor 에 넣기만 하고 바로 돌아온다. 완료 집계는 마지막 작업이 끝난 스레드에서 한다.
+     */
+    void warm(final String publishedVersion) {
+        final long startedAt = System.nanoTime();
+        final List<ChartRequestFrequencyTracker.Target> targets;
+        try {
+            chartRequestFrequencyTracker.flush();
+            targets = chartRequestFrequencyTracker.topTargets(topN);
+        } catch (Exception e) {
+            log.warn("[ChartWarmup] warm-up 대상 조회 실패. version={}, reason={}", publishedVersion, e.getMessage());
+            chartCacheMetricsRecorder.recordWarmup("failed", System.nanoTime() - startedAt, 0);
+            return;
+        }
+        if (targets.isEmpty()) {
+            log.info("[ChartWarmup] 조회 빈도 기록이 없어 warm-up 을 건너뜁니다. version={}", publishedVersion);
+            return;
+        }
+
+        final AtomicInteger warmed = new AtomicInteger();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(targets.size());
+        for (final ChartRequestFrequencyTracker.Target target : targets) {
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    chartService.warmChartPayload(target.filter(), target.page(), target.size());
+                    warmed.incrementAndGet();
+                }, chartCacheWarmExecutor));
+            } catch (TaskRejectedException e) {
+                log.warn("[ChartWarmup] warm-up 큐가 가득 차 남은 대상은 건너뜁니다. version={}, submitted={}",
+                        publishedVersion, futures.size());
+                break;
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            final int warmedCount = warmed.get();
+            final String outcome = warmedCount == targets.size() ? "success" : warmedCount > 0 ? "partial" : "failed";
+            final long elapsedNanos = System.nanoTime() - startedAt;
+            chartCacheMetricsRecorder.recordWarmup(outcome, elapsedNanos, warmedCount);
+            chartRequestFrequencyTracker.decay();
+            log.info("[ChartWarmup] warm-up 완료. version={}, outcome={}, warmed={}/{}, elapsedMs={}",
+                    publishedVersion, outcome, warmedCount, targets.size(), elapsedNanos / 1_000_000);
+        });
+    }
+}
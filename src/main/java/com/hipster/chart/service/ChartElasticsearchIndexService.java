@@ -1,10 +1,10 @@
 package com.hipster.chart.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.chart.config.ChartPublishProperties;
 import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.repository.ChartScoreIndexSourceQueryRepository;
 import com.hipster.chart.repository.ChartScoreIndexSourceQueryRepository.ChartScoreIndexRow;
 import com.hipster.chart.repository.ChartScoreIndexSourceQueryRepository.ChartScoreIndexSourceType;
@@ -14,18 +14,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.IndexOperations;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.IndexQuery;
-import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Service
@@ -34,18 +29,13 @@ public class ChartElasticsearchIndexService {
 
     private static final int DEFAULT_BATCH_SIZE = 2_000;
     private static final DateTimeFormatter VERSION_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
-    private static final TypeReference<List<Map<String, Object>>> GENRE_JSON_TYPE = new TypeReference<>() {
-    };
-    private static final TypeReference<List<Integer>> INTEGER_LIST_TYPE = new TypeReference<>() {
-    };
-    private static final TypeReference<List<String>> STRING_LIST_TYPE = new TypeReference<>() {
-    };
 
     private final ChartScoreIndexSourceQueryRepository chartScoreIndexSourceQueryRepository;
     private final ElasticsearchOperations elasticsearchOperations;
     private final ElasticsearchClient elasticsearchClient;
-    private final ObjectMapper objectMapper;
     private final ChartPublishProperties chartPublishProperties;
+    private final ChartBulkIngester chartBulkIngester;
+    private final ChartIndexLifecycleManager chartIndexLifecycleManager;
 
     @Value("${chart.search.index-name:chart_scores}")
     private String chartSearchIndexName;
@@ -65,6 +55,73 @@ public class ChartElasticsearchIndexService {
         rebuildIndex(buildCandidateIndexName(version), batchSize, ChartScoreIndexSourceType.STAGE);
     }
 
+    /**
+     * incremental publish 용 candidate index.
+     * 현재 published index 를 ES 내부 _reindex 로 복사한 뒤, stage 에서 이번 실행에 다시 쓴 row 만 덮어쓴다.
+     * published index 를 찾을 수 없으면 stage 전체로 다시 만든다.
+     *
+     * @param updatedSince 이번 실행의 stage UPSERT 이전 시각. updated_at 이 이 이후인 stage row 를 변경분으로 본다
+     */
+    @Transactional(readOnly = true)
+    public void rebuildCandidateIndexIncrementally(final String version,
+                                                   final LocalDateTime updatedSince,
+                                                   final int batchSize) {
+        final String baseIndexName = resolvePublishedAliasTarget();
+        if (baseIndexName == null || !elasticsearchOperations.indexOps(IndexCoordinates.of(baseIndexName)).exists()) {
+            log.info("[CHART BATCH] Published ES index not found. Falling back to full candidate rebuild. version={}", version);
+            rebuildCandidateIndex(version, batchSize);
+            return;
+        }
+
+        final String indexName = buildCandidateIndexName(version);
+        final IndexCoordinates indexCoordinates = IndexCoordinates.of(indexName);
+        recreateIndex(indexCoordinates);
+        copyIndex(baseIndexName, indexName);
+        deleteDocumentsMissingFromStage(indexName);
+
+        final long indexedCount = indexBatches(indexCoordinates, batchSize, ChartScoreIndexSourceType.STAGE, updatedSince);
+        finalizeIndex(indexCoordinates);
+        log.info("[CHART BATCH] ES incremental indexing completed. base={}, index={}, changedCount={}",
+                baseIndexName, indexName, indexedCount);
+    }
+
+    /**
+     * 단일 패스(fused) 모드: 차트 점수 step 이 청크마다 직접 색인할 candidate index 를 미리 만든다.
+     * incremental publish 면 현재 published index 를 먼저 복사해 두고, 이후 청크가 바뀐 문서만 덮어쓴다.
+     *
+     * @return candidate index 이름
+     */
+    public String prepareCandidateIndex(final String version, final boolean copyPublished) {
+        final String indexName = buildCandidateIndexName(version);
+        recreateIndex(IndexCoordinates.of(indexName));
+
+        final String baseIndexName = copyPublished ? resolvePublishedAliasTarget() : null;
+        if (baseIndexName != null && elasticsearchOperations.indexOps(IndexCoordinates.of(baseIndexName)).exists()) {
+            copyIndex(baseIndexName, indexName);
+            deleteDocumentsMissingFromStage(indexName);
+        }
+        return indexName;
+    }
+
+    /**
+     * writer 가 메모리에 들고 있는 청크를 MySQL 을 다시 읽지 않고 바로 색인한다.
+     */
+    public void indexChartScores(final String indexName, final List<ChartScoreDto> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+
+        final ChartBulkIngester.Session session = chartBulkIngester.open(indexName);
+        for (final ChartScoreDto score : scores) {
+            session.add(toDocument(score));
+        }
+        session.awaitCompletion();
+    }
+
+    public void finalizeCandidateIndex(final String version) {
+        finalizeIndex(IndexCoordinates.of(buildCandidateIndexName(version)));
+    }
+
     public String buildCandidateIndexName(final String version) {
         return chartSearchIndexName + "_" + normalizeVersion(version);
     }
@@ -119,38 +176,93 @@ public class ChartElasticsearchIndexService {
         final IndexCoordinates indexCoordinates = IndexCoordinates.of(indexName);
         recreateIndex(indexCoordinates);
 
-        long indexedCount = 0L;
+        final long indexedCount = indexBatches(indexCoordinates, batchSize, sourceType, null);
+
+        finalizeIndex(indexCoordinates);
+        log.info("[CHART BATCH] ES indexing completed. sourceType={}, index={}, indexedCount={}", sourceType, indexName, indexedCount);
+    }
+
+    /**
+     * MySQL 에서 다음 batch 를 읽는 동안 앞선 batch 의 bulk 가 ES 로 나가도록 ChartBulkIngester 에 넘긴다.
+     * in-flight bulk 가 모두 차 있으면 다음 읽기도 기다린다.
+     */
+    private long indexBatches(final IndexCoordinates indexCoordinates,
+                              final int batchSize,
+                              final ChartScoreIndexSourceType sourceType,
+                              final LocalDateTime updatedSince) {
+        final ChartBulkIngester.Session session = chartBulkIngester.open(indexCoordinates.getIndexName());
+        long readCount = 0L;
         long cursorId = 0L;
 
         while (true) {
             final List<ChartScoreIndexRow> rows = chartScoreIndexSourceQueryRepository.findBatchAfterId(
                     sourceType,
+                    updatedSince,
                     cursorId,
                     batchSize
             );
 
             if (rows.isEmpty()) {
-                break;
+                return session.awaitCompletion();
             }
 
-            final List<ChartDocument> documents = rows.stream()
-                    .map(this::toDocument)
-                    .toList();
-
-            elasticsearchOperations.bulkIndex(toIndexQueries(documents), indexCoordinates);
-            indexedCount += documents.size();
+            for (final ChartScoreIndexRow row : rows) {
+                session.add(toDocument(row));
+            }
+            readCount += rows.size();
             cursorId = rows.get(rows.size() - 1).id();
 
             log.info(
-                    "[CHART BATCH] ES indexing in progress. sourceType={}, index={}, indexedCount={}",
+                    "[CHART BATCH] ES indexing in progress. sourceType={}, index={}, readCount={}",
                     sourceType,
-                    indexName,
-                    indexedCount
+                    indexCoordinates.getIndexName(),
+                    readCount
             );
         }
+    }
 
-        finalizeIndex(indexCoordinates);
-        log.info("[CHART BATCH] ES indexing completed. sourceType={}, index={}, indexedCount={}", sourceType, indexName, indexedCount);
+    private void copyIndex(final String sourceIndexName, final String targetIndexName) {
+        try {
+            final var response = elasticsearchClient.reindex(reindex -> reindex
+                    .source(source -> source.index(sourceIndexName))
+                    .dest(dest -> dest.index(targetIndexName))
+                    .waitForCompletion(true));
+            if (response.failures() != null && !response.failures().isEmpty()) {
+                throw new IllegalStateException("ES reindex reported failures. source=" + sourceIndexName
+                        + ", target=" + targetIndexName + ", failures=" + response.failures().size());
+            }
+            log.info("[CHART BATCH] ES index copied. source={}, target={}, copied={}",
+                    sourceIndexName, targetIndexName, response.total());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to copy ES index. source=" + sourceIndexName + ", target=" + targetIndexName, e);
+        }
+    }
+
+    /**
+     * 복사해 온 published 문서 중 stage 이월에서 빠진 release 의 문서를 지운다. 문서 id 는 releaseId 다.
+     */
+    private void deleteDocumentsMissingFromStage(final String indexName) {
+        final List<Long> releaseIds = chartScoreIndexSourceQueryRepository.findPublishedReleaseIdsMissingFromStage();
+        if (releaseIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (int from = 0; from < releaseIds.size(); from += DEFAULT_BATCH_SIZE) {
+                final List<String> documentIds = releaseIds.subList(from, Math.min(from + DEFAULT_BATCH_SIZE, releaseIds.size()))
+                        .stream()
+                        .map(String::valueOf)
+                        .toList();
+                elasticsearchClient.deleteByQuery(delete -> delete
+                        .index(indexName)
+                        .query(query -> query.ids(ids -> ids.values(documentIds)))
+                        .waitForCompletion(true));
+            }
+            log.info("[CHART BATCH] Removed carried-forward documents without summary. index={}, count={}",
+                    indexName, releaseIds.size());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete orphan chart documents. index=" + indexName, e);
+        }
     }
 
     private void recreateIndex(final IndexCoordinates indexCoordinates) {
@@ -160,17 +272,11 @@ public class ChartElasticsearchIndexService {
             indexOperations.delete();
         }
 
-        final Map<String, Object> settings = new HashMap<>();
-        settings.put("number_of_replicas", 0);
-        settings.put("refresh_interval", "-1");
-        settings.put("max_result_window", 50_000);
-
-        indexOperations.create(settings, indexOperations.createMapping(ChartDocument.class));
+        indexOperations.create(chartIndexLifecycleManager.loadSettings(), indexOperations.createMapping(ChartDocument.class));
     }
 
     private void finalizeIndex(final IndexCoordinates indexCoordinates) {
-        final IndexOperations indexOperations = elasticsearchOperations.indexOps(indexCoordinates);
-        indexOperations.refresh();
+        chartIndexLifecycleManager.finalizeForServing(indexCoordinates.getIndexName());
     }
 
     private void publishAlias(final String targetIndexName) {
@@ -225,10 +331,8 @@ public class ChartElasticsearchIndexService {
         return version.toLowerCase().replaceAll("[^a-z0-9_-]", "_");
     }
 
-    private ChartDocument toDocument(final ChartScoreIndexRow row) {
-        final List<Integer> genreIds = extractGenreIds(row.genreIds());
-        final List<Integer> primaryGenreIds = extractPrimaryGenreIds(row.genreIds());
-
+    // 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+    ChartDocument toDocument(final ChartScoreIndexRow row) {
         return ChartDocument.builder()
                 .releaseId(row.releaseId())
                 .bayesianScore(row.bayesianScore())
@@ -236,80 +340,25 @@ public class ChartElasticsearchIndexService {
                 .releaseType(row.releaseType())
                 .releaseYear(row.releaseYear())
                 .locationId(row.locationId())
-                .genreIds(genreIds)
-                .isPrimaryGenreIds(primaryGenreIds)
-                .descriptorIds(extractIntegerList(row.descriptorIds()))
-                .languages(extractStringList(row.languages()))
+                .genreIds(ChartFacetCodec.toList(row.genreIds()))
+                .isPrimaryGenreIds(ChartFacetCodec.toList(row.primaryGenreIds()))
+                .descriptorIds(ChartFacetCodec.toList(row.descriptorIds()))
+                .languages(ChartFacetCodec.languageNames(row.languageMask()))
                 .build();
     }
 
-    private List<IndexQuery> toIndexQueries(final List<ChartDocument> documents) {
-        final List<IndexQuery> queries = new ArrayList<>(documents.size());
-        for (ChartDocument document : documents) {
-            queries.add(new IndexQueryBuilder()
-                    .withId(String.valueOf(document.getReleaseId()))
-                    .withObject(document)
-                    .build());
-        }
-        return queries;
-    }
-
-    private List<Integer> extractGenreIds(final String genreIdsJson) {
-        return extractGenreMaps(genreIdsJson).stream()
-                .map(entry -> entry.get("id"))
-                .filter(Number.class::isInstance)
-                .map(Number.class::cast)
-                .map(Number::intValue)
-                .toList();
-    }
-
-    private List<Integer> extractPrimaryGenreIds(final String genreIdsJson) {
-        return extractGenreMaps(genreIdsJson).stream()
-                .filter(entry -> Boolean.TRUE.equals(entry.get("isPrimary")))
-                .map(entry -> entry.get("id"))
-                .filter(Number.class::isInstance)
-                .map(Number.class::cast)
-                .map(Number::intValue)
-                .toList();
-    }
-
-    private List<Map<String, Object>> extractGenreMaps(final String genreIdsJson) {
-        if (genreIdsJson == null || genreIdsJson.isBlank()) {
-            return List.of();
-        }
-
-        try {
-            return objectMapper.readValue(genreIdsJson, GENRE_JSON_TYPE);
-        } catch (Exception e) {
-            log.warn("[CHART BATCH] Failed to parse genre_ids JSON. json={}", genreIdsJson, e);
-            return List.of();
-        }
-    }
-
-    private List<Integer> extractIntegerList(final String json) {
-        if (json == null || json.isBlank()) {
-            return List.of();
-        }
-
-        try {
-            return objectMapper.readValue(json, INTEGER_LIST_TYPE);
-        } catch (Exception e) {
-            log.warn("[CHART BATCH] Failed to parse integer array JSON. json={}", json, e);
-            return List.of();
-        }
-    }
-
-    private List<String> extractStringList(final String json) {
-        if (json == null || json.isBlank()) {
-            return List.of();
-        }
-
-        try {
-            return objectMapper.readValue(json, STRING_LIST_TYPE);
-        } catch (Exception e) {
-            log.warn("[CHART BATCH] Failed to parse string array JSON. json={}", json, e);
-            return List.of();
-        }
+    ChartDocument toDocument(final ChartScoreDto dto) {
+        return ChartDocument.builder()
+                .releaseId(dto.releaseId())
+                .bayesianScore(dto.bayesianScore())
+                .isEsoteric(dto.isEsoteric())
+                .releaseType(dto.releaseType() != null ? dto.releaseType().name() : null)
+                .releaseYear(dto.releaseYear())
+                .locationId(dto.locationId())
+                .genreIds(ChartFacetCodec.toList(dto.genreIds()))
+                .isPrimaryGenreIds(ChartFacetCodec.toList(dto.primaryGenreIds()))
+                .descriptorIds(ChartFacetCodec.toList(dto.descriptorIds()))
+                .languages(ChartFacetCodec.languageNames(dto.languageMask()))
+                .build();
     }
-
 }
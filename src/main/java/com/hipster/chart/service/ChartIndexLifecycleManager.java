@@ -0,0 +1,152 @@
+package com.hipster.chart.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.HealthStatus;
+import co.elastic.clients.elasticsearch.cluster.HealthResponse;
+import co.elastic.clients.elasticsearch.indices.TranslogDurability;
+import com.hipster.chart.config.ChartIndexLifecycleProperties;
+import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.dto.request.ChartFilterRequest;
+import com.hipster.chart.metrics.ChartIndexMetricsRecorder;
+import com.hipster.release.domain.ReleaseType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * candidate index 의 적재용 설정과, alias 전환 전 조회용 상태로 바꾸는 마무리 단계를 담당한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChartIndexLifecycleManager {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ChartIndexLifecycleProperties properties;
+    private final ChartIndexMetricsRecorder chartIndexMetricsRecorder;
+
+    /**
+     * index 생성 시점의 설정. replica 0, refresh 끔, translog async 로 bulk 적재 비용을 줄인다.
+     */
+    public Map<String, Object> loadSettings() {
+        final ChartIndexLifecycleProperties.Load load = properties.getLoad();
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put("number_of_shards", load.getNumberOfShards());
+        settings.put("number_of_replicas", 0);
+        settings.put("refresh_interval", load.getRefreshInterval());
+        settings.put("translog.durability", load.getTranslogDurability());
+        settings.put("max_result_window", load.getMaxResultWindow());
+        return settings;
+    }
+
+    /**
+     * 적재가 끝난 index 를 조회용으로 전환한다.
+     * refresh → force merge → serve 설정(replica / refresh / translog) 복원 → health 대기 → warm-up
+     */
+    public void finalizeForServing(final String indexName) {
+        final ChartIndexLifecycleProperties.Serve serve = properties.getServe();
+        final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+        runPhase("refresh", phaseMillis,
+                () -> elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).refresh());
+        if (serve.getForceMergeMaxSegments() > 0) {
+            runPhase("force_merge", phaseMillis, () -> forceMerge(indexName, serve.getForceMergeMaxSegments()));
+        }
+        runPhase("serve_settings", phaseMillis, () -> applyServeSettings(indexName, serve));
+        runPhase("wait_for_status", phaseMillis, () -> waitForStatus(indexName, serve));
+        if (serve.isWarmupEnabled()) {
+            runPhase("warmup", phaseMillis, () -> warmUp(indexName, serve.getWarmupPageSize()));
+        }
+
+        log.info("[CHART BATCH] ES index finalized for serving. index={}, phaseMillis={}", indexName, phaseMillis);
+    }
+
+    private void runPhase(final String phase, final Map<String, Long> phaseMillis, final Runnable action) {
+        final long startedAt = System.nanoTime();
+        action.run();
+        final long elapsedNanos = System.nanoTime() - startedAt;
+        chartIndexMetricsRecorder.recordIndexPhase(phase, elapsedNanos);
+        phaseMillis.put(phase, elapsedNanos / 1_000_000);
+    }
+
+    private void forceMerge(final String indexName, final int maxSegments) {
+        try {
+            elasticsearchClient.indices().forcemerge(request -> request
+                    .index(indexName)
+                    .maxNumSegments((long) maxSegments));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to force merge ES index. index=" + indexName, e);
+        }
+    }
+
+    private void applyServeSettings(final String indexName, final ChartIndexLifecycleProperties.Serve serve) {
+        try {
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(indexName)
+                    .settings(settings -> settings
+                            .numberOfReplicas(String.valueOf(serve.getNumberOfReplicas()))
+                            .refreshInterval(time -> time.time(serve.getRefreshInterval()))
+                            .translog(translog -> translog.durability(toTranslogDurability(serve.getTranslogDurability())))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to apply serve settings to ES index. index=" + indexName, e);
+        }
+    }
+
+    /**
+     * replica 복구가 끝나기 전에 alias 를 넘기면 조회가 primary 에만 몰리므로, 목표 health 에 못 미치면 publish 를 막는다.
+     */
+    private void waitForStatus(final String indexName, final ChartIndexLifecycleProperties.Serve serve) {
+        final HealthStatus targetStatus = "yellow".equalsIgnoreCase(serve.getWaitForStatus())
+                ? HealthStatus.Yellow
+                : HealthStatus.Green;
+        final HealthResponse response;
+        try {
+            response = elasticsearchClient.cluster().health(request -> request
+                    .index(indexName)
+                    .waitForStatus(targetStatus)
+                    .timeout(time -> time.time(serve.getWaitForStatusTimeout())));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read ES index health. index=" + indexName, e);
+        }
+        if (response.timedOut()) {
+            throw new IllegalStateException("ES index did not reach " + targetStatus + " in time. index=" + indexName
+                    + ", status=" + response.status());
+        }
+    }
+
+    private void warmUp(final String indexName, final int pageSize) {
+        final IndexCoordinates indexCoordinates = IndexCoordinates.of(indexName);
+        for (final ChartFilterRequest filter : warmupFilters()) {
+            elasticsearchOperations.search(
+                    ChartSearchService.buildChartQuery(filter, 0, pageSize),
+                    ChartDocument.class,
+                    indexCoordinates
+            );
+        }
+    }
+
+    /** 기본 차트, esoteric 포함 차트, release type 별 차트. */
+    private static List<ChartFilterRequest> warmupFilters() {
+        final List<ChartFilterRequest> filters = new ArrayList<>();
+        filters.add(ChartFilterRequest.empty());
+        filters.add(new ChartFilterRequest(null, null, null, null, null, null, null, true));
+        for (final ReleaseType releaseType : ReleaseType.values()) {
+            filters.add(new ChartFilterRequest(null, null, null, null, null, null, releaseType, false));
+        }
+        return filters;
+    }
+
+    private static TranslogDurability toTranslogDurability(final String value) {
+        return "async".equalsIgnoreCase(value) ? TranslogDurability.Async : TranslogDurability.Request;
+    }
+}
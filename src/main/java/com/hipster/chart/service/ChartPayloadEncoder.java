@@ -0,0 +1,75 @@
+package com.hipster.chart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hipster.chart.dto.response.ChartPayload;
+import com.hipster.global.dto.response.ApiResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Redis 에 캐시된 TopChartResponse JSON 을 역직렬화하지 않고 ApiResponse 봉투만 덧붙여 응답 바이트로 만든다.
+ *
+ * 봉투의 앞/뒤 조각은 MVC 와 같은 ObjectMapper 로 한 번만 만들어 두므로, 기존 ApiResponse 직렬화 결과와 바이트 단위로 같다.
+ */
+@Component
+public class ChartPayloadEncoder {
+
+    private static final String DATA_MARKER = "__chart_payload_data__";
+
+    private final byte[] envelopePrefix;
+    private final byte[] envelopeSuffix;
+    private final int gzipMinBytes;
+
+    public ChartPayloadEncoder(final ObjectMapper objectMapper,
+                               @Value("${hipster.chart.payload.gzip-min-bytes:1024}") final int gzipMinBytes) {
+        final String envelope;
+        try {
+            envelope = objectMapper.writeValueAsString(ApiResponse.ok(DATA_MARKER));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to build chart response envelope", e);
+        }
+        final String quotedMarker = "\"" + DATA_MARKER + "\"";
+        final int markerAt = envelope.indexOf(quotedMarker);
+        this.envelopePrefix = envelope.substring(0, markerAt).getBytes(StandardCharsets.UTF_8);
+        this.envelopeSuffix = envelope.substring(markerAt + quotedMarker.length()).getBytes(StandardCharsets.UTF_8);
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * @param dataJson TopChartResponse JSON (Redis 캐시 값과 같은 형태)
+     */
+    public ChartPayload encode(final String publishedVersion, final String dataJson) {
+        final byte[] data = dataJson.getBytes(StandardCharsets.UTF_8);
+        final byte[] body = new byte[envelopePrefix.length + data.length + envelopeSuffix.length];
+        System.arraycopy(envelopePrefix, 0, body, 0, envelopePrefix.length);
+        System.arraycopy(data, 0, body, envelopePrefix.length, data.length);
+        System.arraycopy(envelopeSuffix, 0, body, envelopePrefix.length + data.length, envelopeSuffix.length);
+
+        final byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+        return new ChartPayload(body, gzipBody, etag(publishedVersion, body));
+    }
+
+    private static String etag(final String publishedVersion, final byte[] body) {
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        return "\"" + publishedVersion + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    private static byte[] gzip(final byte[] body) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
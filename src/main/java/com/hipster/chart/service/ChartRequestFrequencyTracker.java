@@ -0,0 +1,193 @@
+package com.hipster.chart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hipster.chart.dto.request.ChartFilterRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 차트 페이지별(version 을 뺀 캐시 키 기준) 조회 빈도를 모은다. publish 직후 warm-up 대상을 고르는 데 쓴다.
+ *
+ * 요청 경로에서는 노드 로컬 카운터만 올리고, flush-ms 마다 Redis sorted set 에 pipeline 으로 묶은 ZINCRBY 로 합친다.
+ * flush 는 맵을 교체하지 않고 카운터마다 sumThenReset 으로 비우므로, flush 도중 요청 스레드가 올린 값은 다음 flush 로 넘어간다.
+ * 모든 노드의 빈도가 한 곳에 모이므로 publish 를 실행한 노드가 전체 트래픽 기준 상위 페이지를 고를 수 있다.
+ * warm-up 이 끝날 때마다 점수를 decay-factor 만큼 줄여 오래된 인기 페이지가 계속 남지 않게 한다.
+ */
+@Slf4j
+@Component
+public class ChartRequestFrequencyTracker {
+
+    static final String FREQUENCY_KEY = "chart-meta:request-frequency:v1";
+
+    private final ChartCacheKeyGenerator cacheKeyGenerator;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${hipster.chart.warmup.max-tracked-keys:10000}")
+    private int maxTrackedKeys = 10000;
+
+    @Value("${hipster.chart.warmup.decay-factor:0.5}")
+    private double decayFactor = 0.5;
+
+    private final Map<String, LocalCount> localCounts = new ConcurrentHashMap<>();
+
+    public ChartRequestFrequencyTracker(final ChartCacheKeyGenerator cacheKeyGenerator,
+                                        final StringRedisTemplate redisTemplate,
+                                        final ObjectMapper objectMapper) {
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void record(final ChartFilterRequest filter, final int page, final int size) {
+        final String normalizedKey = cacheKeyGenerator.normalizedKey(filter, page);
+        LocalCount count = localCounts.get(normalizedKey);
+        if (count == null) {
+            if (localCounts.size() >= maxTrackedKeys) {
+                return;
+            }
+            count = localCounts.computeIfAbsent(normalizedKey, key -> new LocalCount(new Target(normalize(filter), page, size)));
+        }
+        count.hits.increment();
+    }
+
+    /**
+     * 로컬 카운터를 비워 한 번의 pipeline 으로 Redis 에 합친다.
+     * 스케줄러와 publish 후 warm-up({@link ChartCacheWarmer}) 이 동시에 부를 수 있어 한 번에 하나만 실행한다.
+     * 한 구간 동안 조회가 없던 키는 로컬 맵에서 빼서 max-tracked-keys 자리를 비운다.
+     */
+    @Scheduled(fixedDelayString = "${hipster.chart.warmup.frequency-flush-ms:60000}")
+    public synchronized void flush() {
+        if (localCounts.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Long> increments = new LinkedHashMap<>();
+        for (final Map.Entry<String, LocalCount> entry : localCounts.entrySet()) {
+            final LocalCount count = entry.getValue();
+            long hits = count.hits.sumThenReset();
+            if (hits == 0 && localCounts.remove(entry.getKey(), count)) {
+                // 제거 직전에 들어온 증가분은 여기서 함께 보낸다.
+                hits = count.hits.sumThenReset();
+            }
+            if (hits > 0) {
+                increments.merge(serialize(count.target), hits, Long::sum);
+            }
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        final byte[] frequencyKey = FREQUENCY_KEY.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (final Map.Entry<String, Long> increment : increments.entrySet()) {
+                    connection.zSetCommands().zIncrBy(frequencyKey, increment.getValue(),
+                            increment.getKey().getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("[ChartWarmup] 조회 빈도 반영 실패. 이번 구간 빈도는 버립니다. keys={}, reason={}", increments.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 조회 빈도 상위 페이지. 같은 캐시 키를 가리키는 대상(page size 만 다른 경우 등)은 점수가 높은 하나만 남긴다.
+     */
+    public List<Target> topTargets(final int limit) {
+        final Set<String> members = redisTemplate.opsForZSet().reverseRange(FREQUENCY_KEY, 0, limit * 2L - 1);
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<String, Target> targets = new LinkedHashMap<>();
+        for (final String member : members) {
+            final Target target = deserialize(member);
+            if (target != null) {
+                targets.putIfAbsent(cacheKeyGenerator.normalizedKey(target.filter(), target.page()), target);
+            }
+            if (targets.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(targets.values());
+    }
+
+    /**
+     * 점수를 decay-factor 배로 줄이고 상위 max-tracked-keys 개만 남긴다.
+     */
+    public void decay() {
+        try {
+            redisTemplate.opsForZSet().unionAndStore(FREQUENCY_KEY, List.of(), FREQUENCY_KEY,
+                    Aggregate.SUM, Weights.of(decayFactor));
+            redisTemplate.opsForZSet().removeRange(FREQUENCY_KEY, 0, -(maxTrackedKeys + 1L));
+        } catch (Exception e) {
+            log.warn("[ChartWarmup] 조회 빈도 decay 실패. reason={}", e.getMessage());
+        }
+    }
+
+    /** 단일 genreId 와 genreIds 를 같은 형태로 맞춰 저장한다. */
+    private static ChartFilterRequest normalize(final ChartFilterRequest filter) {
+        if (filter == null) {
+            return ChartFilterRequest.empty();
+        }
+        return new ChartFilterRequest(
+                null,
+                filter.hasGenreFilter() ? filter.normalizedGenreIds() : null,
+                filter.descriptorId(),
+                filter.locationId(),
+                filter.language(),
+                filter.year(),
+                filter.releaseType(),
+                Boolean.TRUE.equals(filter.includeEsoteric())
+        );
+    }
+
+    private String serialize(final Target target) {
+        try {
+            return objectMapper.writeValueAsString(target);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chart warm-up target", e);
+        }
+    }
+
+    private Target deserialize(final String member) {
+        try {
+            return objectMapper.readValue(member, Target.class);
+        } catch (JsonProcessingException e) {
+            log.warn("[ChartWarmup] 읽을 수 없는 warm-up 대상은 건너뜁니다. member={}", member);
+            return null;
+        }
+    }
+
+    /** warm-up 때 그대로 다시 요청할 수 있는 형태의 차트 조회 조건. */
+    public record Target(ChartFilterRequest filter, int page, int size) {
+    }
+
+    private static final class LocalCount {
+
+        private final Target target;
+        private final LongAdder hits = new LongAdder();
+
+        private LocalCount(final Target target) {
+            this.target = target;
+        }
+    }
+}
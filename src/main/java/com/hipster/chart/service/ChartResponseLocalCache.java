@@ -0,0 +1,73 @@
+package com.hipster.chart.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hipster.chart.dto.response.ChartPayload;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Redis 차트 캐시 앞단의 노드 로컬 L1 캐시. 직렬화가 끝난 응답 바이트(ChartPayload)를 들고 있는다.
+ *
+ * 키는 Redis 와 같은 ChartCacheKeyGenerator 키(published version 포함)를 쓰고,
+ * 조회 시 넘겨받은 published version 이 바뀌었으면 이전 버전 항목을 한 번에 비운다.
+ * 트래픽이 몰리는 앞쪽 페이지는 Redis 왕복과 JSON 파싱/직렬화 없이 응답된다.
+ */
+@Component
+public class ChartResponseLocalCache {
+
+    private final Cache<String, ChartPayload> cache;
+    private final boolean enabled;
+    private volatile String currentVersion;
+
+    public ChartResponseLocalCache(final MeterRegistry meterRegistry,
+                                   @Value("${hipster.chart.l1-cache.enabled:true}") final boolean enabled,
+                                   @Value("${hipster.chart.l1-cache.max-size:2000}") final long maxSize,
+                                   @Value("${hipster.chart.l1-cache.ttl-seconds:300}") final long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions 등으로 적중률을 노출한다
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chart.l1_cache");
+    }
+
+    public ChartPayload get(final String publishedVersion, final String cacheKey) {
+        if (!enabled) {
+            return null;
+        }
+        retainVersion(publishedVersion);
+        return cache.getIfPresent(cacheKey);
+    }
+
+    public void put(final String publishedVersion, final String cacheKey, final ChartPayload payload) {
+        if (!enabled || payload == null) {
+            return;
+        }
+        if (currentVersion == null) {
+            retainVersion(publishedVersion);
+        }
+        // 조회 도중 다른 요청이 새 version 을 보았으면 이전 버전 응답은 담지 않는다.
+        if (Objects.equals(currentVersion, publishedVersion)) {
+            cache.put(cacheKey, payload);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void retainVersion(final String publishedVersion) {
+        if (!Objects.equals(currentVersion, publishedVersion)) {
+            currentVersion = publishedVersion;
+            cache.invalidateAll();
+        }
+    }
+}
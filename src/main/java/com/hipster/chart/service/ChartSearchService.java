@@ -26,6 +26,22 @@ public class ChartSearchService {
     private final ChartElasticsearchIndexService chartElasticsearchIndexService;
 
     public List<Long> searchReleaseIds(final ChartFilterRequest filter, final int page, final int size) {
+        final SearchHits<ChartDocument> searchHits = elasticsearchOperations.search(
+                buildChartQuery(filter, page, size),
+                ChartDocument.class,
+                IndexCoordinates.of(resolveSearchIndexName())
+        );
+
+        return searchHits.getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .map(ChartDocument::getReleaseId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 차트 조회 쿼리. candidate index warm-up 도 같은 모양의 쿼리를 쓰도록 분리해 둔다.
+     */
+    static NativeQuery buildChartQuery(final ChartFilterRequest filter, final int page, final int size) {
         final BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder();
         boolean hasFilter = false;
 
@@ -91,22 +107,11 @@ public class ChartSearchService {
                 ? Query.of(q -> q.bool(boolQueryBuilder.build()))
                 : Query.of(q -> q.matchAll(m -> m));
 
-        final NativeQuery nativeQuery = NativeQuery.builder()
+        return NativeQuery.builder()
                 .withQuery(query)
                 .withSort(Sort.by(Sort.Direction.DESC, "bayesianScore"))
                 .withPageable(PageRequest.of(page, size))
                 .build();
-
-        final SearchHits<ChartDocument> searchHits = elasticsearchOperations.search(
-                nativeQuery,
-                ChartDocument.class,
-                IndexCoordinates.of(resolveSearchIndexName())
-        );
-
-        return searchHits.getSearchHits().stream()
-                .map(SearchHit::getContent)
-                .map(ChartDocument::getReleaseId)
-                .collect(Collectors.toList());
     }
 
     private String resolveSearchIndexName() {
@@ -1,9 +1,12 @@
 package com.hipster.chart.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hipster.chart.domain.ChartScore;
 import com.hipster.chart.dto.request.ChartFilterRequest;
+import com.hipster.chart.dto.response.ChartPayload;
 import com.hipster.chart.dto.response.TopChartResponse;
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
 import com.hipster.chart.publish.service.ChartPublishedVersionService;
 import com.hipster.chart.repository.ChartScoreRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +15,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -36,21 +40,101 @@ public class ChartService {
     private final ChartPublishedVersionService chartPublishedVersionService;
     private final StringRedisTemplate redisTemplate;
     private final ChartCacheKeyGenerator cacheKeyGenerator;
+    private final ChartResponseLocalCache chartResponseLocalCache;
+    private final ChartPayloadEncoder chartPayloadEncoder;
+    private final ChartRequestFrequencyTracker chartRequestFrequencyTracker;
+    private final ChartCacheMetricsRecorder chartCacheMetricsRecorder;
+    private final ChartSingleFlight chartSingleFlight;
+    private final PlatformTransactionManager transactionManager;
     private final ObjectMapper objectMapper;
 
-    @Transactional(readOnly = true)
-    public TopChartResponse getCharts(final ChartFilterRequest filter, final int page, final int size) {
-        final String cacheKey = cacheKeyGenerator.generateKey(filter, page);
+    /**
+     * 차트 응답을 직렬화된 바이트로 돌려준다.
+     * L1 / Redis 적중 시에는 TopChartResponse 로 역직렬화하지 않고 캐시된 JSON 에 ApiResponse 봉투만 붙인다.
+     * 트랜잭션은 miss 를 계산하는 single-flight leader 만 연다. 캐시 적중과 leader 를 기다리는 요청은 DB 커넥션을 잡지 않는다.
+     */
+    public ChartPayload getChartPayload(final ChartFilterRequest filter, final int page, final int size) {
+        chartRequestFrequencyTracker.record(filter, page, size);
+        return loadPayload(filter, page, size, true);
+    }
+
+    /**
+     * publish 직후 warm-up 용. 캐시를 채우는 것은 같지만 조회 빈도와 적중률 지표에는 넣지 않는다.
+     */
+    public ChartPayload warmChartPayload(final ChartFilterRequest filter, final int page, final int size) {
+        return loadPayload(filter, page, size, false);
+    }
+
+    private ChartPayload loadPayload(final ChartFilterRequest filter,
+                                     final int page,
+                                     final int size,
+                                     final boolean recordLookup) {
+        final String publishedVersion = chartPublishedVersionService.getPublishedVersion();
+        final String cacheKey = cacheKeyGenerator.generateKey(filter, page, publishedVersion);
+
+        final ChartPayload localPayload = chartResponseLocalCache.get(publishedVersion, cacheKey);
+        if (localPayload != null) {
+            recordLookup(recordLookup, publishedVersion, ChartCacheMetricsRecorder.TIER_L1);
+            return localPayload;
+        }
+
+        final ChartPayload cachedPayload = readCachedPayload(publishedVersion, cacheKey);
+        if (cachedPayload != null) {
+            recordLookup(recordLookup, publishedVersion, ChartCacheMetricsRecorder.TIER_REDIS);
+            return cachedPayload;
+        }
 
+        // 같은 키의 동시 miss 는 한 요청만 ES / MySQL 로 계산하고 나머지는 그 결과를 기다린다.
+        final ChartPayload payload = chartSingleFlight.load(
+                cacheKey,
+                () -> readCachedPayload(publishedVersion, cacheKey),
+                () -> buildPayload(filter, page, size, publishedVersion, cacheKey)
+        );
+        recordLookup(recordLookup, publishedVersion, ChartCacheMetricsRecorder.TIER_MISS);
+        return payload;
+    }
+
+    /**
+     * @return Redis 에 캐시된 응답. 없거나 Redis 조회에 실패하면 null
+     */
+    private ChartPayload readCachedPayload(final String publishedVersion, final String cacheKey) {
         try {
             final String cachedJson = redisTemplate.opsForValue().get(cacheKey);
             if (cachedJson != null) {
-                return objectMapper.readValue(cachedJson, TopChartResponse.class);
+                final ChartPayload cachedPayload = chartPayloadEncoder.encode(publishedVersion, cachedJson);
+                chartResponseLocalCache.put(publishedVersion, cacheKey, cachedPayload);
+                return cachedPayload;
             }
         } catch (Exception e) {
             log.warn("[Redis Fallback] 차트 캐시 조회에 실패해 검색 경로로 전환합니다. key={}, reason={}", cacheKey, e.getMessage());
         }
+        return null;
+    }
 
+    /**
+     * ES / MySQL 조회와 응답 조립만 read-only 트랜잭션 안에서 하고, 캐시 저장은 커넥션을 돌려준 뒤에 한다.
+     */
+    private ChartPayload buildPayload(final ChartFilterRequest filter,
+                                      final int page,
+                                      final int size,
+                                      final String publishedVersion,
+                                      final String cacheKey) {
+        final String jsonResponse = readOnlyTransaction().execute(status -> buildResponseJson(filter, page, size, publishedVersion));
+        try {
+            redisTemplate.opsForValue().set(cacheKey, jsonResponse, CACHE_TTL);
+        } catch (Exception e) {
+            log.warn("[Redis Fallback] 차트 캐시 저장에 실패했습니다. key={}, reason={}", cacheKey, e.getMessage());
+        }
+
+        final ChartPayload payload = chartPayloadEncoder.encode(publishedVersion, jsonResponse);
+        chartResponseLocalCache.put(publishedVersion, cacheKey, payload);
+        return payload;
+    }
+
+    private String buildResponseJson(final ChartFilterRequest filter,
+                                     final int page,
+                                     final int size,
+                                     final String publishedVersion) {
         final Pageable pageable = PageRequest.of(page, size);
         final List<ChartScore> chartScores = fetchChartScores(filter, pageable);
 
@@ -58,19 +142,31 @@ public class ChartService {
 
         final TopChartResponse response = chartResponseAssembler.assemble(
                 buildChartTitle(size, filter),
-                chartPublishedVersionService.getPublishedVersion(),
+                publishedVersion,
                 lastUpdated,
                 chartScores
         );
+        return serialize(response);
+    }
 
-        try {
-            final String jsonResponse = objectMapper.writeValueAsString(response);
-            redisTemplate.opsForValue().set(cacheKey, jsonResponse, CACHE_TTL);
-        } catch (Exception e) {
-            log.warn("[Redis Fallback] 차트 캐시 저장에 실패했습니다. key={}, reason={}", cacheKey, e.getMessage());
+    private TransactionTemplate readOnlyTransaction() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    private void recordLookup(final boolean enabled, final String publishedVersion, final String tier) {
+        if (enabled) {
+            chartCacheMetricsRecorder.recordLookup(publishedVersion, tier);
         }
+    }
 
-        return response;
+    private String serialize(final TopChartResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chart response", e);
+        }
     }
 
     private List<ChartScore> fetchChartScores(final ChartFilterRequest filter, final Pageable pageable) {
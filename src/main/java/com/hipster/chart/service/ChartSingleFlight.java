@@ -0,0 +1,184 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.dto.response.ChartPayload;
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 차트 캐시 miss 시 같은 키의 계산을 하나로 합친다. (single-flight)
+ *
+ * JVM 안에서는 키마다 먼저 도착한 요청 하나만 loader 를 실행하고, 나머지는 그 결과를 기다린다.
+ * lease.enabled 이면 노드 간에도 Redis SET NX PX lease 로 계산 노드를 하나로 줄이고,
+ * lease 를 못 얻은 노드의 leader 는 Redis 에 값이 채워지기를 lease.wait-timeout-ms 까지 poll 한 뒤 직접 계산한다.
+ * 같은 노드의 대기 요청은 leader 의 lease poll 과 계산을 모두 기다려야 하므로
+ * lease.wait-timeout-ms + wait-timeout-ms 까지 기다린다. (poll 이 끝나는 순간 대기 요청이 한꺼번에 계산하지 않도록)
+ * 어느 쪽이든 제한 시간 안에 결과가 없으면 스스로 계산하므로, 느린 loader 때문에 요청이 막히지는 않는다.
+ */
+@Slf4j
+@Component
+public class ChartSingleFlight {
+
+    static final String LEASE_KEY_PREFIX = "chart-lease:v1:";
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChartCacheMetricsRecorder chartCacheMetricsRecorder;
+    private final Map<String, CompletableFuture<ChartPayload>> inFlight = new ConcurrentHashMap<>();
+
+    /** leader 의 계산(loader) 한 번을 기다리는 한도 */
+    @Value("${hipster.chart.single-flight.wait-timeout-ms:2000}")
+    private long waitTimeoutMillis = 2000;
+
+    @Value("${hipster.chart.single-flight.lease.enabled:false}")
+    private boolean leaseEnabled = false;
+
+    @Value("${hipster.chart.single-flight.lease.ttl-ms:3000}")
+    private long leaseTtlMillis = 3000;
+
+    @Value("${hipster.chart.single-flight.lease.poll-interval-ms:50}")
+    private long leasePollIntervalMillis = 50;
+
+    /** lease 를 못 얻은 leader 가 다른 노드의 계산 결과를 poll 하는 한도 */
+    @Value("${hipster.chart.single-flight.lease.wait-timeout-ms:2000}")
+    private long leaseWaitTimeoutMillis = 2000;
+
+    public ChartSingleFlight(final StringRedisTemplate redisTemplate,
+                             final ChartCacheMetricsRecorder chartCacheMetricsRecorder) {
+        this.redisTemplate = redisTemplate;
+        this.chartCacheMetricsRecorder = chartCacheMetricsRecorder;
+    }
+
+    /**
+     * @param cacheLookup 다른 노드가 채운 값을 확인하는 조회 (없으면 null)
+     * @param loader      ES / MySQL 로 응답을 계산하고 캐시에 저장하는 작업
+     */
+    public ChartPayload load(final String cacheKey,
+                             final Supplier<ChartPayload> cacheLookup,
+                             final Supplier<ChartPayload> loader) {
+        final CompletableFuture<ChartPayload> flight = new CompletableFuture<>();
+        final CompletableFuture<ChartPayload> leader = inFlight.putIfAbsent(cacheKey, flight);
+        if (leader != null) {
+            return awaitLeader(cacheKey, leader, loader);
+        }
+
+        try {
+            final ChartPayload payload = loadWithLease(cacheKey, cacheLookup, loader);
+            flight.complete(payload);
+            return payload;
+        } catch (Throwable e) {
+            // Error 도 전파해야 대기 요청이 제한 시간까지 묶이지 않는다.
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, flight);
+        }
+    }
+
+    private ChartPayload awaitLeader(final String cacheKey,
+                                     final CompletableFuture<ChartPayload> leader,
+                                     final Supplier<ChartPayload> loader) {
+        final long waiterTimeoutMillis = waiterTimeoutMillis();
+        try {
+            final ChartPayload payload = leader.get(waiterTimeoutMillis, TimeUnit.MILLISECONDS);
+            chartCacheMetricsRecorder.recordSingleFlight("coalesced");
+            return payload;
+        } catch (TimeoutException e) {
+            chartCacheMetricsRecorder.recordSingleFlight("timeout");
+            log.warn("[ChartSingleFlight] 선행 계산 대기 시간 초과, 직접 계산합니다. key={}, waitMs={}", cacheKey, waiterTimeoutMillis);
+        } catch (ExecutionException e) {
+            chartCacheMetricsRecorder.recordSingleFlight("leader_failed");
+            log.warn("[ChartSingleFlight] 선행 계산 실패, 직접 계산합니다. key={}, reason={}", cacheKey, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for chart cache load. key=" + cacheKey, e);
+        }
+        return loader.get();
+    }
+
+    private ChartPayload loadWithLease(final String cacheKey,
+                                       final Supplier<ChartPayload> cacheLookup,
+                                       final Supplier<ChartPayload> loader) {
+        if (!leaseEnabled) {
+            chartCacheMetricsRecorder.recordSingleFlight("leader");
+            return loader.get();
+        }
+
+        final String leaseKey = LEASE_KEY_PREFIX + cacheKey;
+        final String token = UUID.randomUUID().toString();
+        if (tryAcquireLease(leaseKey, token)) {
+            chartCacheMetricsRecorder.recordSingleFlight("leader");
+            try {
+                return loader.get();
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseWaitTimeoutMillis);
+        while (System.nanoTime() - deadline < 0) {
+            sleep(leasePollIntervalMillis);
+            final ChartPayload payload = cacheLookup.get();
+            if (payload != null) {
+                chartCacheMetricsRecorder.recordSingleFlight("lease_wait_hit");
+                return payload;
+            }
+        }
+        chartCacheMetricsRecorder.recordSingleFlight("timeout");
+        log.warn("[ChartSingleFlight] 다른 노드의 계산을 기다리다 시간 초과, 직접 계산합니다. key={}", cacheKey);
+        return loader.get();
+    }
+
+    /** 대기 요청의 한도. leader 가 lease poll 을 다 쓰고 직접 계산하는 경우까지 포함한다. */
+    private long waiterTimeoutMillis() {
+        return leaseEnabled ? leaseWaitTimeoutMillis + waitTimeoutMillis : waitTimeoutMillis;
+    }
+
+    /** Redis 장애 시에는 lease 없이 계산하도록 획득한 것으로 본다. */
+    private boolean tryAcquireLease(final String leaseKey, final String token) {
+        try {
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey, token, Duration.ofMillis(leaseTtlMillis)));
+        } catch (Exception e) {
+            log.warn("[ChartSingleFlight] lease 획득 실패, lease 없이 계산합니다. key={}, reason={}", leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    /** 내 lease 일 때만 지운다. TTL 이 지나 다른 노드가 새로 잡은 lease 는 건드리지 않는다. */
+    private void releaseLease(final String leaseKey, final String token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), token);
+        } catch (Exception e) {
+            log.warn("[ChartSingleFlight] lease 해제 실패, TTL 로 만료됩니다. key={}, reason={}", leaseKey, e.getMessage());
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for chart cache lease", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.hipster.chart.service;
+
+import com.hipster.batch.chart.repository.ChartReleaseMetadataQueryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * release_chart_metadata projection 유지.
+ *
+ * - 검수 승인/반려로 release 가 바뀌면 커밋 후 해당 release 만 다시 만든다.
+ * - 차트 배치 시작 시 stale(미적재 또는 releases.updated_at 불일치) release 를 한 번에 따라잡는다.
+ * 커밋 후 갱신이 실패해도 다음 배치의 stale 따라잡기가 교정하므로 예외를 전파하지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReleaseChartMetadataService {
+
+    private static final int REFRESH_CHUNK_SIZE = 1_000;
+
+    private final ChartReleaseMetadataQueryRepository chartReleaseMetadataQueryRepository;
+
+    public void refreshAfterCommit(final Long releaseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshQuietly(releaseId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshQuietly(releaseId);
+            }
+        });
+    }
+
+    /**
+     * @return 다시 만든 release 수
+     */
+    public long refreshStale() {
+        long refreshed = 0;
+        long afterId = 0;
+        while (true) {
+            final List<Long> staleIds = refreshStaleChunk(afterId);
+            if (staleIds.isEmpty()) {
+                return refreshed;
+            }
+            refreshed += staleIds.size();
+            afterId = staleIds.get(staleIds.size() - 1);
+        }
+    }
+
+    /**
+     * afterId 다음 stale release 를 최대 한 청크만 다시 만든다.
+     * 차트 배치 tasklet 은 청크마다 따로 커밋하도록 이 메서드를 반복 호출한다. (첫 전체 backfill 이 하나의 거대한 트랜잭션이 되지 않게)
+     *
+     * @return 다시 만든 release id. 더 이상 stale release 가 없으면 빈 목록
+     */
+    public List<Long> refreshStaleChunk(final long afterId) {
+        final List<Long> staleIds = chartReleaseMetadataQueryRepository.findStaleReleaseIds(afterId, REFRESH_CHUNK_SIZE);
+        if (!staleIds.isEmpty()) {
+            chartReleaseMetadataQueryRepository.refreshProjection(staleIds);
+        }
+        return staleIds;
+    }
+
+    private void refreshQuietly(final Long releaseId) {
+        try {
+            chartReleaseMetadataQueryRepository.refreshProjection(List.of(releaseId));
+        } catch (RuntimeException e) {
+            log.warn("[ReleaseChartMetadata] projection 갱신 실패. 다음 차트 배치에서 교정. releaseId={}", releaseId, e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hipster.global.config;
 
 import com.hipster.global.logging.context.MdcTaskDecorator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -39,4 +40,110 @@ public class AsyncConfig implements AsyncConfigurer {
         log.info("Initialized ratingSummaryExecutor ThreadPoolTaskExecutor.");
         return executor;
     }
+
+    /**
+     * Anti-Entropy Full 재집계 구간 worker pool.
+     * 동시에 처리하는 구간 수는 Job 이 parallelism 으로 제한하므로 큐는 그만큼만 둔다.
+     */
+    @Bean(name = "antiEntropyExecutor")
+    public ThreadPoolTaskExecutor antiEntropyExecutor(@Value("${hipster.batch.anti-entropy.parallelism:4}") final int parallelism) {
+        final int poolSize = Math.max(parallelism, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("AntiEntropy-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized antiEntropyExecutor ThreadPoolTaskExecutor. parallelism={}", poolSize);
+        return executor;
+    }
+
+    /**
+     * 차트 점수 산출 step 의 파티션 worker pool.
+     * worker 마다 reader/writer 커넥션을 하나씩 쓰므로 grid-size 는 커넥션 풀 크기 안에서 잡는다.
+     */
+    @Bean(name = "chartPartitionExecutor")
+    public ThreadPoolTaskExecutor chartPartitionExecutor(@Value("${hipster.batch.chart.partition.grid-size:4}") final int gridSize) {
+        final int poolSize = Math.max(gridSize, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("ChartPartition-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized chartPartitionExecutor ThreadPoolTaskExecutor. gridSize={}", poolSize);
+        return executor;
+    }
+
+    /**
+     * 차트 점수 step 에서 MySQL stage UPSERT 와 겹쳐 실행되는 ES bulk 색인 pool.
+     * worker 마다 청크 하나의 색인만 기다리므로 grid-size 만큼이면 큐에 쌓이지 않는다.
+     */
+    @Bean(name = "chartEsIndexExecutor")
+    public ThreadPoolTaskExecutor chartEsIndexExecutor(@Value("${hipster.batch.chart.partition.grid-size:4}") final int gridSize) {
+        final int poolSize = Math.max(gridSize, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("ChartEsIndex-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized chartEsIndexExecutor ThreadPoolTaskExecutor. poolSize={}", poolSize);
+        return executor;
+    }
+
+    /**
+     * 차트 candidate index bulk 요청 pool.
+     * 동시에 나가는 요청 수는 ChartBulkIngester 가 max-in-flight-requests 로 제한하므로 큐는 pool 크기만큼만 둔다.
+     */
+    @Bean(name = "chartEsBulkExecutor")
+    public ThreadPoolTaskExecutor chartEsBulkExecutor(@Value("${chart.search.bulk.max-in-flight-requests:4}") final int maxInFlightRequests) {
+        final int poolSize = Math.max(maxInFlightRequests, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("ChartEsBulk-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized chartEsBulkExecutor ThreadPoolTaskExecutor. maxInFlightRequests={}", poolSize);
+        return executor;
+    }
+
+    /**
+     * 이전 버전 차트 캐시 정리(SCAN/UNLINK) 전용 단일 스레드.
+     * 정리는 한 번에 하나만 돌고, 물러난 version 마다 대기열에 쌓인다. 대기열이 가득 차 거절된 version 의 키는 TTL 로 만료된다.
+     */
+    @Bean(name = "chartCacheSweepExecutor")
+    public ThreadPoolTaskExecutor chartCacheSweepExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("ChartCacheSweep-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized chartCacheSweepExecutor ThreadPoolTaskExecutor.");
+        return executor;
+    }
+
+    /**
+     * publish 직후 차트 캐시 warm-up pool. 스레드 수만큼만 ES / MySQL 로 동시에 조회가 나간다.
+     */
+    @Bean(name = "chartCacheWarmExecutor")
+    public ThreadPoolTaskExecutor chartCacheWarmExecutor(@Value("${hipster.chart.warmup.concurrency:4}") final int concurrency,
+                                                         @Value("${hipster.chart.warmup.top-n:200}") final int topN) {
+        final int poolSize = Math.max(concurrency, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(Math.max(topN, 1));
+        executor.setThreadNamePrefix("ChartCacheWarm-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        log.info("Initialized chartCacheWarmExecutor ThreadPoolTaskExecutor. concurrency={}", poolSize);
+        return executor;
+    }
 }
@@ -0,0 +1,22 @@
+package com.hipster.global.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * HQL/QueryDSL 에서 함수 호출 형태로 쓸 수 없는 MySQL 구문을 등록한다.
+ * (META-INF/services/org.hibernate.boot.model.FunctionContributor 로 로딩)
+ */
+public class MySqlFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(final FunctionContributions functionContributions) {
+        // value MEMBER OF(json_column->'$'): CAST(json_column->'$' AS UNSIGNED ARRAY) multi-valued index 를 탄다.
+        functionContributions.getFunctionRegistry().registerPattern(
+                "json_member_of",
+                "(?1 member of(?2->'$'))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN)
+        );
+    }
+}
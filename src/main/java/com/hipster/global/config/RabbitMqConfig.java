@@ -1,7 +1,10 @@
 package com.hipster.global.config;
 
+import com.hipster.rating.config.RatingSummaryProperties;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
@@ -16,12 +19,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @EnableRabbit
 @Configuration
 public class RabbitMqConfig {
 
     public static final String RATING_EVENT_EXCHANGE = "rating.event.exchange";
+    public static final String RATING_SUMMARY_PARTITION_EXCHANGE = "rating.summary.partition.exchange";
     public static final String RATING_SUMMARY_QUEUE = "rating.summary.queue";
+    public static final String RATING_SUMMARY_ROUTING_KEY = "rating.summary.partition";
+    public static final String RATING_SUMMARY_LISTENER_ID = "ratingSummaryListener";
     public static final String RATING_SUMMARY_DLX = "rating.summary.dlx";
     public static final String RATING_SUMMARY_DLQ = "rating.summary.dlq";
     public static final String RATING_SUMMARY_DLQ_ROUTING_KEY = "rating.summary.dead";
@@ -36,23 +45,39 @@ public class RabbitMqConfig {
         return new FanoutExchange(RATING_EVENT_EXCHANGE);
     }
 
-    // 2. Queue 등록
+    // 1-1. 평점 통계 파티션 Exchange (Fanout 이 넘겨준 routing key = releaseId 해시 파티션으로 라우팅)
     @Bean
-    public Queue ratingSummaryQueue() {
-        return QueueBuilder.durable(RATING_SUMMARY_QUEUE)
-                .withArgument("x-dead-letter-exchange", RATING_SUMMARY_DLX)
-                .withArgument("x-dead-letter-routing-key", RATING_SUMMARY_DLQ_ROUTING_KEY)
-                .build();
+    public DirectExchange ratingSummaryPartitionExchange() {
+        return new DirectExchange(RATING_SUMMARY_PARTITION_EXCHANGE, true, false);
     }
 
+    // 2. Queue 등록 (rating.summary.queue.{0..K-1}, 파티션별 DLQ 까지 한 벌씩 선언)
     @Bean
-    public DirectExchange ratingSummaryDeadLetterExchange() {
-        return new DirectExchange(RATING_SUMMARY_DLX, true, false);
+    public Declarables ratingSummaryPartitionDeclarables(RatingSummaryProperties ratingSummaryProperties) {
+        final int partitionCount = ratingSummaryProperties.getPartition().getCount();
+        final DirectExchange partitionExchange = ratingSummaryPartitionExchange();
+        final DirectExchange deadLetterExchange = ratingSummaryDeadLetterExchange();
+        final List<Declarable> declarables = new ArrayList<>();
+
+        for (int partition = 0; partition < partitionCount; partition++) {
+            final Queue queue = ratingSummaryPartitionQueue(partition);
+            final Queue deadLetterQueue = QueueBuilder.durable(ratingSummaryPartitionDeadLetterQueue(partition)).build();
+
+            declarables.add(queue);
+            declarables.add(deadLetterQueue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(partitionExchange)
+                    .with(ratingSummaryPartitionRoutingKey(partition)));
+            declarables.add(BindingBuilder.bind(deadLetterQueue)
+                    .to(deadLetterExchange)
+                    .with(ratingSummaryPartitionDeadLetterRoutingKey(partition)));
+        }
+        return new Declarables(declarables);
     }
 
     @Bean
-    public Queue ratingSummaryDeadLetterQueue() {
-        return QueueBuilder.durable(RATING_SUMMARY_DLQ).build();
+    public DirectExchange ratingSummaryDeadLetterExchange() {
+        return new DirectExchange(RATING_SUMMARY_DLX, true, false);
     }
 
     @Bean
@@ -71,18 +96,11 @@ public class RabbitMqConfig {
     }
 
     // 3. Binding 적용 (Exchange -> Queue)
+    // Exchange-to-Exchange 바인딩은 routing key 를 그대로 전달하므로 Fanout 뒤에서 파티션 라우팅이 가능하다.
     @Bean
-    public Binding ratingSummaryBinding(@Qualifier("ratingSummaryQueue") Queue ratingSummaryQueue,
-                                        @Qualifier("ratingEventExchange") FanoutExchange ratingEventExchange) {
-        return BindingBuilder.bind(ratingSummaryQueue).to(ratingEventExchange);
-    }
-
-    @Bean
-    public Binding ratingSummaryDeadLetterBinding(@Qualifier("ratingSummaryDeadLetterQueue") Queue ratingSummaryDeadLetterQueue,
-                                                  @Qualifier("ratingSummaryDeadLetterExchange") DirectExchange ratingSummaryDeadLetterExchange) {
-        return BindingBuilder.bind(ratingSummaryDeadLetterQueue)
-                .to(ratingSummaryDeadLetterExchange)
-                .with(RATING_SUMMARY_DLQ_ROUTING_KEY);
+    public Binding ratingSummaryPartitionExchangeBinding(@Qualifier("ratingSummaryPartitionExchange") DirectExchange ratingSummaryPartitionExchange,
+                                                         @Qualifier("ratingEventExchange") FanoutExchange ratingEventExchange) {
+        return BindingBuilder.bind(ratingSummaryPartitionExchange).to(ratingEventExchange);
     }
 
     @Bean
@@ -124,9 +142,67 @@ public class RabbitMqConfig {
         return factory;
     }
 
+    // 6-1. 평점 통계 배치 Listener Container Factory (N건 또는 T ms 단위로 묶어 전달, 수동 ACK)
+    @Bean
+    public SimpleRabbitListenerContainerFactory ratingSummaryBatchListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                          RatingSummaryProperties ratingSummaryProperties) {
+        final RatingSummaryProperties.Batch batch = ratingSummaryProperties.getBatch();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setAcknowledgeMode(org.springframework.amqp.core.AcknowledgeMode.MANUAL);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batch.getSize());
+        factory.setReceiveTimeout(batch.getReceiveTimeoutMs());
+        // 배치를 채울 수 있도록 prefetch 를 배치 크기만큼 확보
+        factory.setPrefetchCount(batch.getSize());
+        return factory;
+    }
+
+    // 6-2. 평점 통계 write-behind Listener Container Factory (건별 수신, ACK 는 flush 커밋 후 multiple 로 지연)
+    @Bean
+    public SimpleRabbitListenerContainerFactory ratingSummaryWriteBehindListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                                RatingSummaryProperties ratingSummaryProperties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setAcknowledgeMode(org.springframework.amqp.core.AcknowledgeMode.MANUAL);
+        // ACK 가 flush 주기만큼 밀리므로, 그동안 수신이 멈추지 않도록 미확인 메시지 여유를 둔다
+        factory.setPrefetchCount(ratingSummaryProperties.getWriteBehind().getPrefetch());
+        return factory;
+    }
+
     // 7. RabbitAdmin (큐 및 메시지 상태 관리 및 테스트 검증용)
     @Bean
     public org.springframework.amqp.rabbit.core.RabbitAdmin rabbitAdmin(ConnectionFactory connectionFactory) {
         return new org.springframework.amqp.rabbit.core.RabbitAdmin(connectionFactory);
     }
+
+    public static Queue ratingSummaryPartitionQueue(final int partition) {
+        return QueueBuilder.durable(ratingSummaryPartitionQueueName(partition))
+                .withArgument("x-dead-letter-exchange", RATING_SUMMARY_DLX)
+                .withArgument("x-dead-letter-routing-key", ratingSummaryPartitionDeadLetterRoutingKey(partition))
+                .build();
+    }
+
+    public static String ratingSummaryPartitionQueueName(final int partition) {
+        return RATING_SUMMARY_QUEUE + "." + partition;
+    }
+
+    public static String ratingSummaryPartitionRoutingKey(final int partition) {
+        return RATING_SUMMARY_ROUTING_KEY + "." + partition;
+    }
+
+    public static String ratingSummaryPartitionDeadLetterQueue(final int partition) {
+        return RATING_SUMMARY_DLQ + "." + partition;
+    }
+
+    public static String ratingSummaryPartitionDeadLetterRoutingKey(final int partition) {
+        return RATING_SUMMARY_DLQ_ROUTING_KEY + "." + partition;
+    }
+
+    public static String ratingSummaryListenerId(final int partition) {
+        return RATING_SUMMARY_LISTENER_ID + "-" + partition;
+    }
 }
@@ -57,6 +57,8 @@ public enum ErrorCode {
     // 7xxx: Rating Domain Custom Errors
     INVALID_RATING_SCORE(7000, HttpStatus.BAD_REQUEST, "점수는 0.5~5.0 범위의 0.5 단위여야 합니다."),
     RATING_NOT_FOUND(7001, HttpStatus.NOT_FOUND, "평점을 찾을 수 없습니다."),
+    RATING_IMPORT_UNSUPPORTED_FORMAT(7002, HttpStatus.BAD_REQUEST, "평점 import 는 application/x-ndjson 또는 text/csv 형식만 지원합니다."),
+    RATING_IMPORT_READ_FAILED(7003, HttpStatus.BAD_REQUEST, "평점 import 데이터를 읽는 중 오류가 발생했습니다."),
 
     // 8xxx: Review Domain Custom Errors
     REVIEW_NOT_FOUND(8000, HttpStatus.NOT_FOUND, "리뷰를 찾을 수 없습니다."),
@@ -4,6 +4,7 @@ import com.hipster.auth.UserRole;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hipster.artist.repository.ArtistRepository;
+import com.hipster.chart.service.ReleaseChartMetadataService;
 import com.hipster.genre.repository.GenreRepository;
 import com.hipster.global.dto.response.PaginationDto;
 import com.hipster.global.exception.BadRequestException;
@@ -27,6 +28,7 @@ import com.hipster.global.dto.response.PagedResponse;
 import com.hipster.moderation.metrics.ModerationMetricsRecorder;
 import com.hipster.moderation.repository.ModerationAuditTrailRepository;
 import com.hipster.moderation.repository.ModerationQueueRepository;
+import com.hipster.rating.service.RatingReferenceCache;
 import com.hipster.reward.service.RewardAccrualOutboxService;
 import com.hipster.release.repository.ReleaseRepository;
 import com.hipster.review.repository.ReviewRepository;
@@ -78,6 +80,8 @@ public class ModerationQueueService {
     private final GenreRepository genreRepository;
     private final ReviewRepository reviewRepository;
     private final RewardAccrualOutboxService rewardAccrualOutboxService;
+    private final RatingReferenceCache ratingReferenceCache;
+    private final ReleaseChartMetadataService releaseChartMetadataService;
     private final ObjectMapper objectMapper;
 
     @Transactional
@@ -558,9 +562,13 @@ public class ModerationQueueService {
         final Long entityId = requireEntityId(item);
 
         switch (item.getEntityType()) {
-            case RELEASE -> releaseRepository.findById(entityId)
-                    .orElseThrow(() -> new NotFoundException(ErrorCode.RELEASE_NOT_FOUND))
-                    .approve();
+            case RELEASE -> {
+                releaseRepository.findById(entityId)
+                        .orElseThrow(() -> new NotFoundException(ErrorCode.RELEASE_NOT_FOUND))
+                        .approve();
+                ratingReferenceCache.evictRelease(entityId);
+                releaseChartMetadataService.refreshAfterCommit(entityId);
+            }
             case ARTIST -> artistRepository.findById(entityId)
                     .orElseThrow(() -> new NotFoundException(ErrorCode.ARTIST_NOT_FOUND))
                     .approve();
@@ -577,9 +585,13 @@ public class ModerationQueueService {
         final Long entityId = requireEntityId(item);
 
         switch (item.getEntityType()) {
-            case RELEASE -> releaseRepository.findById(entityId)
-                    .orElseThrow(() -> new NotFoundException(ErrorCode.RELEASE_NOT_FOUND))
-                    .delete();
+            case RELEASE -> {
+                releaseRepository.findById(entityId)
+                        .orElseThrow(() -> new NotFoundException(ErrorCode.RELEASE_NOT_FOUND))
+                        .delete();
+                ratingReferenceCache.evictRelease(entityId);
+                releaseChartMetadataService.refreshAfterCommit(entityId);
+            }
             case ARTIST -> artistRepository.findById(entityId)
                     .orElseThrow(() -> new NotFoundException(ErrorCode.ARTIST_NOT_FOUND))
                     .delete();
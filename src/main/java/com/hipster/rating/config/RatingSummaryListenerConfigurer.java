@@ -0,0 +1,136 @@
+package com.hipster.rating.config;
+
+import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.event.RatingEvent;
+import com.hipster.rating.event.RatingSummaryBatchConsumer;
+import com.hipster.rating.event.RatingSummaryConsumer;
+import com.hipster.rating.event.RatingSummaryWriteBehindAggregator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * rating.summary.queue.{0..K-1} 파티션마다 독립된 Listener Container 를 하나씩 등록한다.
+ *
+ * 하나의 Container 가 여러 큐를 구독하면 파티션 간 순서 보장이 깨지므로, 파티션당 concurrency=1 Container 를 만들어
+ * "한 release = 한 파티션 = 한 Consumer 스레드" 를 보장한다. 처리 로직은 단건/배치 Consumer 빈에 위임한다.
+ * write-behind 모드에서는 집계기에 넘기고, 종료 중이라 집계기가 거절한 메시지는 단건 Consumer 로 처리한다.
+ */
+@Slf4j
+@Configuration
+public class RatingSummaryListenerConfigurer implements RabbitListenerConfigurer {
+
+    private final RatingSummaryProperties ratingSummaryProperties;
+    private final MessageConverter messageConverter;
+    private final ObjectProvider<RatingSummaryConsumer> ratingSummaryConsumer;
+    private final ObjectProvider<RatingSummaryBatchConsumer> ratingSummaryBatchConsumer;
+    private final ObjectProvider<RatingSummaryWriteBehindAggregator> ratingSummaryWriteBehindAggregator;
+    private final SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory;
+    private final SimpleRabbitListenerContainerFactory ratingSummaryBatchListenerContainerFactory;
+    private final SimpleRabbitListenerContainerFactory ratingSummaryWriteBehindListenerContainerFactory;
+
+    public RatingSummaryListenerConfigurer(
+            final RatingSummaryProperties ratingSummaryProperties,
+            final MessageConverter messageConverter,
+            final ObjectProvider<RatingSummaryConsumer> ratingSummaryConsumer,
+            final ObjectProvider<RatingSummaryBatchConsumer> ratingSummaryBatchConsumer,
+            final ObjectProvider<RatingSummaryWriteBehindAggregator> ratingSummaryWriteBehindAggregator,
+            @Qualifier("rabbitListenerContainerFactory") final SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory,
+            @Qualifier("ratingSummaryBatchListenerContainerFactory") final SimpleRabbitListenerContainerFactory ratingSummaryBatchListenerContainerFactory,
+            @Qualifier("ratingSummaryWriteBehindListenerContainerFactory") final SimpleRabbitListenerContainerFactory ratingSummaryWriteBehindListenerContainerFactory
+    ) {
+        this.ratingSummaryProperties = ratingSummaryProperties;
+        this.messageConverter = messageConverter;
+        this.ratingSummaryConsumer = ratingSummaryConsumer;
+        this.ratingSummaryBatchConsumer = ratingSummaryBatchConsumer;
+        this.ratingSummaryWriteBehindAggregator = ratingSummaryWriteBehindAggregator;
+        this.rabbitListenerContainerFactory = rabbitListenerContainerFactory;
+        this.ratingSummaryBatchListenerContainerFactory = ratingSummaryBatchListenerContainerFactory;
+        this.ratingSummaryWriteBehindListenerContainerFactory = ratingSummaryWriteBehindListenerContainerFactory;
+    }
+
+    @Override
+    public void configureRabbitListeners(final RabbitListenerEndpointRegistrar registrar) {
+        final int partitionCount = ratingSummaryProperties.getPartition().getCount();
+        final boolean batchEnabled = ratingSummaryProperties.getBatch().isEnabled();
+        final boolean writeBehindEnabled = !batchEnabled && ratingSummaryProperties.getWriteBehind().isEnabled();
+
+        for (int partition = 0; partition < partitionCount; partition++) {
+            final SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(RabbitMqConfig.ratingSummaryListenerId(partition));
+            endpoint.setQueueNames(RabbitMqConfig.ratingSummaryPartitionQueueName(partition));
+            endpoint.setConcurrency("1"); // 파티션당 정확히 1개의 Consumer 스레드
+
+            if (batchEnabled) {
+                endpoint.setBatchListener(true);
+                endpoint.setMessageListener(batchListener(ratingSummaryBatchConsumer.getObject()));
+                registrar.registerEndpoint(endpoint, ratingSummaryBatchListenerContainerFactory);
+            } else if (writeBehindEnabled) {
+                endpoint.setMessageListener(writeBehindListener(
+                        ratingSummaryWriteBehindAggregator.getObject(), ratingSummaryConsumer.getObject()));
+                registrar.registerEndpoint(endpoint, ratingSummaryWriteBehindListenerContainerFactory);
+            } else {
+                endpoint.setMessageListener(singleListener(ratingSummaryConsumer.getObject()));
+                registrar.registerEndpoint(endpoint, rabbitListenerContainerFactory);
+            }
+        }
+        log.info("Registered rating summary partition listeners. partitions={}, batchEnabled={}, writeBehindEnabled={}",
+                partitionCount, batchEnabled, writeBehindEnabled);
+    }
+
+    private ChannelAwareMessageListener singleListener(final RatingSummaryConsumer consumer) {
+        return (message, channel) -> consumer.consumeRatingSummaryEvent(
+                toRatingEvent(message),
+                channel,
+                message.getMessageProperties().getDeliveryTag()
+        );
+    }
+
+    private ChannelAwareMessageListener writeBehindListener(final RatingSummaryWriteBehindAggregator aggregator,
+                                                            final RatingSummaryConsumer fallback) {
+        return (message, channel) -> {
+            final RatingEvent event = toRatingEvent(message);
+            final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            if (!aggregator.accept(event, channel, deliveryTag)) {
+                fallback.consumeRatingSummaryEvent(event, channel, deliveryTag);
+            }
+        };
+    }
+
+    private ChannelAwareBatchMessageListener batchListener(final RatingSummaryBatchConsumer consumer) {
+        return (messages, channel) -> {
+            try {
+                consumer.consumeRatingSummaryEvents(toBatch(messages), channel);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private List<org.springframework.messaging.Message<RatingEvent>> toBatch(final List<Message> messages) {
+        return messages.stream()
+                .map(message -> MessageBuilder.withPayload(toRatingEvent(message))
+                        .setHeader(AmqpHeaders.DELIVERY_TAG, message.getMessageProperties().getDeliveryTag())
+                        .build())
+                .toList();
+    }
+
+    private RatingEvent toRatingEvent(final Message message) {
+        return (RatingEvent) messageConverter.fromMessage(message);
+    }
+}
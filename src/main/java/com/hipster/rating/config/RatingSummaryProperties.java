@@ -0,0 +1,85 @@
+package com.hipster.rating.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * release_rating_summary 실시간 반영 파이프라인 설정.
+ *
+ * <pre>
+ * hipster:
+ *   rating:
+ *     summary:
+ *       partition:
+ *         count: 4                 # rating.summary.queue.0..K-1, 파티션당 Consumer 1개
+ *       batch:
+ *         enabled: false           # true 이면 RatingSummaryBatchConsumer 가 건별 Consumer 를 대체
+ *         size: 200                # 한 번에 꺼내 접을 최대 메시지 수 (N)
+ *         receive-timeout-ms: 100  # 배치가 덜 찼을 때 기다리는 최대 시간 (T)
+ *       write-behind:
+ *         enabled: false           # true 이면 건별 Consumer 앞단에서 release 별 증분을 메모리에 모아 주기적으로 반영
+ *         flush-interval-ms: 300   # 주기적 flush 간격
+ *         max-buffered-events: 5000 # 이 수에 도달하면 주기와 무관하게 즉시 flush
+ *         stripes: 16              # 증분 맵 lock stripe 수 (2의 거듭제곱)
+ *         prefetch: 2000           # ACK 를 flush 뒤로 미루므로 flush 주기 동안 받을 수 있을 만큼 prefetch 확보
+ * </pre>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "hipster.rating.summary")
+public class RatingSummaryProperties {
+
+    private final Partition partition = new Partition();
+
+    private final Batch batch = new Batch();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    @Getter
+    @Setter
+    public static class Partition {
+
+        /**
+         * 파티션 큐 수(K). release 는 Jump Consistent Hash 로 한 파티션에 고정된다.
+         * K 를 늘리면 일부 release 만 새 파티션으로 옮겨가므로, 변경 전 기존 큐를 비우고 배포한다.
+         */
+        private int count = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        /** 배치 리스너 모드 사용 여부. 기본값은 기존 건별 처리. */
+        private boolean enabled = false;
+
+        /** 배치당 최대 메시지 수. prefetch 도 같은 값으로 맞춘다. */
+        private int size = 200;
+
+        /** 배치가 size 에 도달하지 않았을 때 추가 메시지를 기다리는 시간(ms). */
+        private long receiveTimeoutMs = 100L;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /** write-behind 집계 사용 여부. batch.enabled 가 true 이면 무시된다. */
+        private boolean enabled = false;
+
+        /** 모인 증분을 release_rating_summary 로 내보내는 주기(ms). */
+        private long flushIntervalMs = 300L;
+
+        /** 버퍼에 쌓인 이벤트 수가 이 값에 도달하면 즉시 flush 한다. */
+        private int maxBufferedEvents = 5000;
+
+        /** release 증분 맵의 lock stripe 수. 2의 거듭제곱으로 올림한다. */
+        private int stripes = 16;
+
+        /** 파티션 Consumer 당 prefetch. flush 전까지 ACK 하지 않으므로 flush 주기 처리량보다 커야 한다. */
+        private int prefetch = 2000;
+    }
+}
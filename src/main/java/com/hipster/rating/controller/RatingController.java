@@ -1,14 +1,20 @@
 package com.hipster.rating.controller;
 
+import com.hipster.auth.UserRole;
 import com.hipster.auth.annotation.CurrentUser;
+import com.hipster.auth.annotation.RequireRole;
 import com.hipster.auth.dto.response.CurrentUserInfo;
 import com.hipster.global.dto.response.ApiResponse;
 import com.hipster.global.dto.response.PagedResponse;
 import com.hipster.rating.dto.request.CreateRatingRequest;
+import com.hipster.rating.dto.request.RatingImportFormat;
+import com.hipster.rating.dto.response.RatingImportResponse;
 import com.hipster.rating.dto.response.RatingResponse;
 import com.hipster.rating.dto.response.RatingResult;
 import com.hipster.rating.dto.response.UserRatingResponse;
+import com.hipster.rating.service.RatingBulkImportService;
 import com.hipster.rating.service.RatingService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,12 +28,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.DeleteMapping;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/v1")
 @RequiredArgsConstructor
 public class RatingController {
 
     private final RatingService ratingService;
+    private final RatingBulkImportService ratingBulkImportService;
 
     @PostMapping("/releases/{releaseId}/ratings")
     public ResponseEntity<ApiResponse<RatingResponse>> createOrUpdateRating(
@@ -59,4 +68,14 @@ public class RatingController {
         ratingService.deleteRating(releaseId, userInfo.userId());
         return ResponseEntity.ok(ApiResponse.of(200, "평점이 삭제되었습니다.", null));
     }
+
+    /**
+     * 파트너 카탈로그 평점 대량 import. 본문(NDJSON 또는 CSV)을 그대로 스트리밍하여 처리한다.
+     */
+    @PostMapping(value = "/admin/ratings/import", consumes = {"application/x-ndjson", "text/csv"})
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<ApiResponse<RatingImportResponse>> importRatings(final HttpServletRequest request) throws IOException {
+        final RatingImportFormat format = RatingImportFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(ApiResponse.ok(ratingBulkImportService.importRatings(request.getInputStream(), format)));
+    }
 }
@@ -0,0 +1,115 @@
+package com.hipster.rating.domain;
+
+import com.hipster.rating.event.RatingEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 평점 쓰기 트랜잭션과 같은 커밋으로 기록되는 RatingEvent outbox.
+ * Relay(RatingMessageProducer)가 id 순으로 묶어 발행하고, publisher confirm 을 받은 뒤에만 PUBLISHED 로 바꾼다.
+ * 보존 기간 동안은 Incremental Anti-Entropy 가 최근 변경된 release(dirty set)를 찾는 원천으로도 쓰인다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "rating_event_outbox", indexes = {
+        @Index(name = "idx_rating_event_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_rating_event_outbox_status_published", columnList = "status, published_at"),
+        @Index(name = "idx_rating_event_outbox_event_ts_release", columnList = "event_ts, release_id")
+})
+public class RatingEventOutbox {
+
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "release_id", nullable = false)
+    private Long releaseId;
+
+    @Column(name = "old_score", nullable = false)
+    private double oldScore;
+
+    @Column(name = "new_score", nullable = false)
+    private double newScore;
+
+    @Column(name = "is_created", nullable = false)
+    private boolean created;
+
+    @Column(name = "is_deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "weighting_score", nullable = false)
+    private double weightingScore;
+
+    @Column(name = "event_ts", nullable = false)
+    private LocalDateTime eventTs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RatingEventOutboxStatus status;
+
+    @Column(name = "publish_attempt_count", nullable = false)
+    private int publishAttemptCount;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private RatingEventOutbox(final RatingEvent event, final LocalDateTime nextAttemptAt) {
+        this.userId = event.userId();
+        this.releaseId = event.releaseId();
+        this.oldScore = event.oldScore();
+        this.newScore = event.newScore();
+        this.created = event.isCreated();
+        this.deleted = event.isDeleted();
+        this.weightingScore = event.weightingScore();
+        this.eventTs = event.eventTs();
+        this.status = RatingEventOutboxStatus.PENDING;
+        this.publishAttemptCount = 0;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public static RatingEventOutbox pending(final RatingEvent event) {
+        return new RatingEventOutbox(event, LocalDateTime.now());
+    }
+
+    public RatingEvent toEvent() {
+        return new RatingEvent(userId, releaseId, oldScore, newScore, created, deleted, weightingScore, eventTs);
+    }
+
+    public static String trimError(final String errorMessage) {
+        if (errorMessage == null || errorMessage.isBlank()) {
+            return null;
+        }
+        return errorMessage.length() <= MAX_ERROR_LENGTH
+                ? errorMessage
+                : errorMessage.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.hipster.rating.domain;
+
+public enum RatingEventOutboxStatus {
+    PENDING,
+    /** Relay 가 선점하여 발행 중. next_attempt_at 까지 결과가 없으면 다시 선점할 수 있다. */
+    DISPATCHING,
+    PUBLISHED,
+    FAILED
+}
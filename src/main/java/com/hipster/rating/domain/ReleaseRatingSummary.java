@@ -5,6 +5,7 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -33,6 +34,14 @@ public class ReleaseRatingSummary {
     @Column(name = "average_score", nullable = false)
     private double averageScore = 0.0;
 
+    /**
+     * 가중치 없는 점수 합. 실시간 UPSERT 가 total_rating_count 와 함께 갱신하여
+     * average_score = score_sum / total_rating_count 를 O(1)로 유지한다.
+     */
+    @ColumnDefault("0")
+    @Column(name = "score_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal scoreSum = BigDecimal.ZERO;
+
     @Column(name = "weighted_score_sum", nullable = false, precision = 19, scale = 4)
     private BigDecimal weightedScoreSum = BigDecimal.ZERO;
 
@@ -56,6 +65,7 @@ public class ReleaseRatingSummary {
         this.releaseId = releaseId;
         this.totalRatingCount = 0L;
         this.averageScore = 0.0;
+        this.scoreSum = BigDecimal.ZERO;
         this.weightedScoreSum = BigDecimal.ZERO;
         this.weightedCountSum = BigDecimal.ZERO;
     }
@@ -64,9 +74,9 @@ public class ReleaseRatingSummary {
         this.weightedScoreSum = this.weightedScoreSum.add(scoreDelta.multiply(weightingScore));
         this.weightedCountSum = this.weightedCountSum.add(weightingScore);
 
-        double currentTotal = this.averageScore * this.totalRatingCount;
+        this.scoreSum = this.scoreSum.add(scoreDelta);
         this.totalRatingCount += countDelta;
-        this.averageScore = this.totalRatingCount == 0 ? 0.0 : (currentTotal + scoreDelta.doubleValue()) / this.totalRatingCount;
+        this.averageScore = this.totalRatingCount == 0 ? 0.0 : this.scoreSum.doubleValue() / this.totalRatingCount;
     }
 
     public void recalculate(long totalRatingCount, double averageScore, BigDecimal weightedScoreSum, BigDecimal weightedCountSum) {
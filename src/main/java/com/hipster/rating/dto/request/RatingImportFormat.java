@@ -0,0 +1,34 @@
+package com.hipster.rating.dto.request;
+
+import com.hipster.global.exception.BadRequestException;
+import com.hipster.global.exception.ErrorCode;
+
+import java.util.Locale;
+
+public enum RatingImportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    RatingImportFormat(final String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static RatingImportFormat fromContentType(final String contentType) {
+        if (contentType != null) {
+            final String normalized = contentType.toLowerCase(Locale.ROOT);
+            for (final RatingImportFormat format : values()) {
+                if (normalized.startsWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new BadRequestException(ErrorCode.RATING_IMPORT_UNSUPPORTED_FORMAT);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hipster.rating.dto.request;
+
+/**
+ * 대량 평점 import 의 한 행. (NDJSON: {"userId":1,"releaseId":2,"score":4.5} / CSV: userId,releaseId,score)
+ */
+public record RatingImportRow(Long userId, Long releaseId, Double score) {
+}
@@ -0,0 +1,18 @@
+package com.hipster.rating.dto.response;
+
+import java.util.List;
+
+/**
+ * 대량 평점 import 결과.
+ *
+ * @param errorSamples 거부된 행 중 앞쪽 일부의 "line N: 사유" 목록
+ */
+public record RatingImportResponse(
+        long totalRows,
+        long upsertedRows,
+        long rejectedRows,
+        int affectedReleaseCount,
+        long elapsedMs,
+        List<String> errorSamples
+) {
+}
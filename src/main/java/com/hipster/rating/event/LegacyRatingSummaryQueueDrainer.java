@@ -0,0 +1,120 @@
+package com.hipster.rating.event;
+
+import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.service.RatingSummaryService;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 파티션 큐 도입 전의 단일 rating.summary.queue 를 정리하는 일회성 마이그레이션.
+ *
+ * 빈 선언을 지워도 이미 배포된 broker 에는 rating.event.exchange -> rating.summary.queue 바인딩이 남아,
+ * 소비자 없는 큐에 모든 평점 이벤트가 쌓인다. 매 실행마다
+ * 1) 바인딩을 먼저 끊어 새 이벤트 유입을 막고 (새 이벤트는 파티션 큐가 받는다)
+ * 2) 남은 backlog 를 건별 Consumer 와 같은 규칙으로 반영한 뒤
+ * 3) 큐가 비면 삭제한다.
+ * 컷오버 직후 바인딩을 끊기 전까지 양쪽 큐에 함께 들어간 이벤트는 Anti-Entropy 배치가 바로잡는다.
+ *
+ * 수동으로 정리할 때는 drain 이 끝난 뒤 아래와 같이 하면 된다. (rating.summary.dlq 는 원인 확인 후 별도로 지운다)
+ * <pre>
+ * rabbitmqadmin delete binding source=rating.event.exchange destination_type=queue destination=rating.summary.queue properties_key="~"
+ * rabbitmqadmin delete queue name=rating.summary.queue
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hipster.rating.summary.legacy-queue.drain.enabled", havingValue = "true")
+public class LegacyRatingSummaryQueueDrainer {
+
+    private static final Binding LEGACY_BINDING = new Binding(
+            RabbitMqConfig.RATING_SUMMARY_QUEUE,
+            Binding.DestinationType.QUEUE,
+            RabbitMqConfig.RATING_EVENT_EXCHANGE,
+            "",
+            null
+    );
+
+    private final RabbitAdmin rabbitAdmin;
+    private final RabbitTemplate rabbitTemplate;
+    private final MessageConverter messageConverter;
+    private final RatingSummaryService ratingSummaryService;
+    private final DefaultMessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+    @Value("${hipster.rating.summary.legacy-queue.drain.max-messages-per-run:1000}")
+    private int maxMessagesPerRun;
+
+    @Scheduled(fixedDelayString = "${hipster.rating.summary.legacy-queue.drain.fixed-delay-ms:10000}")
+    @SchedulerLock(name = "legacyRatingSummaryQueueDrain", lockAtMostFor = "5m")
+    public void drainLegacyQueue() {
+        if (rabbitAdmin.getQueueProperties(RabbitMqConfig.RATING_SUMMARY_QUEUE) == null) {
+            return;
+        }
+
+        rabbitAdmin.removeBinding(LEGACY_BINDING);
+
+        final Boolean drained = rabbitTemplate.execute(this::drain);
+        if (Boolean.TRUE.equals(drained)) {
+            rabbitAdmin.deleteQueue(RabbitMqConfig.RATING_SUMMARY_QUEUE, true, true);
+            log.info("Legacy [RatingSummaryQueue]: Drained and deleted {}", RabbitMqConfig.RATING_SUMMARY_QUEUE);
+        }
+    }
+
+    /**
+     * @return 큐를 끝까지 비웠으면 true. 이번 실행 한도에 걸렸거나 일시적 장애로 멈췄으면 false
+     */
+    private Boolean drain(final Channel channel) throws IOException {
+        for (int count = 0; count < Math.max(maxMessagesPerRun, 1); count++) {
+            final GetResponse response = channel.basicGet(RabbitMqConfig.RATING_SUMMARY_QUEUE, false);
+            if (response == null) {
+                return true;
+            }
+            if (!apply(channel, response)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean apply(final Channel channel, final GetResponse response) throws IOException {
+        final long deliveryTag = response.getEnvelope().getDeliveryTag();
+        try {
+            ratingSummaryService.applyRatingEvent(toRatingEvent(response));
+            channel.basicAck(deliveryTag, false);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException | DataIntegrityViolationException e) {
+            // 재처리해도 같은 결과이므로 legacy 큐의 DLX(rating.summary.dlq) 로 보낸다
+            log.error("Legacy [RatingSummaryQueue]: Permanent failure. Routing to DLQ. deliveryTag={}", deliveryTag, e);
+            channel.basicNack(deliveryTag, false, false);
+            return true;
+        } catch (Exception e) {
+            log.error("Legacy [RatingSummaryQueue]: Transient failure. Requeueing and retrying next run. deliveryTag={}", deliveryTag, e);
+            channel.basicNack(deliveryTag, false, true);
+            return false;
+        }
+    }
+
+    private RatingEvent toRatingEvent(final GetResponse response) {
+        final MessageProperties properties = messagePropertiesConverter.toMessageProperties(
+                response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+        return (RatingEvent) messageConverter.fromMessage(new Message(response.getBody(), properties));
+    }
+}
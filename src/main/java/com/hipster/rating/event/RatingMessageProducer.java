@@ -1,38 +1,96 @@
 package com.hipster.rating.event;
 
 import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.domain.RatingEventOutbox;
 import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingEventOutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.List;
+
+/**
+ * rating_event_outbox 를 id 순으로 묶어 RabbitMQ Fanout Exchange 로 발행하는 Relay.
+ * 발행 전에 master 에서 DISPATCHING 으로 선점한 행만 보내고, 실패한 배치는 재시도 대기 동안 선두를 막아 relay 전체가 물러난다.
+ * 배치 전체를 한 채널에서 보낸 뒤 publisher confirm 을 한 번만 기다리고, confirm 이 오면 배치를 PUBLISHED 로 표시한다.
+ * routing key 는 releaseId 해시 파티션이며, Fanout 뒤의 파티션 Exchange 가 이를 보고 rating.summary.queue.{partition} 으로 보낸다.
+ * 발행 후 표시 전에 실패하면 같은 이벤트가 다시 발행될 수 있다 (at-least-once).
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "hipster.rating.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
 public class RatingMessageProducer {
 
+    private final RatingEventOutboxService ratingEventOutboxService;
     private final RabbitTemplate rabbitTemplate;
     private final RatingMetricsRecorder ratingMetricsRecorder;
+    private final RatingSummaryPartitioner ratingSummaryPartitioner;
+
+    @Value("${hipster.rating.outbox.publish-confirm-timeout-ms:5000}")
+    private long publishConfirmTimeoutMillis;
+
+    @Value("${hipster.rating.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${hipster.rating.outbox.relay-fixed-delay-ms:500}")
+    @SchedulerLock(name = "ratingEventOutboxRelay", lockAtMostFor = "2m")
+    public void relayPendingRatingEvents() {
+        for (int round = 0; round < Math.max(maxBatchesPerRun, 1); round++) {
+            final List<RatingEventOutbox> batch = ratingEventOutboxService.claimReadyToRelay();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            final boolean confirmed = publishBatch(batch);
+            if (!confirmed || batch.size() < ratingEventOutboxService.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${hipster.rating.outbox.purge-cron:0 30 4 * * ?}")
+    @SchedulerLock(name = "ratingEventOutboxPurge", lockAtMostFor = "10m")
+    public void purgePublishedRatingEvents() {
+        final int purgedCount = ratingEventOutboxService.purgePublished();
+        log.info("Producer [RatingMessageProducer]: Purged {} published outbox rows", purgedCount);
+    }
+
+    private boolean publishBatch(final List<RatingEventOutbox> batch) {
+        final List<Long> outboxIds = batch.stream()
+                .map(RatingEventOutbox::getId)
+                .toList();
 
-    /**
-     * RatingService에서 메인 트랜잭션이 안전하게 DB에 커밋된 직후에만 호출됩니다. (무결성 방어)
-     * RabbitMQ Fanout Exchange로 이벤트를 발행(Publish)합니다.
-     */
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void forwardRatingEventToRabbitMq(RatingEvent event) {
         try {
-            log.info("Producer [RatingMessageProducer]: Publishing releaseId={}, userId={}, created={}, deleted={}",
-                    event.releaseId(), event.userId(), event.isCreated(), event.isDeleted());
-            rabbitTemplate.convertAndSend(RabbitMqConfig.RATING_EVENT_EXCHANGE, "", event);
-            ratingMetricsRecorder.recordPublish("published");
-        } catch (RuntimeException e) {
-            ratingMetricsRecorder.recordPublish("publish_failed");
-            log.error("Producer [RatingMessageProducer]: Publish failed. releaseId={}, userId={}, created={}, deleted={}",
-                    event.releaseId(), event.userId(), event.isCreated(), event.isDeleted(), e);
-            throw e;
+            rabbitTemplate.invoke(operations -> {
+                for (final RatingEventOutbox outbox : batch) {
+                    operations.convertAndSend(
+                            RabbitMqConfig.RATING_EVENT_EXCHANGE,
+                            ratingSummaryPartitioner.routingKeyOf(outbox.getReleaseId()),
+                            outbox.toEvent()
+                    );
+                }
+                operations.waitForConfirmsOrDie(publishConfirmTimeoutMillis);
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            ratingEventOutboxService.markFailed(outboxIds, exception.getClass().getSimpleName());
+            ratingMetricsRecorder.recordPublish("publish_failed", batch.size());
+            log.error("Producer [RatingMessageProducer]: Outbox batch publish failed. size={}, firstOutboxId={}, lastOutboxId={}",
+                    batch.size(), outboxIds.get(0), outboxIds.get(outboxIds.size() - 1), exception);
+            return false;
         }
+
+        ratingEventOutboxService.markPublished(outboxIds);
+        ratingMetricsRecorder.recordPublish("confirmed", batch.size());
+        log.debug("Producer [RatingMessageProducer]: Relayed outbox batch. size={}, lastOutboxId={}",
+                batch.size(), outboxIds.get(outboxIds.size() - 1));
+        return true;
     }
 }
@@ -0,0 +1,108 @@
+package com.hipster.rating.event;
+
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingSummaryService;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * rating.summary.queue.{partition} 배치 리스너.
+ * 파티션별 Listener Container 등록은 RatingSummaryListenerConfigurer 가 담당합니다. (수동 ACK + Consumer 배치 팩토리)
+ *
+ * N건 또는 T ms 동안 모인 RatingEvent 를 release 단위로 접어 한 번에 반영하고,
+ * 배치 전체를 basicAck(multiple=true) 한 번으로 확정합니다.
+ * 배치 안의 Poison Pill 은 특정할 수 없으므로 영구 실패 시 건별 처리로 되돌려 해당 메시지만 DLQ 로 보냅니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hipster.rating.summary.batch.enabled", havingValue = "true")
+public class RatingSummaryBatchConsumer {
+
+    private final RatingSummaryService ratingSummaryService;
+    private final RatingMetricsRecorder ratingMetricsRecorder;
+
+    public void consumeRatingSummaryEvents(final List<Message<RatingEvent>> messages, final Channel channel) throws IOException {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        final List<RatingEvent> events = messages.stream()
+                .map(Message::getPayload)
+                .toList();
+        final long lastDeliveryTag = lastDeliveryTag(messages);
+
+        try {
+            log.info("Consumer [RatingSummaryBatch]: Processing batchSize={}, lastDeliveryTag={}", events.size(), lastDeliveryTag);
+            final int touchedReleaseCount = ratingSummaryService.applyRatingEventBatch(events);
+            channel.basicAck(lastDeliveryTag, true);
+            ratingMetricsRecorder.recordConsumer("processed", events.size());
+            ratingMetricsRecorder.recordSummaryBatch(events.size(), touchedReleaseCount);
+            log.info("Consumer [RatingSummaryBatch]: Successfully ACKed batchSize={}, touchedReleases={}, lastDeliveryTag={}",
+                    events.size(), touchedReleaseCount, lastDeliveryTag);
+
+        } catch (IllegalArgumentException | IllegalStateException | DataIntegrityViolationException e) {
+            // [영구 실패] 어느 메시지가 원인인지 알 수 없으므로 건별 경로로 재처리하여 원인 메시지만 DLQ 로 격리
+            log.warn("Consumer [RatingSummaryBatch]: Permanent failure in batch. Falling back to single-message processing. batchSize={}, lastDeliveryTag={}",
+                    events.size(), lastDeliveryTag, e);
+            ratingMetricsRecorder.recordConsumer("batch_fallback");
+            processOneByOne(messages, channel);
+
+        } catch (Exception e) {
+            ratingMetricsRecorder.recordConsumer("transient_failed", events.size());
+            // [일시적 장애] 배치 트랜잭션이 통째로 롤백되었으므로 배치 전체를 큐에 반환 (requeue)
+            log.error("Consumer [RatingSummaryBatch]: Transient failure. Requeueing batch. batchSize={}, lastDeliveryTag={}",
+                    events.size(), lastDeliveryTag, e);
+            channel.basicNack(lastDeliveryTag, true, true);
+        }
+    }
+
+    private void processOneByOne(final List<Message<RatingEvent>> messages, final Channel channel) throws IOException {
+        for (final Message<RatingEvent> message : messages) {
+            final RatingEvent event = message.getPayload();
+            final long deliveryTag = deliveryTag(message);
+            try {
+                ratingSummaryService.applyRatingEvent(event);
+                channel.basicAck(deliveryTag, false);
+                ratingMetricsRecorder.recordConsumer("processed");
+
+            } catch (IllegalArgumentException | IllegalStateException | DataIntegrityViolationException e) {
+                ratingMetricsRecorder.recordConsumer("permanent_failed");
+                log.error("Consumer [RatingSummaryBatch]: Permanent failure. Routing to DLQ. releaseId={}, userId={}, deliveryTag={}, created={}, deleted={}",
+                        event.releaseId(), event.userId(), deliveryTag, event.isCreated(), event.isDeleted(), e);
+                channel.basicNack(deliveryTag, false, false);
+
+            } catch (Exception e) {
+                ratingMetricsRecorder.recordConsumer("transient_failed");
+                log.error("Consumer [RatingSummaryBatch]: Transient failure. Requeueing message. releaseId={}, userId={}, deliveryTag={}, created={}, deleted={}",
+                        event.releaseId(), event.userId(), deliveryTag, event.isCreated(), event.isDeleted(), e);
+                channel.basicNack(deliveryTag, false, true);
+            }
+        }
+    }
+
+    private long lastDeliveryTag(final List<Message<RatingEvent>> messages) {
+        long lastDeliveryTag = 0L;
+        for (final Message<RatingEvent> message : messages) {
+            lastDeliveryTag = Math.max(lastDeliveryTag, deliveryTag(message));
+        }
+        return lastDeliveryTag;
+    }
+
+    private long deliveryTag(final Message<RatingEvent> message) {
+        final Long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+        if (deliveryTag == null) {
+            throw new IllegalStateException("Missing AMQP delivery tag on batched rating event");
+        }
+        return deliveryTag;
+    }
+}
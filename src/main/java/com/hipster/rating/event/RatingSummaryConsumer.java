@@ -1,15 +1,12 @@
 package com.hipster.rating.event;
 
-import com.hipster.global.config.RabbitMqConfig;
 import com.hipster.rating.metrics.RatingMetricsRecorder;
 import com.hipster.rating.service.RatingSummaryService;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -17,20 +14,20 @@ import java.io.IOException;
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "hipster.rating.summary.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class RatingSummaryConsumer {
 
     private final RatingSummaryService ratingSummaryService;
     private final RatingMetricsRecorder ratingMetricsRecorder;
 
-    @RabbitListener(
-            id = "ratingSummaryListener",
-            queues = RabbitMqConfig.RATING_SUMMARY_QUEUE,
-            containerFactory = "rabbitListenerContainerFactory" // 수동 ACK 모드 적용 팩토리
-    )
+    /**
+     * rating.summary.queue.{partition} 단건 리스너.
+     * 파티션별 Listener Container 등록은 RatingSummaryListenerConfigurer 가 담당합니다. (수동 ACK 모드 적용 팩토리)
+     */
     public void consumeRatingSummaryEvent(
             RatingEvent event,
             Channel channel,
-            @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag
+            long deliveryTag
     ) throws IOException {
         try {
             log.info("Consumer [RatingSummary]: Processing releaseId={}, userId={}, created={}, deleted={}",
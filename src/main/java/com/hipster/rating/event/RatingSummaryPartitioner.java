@@ -0,0 +1,47 @@
+package com.hipster.rating.event;
+
+import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.config.RatingSummaryProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * releaseId 를 rating.summary.queue.{0..K-1} 중 하나로 고정 배정한다.
+ *
+ * 같은 release 의 이벤트는 항상 같은 파티션(= 단일 Consumer 스레드)으로 흘러가므로
+ * release_rating_summary 한 row 에 대한 갱신이 DB 락 경합 없이 직렬화된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RatingSummaryPartitioner {
+
+    private final RatingSummaryProperties ratingSummaryProperties;
+
+    public int partitionOf(final Long releaseId) {
+        return jumpConsistentHash(releaseId, ratingSummaryProperties.getPartition().getCount());
+    }
+
+    public String routingKeyOf(final Long releaseId) {
+        return RabbitMqConfig.ratingSummaryPartitionRoutingKey(partitionOf(releaseId));
+    }
+
+    /**
+     * Jump Consistent Hash (Lamping &amp; Veach).
+     * 파티션 수가 K 에서 K+1 로 늘어날 때 약 1/(K+1) 의 release 만 재배정된다.
+     */
+    static int jumpConsistentHash(final long key, final int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Partition count must be positive: " + buckets);
+        }
+
+        long hash = key;
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            hash = hash * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((hash >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,338 @@
+package com.hipster.rating.event;
+
+import com.hipster.rating.config.RatingSummaryProperties;
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingSummaryService;
+import com.hipster.rating.service.RatingSummaryService.WriteBehindFlushResult;
+import com.rabbitmq.client.Channel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 건별 Consumer 와 release_rating_summary 사이의 write-behind 집계기.
+ *
+ * 파티션 Consumer 스레드는 이벤트를 release 별 증분으로 메모리에 접고 ACK 없이 바로 다음 메시지를 받는다.
+ * flush 스레드가 flush-interval-ms 마다(또는 max-buffered-events 도달 시) 버퍼를 통째로 교체하여
+ * 한 트랜잭션, 한 batch statement 로 반영하고, 커밋된 뒤에만 해당 구간 메시지를 채널별 multiple ACK 한다.
+ * 프로세스가 죽으면 ACK 되지 않은 메시지는 브로커가 재전달하므로 유실되지 않는다.
+ *
+ * 종료 시에는 리스너 컨테이너가 채널을 닫기 전(ContextClosedEvent)에 마지막 flush 를 수행하고,
+ * 그 뒤 도착하는 메시지는 accept 가 false 를 돌려 기존 건별 경로로 처리되게 한다.
+ *
+ * 영구 실패로 세대 전체 반영이 롤백되면 release 별로 다시 반영하여, 실패한 release 의 메시지만 DLQ 로 보낸다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hipster.rating.summary.write-behind.enabled", havingValue = "true")
+public class RatingSummaryWriteBehindAggregator {
+
+    private final RatingSummaryService ratingSummaryService;
+    private final RatingMetricsRecorder ratingMetricsRecorder;
+    private final RatingSummaryProperties.WriteBehind properties;
+    private final int stripeCount;
+
+    /** accept 는 read lock(공유), 버퍼 교체는 write lock(배타) 으로 증분과 ACK 대상이 같은 세대에 묶이게 한다. */
+    private final ReentrantReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "RatingSummaryWriteBehind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean accepting = true;
+    private Generation current;
+
+    public RatingSummaryWriteBehindAggregator(final RatingSummaryService ratingSummaryService,
+                                              final RatingMetricsRecorder ratingMetricsRecorder,
+                                              final RatingSummaryProperties ratingSummaryProperties) {
+        this.ratingSummaryService = ratingSummaryService;
+        this.ratingMetricsRecorder = ratingMetricsRecorder;
+        this.properties = ratingSummaryProperties.getWriteBehind();
+        this.stripeCount = Integer.highestOneBit(Math.max(properties.getStripes(), 1) * 2 - 1);
+        this.current = new Generation(stripeCount);
+    }
+
+    @PostConstruct
+    void startFlushing() {
+        final long intervalMs = Math.max(properties.getFlushIntervalMs(), 10L);
+        flushExecutor.scheduleWithFixedDelay(this::flushSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Rating summary write-behind started. flushIntervalMs={}, maxBufferedEvents={}, stripes={}",
+                intervalMs, properties.getMaxBufferedEvents(), stripeCount);
+    }
+
+    /**
+     * 이벤트를 버퍼에 접고 ACK 를 flush 이후로 미룬다.
+     *
+     * @return 종료 중이라 받지 않았으면 false (호출자가 건별 경로로 처리한다)
+     */
+    public boolean accept(final RatingEvent event, final Channel channel, final long deliveryTag) {
+        final int bufferedEvents;
+        generationLock.readLock().lock();
+        try {
+            if (!accepting) {
+                return false;
+            }
+            bufferedEvents = current.add(event, channel, deliveryTag);
+        } finally {
+            generationLock.readLock().unlock();
+        }
+
+        if (bufferedEvents >= properties.getMaxBufferedEvents() && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flushSafely);
+        }
+        return true;
+    }
+
+    /**
+     * 현재 버퍼를 새 세대로 교체한 뒤, 교체된 세대를 DB 에 반영하고 ACK/NACK 한다.
+     * 단일 flush 스레드(또는 종료 시 호출 스레드)에서만 실행된다.
+     */
+    synchronized void flush() {
+        flushRequested.set(false);
+        final Generation drained;
+        generationLock.writeLock().lock();
+        try {
+            if (current.isEmpty()) {
+                return;
+            }
+            drained = current;
+            current = new Generation(stripeCount);
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+
+        final List<ReleaseDeltaSnapshot> snapshots = drained.snapshots();
+        final int eventCount = drained.eventCount();
+        try {
+            final WriteBehindFlushResult result = snapshots.isEmpty()
+                    ? WriteBehindFlushResult.empty()
+                    : ratingSummaryService.applyWriteBehindDeltas(snapshots);
+            acknowledge(drained);
+            ratingMetricsRecorder.recordConsumer("processed", eventCount);
+            ratingMetricsRecorder.recordSummaryBatch(eventCount, result.appliedReleaseCount());
+            if (result.straddledReleaseCount() > 0) {
+                // 집계 구간 도중 Anti-Entropy 가 batch_synced_at 을 옮긴 release. 다음 Incremental 재집계가 교정한다.
+                ratingMetricsRecorder.recordConsumer("write_behind_guard_straddle", result.straddledReleaseCount());
+            }
+            log.debug("Rating summary write-behind flushed. events={}, releases={}, applied={}",
+                    eventCount, snapshots.size(), result.appliedReleaseCount());
+
+        } catch (IllegalArgumentException | IllegalStateException | DataIntegrityViolationException e) {
+            // [영구 실패] 어느 release 가 원인인지 알 수 없으므로 release 별로 다시 반영하여 원인 release 만 DLQ 로 격리
+            log.warn("Rating summary write-behind flush failed permanently. Falling back to per-release apply. events={}, releases={}",
+                    eventCount, snapshots.size(), e);
+            ratingMetricsRecorder.recordConsumer("batch_fallback");
+            applyPerRelease(drained, snapshots);
+
+        } catch (Exception e) {
+            ratingMetricsRecorder.recordConsumer("transient_failed", eventCount);
+            log.error("Rating summary write-behind flush failed. Requeueing {} events.", eventCount, e);
+            reject(drained, true);
+        }
+    }
+
+    /**
+     * 리스너 컨테이너가 멈추기 전에 호출된다. 더 이상 버퍼링하지 않고 남은 증분을 반영한 뒤 ACK 한다.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void drainOnShutdown() {
+        accepting = false;
+        flushSafely();
+        log.info("Rating summary write-behind drained on shutdown.");
+    }
+
+    @PreDestroy
+    void stopFlushing() {
+        accepting = false;
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                flushExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    int bufferedEventCount() {
+        generationLock.readLock().lock();
+        try {
+            return current.eventCount();
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Rating summary write-behind flush crashed.", e);
+        }
+    }
+
+    private void acknowledge(final Generation drained) {
+        for (final Map.Entry<Channel, Long> pending : drained.pendingAcks().entrySet()) {
+            try {
+                pending.getKey().basicAck(pending.getValue(), true);
+            } catch (IOException | RuntimeException e) {
+                // 채널이 이미 닫혔다면 브로커가 재전달한다. (at-least-once, Anti-Entropy 가 중복분을 교정)
+                ratingMetricsRecorder.recordConsumer("ack_failed");
+                log.error("Rating summary write-behind ack failed. deliveryTag={}", pending.getValue(), e);
+            }
+        }
+    }
+
+    /**
+     * release 하나씩 별도 트랜잭션으로 반영한 뒤, 메시지마다 결과에 따라 ACK / DLQ / requeue 한다.
+     * 다른 release 의 증분은 이미 커밋되었으므로 세대 단위 multiple ACK/NACK 대신 delivery tag 별로 응답한다.
+     */
+    private void applyPerRelease(final Generation drained, final List<ReleaseDeltaSnapshot> snapshots) {
+        final Set<Long> deadLetteredReleaseIds = new HashSet<>();
+        final Set<Long> requeuedReleaseIds = new HashSet<>();
+        int appliedReleaseCount = 0;
+        for (final ReleaseDeltaSnapshot snapshot : snapshots) {
+            try {
+                appliedReleaseCount += ratingSummaryService.applyWriteBehindDeltas(List.of(snapshot)).appliedReleaseCount();
+
+            } catch (IllegalArgumentException | IllegalStateException | DataIntegrityViolationException e) {
+                deadLetteredReleaseIds.add(snapshot.releaseId());
+                ratingMetricsRecorder.recordConsumer("permanent_failed", snapshot.eventCount());
+                log.error("Rating summary write-behind release failed permanently. Routing to DLQ. releaseId={}, events={}",
+                        snapshot.releaseId(), snapshot.eventCount(), e);
+
+            } catch (Exception e) {
+                requeuedReleaseIds.add(snapshot.releaseId());
+                ratingMetricsRecorder.recordConsumer("transient_failed", snapshot.eventCount());
+                log.error("Rating summary write-behind release failed. Requeueing. releaseId={}, events={}",
+                        snapshot.releaseId(), snapshot.eventCount(), e);
+            }
+        }
+
+        int processedCount = 0;
+        for (final PendingDelivery delivery : drained.deliveries()) {
+            try {
+                if (deadLetteredReleaseIds.contains(delivery.releaseId())) {
+                    delivery.channel().basicNack(delivery.deliveryTag(), false, false);
+                } else if (requeuedReleaseIds.contains(delivery.releaseId())) {
+                    delivery.channel().basicNack(delivery.deliveryTag(), false, true);
+                } else {
+                    delivery.channel().basicAck(delivery.deliveryTag(), false);
+                    processedCount++;
+                }
+            } catch (IOException | RuntimeException e) {
+                ratingMetricsRecorder.recordConsumer("ack_failed");
+                log.error("Rating summary write-behind per-release ack failed. deliveryTag={}, releaseId={}",
+                        delivery.deliveryTag(), delivery.releaseId(), e);
+            }
+        }
+        ratingMetricsRecorder.recordConsumer("processed", processedCount);
+        ratingMetricsRecorder.recordSummaryBatch(processedCount, appliedReleaseCount);
+    }
+
+    private void reject(final Generation drained, final boolean requeue) {
+        for (final Map.Entry<Channel, Long> pending : drained.pendingAcks().entrySet()) {
+            try {
+                pending.getKey().basicNack(pending.getValue(), true, requeue);
+            } catch (IOException | RuntimeException e) {
+                log.error("Rating summary write-behind nack failed. deliveryTag={}, requeue={}", pending.getValue(), requeue, e);
+            }
+        }
+    }
+
+    static long toEpochMillis(final LocalDateTime eventTs) {
+        return eventTs == null ? Long.MIN_VALUE : eventTs.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /** 영구 실패 시 release 별로 응답하기 위해 메시지마다 남기는 delivery 정보. */
+    private record PendingDelivery(Channel channel, long deliveryTag, long releaseId) {
+    }
+
+    /**
+     * 한 flush 주기 동안 쌓이는 버퍼. stripe 별 증분과 채널별 최대 delivery tag 를 함께 들고 있다.
+     */
+    private static final class Generation {
+
+        private final ReleaseDeltaStripe[] stripes;
+        private final Map<Channel, Long> pendingAcks = new ConcurrentHashMap<>();
+        private final Queue<PendingDelivery> deliveries = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger eventCount = new AtomicInteger();
+
+        private Generation(final int stripeCount) {
+            this.stripes = new ReleaseDeltaStripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new ReleaseDeltaStripe(64);
+            }
+        }
+
+        private int add(final RatingEvent event, final Channel channel, final long deliveryTag) {
+            final long releaseId = event.releaseId();
+            final double weightingScore = event.weightingScore();
+            final long eventTsMillis = toEpochMillis(event.eventTs());
+            final ReleaseDeltaStripe stripe = stripes[(ReleaseDeltaStripe.hash(releaseId) >>> 16) & (stripes.length - 1)];
+
+            if (event.isDeleted()) {
+                stripe.add(releaseId, -event.oldScore() * weightingScore, -weightingScore, -event.oldScore(), -1L, false, eventTsMillis);
+            } else if (event.isCreated()) {
+                stripe.add(releaseId, event.newScore() * weightingScore, weightingScore, event.newScore(), 1L, true, eventTsMillis);
+            } else if (event.oldScore() != event.newScore()) {
+                final double scoreDiff = event.newScore() - event.oldScore();
+                stripe.add(releaseId, scoreDiff * weightingScore, 0.0, scoreDiff, 0L, false, eventTsMillis);
+            }
+            // 변화 없는 이벤트도 ACK 대상에는 포함한다.
+            pendingAcks.merge(channel, deliveryTag, Math::max);
+            deliveries.add(new PendingDelivery(channel, deliveryTag, releaseId));
+            return eventCount.incrementAndGet();
+        }
+
+        private boolean isEmpty() {
+            return eventCount.get() == 0;
+        }
+
+        private int eventCount() {
+            return eventCount.get();
+        }
+
+        private Map<Channel, Long> pendingAcks() {
+            return pendingAcks;
+        }
+
+        private Queue<PendingDelivery> deliveries() {
+            return deliveries;
+        }
+
+        private List<ReleaseDeltaSnapshot> snapshots() {
+            final List<ReleaseDeltaSnapshot> snapshots = new ArrayList<>();
+            for (final ReleaseDeltaStripe stripe : stripes) {
+                stripe.drainTo(snapshots);
+            }
+            return snapshots;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.hipster.rating.event;
+
+/**
+ * write-behind flush 한 번에서 release 하나로 접힌 증분.
+ * eventTs 는 batch_synced_at 가드 비교용으로 epoch millis 로 인코딩한 최소/최대값이다.
+ *
+ * @param createdEventCount 접힌 이벤트 중 신규 등록 이벤트 수 (summary row 가 없을 때 INSERT 여부 판단)
+ */
+public record ReleaseDeltaSnapshot(long releaseId,
+                                   double weightedScoreDelta,
+                                   double weightedCountDelta,
+                                   double scoreSumDelta,
+                                   long countDelta,
+                                   int createdEventCount,
+                                   int eventCount,
+                                   long minEventTsMillis,
+                                   long maxEventTsMillis) {
+}
@@ -0,0 +1,161 @@
+package com.hipster.rating.event;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * releaseId(long) -> 증분 합계(double) 를 박싱 없이 담는 open addressing 해시 테이블 한 조각.
+ * RatingSummaryWriteBehindAggregator 가 stripe 여러 개로 나눠 쓰므로, 같은 stripe 안에서만 lock 을 경합한다.
+ */
+final class ReleaseDeltaStripe {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long[] releaseIds;
+    private double[] weightedScoreDeltas;
+    private double[] weightedCountDeltas;
+    private double[] scoreSumDeltas;
+    private long[] countDeltas;
+    private int[] createdEventCounts;
+    private int[] eventCounts;
+    private long[] minEventTsMillis;
+    private long[] maxEventTsMillis;
+    private int mask;
+    private int size;
+
+    ReleaseDeltaStripe(final int expectedReleases) {
+        allocate(tableSizeFor(Math.max(expectedReleases, 8) * 2));
+    }
+
+    void add(final long releaseId,
+             final double weightedScoreDelta,
+             final double weightedCountDelta,
+             final double scoreSumDelta,
+             final long countDelta,
+             final boolean created,
+             final long eventTsMillis) {
+        lock.lock();
+        try {
+            int slot = slotOf(releaseId);
+            if (releaseIds[slot] == EMPTY_KEY) {
+                if ((size + 1) * 2 > releaseIds.length) {
+                    rehash(releaseIds.length * 2);
+                    slot = slotOf(releaseId);
+                }
+                releaseIds[slot] = releaseId;
+                minEventTsMillis[slot] = eventTsMillis;
+                maxEventTsMillis[slot] = eventTsMillis;
+                size++;
+            } else {
+                minEventTsMillis[slot] = Math.min(minEventTsMillis[slot], eventTsMillis);
+                maxEventTsMillis[slot] = Math.max(maxEventTsMillis[slot], eventTsMillis);
+            }
+            weightedScoreDeltas[slot] += weightedScoreDelta;
+            weightedCountDeltas[slot] += weightedCountDelta;
+            scoreSumDeltas[slot] += scoreSumDelta;
+            countDeltas[slot] += countDelta;
+            eventCounts[slot]++;
+            if (created) {
+                createdEventCounts[slot]++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void drainTo(final List<ReleaseDeltaSnapshot> snapshots) {
+        lock.lock();
+        try {
+            for (int slot = 0; slot < releaseIds.length; slot++) {
+                if (releaseIds[slot] != EMPTY_KEY) {
+                    snapshots.add(new ReleaseDeltaSnapshot(
+                            releaseIds[slot],
+                            weightedScoreDeltas[slot],
+                            weightedCountDeltas[slot],
+                            scoreSumDeltas[slot],
+                            countDeltas[slot],
+                            createdEventCounts[slot],
+                            eventCounts[slot],
+                            minEventTsMillis[slot],
+                            maxEventTsMillis[slot]));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static int hash(final long releaseId) {
+        final long mixed = releaseId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private int slotOf(final long releaseId) {
+        int slot = hash(releaseId) & mask;
+        while (releaseIds[slot] != EMPTY_KEY && releaseIds[slot] != releaseId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int newCapacity) {
+        final long[] oldReleaseIds = releaseIds;
+        final double[] oldWeightedScoreDeltas = weightedScoreDeltas;
+        final double[] oldWeightedCountDeltas = weightedCountDeltas;
+        final double[] oldScoreSumDeltas = scoreSumDeltas;
+        final long[] oldCountDeltas = countDeltas;
+        final int[] oldCreatedEventCounts = createdEventCounts;
+        final int[] oldEventCounts = eventCounts;
+        final long[] oldMinEventTsMillis = minEventTsMillis;
+        final long[] oldMaxEventTsMillis = maxEventTsMillis;
+
+        allocate(newCapacity);
+        for (int oldSlot = 0; oldSlot < oldReleaseIds.length; oldSlot++) {
+            if (oldReleaseIds[oldSlot] == EMPTY_KEY) {
+                continue;
+            }
+            final int slot = slotOf(oldReleaseIds[oldSlot]);
+            releaseIds[slot] = oldReleaseIds[oldSlot];
+            weightedScoreDeltas[slot] = oldWeightedScoreDeltas[oldSlot];
+            weightedCountDeltas[slot] = oldWeightedCountDeltas[oldSlot];
+            scoreSumDeltas[slot] = oldScoreSumDeltas[oldSlot];
+            countDeltas[slot] = oldCountDeltas[oldSlot];
+            createdEventCounts[slot] = oldCreatedEventCounts[oldSlot];
+            eventCounts[slot] = oldEventCounts[oldSlot];
+            minEventTsMillis[slot] = oldMinEventTsMillis[oldSlot];
+            maxEventTsMillis[slot] = oldMaxEventTsMillis[oldSlot];
+            size++;
+        }
+    }
+
+    private void allocate(final int capacity) {
+        releaseIds = new long[capacity];
+        Arrays.fill(releaseIds, EMPTY_KEY);
+        weightedScoreDeltas = new double[capacity];
+        weightedCountDeltas = new double[capacity];
+        scoreSumDeltas = new double[capacity];
+        countDeltas = new long[capacity];
+        createdEventCounts = new int[capacity];
+        eventCounts = new int[capacity];
+        minEventTsMillis = new long[capacity];
+        maxEventTsMillis = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    }
+}
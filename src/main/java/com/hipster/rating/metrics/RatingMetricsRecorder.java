@@ -1,6 +1,7 @@
 package com.hipster.rating.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
@@ -15,27 +16,140 @@ public class RatingMetricsRecorder {
     private final Map<String, Counter> publishCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> consumerCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> antiEntropyCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> importCounters = new ConcurrentHashMap<>();
+    private final DistributionSummary summaryBatchSize;
+    private final DistributionSummary summaryCoalescingRatio;
+    private final Counter liveStatsDriftCounter;
+    private final DistributionSummary dirtySetSize;
+    private final DistributionSummary dirtySetRatio;
+    private final Map<String, Counter> driftDirectionCounters = new ConcurrentHashMap<>();
+    private final DistributionSummary driftRatingCount;
+    private final DistributionSummary driftWeightedCount;
+    private final DistributionSummary driftRowsPerRun;
+    private final DistributionSummary driftRatioPerRun;
 
     public RatingMetricsRecorder(final MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
+        this.summaryBatchSize = DistributionSummary.builder("rating.summary.batch.size")
+                .description("Rating events per summary consumer batch")
+                .register(meterRegistry);
+        this.summaryCoalescingRatio = DistributionSummary.builder("rating.summary.batch.coalescing.ratio")
+                .description("Rating events folded into one release summary write")
+                .register(meterRegistry);
+        this.liveStatsDriftCounter = Counter.builder("rating.antientropy.live_stats.drift")
+                .description("Summary rows whose live rating count or score sum drifted from source of truth")
+                .register(meterRegistry);
+        this.dirtySetSize = DistributionSummary.builder("rating.antientropy.dirty_set.size")
+                .description("Releases reconciled per incremental anti-entropy run")
+                .register(meterRegistry);
+        this.dirtySetRatio = DistributionSummary.builder("rating.antientropy.dirty_set.ratio")
+                .description("Incremental anti-entropy dirty set size relative to the full sweep size")
+                .register(meterRegistry);
+        this.driftRatingCount = DistributionSummary.builder("rating.antientropy.drift.rating_count")
+                .description("Absolute rating count difference of a drifted summary row")
+                .register(meterRegistry);
+        this.driftWeightedCount = DistributionSummary.builder("rating.antientropy.drift.weighted_count")
+                .description("Absolute weighted count difference of a drifted summary row")
+                .register(meterRegistry);
+        this.driftRowsPerRun = DistributionSummary.builder("rating.antientropy.drift.rows")
+                .description("Drifted summary rows rewritten per anti-entropy run")
+                .register(meterRegistry);
+        this.driftRatioPerRun = DistributionSummary.builder("rating.antientropy.drift.ratio")
+                .description("Drifted summary rows relative to releases checked per anti-entropy run")
+                .register(meterRegistry);
     }
 
     public void recordPublish(final String outcome) {
         increment(publishCounters, "rating.event.publish", "Rating event publish count", outcome);
     }
 
+    public void recordPublish(final String outcome, final int count) {
+        incrementBy(publishCounters, "rating.event.publish", "Rating event publish count", outcome, count);
+    }
+
+    /**
+     * 대량 평점 import 의 행 단위 결과를 기록한다. (upserted / rejected)
+     */
+    public void recordImport(final String outcome, final int count) {
+        incrementBy(importCounters, "rating.import.rows", "Bulk rating import row outcome count", outcome, count);
+    }
+
     public void recordConsumer(final String outcome) {
         increment(consumerCounters, "rating.event.consume", "Rating event consumer outcome count", outcome);
     }
 
+    public void recordConsumer(final String outcome, final int count) {
+        incrementBy(consumerCounters, "rating.event.consume", "Rating event consumer outcome count", outcome, count);
+    }
+
+    /**
+     * 배치 Consumer 한 번의 처리 규모를 기록한다.
+     * coalescing ratio = 이벤트 수 / 실제로 갱신된 release 수 (1 이면 접힘 없음)
+     */
+    public void recordSummaryBatch(final int eventCount, final int touchedReleaseCount) {
+        summaryBatchSize.record(eventCount);
+        if (touchedReleaseCount > 0) {
+            summaryCoalescingRatio.record((double) eventCount / touchedReleaseCount);
+        }
+    }
+
     public void recordAntiEntropy(final String outcome) {
         increment(antiEntropyCounters, "rating.antientropy.run", "Rating anti-entropy run outcome count", outcome);
     }
 
+    /**
+     * Anti-Entropy 가 발견한 실시간 total_rating_count / score_sum 불일치 row 수를 누적한다.
+     */
+    public void recordAntiEntropyLiveStatsDrift(final long driftedRowCount) {
+        liveStatsDriftCounter.increment(driftedRowCount);
+    }
+
+    /**
+     * Incremental Anti-Entropy 한 번의 dirty set 규모를 Full 재집계 규모와 비교하여 기록한다.
+     * ratio = dirty set 크기 / 전체 summary row 수 (Full 대비 처리량 비율)
+     */
+    public void recordAntiEntropyDirtySet(final int dirtyReleaseCount, final long totalReleaseCount) {
+        dirtySetSize.record(dirtyReleaseCount);
+        if (totalReleaseCount > 0) {
+            dirtySetRatio.record((double) dirtyReleaseCount / totalReleaseCount);
+        }
+    }
+
+    /**
+     * compare-then-write 가 다시 쓴 summary row 한 건의 어긋난 크기를 기록한다.
+     * delta 는 저장값 - source-of-truth 이며, 양수(over_counted)는 at-least-once 중복 반영을 뜻한다.
+     */
+    public void recordAntiEntropyDriftRow(final long ratingCountDelta, final double weightedCountDelta) {
+        driftRatingCount.record(Math.abs(ratingCountDelta));
+        driftWeightedCount.record(Math.abs(weightedCountDelta));
+        final String direction = ratingCountDelta > 0 ? "over_counted"
+                : ratingCountDelta < 0 ? "under_counted"
+                : "value_only";
+        increment(driftDirectionCounters, "rating.antientropy.drift.direction", "Drifted summary rows by direction", direction);
+    }
+
+    /**
+     * compare-then-write 실행 한 번에서 검사한 release 수 대비 다시 쓴 row 수를 기록한다.
+     */
+    public void recordAntiEntropyDriftRun(final long checkedReleaseCount, final long driftedReleaseCount) {
+        driftRowsPerRun.record(driftedReleaseCount);
+        if (checkedReleaseCount > 0) {
+            driftRatioPerRun.record((double) driftedReleaseCount / checkedReleaseCount);
+        }
+    }
+
     private void increment(final Map<String, Counter> counters,
                            final String meterName,
                            final String description,
                            final String outcome) {
+        incrementBy(counters, meterName, description, outcome, 1);
+    }
+
+    private void incrementBy(final Map<String, Counter> counters,
+                             final String meterName,
+                             final String description,
+                             final String outcome,
+                             final double amount) {
         final String normalizedOutcome = outcome.toLowerCase(Locale.ROOT);
         final Counter counter = counters.computeIfAbsent(normalizedOutcome, key ->
                 Counter.builder(meterName)
@@ -43,6 +157,6 @@ public class RatingMetricsRecorder {
                         .tag("outcome", key)
                         .register(meterRegistry)
         );
-        counter.increment();
+        counter.increment(amount);
     }
 }
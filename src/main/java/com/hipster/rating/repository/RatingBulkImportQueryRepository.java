@@ -0,0 +1,84 @@
+package com.hipster.rating.repository;
+
+import com.hipster.rating.dto.request.RatingImportRow;
+import com.hipster.release.domain.ReleaseStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 대량 평점 import 전용 JDBC 레포지토리.
+ *
+ * 엔티티 로딩과 건별 이벤트 없이 ratings 에 바로 UPSERT 한다.
+ * idx_ratings_user_release (user_id, release_id) 유니크 키로 ON DUPLICATE KEY UPDATE 가 걸리며,
+ * batchUpdate 는 rewriteBatchedStatements=true 로 multi-row INSERT 한 문장으로 재작성된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RatingBulkImportQueryRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<Long> findActiveReleaseIds(final Collection<Long> releaseIds) {
+        if (releaseIds == null || releaseIds.isEmpty()) return Set.of();
+
+        final String sql = """
+                SELECT id
+                FROM releases
+                WHERE id IN (:releaseIds)
+                  AND status = :status
+                """;
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("releaseIds", releaseIds)
+                .addValue("status", ReleaseStatus.ACTIVE.name());
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(sql, params, Long.class));
+    }
+
+    public Set<Long> findExistingUserIds(final Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) return Set.of();
+
+        final String sql = """
+                SELECT id
+                FROM users
+                WHERE id IN (:userIds)
+                """;
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds);
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(sql, params, Long.class));
+    }
+
+    /**
+     * 평점을 (user_id, release_id) 기준으로 UPSERT 한다.
+     * 점수가 바뀌지 않은 기존 평점은 updated_at 도 그대로 둔다.
+     */
+    public void upsertRatings(final List<RatingImportRow> rows, final LocalDateTime importedAt) {
+        if (rows == null || rows.isEmpty()) return;
+
+        final String sql = """
+                INSERT INTO ratings (user_id, release_id, score, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    updated_at = IF(score <> VALUES(score), VALUES(updated_at), updated_at),
+                    score      = VALUES(score)
+                """;
+
+        final Timestamp importedTs = Timestamp.valueOf(importedAt);
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setLong(2, row.releaseId());
+            ps.setDouble(3, row.score());
+            ps.setTimestamp(4, importedTs);
+            ps.setTimestamp(5, importedTs);
+        });
+    }
+}
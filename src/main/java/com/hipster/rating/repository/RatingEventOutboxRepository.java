@@ -0,0 +1,81 @@
+package com.hipster.rating.repository;
+
+import com.hipster.rating.domain.RatingEventOutbox;
+import com.hipster.rating.domain.RatingEventOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RatingEventOutboxRepository extends JpaRepository<RatingEventOutbox, Long> {
+
+    List<RatingEventOutbox> findByStatusInOrderByIdAsc(
+            List<RatingEventOutboxStatus> statuses,
+            Pageable pageable
+    );
+
+    List<RatingEventOutbox> findByIdBetweenAndStatusAndNextAttemptAtOrderByIdAsc(
+            Long firstId,
+            Long lastId,
+            RatingEventOutboxStatus status,
+            LocalDateTime nextAttemptAt
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update RatingEventOutbox o
+               set o.status = :dispatchingStatus,
+                   o.nextAttemptAt = :leaseUntil
+             where o.id between :firstId and :lastId
+               and o.status in :claimableStatuses
+               and o.nextAttemptAt <= :referenceTime
+            """)
+    int claimRangeForDispatch(Long firstId,
+                              Long lastId,
+                              List<RatingEventOutboxStatus> claimableStatuses,
+                              RatingEventOutboxStatus dispatchingStatus,
+                              LocalDateTime referenceTime,
+                              LocalDateTime leaseUntil);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update RatingEventOutbox o
+               set o.status = :publishedStatus,
+                   o.publishedAt = :publishedAt,
+                   o.lastError = null
+             where o.id in :outboxIds
+            """)
+    int markPublished(Collection<Long> outboxIds,
+                      RatingEventOutboxStatus publishedStatus,
+                      LocalDateTime publishedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update RatingEventOutbox o
+               set o.status = :failedStatus,
+                   o.publishAttemptCount = o.publishAttemptCount + 1,
+                   o.nextAttemptAt = :nextAttemptAt,
+                   o.lastError = :lastError
+             where o.id in :outboxIds
+               and o.status <> :publishedStatus
+            """)
+    int markFailed(Collection<Long> outboxIds,
+                   RatingEventOutboxStatus failedStatus,
+                   RatingEventOutboxStatus publishedStatus,
+                   LocalDateTime nextAttemptAt,
+                   String lastError);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            delete from RatingEventOutbox o
+             where o.status = :publishedStatus
+               and o.publishedAt < :publishedBefore
+            """)
+    int deletePublishedBefore(RatingEventOutboxStatus publishedStatus, LocalDateTime publishedBefore);
+}
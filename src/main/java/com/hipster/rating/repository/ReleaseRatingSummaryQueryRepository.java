@@ -0,0 +1,118 @@
+package com.hipster.rating.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * release_rating_summary 배치 반영 전용 JDBC 레포지토리.
+ *
+ * Consumer 가 여러 RatingEvent 를 release 단위로 접은(coalesce) 결과를
+ * 단일 multi-row UPSERT 로 반영한다. (rewriteBatchedStatements=true 로 한 문장으로 재작성됨)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReleaseRatingSummaryQueryRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 대상 summary row 를 release_id 순서로 잠그고 batch_synced_at 을 읽는다.
+     * 반환 Map 에 key 가 없으면 아직 summary row 가 없는 release 이며, value 가 null 이면 Anti-Entropy 미동기화 상태다.
+     * 호출 측 트랜잭션이 끝날 때까지 Anti-Entropy 덮어쓰기가 끼어들 수 없으므로 이벤트별 eventTs 가드를 메모리에서 평가할 수 있다.
+     */
+    public Map<Long, LocalDateTime> lockBatchSyncedAtByReleaseIds(final Collection<Long> releaseIds) {
+        if (releaseIds == null || releaseIds.isEmpty()) {
+            return Map.of();
+        }
+
+        final String sql = """
+                SELECT release_id, batch_synced_at
+                FROM release_rating_summary
+                WHERE release_id IN (:releaseIds)
+                ORDER BY release_id
+                FOR UPDATE
+                """;
+
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("releaseIds", releaseIds);
+
+        final Map<Long, LocalDateTime> result = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql, params, rs -> {
+            final Timestamp batchSyncedAt = rs.getTimestamp("batch_synced_at");
+            result.put(rs.getLong("release_id"), batchSyncedAt != null ? batchSyncedAt.toLocalDateTime() : null);
+        });
+        return result;
+    }
+
+    /**
+     * release 별로 접힌 증분을 한 번에 UPSERT 한다.
+     * 증분은 이미 eventTs 가드를 통과한 이벤트만 합산된 값이므로 여기서는 가드 없이 더한다.
+     */
+    public void applySummaryDeltas(final Collection<SummaryDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) return;
+
+        final String sql = """
+                INSERT INTO release_rating_summary
+                    (release_id, weighted_score_sum, weighted_count_sum, total_rating_count, score_sum, average_score, updated_at)
+                VALUES (?, ?, ?, ?, ?, IF(? > 0, ? / ?, 0), NOW())
+                ON DUPLICATE KEY UPDATE
+                    weighted_score_sum = weighted_score_sum + VALUES(weighted_score_sum),
+                    weighted_count_sum = weighted_count_sum + VALUES(weighted_count_sum),
+                    total_rating_count = GREATEST(total_rating_count + VALUES(total_rating_count), 0),
+                    score_sum          = score_sum + VALUES(score_sum),
+                    average_score      = IF(total_rating_count > 0, score_sum / total_rating_count, 0),
+                    updated_at         = NOW()
+                """;
+
+        final List<SummaryDelta> rows = new ArrayList<>(deltas);
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, delta) -> {
+            ps.setLong(1, delta.releaseId());
+            ps.setBigDecimal(2, delta.weightedScoreDelta());
+            ps.setBigDecimal(3, delta.weightedCountDelta());
+            ps.setLong(4, delta.countDelta());
+            ps.setBigDecimal(5, delta.scoreSumDelta());
+            ps.setLong(6, delta.countDelta());
+            ps.setBigDecimal(7, delta.scoreSumDelta());
+            ps.setLong(8, delta.countDelta());
+        });
+    }
+
+    public record SummaryDelta(
+            Long releaseId,
+            BigDecimal weightedScoreDelta,
+            BigDecimal weightedCountDelta,
+            BigDecimal scoreSumDelta,
+            long countDelta
+    ) {
+
+        public static SummaryDelta empty(final Long releaseId) {
+            return new SummaryDelta(releaseId, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L);
+        }
+
+        public SummaryDelta plus(final BigDecimal weightedScore,
+                                 final BigDecimal weightedCount,
+                                 final BigDecimal score,
+                                 final long count) {
+            return new SummaryDelta(
+                    releaseId,
+                    weightedScoreDelta.add(weightedScore),
+                    weightedCountDelta.add(weightedCount),
+                    scoreSumDelta.add(score),
+                    countDelta + count
+            );
+        }
+    }
+}
@@ -19,14 +19,19 @@ public interface ReleaseRatingSummaryRepository extends JpaRepository<ReleaseRat
 
     /**
      * 평점 신규 등록 (UPSERT)
+     * 가중합과 함께 가중치 없는 점수 합/건수를 같은 문장에서 누적하고 average_score 를 재계산합니다.
+     * (MySQL 은 SET 절을 왼쪽부터 평가하므로 average_score 는 갱신된 score_sum / total_rating_count 를 사용)
      */
     @Transactional
     @Modifying
-    @Query(value = "INSERT INTO release_rating_summary (release_id, weighted_score_sum, weighted_count_sum, updated_at) " +
-                   "VALUES (:releaseId, (:score * :weightingScore), :weightingScore, NOW()) " +
+    @Query(value = "INSERT INTO release_rating_summary (release_id, weighted_score_sum, weighted_count_sum, total_rating_count, score_sum, average_score, updated_at) " +
+                   "VALUES (:releaseId, (:score * :weightingScore), :weightingScore, 1, :score, :score, NOW()) " +
                    "ON DUPLICATE KEY UPDATE " +
                    "weighted_score_sum = IF(:eventTs > batch_synced_at OR batch_synced_at IS NULL, weighted_score_sum + (:score * :weightingScore), weighted_score_sum), " +
                    "weighted_count_sum = IF(:eventTs > batch_synced_at OR batch_synced_at IS NULL, weighted_count_sum + :weightingScore, weighted_count_sum), " +
+                   "total_rating_count = IF(:eventTs > batch_synced_at OR batch_synced_at IS NULL, total_rating_count + 1, total_rating_count), " +
+                   "score_sum = IF(:eventTs > batch_synced_at OR batch_synced_at IS NULL, score_sum + :score, score_sum), " +
+                   "average_score = IF(total_rating_count > 0, score_sum / total_rating_count, 0), " +
                    "updated_at = IF(:eventTs > batch_synced_at OR batch_synced_at IS NULL, NOW(), updated_at)", nativeQuery = true)
     void incrementRating(@Param("releaseId") Long releaseId,
                          @Param("score") BigDecimal score,
@@ -36,11 +41,14 @@ public interface ReleaseRatingSummaryRepository extends JpaRepository<ReleaseRat
     /**
      * 평점 점수 수정
      * 기존 가중합에서 (과거점수 * 현재신뢰도)를 빼고, (새점수 * 현재신뢰도)를 더합니다.
+     * 건수는 그대로이고 점수 합만 (새점수 - 과거점수) 만큼 이동합니다.
      */
     @Transactional
     @Modifying
     @Query(value = "UPDATE release_rating_summary SET " +
                    "weighted_score_sum = weighted_score_sum - (:oldScore * :weightingScore) + (:newScore * :weightingScore), " +
+                   "score_sum = score_sum - :oldScore + :newScore, " +
+                   "average_score = IF(total_rating_count > 0, score_sum / total_rating_count, 0), " +
                    "updated_at = NOW() " +
                    "WHERE release_id = :releaseId " +
                    "AND (:eventTs > batch_synced_at OR batch_synced_at IS NULL)", nativeQuery = true)
@@ -53,12 +61,16 @@ public interface ReleaseRatingSummaryRepository extends JpaRepository<ReleaseRat
     /**
      * 평점 취소 (삭제)
      * 기존 가중합과 가중수에서 취소된 유저의 지분을 완전히 빼냅니다.
+     * 가중치 없는 점수 합/건수도 함께 빼고 average_score 를 재계산합니다.
      */
     @Transactional
     @Modifying
     @Query(value = "UPDATE release_rating_summary SET " +
                    "weighted_score_sum = weighted_score_sum - (:oldScore * :weightingScore), " +
                    "weighted_count_sum = weighted_count_sum - :weightingScore, " +
+                   "total_rating_count = GREATEST(total_rating_count - 1, 0), " +
+                   "score_sum = score_sum - :oldScore, " +
+                   "average_score = IF(total_rating_count > 0, score_sum / total_rating_count, 0), " +
                    "updated_at = NOW() " +
                    "WHERE release_id = :releaseId " +
                    "AND (:eventTs > batch_synced_at OR batch_synced_at IS NULL)", nativeQuery = true)
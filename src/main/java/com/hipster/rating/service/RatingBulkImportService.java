@@ -0,0 +1,259 @@
+package com.hipster.rating.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hipster.batch.antientropy.AntiEntropyQueryRepository;
+import com.hipster.global.exception.BadRequestException;
+import com.hipster.global.exception.ErrorCode;
+import com.hipster.rating.dto.request.RatingImportFormat;
+import com.hipster.rating.dto.request.RatingImportRow;
+import com.hipster.rating.dto.response.RatingImportResponse;
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.repository.RatingBulkImportQueryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 파트너 카탈로그 마이그레이션용 대량 평점 import.
+ *
+ * 요청 본문을 한 줄씩 읽어 batch-size 단위로 ratings 에 multi-row UPSERT 하며, 파일 전체를 메모리에 올리지 않는다.
+ * 건별 RatingEvent(outbox) 는 남기지 않고, 마지막에 영향받은 release 만 Anti-Entropy 재집계로 summary 를 맞춘다.
+ * 배치마다 독립적으로 커밋되므로 중간에 실패해도 같은 파일을 다시 올리면 UPSERT 로 멱등하게 이어진다.
+ */
+@Slf4j
+@Service
+public class RatingBulkImportService {
+
+    private final RatingBulkImportQueryRepository ratingBulkImportQueryRepository;
+    private final AntiEntropyQueryRepository antiEntropyQueryRepository;
+    private final RatingMetricsRecorder ratingMetricsRecorder;
+    private final ObjectReader rowReader;
+
+    @Value("${hipster.rating.import.batch-size:2000}")
+    private int batchSize = 2000;
+
+    @Value("${hipster.rating.import.max-error-samples:20}")
+    private int maxErrorSamples = 20;
+
+    public RatingBulkImportService(final RatingBulkImportQueryRepository ratingBulkImportQueryRepository,
+                                   final AntiEntropyQueryRepository antiEntropyQueryRepository,
+                                   final RatingMetricsRecorder ratingMetricsRecorder,
+                                   final ObjectMapper objectMapper) {
+        this.ratingBulkImportQueryRepository = ratingBulkImportQueryRepository;
+        this.antiEntropyQueryRepository = antiEntropyQueryRepository;
+        this.ratingMetricsRecorder = ratingMetricsRecorder;
+        this.rowReader = objectMapper.readerFor(RatingImportRow.class);
+    }
+
+    public RatingImportResponse importRatings(final InputStream inputStream, final RatingImportFormat format) {
+        final long startedAt = System.currentTimeMillis();
+        final ImportTally tally = new ImportTally(maxErrorSamples);
+        final List<RatingImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == RatingImportFormat.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+
+                tally.totalRows++;
+                final RatingImportRow row = parse(line, format, lineNumber, tally);
+                if (row == null) {
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flushBatch(batch, tally);
+                }
+            }
+            flushBatch(batch, tally);
+
+        } catch (IOException e) {
+            log.error("[RatingImport] 입력 스트림 읽기 실패. upserted={}", tally.upsertedRows, e);
+            throw new BadRequestException(ErrorCode.RATING_IMPORT_READ_FAILED);
+
+        } finally {
+            // 읽기가 중간에 끊겨도 이미 커밋된 평점의 summary 는 맞춰 둔다.
+            reconcileAffectedReleases(tally.affectedReleaseIds);
+        }
+
+        final long elapsedMs = System.currentTimeMillis() - startedAt;
+        log.info("[RatingImport] 완료. format={}, total={}, upserted={}, rejected={}, releases={}, elapsedMs={}",
+                format, tally.totalRows, tally.upsertedRows, tally.rejectedRows, tally.affectedReleaseIds.size(), elapsedMs);
+        return new RatingImportResponse(
+                tally.totalRows,
+                tally.upsertedRows,
+                tally.rejectedRows,
+                tally.affectedReleaseIds.size(),
+                elapsedMs,
+                List.copyOf(tally.errorSamples)
+        );
+    }
+
+    /**
+     * 존재하지 않는 사용자, ACTIVE 가 아닌 release 를 걸러낸 뒤 한 번의 batch statement 로 UPSERT 한다.
+     * 이미 확인한 id 는 import 동안 기억하여 같은 id 를 다시 조회하지 않는다.
+     */
+    private void flushBatch(final List<RatingImportRow> batch, final ImportTally tally) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        resolveUnknownIds(batch, tally);
+
+        final List<RatingImportRow> accepted = new ArrayList<>(batch.size());
+        int rejected = 0;
+        for (final RatingImportRow row : batch) {
+            if (!tally.validUserIds.contains(row.userId())) {
+                tally.reject("userId=" + row.userId() + ": 존재하지 않는 사용자");
+                rejected++;
+            } else if (!tally.activeReleaseIds.contains(row.releaseId())) {
+                tally.reject("releaseId=" + row.releaseId() + ": 존재하지 않거나 활성 상태가 아닌 release");
+                rejected++;
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            ratingBulkImportQueryRepository.upsertRatings(accepted, LocalDateTime.now());
+            for (final RatingImportRow row : accepted) {
+                tally.affectedReleaseIds.add(row.releaseId());
+            }
+            tally.upsertedRows += accepted.size();
+            ratingMetricsRecorder.recordImport("upserted", accepted.size());
+        }
+        if (rejected > 0) {
+            ratingMetricsRecorder.recordImport("rejected", rejected);
+        }
+        batch.clear();
+    }
+
+    private void resolveUnknownIds(final List<RatingImportRow> batch, final ImportTally tally) {
+        final Set<Long> unknownUserIds = new HashSet<>();
+        final Set<Long> unknownReleaseIds = new HashSet<>();
+        for (final RatingImportRow row : batch) {
+            if (!tally.validUserIds.contains(row.userId()) && !tally.invalidUserIds.contains(row.userId())) {
+                unknownUserIds.add(row.userId());
+            }
+            if (!tally.activeReleaseIds.contains(row.releaseId()) && !tally.inactiveReleaseIds.contains(row.releaseId())) {
+                unknownReleaseIds.add(row.releaseId());
+            }
+        }
+
+        if (!unknownUserIds.isEmpty()) {
+            final Set<Long> found = ratingBulkImportQueryRepository.findExistingUserIds(unknownUserIds);
+            for (final Long userId : unknownUserIds) {
+                (found.contains(userId) ? tally.validUserIds : tally.invalidUserIds).add(userId);
+            }
+        }
+        if (!unknownReleaseIds.isEmpty()) {
+            final Set<Long> found = ratingBulkImportQueryRepository.findActiveReleaseIds(unknownReleaseIds);
+            for (final Long releaseId : unknownReleaseIds) {
+                (found.contains(releaseId) ? tally.activeReleaseIds : tally.inactiveReleaseIds).add(releaseId);
+            }
+        }
+    }
+
+    /**
+     * 건별 이벤트를 남기지 않았으므로 Incremental Anti-Entropy 의 dirty set 에도 잡히지 않는다.
+     * 영향받은 release 만 청크 단위로 source-of-truth 재집계하여 summary 를 맞춘다.
+     */
+    private void reconcileAffectedReleases(final Set<Long> affectedReleaseIds) {
+        if (affectedReleaseIds.isEmpty()) {
+            return;
+        }
+
+        final LocalDateTime batchSyncedAt = LocalDateTime.now();
+        for (final List<Long> chunk : AntiEntropyQueryRepository.partition(new ArrayList<>(affectedReleaseIds))) {
+            antiEntropyQueryRepository.reconcileChunk(chunk, batchSyncedAt);
+        }
+        log.info("[RatingImport] 영향받은 release summary 재집계 완료. releases={}", affectedReleaseIds.size());
+    }
+
+    private RatingImportRow parse(final String line,
+                                  final RatingImportFormat format,
+                                  final long lineNumber,
+                                  final ImportTally tally) {
+        final RatingImportRow row;
+        try {
+            row = format == RatingImportFormat.CSV ? parseCsv(line) : rowReader.readValue(line);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            tally.reject("line " + lineNumber + ": 형식 오류");
+            ratingMetricsRecorder.recordImport("rejected", 1);
+            return null;
+        }
+
+        if (row == null || row.userId() == null || row.releaseId() == null || !isValidScore(row.score())) {
+            tally.reject("line " + lineNumber + ": userId, releaseId, score(0.5~5.0, 0.5 단위)가 필요합니다");
+            ratingMetricsRecorder.recordImport("rejected", 1);
+            return null;
+        }
+        return row;
+    }
+
+    private static RatingImportRow parseCsv(final String line) {
+        final String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("expected 3 columns but was " + columns.length);
+        }
+        return new RatingImportRow(
+                Long.parseLong(columns[0].trim()),
+                Long.parseLong(columns[1].trim()),
+                Double.parseDouble(columns[2].trim())
+        );
+    }
+
+    private static boolean isCsvHeader(final String line) {
+        final String firstColumn = line.split(",", 2)[0].trim();
+        return !firstColumn.isEmpty() && !Character.isDigit(firstColumn.charAt(0));
+    }
+
+    /** Rating 엔티티와 같은 점수 규칙. */
+    private static boolean isValidScore(final Double score) {
+        return score != null && score >= 0.5 && score <= 5.0 && score % 0.5 == 0;
+    }
+
+    private static final class ImportTally {
+
+        private final int maxErrorSamples;
+        private final List<String> errorSamples = new ArrayList<>();
+        private final Set<Long> affectedReleaseIds = new TreeSet<>();
+        private final Set<Long> validUserIds = new HashSet<>();
+        private final Set<Long> invalidUserIds = new HashSet<>();
+        private final Set<Long> activeReleaseIds = new HashSet<>();
+        private final Set<Long> inactiveReleaseIds = new HashSet<>();
+        private long totalRows;
+        private long upsertedRows;
+        private long rejectedRows;
+
+        private ImportTally(final int maxErrorSamples) {
+            this.maxErrorSamples = maxErrorSamples;
+        }
+
+        private void reject(final String reason) {
+            rejectedRows++;
+            if (errorSamples.size() < maxErrorSamples) {
+                errorSamples.add(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hipster.rating.service;
+
+import com.hipster.rating.domain.RatingEventOutbox;
+import com.hipster.rating.domain.RatingEventOutboxStatus;
+import com.hipster.rating.event.RatingEvent;
+import com.hipster.rating.repository.RatingEventOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RatingEventOutboxService {
+
+    private static final List<RatingEventOutboxStatus> RELAYABLE_STATUSES = List.of(
+            RatingEventOutboxStatus.PENDING,
+            RatingEventOutboxStatus.DISPATCHING,
+            RatingEventOutboxStatus.FAILED
+    );
+
+    @Value("${hipster.rating.outbox.batch-size:500}")
+    private int outboxBatchSize;
+
+    @Value("${hipster.rating.outbox.retry-delay-ms:5000}")
+    private long retryDelayMillis;
+
+    @Value("${hipster.rating.outbox.dispatch-lease-ms:30000}")
+    private long dispatchLeaseMillis;
+
+    @Value("${hipster.rating.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    private final RatingEventOutboxRepository ratingEventOutboxRepository;
+
+    /**
+     * 호출자(RatingService)의 쓰기 트랜잭션에 참여하여 평점 변경과 같은 커밋으로 이벤트를 남긴다.
+     * 브로커 상태와 무관하게 요청 스레드는 INSERT 1건만 부담한다.
+     */
+    @Transactional
+    public RatingEventOutbox enqueue(final RatingEvent event) {
+        return ratingEventOutboxRepository.save(RatingEventOutbox.pending(event));
+    }
+
+    /**
+     * 미발행 이벤트를 id 순으로 읽어 앞에서부터 준비된 구간을 DISPATCHING 으로 선점한다.
+     * readOnly 트랜잭션은 replica 로 라우팅되어 직전 라운드의 발행 완료를 보지 못하므로 master 에서 읽는다.
+     * 재시도 대기(FAILED) 또는 다른 relay 가 선점 중인 행을 만나면 그 뒤는 선점하지 않는다.
+     * 실패한 배치를 건너뛰고 뒤의 이벤트를 먼저 보내면 같은 릴리즈의 델타 순서가 뒤바뀌기 때문에,
+     * 선두가 대기 중인 동안 relay 전체가 물러난다.
+     * 준비된 선두 구간은 id 범위 조건부 UPDATE 한 번으로 선점하고, 갱신 건수가 어긋나면
+     * (다른 relay 와 겹쳤거나 범위 안에 늦게 커밋된 행이 있으면) 이번 lease 로 선점된 행을 다시 읽어 그것만 반환한다.
+     */
+    @Transactional
+    public List<RatingEventOutbox> claimReadyToRelay() {
+        // datetime(6) 컬럼에 그대로 저장되도록 마이크로초로 맞춘다 (lease 값으로 선점 행을 다시 찾는다)
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        final LocalDateTime leaseUntil = now.plusNanos(dispatchLeaseMillis * 1_000_000);
+        final List<RatingEventOutbox> candidates = ratingEventOutboxRepository.findByStatusInOrderByIdAsc(
+                RELAYABLE_STATUSES,
+                PageRequest.of(0, Math.max(outboxBatchSize, 1))
+        );
+
+        final List<RatingEventOutbox> readyRun = new ArrayList<>(candidates.size());
+        for (final RatingEventOutbox candidate : candidates) {
+            if (candidate.getNextAttemptAt().isAfter(now)) {
+                break;
+            }
+            readyRun.add(candidate);
+        }
+        if (readyRun.isEmpty()) {
+            return List.of();
+        }
+
+        final Long firstId = readyRun.get(0).getId();
+        final Long lastId = readyRun.get(readyRun.size() - 1).getId();
+        final int updated = ratingEventOutboxRepository.claimRangeForDispatch(
+                firstId,
+                lastId,
+                RELAYABLE_STATUSES,
+                RatingEventOutboxStatus.DISPATCHING,
+                now,
+                leaseUntil
+        );
+        if (updated == readyRun.size()) {
+            return readyRun;
+        }
+        if (updated == 0) {
+            return List.of();
+        }
+        return ratingEventOutboxRepository.findByIdBetweenAndStatusAndNextAttemptAtOrderByIdAsc(
+                firstId,
+                lastId,
+                RatingEventOutboxStatus.DISPATCHING,
+                leaseUntil
+        );
+    }
+
+    @Transactional
+    public int markPublished(final Collection<Long> outboxIds) {
+        if (outboxIds.isEmpty()) {
+            return 0;
+        }
+        return ratingEventOutboxRepository.markPublished(outboxIds, RatingEventOutboxStatus.PUBLISHED, LocalDateTime.now());
+    }
+
+    /**
+     * 실패한 배치를 재시도 지연만큼 뒤로 미룬다. 이 배치가 id 순 선두에 남아 있으므로
+     * 그동안 {@link #claimReadyToRelay()} 는 뒤의 이벤트도 선점하지 않는다.
+     */
+    @Transactional
+    public int markFailed(final Collection<Long> outboxIds, final String errorMessage) {
+        if (outboxIds.isEmpty()) {
+            return 0;
+        }
+        return ratingEventOutboxRepository.markFailed(
+                outboxIds,
+                RatingEventOutboxStatus.FAILED,
+                RatingEventOutboxStatus.PUBLISHED,
+                LocalDateTime.now().plusNanos(retryDelayMillis * 1_000_000),
+                RatingEventOutbox.trimError(errorMessage)
+        );
+    }
+
+    @Transactional
+    public int purgePublished() {
+        return ratingEventOutboxRepository.deletePublishedBefore(
+                RatingEventOutboxStatus.PUBLISHED,
+                LocalDateTime.now().minusHours(retentionHours)
+        );
+    }
+
+    public int getBatchSize() {
+        return Math.max(outboxBatchSize, 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hipster.rating.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hipster.release.domain.ReleaseStatus;
+import com.hipster.release.repository.ReleaseRepository;
+import com.hipster.user.dto.response.UserRatingProfile;
+import com.hipster.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 평점 쓰기 경로용 near-cache. (release 상태, 사용자 가중치/이름)
+ *
+ * 매 요청마다 Release/User 엔티티 전체를 Master 에서 읽던 조회를 노드 로컬 캐시로 대체한다.
+ * 크기 상한을 넘으면 Caffeine 이 오래 안 쓴 항목부터 내보내고, TTL 로 다른 노드에서의 변경도 일정 시간 안에 반영된다.
+ * 이 노드에서 일어난 변경(모더레이션 승인/반려, 가중치 배치, 프로필 수정)은 커밋 직후 즉시 무효화한다.
+ * 존재하지 않는 id 는 캐시하지 않는다.
+ */
+@Component
+public class RatingReferenceCache {
+
+    private final ReleaseRepository releaseRepository;
+    private final UserRepository userRepository;
+    private final Cache<Long, ReleaseStatus> releaseStatusCache;
+    private final Cache<Long, UserRatingProfile> userProfileCache;
+
+    public RatingReferenceCache(final ReleaseRepository releaseRepository,
+                                final UserRepository userRepository,
+                                final MeterRegistry meterRegistry,
+                                @Value("${hipster.rating.near-cache.release.max-size:100000}") final long releaseMaxSize,
+                                @Value("${hipster.rating.near-cache.release.ttl-seconds:60}") final long releaseTtlSeconds,
+                                @Value("${hipster.rating.near-cache.user.max-size:100000}") final long userMaxSize,
+                                @Value("${hipster.rating.near-cache.user.ttl-seconds:300}") final long userTtlSeconds) {
+        this.releaseRepository = releaseRepository;
+        this.userRepository = userRepository;
+        this.releaseStatusCache = Caffeine.newBuilder()
+                .maximumSize(releaseMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(releaseTtlSeconds))
+                .recordStats()
+                .build();
+        this.userProfileCache = Caffeine.newBuilder()
+                .maximumSize(userMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userTtlSeconds))
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions 등으로 적중률을 노출한다
+        CaffeineCacheMetrics.monitor(meterRegistry, releaseStatusCache, "rating.near_cache.release_status");
+        CaffeineCacheMetrics.monitor(meterRegistry, userProfileCache, "rating.near_cache.user_profile");
+    }
+
+    public boolean isActiveRelease(final Long releaseId) {
+        final ReleaseStatus status = releaseStatusCache.get(releaseId,
+                id -> releaseRepository.findStatusById(id).orElse(null));
+        return status == ReleaseStatus.ACTIVE;
+    }
+
+    public Optional<UserRatingProfile> findUserProfile(final Long userId) {
+        return Optional.ofNullable(userProfileCache.get(userId,
+                id -> userRepository.findRatingProfileById(id).orElse(null)));
+    }
+
+    public void evictRelease(final Long releaseId) {
+        afterCommit(() -> releaseStatusCache.invalidate(releaseId));
+    }
+
+    public void evictUser(final Long userId) {
+        afterCommit(() -> userProfileCache.invalidate(userId));
+    }
+
+    public void evictUsers(final Collection<Long> userIds) {
+        final List<Long> keys = List.copyOf(userIds);
+        afterCommit(() -> userProfileCache.invalidateAll(keys));
+    }
+
+    /**
+     * 지금 한 번, 커밋 후 한 번 더 무효화한다.
+     * 커밋 전에 다른 요청이 이전 값을 다시 적재하더라도 커밋 직후 비워지므로 이전 값이 TTL 동안 남지 않는다.
+     */
+    private void afterCommit(final Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
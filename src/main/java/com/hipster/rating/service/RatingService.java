@@ -14,13 +14,11 @@ import com.hipster.rating.dto.response.RatingResult;
 import com.hipster.rating.dto.response.UserRatingResponse;
 import com.hipster.rating.event.RatingEvent;
 import com.hipster.release.domain.Release;
-import com.hipster.release.domain.ReleaseStatus;
 import com.hipster.rating.repository.RatingRepository;
 import com.hipster.release.repository.ReleaseRepository;
-import com.hipster.user.domain.User;
+import com.hipster.user.dto.response.UserRatingProfile;
 import com.hipster.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -43,18 +41,17 @@ public class RatingService {
     private final UserRepository userRepository;
     private final ReleaseRepository releaseRepository;
     private final ArtistRepository artistRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final RatingEventOutboxService ratingEventOutboxService;
+    private final RatingReferenceCache ratingReferenceCache;
 
     @Transactional
     public RatingResult createOrUpdateRating(final Long releaseId, final CreateRatingRequest request, final Long userId) {
-        final Release release = releaseRepository.findById(releaseId)
-                .orElseThrow(() -> new NotFoundException(ErrorCode.RELEASE_NOT_FOUND));
-
-        if (release.getStatus() != ReleaseStatus.ACTIVE) {
+        // release 상태와 사용자 가중치/이름은 near-cache 에서 읽어 쓰기 경로의 조회를 평점 조회/저장 2회로 줄인다
+        if (!ratingReferenceCache.isActiveRelease(releaseId)) {
             throw new NotFoundException(ErrorCode.RELEASE_NOT_FOUND);
         }
 
-        final User user = userRepository.findById(userId)
+        final UserRatingProfile user = ratingReferenceCache.findUserProfile(userId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
 
         final Optional<Rating> existingRating = ratingRepository.findByUserIdAndReleaseId(userId, releaseId);
@@ -72,12 +69,12 @@ public class RatingService {
 
         ratingRepository.save(rating);
 
-        // RabbitMQ Fanout 이벤트를 발행하여 통계 갱신 및 유저 활동일 갱신을 완벽히 격리 (AFTER_COMMIT 방어)
+        // 같은 트랜잭션으로 outbox 에 기록하고, Relay 가 커밋된 이벤트만 RabbitMQ Fanout 으로 발행한다 (브로커 지연/장애 격리)
         if (isCreated || oldScore != request.score()) {
-            eventPublisher.publishEvent(new RatingEvent(userId, releaseId, oldScore, request.score(), isCreated, false, user.getWeightingScore(), java.time.LocalDateTime.now()));
+            ratingEventOutboxService.enqueue(new RatingEvent(userId, releaseId, oldScore, request.score(), isCreated, false, user.weightingScore(), java.time.LocalDateTime.now()));
         }
 
-        final RatingResponse response = RatingResponse.from(rating, user.getUsername());
+        final RatingResponse response = RatingResponse.from(rating, user.username());
         return new RatingResult(response, isCreated);
     }
 
@@ -86,13 +83,13 @@ public class RatingService {
         final Rating rating = ratingRepository.findByUserIdAndReleaseId(userId, releaseId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.RATING_NOT_FOUND));
 
-        final User user = userRepository.findById(userId)
+        final UserRatingProfile user = ratingReferenceCache.findUserProfile(userId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
 
         ratingRepository.delete(rating);
 
-        // RabbitMQ Fanout 이벤트 발행 (삭제 이벤트)
-        eventPublisher.publishEvent(new RatingEvent(userId, releaseId, rating.getScore(), 0.0, false, true, user.getWeightingScore(), java.time.LocalDateTime.now()));
+        // 삭제 이벤트도 같은 트랜잭션으로 outbox 에 기록
+        ratingEventOutboxService.enqueue(new RatingEvent(userId, releaseId, rating.getScore(), 0.0, false, true, user.weightingScore(), java.time.LocalDateTime.now()));
     }
 
 
@@ -1,6 +1,9 @@
 package com.hipster.rating.service;
 
 import com.hipster.rating.event.RatingEvent;
+import com.hipster.rating.event.ReleaseDeltaSnapshot;
+import com.hipster.rating.repository.ReleaseRatingSummaryQueryRepository;
+import com.hipster.rating.repository.ReleaseRatingSummaryQueryRepository.SummaryDelta;
 import com.hipster.rating.repository.ReleaseRatingSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +11,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -15,6 +25,7 @@ import java.math.BigDecimal;
 public class RatingSummaryService {
 
     private final ReleaseRatingSummaryRepository releaseRatingSummaryRepository;
+    private final ReleaseRatingSummaryQueryRepository releaseRatingSummaryQueryRepository;
 
     /**
      * RatingEvent를 수신하여 적절한 통계 업데이트를 위임합니다.
@@ -41,4 +52,166 @@ public class RatingSummaryService {
             log.debug("RatingSummaryService: No change detected for releaseId={}, skipping.", event.releaseId());
         }
     }
+
+    /**
+     * RatingEvent 묶음을 release 단위로 접어서 한 번에 반영합니다.
+     * 같은 release 에 대한 수천 건의 단건 UPDATE 를 배치당 1회의 row 갱신으로 줄여 row-lock 경합을 없앱니다.
+     *
+     * @return 실제로 갱신된 release 수 (coalescing 비율 산출용)
+     */
+    @Transactional
+    public int applyRatingEventBatch(final List<RatingEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        final List<Long> releaseIds = events.stream()
+                .map(RatingEvent::releaseId)
+                .distinct()
+                .sorted()
+                .toList();
+
+        final Map<Long, LocalDateTime> batchSyncedAtByReleaseId =
+                releaseRatingSummaryQueryRepository.lockBatchSyncedAtByReleaseIds(releaseIds);
+        final Map<Long, SummaryDelta> deltas = foldRatingEvents(events, batchSyncedAtByReleaseId);
+
+        releaseRatingSummaryQueryRepository.applySummaryDeltas(deltas.values());
+        log.debug("RatingSummaryService: BATCH events={}, touchedReleases={}", events.size(), deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * write-behind 집계기가 메모리에서 접어 둔 release 별 증분을 한 번에 반영합니다.
+     * 이벤트 원본이 남아 있지 않으므로 batch_synced_at 가드는 release 단위의 eventTs 최소/최대값으로 근사합니다.
+     * - 최대 eventTs 가 batch_synced_at 이하: Anti-Entropy 가 이미 반영한 구간이므로 버린다.
+     * - 최소 eventTs 가 batch_synced_at 초과(또는 NULL): 전부 반영한다.
+     * - 그 사이에 걸친 경우: 전부 반영하고 straddled 로 집계한다. (다음 Incremental Anti-Entropy 가 교정)
+     * - summary row 가 없으면 신규 등록 이벤트가 포함된 경우에만 row 를 만든다.
+     */
+    @Transactional
+    public WriteBehindFlushResult applyWriteBehindDeltas(final List<ReleaseDeltaSnapshot> snapshots) {
+        if (snapshots == null || snapshots.isEmpty()) {
+            return WriteBehindFlushResult.empty();
+        }
+
+        final List<Long> releaseIds = snapshots.stream()
+                .map(ReleaseDeltaSnapshot::releaseId)
+                .distinct()
+                .sorted()
+                .toList();
+        final Map<Long, LocalDateTime> batchSyncedAtByReleaseId =
+                releaseRatingSummaryQueryRepository.lockBatchSyncedAtByReleaseIds(releaseIds);
+
+        final List<SummaryDelta> deltas = new ArrayList<>(snapshots.size());
+        int straddled = 0;
+        for (final ReleaseDeltaSnapshot snapshot : snapshots) {
+            final boolean rowExists = batchSyncedAtByReleaseId.containsKey(snapshot.releaseId());
+            if (!rowExists) {
+                if (snapshot.createdEventCount() > 0) {
+                    deltas.add(toSummaryDelta(snapshot));
+                }
+                continue;
+            }
+
+            final LocalDateTime batchSyncedAt = batchSyncedAtByReleaseId.get(snapshot.releaseId());
+            if (batchSyncedAt == null) {
+                deltas.add(toSummaryDelta(snapshot));
+                continue;
+            }
+
+            final long syncedMillis = batchSyncedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+            if (snapshot.maxEventTsMillis() <= syncedMillis) {
+                continue;
+            }
+            if (snapshot.minEventTsMillis() <= syncedMillis) {
+                straddled++;
+            }
+            deltas.add(toSummaryDelta(snapshot));
+        }
+
+        releaseRatingSummaryQueryRepository.applySummaryDeltas(deltas);
+        log.debug("RatingSummaryService: WRITE_BEHIND releases={}, applied={}, straddled={}",
+                snapshots.size(), deltas.size(), straddled);
+        return new WriteBehindFlushResult(deltas.size(), straddled);
+    }
+
+    private static SummaryDelta toSummaryDelta(final ReleaseDeltaSnapshot snapshot) {
+        return new SummaryDelta(
+                snapshot.releaseId(),
+                BigDecimal.valueOf(snapshot.weightedScoreDelta()),
+                BigDecimal.valueOf(snapshot.weightedCountDelta()),
+                BigDecimal.valueOf(snapshot.scoreSumDelta()),
+                snapshot.countDelta()
+        );
+    }
+
+    /**
+     * 단건 SQL 경로와 동일한 규칙으로 이벤트를 순서대로 평가하여 release 별 증분을 만든다.
+     * - eventTs 가드(eventTs > batch_synced_at)는 이벤트마다 개별 평가한다.
+     * - summary row 가 없으면 UPDATE 계열(수정/삭제)은 단건 경로처럼 무시되고, 신규 등록만 row 를 만든다.
+     */
+    static Map<Long, SummaryDelta> foldRatingEvents(final List<RatingEvent> events,
+                                                    final Map<Long, LocalDateTime> batchSyncedAtByReleaseId) {
+        final Map<Long, LocalDateTime> rowStates = new HashMap<>(batchSyncedAtByReleaseId);
+        final Map<Long, SummaryDelta> deltas = new LinkedHashMap<>();
+
+        for (final RatingEvent event : events) {
+            final Long releaseId = event.releaseId();
+            final boolean rowExists = rowStates.containsKey(releaseId);
+            final BigDecimal weightingScore = BigDecimal.valueOf(event.weightingScore());
+            final BigDecimal newScore = BigDecimal.valueOf(event.newScore());
+            final BigDecimal oldScore = BigDecimal.valueOf(event.oldScore());
+
+            if (event.isCreated() && !rowExists) {
+                // INSERT 분기: 새 row 는 batch_synced_at 이 NULL 이므로 이후 이벤트는 가드를 모두 통과한다.
+                rowStates.put(releaseId, null);
+                accumulate(deltas, releaseId, newScore.multiply(weightingScore), weightingScore, newScore, 1L);
+                continue;
+            }
+
+            if (!rowExists || !isAfterBatchSync(event.eventTs(), rowStates.get(releaseId))) {
+                continue;
+            }
+
+            if (event.isDeleted()) {
+                accumulate(deltas, releaseId,
+                        oldScore.multiply(weightingScore).negate(),
+                        weightingScore.negate(),
+                        oldScore.negate(),
+                        -1L);
+            } else if (event.isCreated()) {
+                accumulate(deltas, releaseId, newScore.multiply(weightingScore), weightingScore, newScore, 1L);
+            } else if (event.oldScore() != event.newScore()) {
+                final BigDecimal scoreDiff = newScore.subtract(oldScore);
+                accumulate(deltas, releaseId, scoreDiff.multiply(weightingScore), BigDecimal.ZERO, scoreDiff, 0L);
+            }
+        }
+        return deltas;
+    }
+
+    private static void accumulate(final Map<Long, SummaryDelta> deltas,
+                                   final Long releaseId,
+                                   final BigDecimal weightedScore,
+                                   final BigDecimal weightedCount,
+                                   final BigDecimal score,
+                                   final long count) {
+        final SummaryDelta current = deltas.getOrDefault(releaseId, SummaryDelta.empty(releaseId));
+        deltas.put(releaseId, current.plus(weightedScore, weightedCount, score, count));
+    }
+
+    private static boolean isAfterBatchSync(final LocalDateTime eventTs, final LocalDateTime batchSyncedAt) {
+        return batchSyncedAt == null || (eventTs != null && eventTs.isAfter(batchSyncedAt));
+    }
+
+    /**
+     * write-behind flush 결과.
+     *
+     * @param straddledReleaseCount 집계 구간 도중 batch_synced_at 이 옮겨져 근사 가드로 반영된 release 수
+     */
+    public record WriteBehindFlushResult(int appliedReleaseCount, int straddledReleaseCount) {
+
+        public static WriteBehindFlushResult empty() {
+            return new WriteBehindFlushResult(0, 0);
+        }
+    }
 }
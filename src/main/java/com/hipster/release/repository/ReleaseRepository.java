@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReleaseRepository extends JpaRepository<Release, Long>, JpaSpecificationExecutor<Release> {
@@ -20,6 +21,9 @@ public interface ReleaseRepository extends JpaRepository<Release, Long>, JpaSpec
 
     List<Release> findAllByStatus(ReleaseStatus status);
 
+    @org.springframework.data.jpa.repository.Query("SELECT r.status FROM Release r WHERE r.id = :releaseId")
+    Optional<ReleaseStatus> findStatusById(@org.springframework.data.repository.query.Param("releaseId") Long releaseId);
+
     boolean existsByTitleAndArtistIdAndReleaseDate(String title, Long artistId, LocalDate releaseDate);
 
     @org.springframework.data.jpa.repository.Query("SELECT DISTINCT r FROM Release r " +
@@ -0,0 +1,7 @@
+package com.hipster.user.dto.response;
+
+/**
+ * 평점 쓰기 경로가 사용자에게서 필요로 하는 값만 담은 projection.
+ */
+public record UserRatingProfile(Long userId, String username, Double weightingScore) {
+}
@@ -1,6 +1,7 @@
 package com.hipster.user.repository;
 
 import com.hipster.user.domain.User;
+import com.hipster.user.dto.response.UserRatingProfile;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -27,6 +28,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("select user from User user where user.id = :userId")
     Optional<User> findByIdForUpdate(@Param("userId") Long userId);
 
+    @Query("select new com.hipster.user.dto.response.UserRatingProfile(user.id, user.username, user.weightingScore) " +
+            "from User user where user.id = :userId")
+    Optional<UserRatingProfile> findRatingProfileById(@Param("userId") Long userId);
+
     @Modifying(clearAutomatically = true)
     @Query("UPDATE User u SET u.lastActiveDate = :lastActiveDate WHERE u.id = :userId")
     void updateLastActiveDate(@Param("userId") Long userId, @Param("lastActiveDate") LocalDateTime lastActiveDate);
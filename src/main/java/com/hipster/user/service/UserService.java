@@ -6,6 +6,7 @@ import com.hipster.global.exception.ErrorCode;
 import com.hipster.global.exception.ForbiddenException;
 import com.hipster.global.exception.NotFoundException;
 import com.hipster.moderation.repository.ModerationQueueRepository;
+import com.hipster.rating.service.RatingReferenceCache;
 import com.hipster.rating.repository.RatingRepository;
 import com.hipster.review.repository.ReviewRepository;
 import com.hipster.user.domain.User;
@@ -33,6 +34,7 @@ public class UserService {
     private final ReviewRepository reviewRepository;
     private final ModerationQueueRepository moderationQueueRepository;
     private final UserWeightStatsRepository userWeightStatsRepository;
+    private final RatingReferenceCache ratingReferenceCache;
 
     public UserProfileResponse getUserProfile(final Long userId) {
         final User user = findUserOrThrow(userId);
@@ -58,6 +60,7 @@ public class UserService {
         }
 
         user.updateUsername(request.username());
+        ratingReferenceCache.evictUser(userId);
     }
 
     @Transactional
@@ -87,6 +90,7 @@ public class UserService {
 
         // 2. 유저 엔티티 삭제
         userRepository.delete(user);
+        ratingReferenceCache.evictUser(userId);
     }
 
     private User findUserOrThrow(final Long userId) {
@@ -0,0 +1,8 @@
+ALTER TABLE release_rating_summary
+    ADD COLUMN score_sum DECIMAL(19, 4) NOT NULL DEFAULT 0 AFTER average_score;
+
+-- 기존 row 는 마지막 Anti-Entropy 결과(average_score * total_rating_count)로 점수 합을 복원한다.
+UPDATE release_rating_summary
+SET score_sum = average_score * total_rating_count
+WHERE score_sum = 0
+  AND total_rating_count > 0;
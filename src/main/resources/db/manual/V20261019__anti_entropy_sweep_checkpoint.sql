@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS anti_entropy_sweep_checkpoint (
+    sweep_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    last_completed_release_id BIGINT NULL,
+    processed_release_count BIGINT NOT NULL DEFAULT 0,
+    started_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
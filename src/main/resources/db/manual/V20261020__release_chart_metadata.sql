@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS release_chart_metadata (
+    release_id BIGINT NOT NULL PRIMARY KEY,
+    release_type VARCHAR(50) NULL,
+    release_year INT NULL,
+    location_id BIGINT NULL,
+    genre_ids JSON NULL,
+    descriptor_ids JSON NULL,
+    languages JSON NULL,
+    source_updated_at DATETIME(6) NOT NULL,
+    refreshed_at DATETIME(6) NOT NULL
+);
+
+-- 최초 적재는 다음 차트 배치의 releaseMetadataRefreshStep 이 stale(미적재) release 를 모두 채운다.
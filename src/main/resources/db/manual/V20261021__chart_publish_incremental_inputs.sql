@@ -0,0 +1,7 @@
+ALTER TABLE chart_publish_state
+    ADD COLUMN global_average DECIMAL(19, 10) NULL AFTER published_at,
+    ADD COLUMN candidate_global_average DECIMAL(19, 10) NULL AFTER global_average,
+    ADD COLUMN source_watermark_at DATETIME(6) NULL AFTER candidate_global_average,
+    ADD COLUMN candidate_source_watermark_at DATETIME(6) NULL AFTER source_watermark_at;
+
+-- 기존 published version 은 입력 기준이 없으므로 첫 INCREMENTAL 실행은 FULL 로 동작한다.
@@ -0,0 +1,80 @@
+-- 차트 필터 컬럼을 JSON_CONTAINS 대상의 객체 배열에서 index 가능한 형태로 바꾼다. (ChartFacetCodec)
+--   genre_ids         [{"id":12,"isPrimary":true},...] -> [12,40]  (multi-valued index)
+--   primary_genre_ids (신규) isPrimary=true 인 장르 id 배열
+--   descriptor_ids    [3,7] 그대로                              (multi-valued index)
+--   languages         ["KO","EN"] -> language_mask BIGINT     (Language.ordinal() bit)
+
+-- ===================================================================
+-- 적용 전/후 측정 (같은 데이터로 두 번 실행하여 비교)
+-- ===================================================================
+-- ANALYZE TABLE chart_scores;
+-- SELECT table_name, table_rows, data_length, index_length
+-- FROM information_schema.tables
+-- WHERE table_schema = DATABASE() AND table_name IN ('chart_scores', 'release_chart_metadata');
+--
+-- 적용 전 fallback 쿼리:
+-- EXPLAIN ANALYZE SELECT * FROM chart_scores
+-- WHERE is_esoteric = false AND JSON_CONTAINS(genre_ids, JSON_OBJECT('id', 12)) = true
+-- ORDER BY bayesian_score DESC LIMIT 20;
+-- EXPLAIN ANALYZE SELECT * FROM chart_scores
+-- WHERE is_esoteric = false AND JSON_CONTAINS(languages, '"KO"') = true
+-- ORDER BY bayesian_score DESC LIMIT 20;
+--
+-- 적용 후 fallback 쿼리:
+-- EXPLAIN ANALYZE SELECT * FROM chart_scores
+-- WHERE is_esoteric = false AND (12 MEMBER OF(genre_ids->'$'))
+-- ORDER BY bayesian_score DESC LIMIT 20;
+-- EXPLAIN ANALYZE SELECT * FROM chart_scores
+-- WHERE is_esoteric = false AND (language_mask & 1) <> 0
+-- ORDER BY bayesian_score DESC LIMIT 20;
+
+-- ===================================================================
+-- chart_scores (published projection)
+-- ===================================================================
+ALTER TABLE chart_scores
+    ADD COLUMN primary_genre_ids JSON NULL AFTER genre_ids,
+    ADD COLUMN language_mask BIGINT NOT NULL DEFAULT 0 AFTER location_id;
+
+-- SET 은 왼쪽부터 적용되므로 primary_genre_ids 를 먼저 원본 genre_ids 에서 뽑는다.
+UPDATE chart_scores cs
+SET cs.primary_genre_ids = (
+        SELECT JSON_ARRAYAGG(g.id)
+        FROM JSON_TABLE(cs.genre_ids, '$[*]' COLUMNS (id INT PATH '$.id', is_primary BOOLEAN PATH '$.isPrimary')) g
+        WHERE g.is_primary
+    ),
+    cs.genre_ids = (
+        SELECT JSON_ARRAYAGG(g.id)
+        FROM JSON_TABLE(cs.genre_ids, '$[*]' COLUMNS (id INT PATH '$.id')) g
+    ),
+    cs.language_mask = (
+        SELECT COALESCE(BIT_OR(1 << (FIELD(l.code, 'KO', 'EN', 'JA', 'ZH', 'ES', 'FR', 'DE', 'IT', 'PT', 'RU', 'OTHER') - 1)), 0)
+        FROM JSON_TABLE(cs.languages, '$[*]' COLUMNS (code VARCHAR(20) PATH '$')) l
+    );
+
+ALTER TABLE chart_scores
+    DROP COLUMN languages,
+    ADD INDEX idx_chart_scores_genre_ids ((CAST(genre_ids->'$' AS UNSIGNED ARRAY))),
+    ADD INDEX idx_chart_scores_descriptor_ids ((CAST(descriptor_ids->'$' AS UNSIGNED ARRAY)));
+
+-- stage / prev 는 예전 컬럼 구성이므로 버린다. stage 는 다음 배치가 chart_scores LIKE 로 다시 만든다.
+DROP TABLE IF EXISTS chart_scores_stage;
+DROP TABLE IF EXISTS chart_scores_prev;
+
+-- prev 를 버렸으므로 rollback 대상도 함께 지운다. 다음 publish 가 새 prev 와 함께 다시 채운다.
+-- (이전 ES index 도 예전 매핑이라 rollback 대상으로 남기지 않는다)
+UPDATE chart_publish_state
+SET previous_version = NULL,
+    previous_mysql_projection_ref = NULL,
+    previous_es_index_ref = NULL,
+    previous_logical_as_of_at = NULL;
+
+-- ===================================================================
+-- release_chart_metadata (projection, 다시 만들 수 있음)
+-- ===================================================================
+ALTER TABLE release_chart_metadata
+    ADD COLUMN primary_genre_ids JSON NULL AFTER genre_ids,
+    ADD COLUMN language_mask BIGINT NOT NULL DEFAULT 0 AFTER descriptor_ids,
+    DROP COLUMN languages;
+
+-- 비워 두면 다음 차트 배치의 releaseMetadataRefreshStep 이 전부 stale 로 보고 새 인코딩으로 채운다.
+TRUNCATE TABLE release_chart_metadata;
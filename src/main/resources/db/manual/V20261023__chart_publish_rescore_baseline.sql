@@ -0,0 +1,5 @@
+ALTER TABLE chart_publish_state
+    ADD COLUMN rescore_global_average DECIMAL(19, 10) NULL AFTER candidate_global_average,
+    ADD COLUMN candidate_rescore_global_average DECIMAL(19, 10) NULL AFTER rescore_global_average;
+
+-- 마지막 FULL 재계산의 C 를 알 수 없으므로 첫 INCREMENTAL 실행은 FULL 로 동작하며 기준을 새로 남긴다.
@@ -1,19 +1,28 @@
 package com.hipster.batch.antientropy;
 
 import com.hipster.rating.metrics.RatingMetricsRecorder;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,26 +32,85 @@ class AntiEntropyBatchJobTest {
     @Mock
     private AntiEntropyQueryRepository antiEntropyQueryRepository;
 
+    @Mock
+    private AntiEntropySweepCheckpointRepository antiEntropySweepCheckpointRepository;
+
     @Mock
     private RatingMetricsRecorder ratingMetricsRecorder;
 
-    @InjectMocks
     private AntiEntropyBatchJob antiEntropyBatchJob;
 
+    @BeforeEach
+    void setUp() {
+        antiEntropyBatchJob = new AntiEntropyBatchJob(
+                antiEntropyQueryRepository,
+                antiEntropySweepCheckpointRepository,
+                ratingMetricsRecorder,
+                new TaskExecutorAdapter(Runnable::run)
+        );
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "fullSweepParallelism", 2);
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "chunkTimeBudgetMillis", 60_000L);
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "incrementalLookbackMinutes", 180L);
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "incrementalSyncOverlapSeconds", 60L);
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "incrementalChunkSize", 2);
+    }
+
     @Test
     void runAntiEntropyFull_Success_RecordsSuccessMetric() {
-        when(antiEntropyQueryRepository.findAllReleaseIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(antiEntropySweepCheckpointRepository.findById(AntiEntropyBatchJob.FULL_SWEEP_NAME)).thenReturn(Optional.empty());
+        when(antiEntropyQueryRepository.findReleaseIdsAfter(0L, AntiEntropyQueryRepository.CHUNK_SIZE))
+                .thenReturn(List.of(1L, 2L, 3L));
 
         antiEntropyBatchJob.runAntiEntropyFull();
 
-        verify(antiEntropyQueryRepository).reconcileChunk(anyList(), any(LocalDateTime.class));
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
         verify(ratingMetricsRecorder).recordAntiEntropy("success");
         verify(ratingMetricsRecorder, never()).recordAntiEntropy("failed");
     }
 
     @Test
-    void runAntiEntropyFull_Failure_RecordsFailureMetric() {
-        when(antiEntropyQueryRepository.findAllReleaseIds()).thenReturn(List.of(1L, 2L, 3L));
+    void runAntiEntropyFull_StreamsKeysetPagesAndCompletesCheckpoint() {
+        final List<Long> firstPage = releaseIds(1L, AntiEntropyQueryRepository.CHUNK_SIZE);
+        final AntiEntropySweepCheckpoint checkpoint = AntiEntropySweepCheckpoint.start(AntiEntropyBatchJob.FULL_SWEEP_NAME);
+        checkpoint.markCompleted();
+        when(antiEntropySweepCheckpointRepository.findById(AntiEntropyBatchJob.FULL_SWEEP_NAME)).thenReturn(Optional.of(checkpoint));
+        when(antiEntropyQueryRepository.findReleaseIdsAfter(0L, AntiEntropyQueryRepository.CHUNK_SIZE)).thenReturn(firstPage);
+        when(antiEntropyQueryRepository.findReleaseIdsAfter(1_000L, AntiEntropyQueryRepository.CHUNK_SIZE))
+                .thenReturn(List.of(1_001L, 1_002L));
+        when(antiEntropyQueryRepository.reconcileChunk(anyList(), any(LocalDateTime.class))).thenReturn(1);
+
+        antiEntropyBatchJob.runAntiEntropyFull();
+
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(firstPage), any(LocalDateTime.class));
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(1_001L, 1_002L)), any(LocalDateTime.class));
+        verify(ratingMetricsRecorder).recordAntiEntropyLiveStatsDrift(2L);
+        assertThat(checkpoint.isCompleted()).isTrue();
+        assertThat(checkpoint.getLastCompletedReleaseId()).isEqualTo(1_002L);
+        assertThat(checkpoint.getProcessedReleaseCount()).isEqualTo(1_002L);
+    }
+
+    @Test
+    void runAntiEntropyFull_ResumesAfterLastCompletedRange() {
+        final AntiEntropySweepCheckpoint checkpoint = AntiEntropySweepCheckpoint.start(AntiEntropyBatchJob.FULL_SWEEP_NAME);
+        checkpoint.advance(500L, 500);
+        checkpoint.markFailed();
+        when(antiEntropySweepCheckpointRepository.findById(AntiEntropyBatchJob.FULL_SWEEP_NAME)).thenReturn(Optional.of(checkpoint));
+        when(antiEntropyQueryRepository.findReleaseIdsAfter(500L, AntiEntropyQueryRepository.CHUNK_SIZE))
+                .thenReturn(List.of(501L, 502L));
+
+        antiEntropyBatchJob.runAntiEntropyFull();
+
+        verify(antiEntropyQueryRepository, never()).findReleaseIdsAfter(0L, AntiEntropyQueryRepository.CHUNK_SIZE);
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(501L, 502L)), any(LocalDateTime.class));
+        verify(ratingMetricsRecorder).recordAntiEntropy("resumed");
+        assertThat(checkpoint.getProcessedReleaseCount()).isEqualTo(502L);
+    }
+
+    @Test
+    void runAntiEntropyFull_Failure_RecordsFailureMetricAndKeepsCheckpoint() {
+        when(antiEntropySweepCheckpointRepository.findById(AntiEntropyBatchJob.FULL_SWEEP_NAME)).thenReturn(Optional.empty());
+        when(antiEntropyQueryRepository.findReleaseIdsAfter(0L, AntiEntropyQueryRepository.CHUNK_SIZE))
+                .thenReturn(List.of(1L, 2L, 3L));
         doThrow(new IllegalStateException("chunk failed"))
                 .when(antiEntropyQueryRepository).reconcileChunk(anyList(), any(LocalDateTime.class));
 
@@ -51,4 +119,68 @@ class AntiEntropyBatchJobTest {
         verify(ratingMetricsRecorder).recordAntiEntropy("failed");
         verify(ratingMetricsRecorder, never()).recordAntiEntropy("success");
     }
+
+    @Test
+    void runAntiEntropyIncremental_ReconcilesOnlyDirtyReleasesInSmallChunks() {
+        when(antiEntropyQueryRepository.findDirtyReleaseIds(any(LocalDateTime.class), eq(60L)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(antiEntropyQueryRepository.countSummaryReleases()).thenReturn(1_000L);
+
+        antiEntropyBatchJob.runAntiEntropyIncremental();
+
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(3L)), any(LocalDateTime.class));
+        verify(antiEntropyQueryRepository, never()).findReleaseIdsAfter(anyLong(), anyInt());
+        verify(ratingMetricsRecorder).recordAntiEntropyDirtySet(3, 1_000L);
+        verify(ratingMetricsRecorder).recordAntiEntropy("incremental_success");
+    }
+
+    @Test
+    void runAntiEntropyIncremental_EmptyDirtySet_SkipsReconcile() {
+        when(antiEntropyQueryRepository.findDirtyReleaseIds(any(LocalDateTime.class), anyLong())).thenReturn(List.of());
+        when(antiEntropyQueryRepository.countSummaryReleases()).thenReturn(1_000L);
+
+        antiEntropyBatchJob.runAntiEntropyIncremental();
+
+        verify(antiEntropyQueryRepository, times(0)).reconcileChunk(anyList(), any(LocalDateTime.class));
+        verify(ratingMetricsRecorder).recordAntiEntropyDirtySet(0, 1_000L);
+        verify(ratingMetricsRecorder).recordAntiEntropy("incremental_success");
+    }
+
+    @Test
+    void runAntiEntropyIncremental_Failure_RecordsFailureMetric() {
+        when(antiEntropyQueryRepository.findDirtyReleaseIds(any(LocalDateTime.class), anyLong())).thenReturn(List.of(1L));
+        when(antiEntropyQueryRepository.countSummaryReleases()).thenReturn(10L);
+        doThrow(new IllegalStateException("chunk failed"))
+                .when(antiEntropyQueryRepository).reconcileChunk(anyList(), any(LocalDateTime.class));
+
+        antiEntropyBatchJob.runAntiEntropyIncremental();
+
+        verify(ratingMetricsRecorder).recordAntiEntropy("incremental_failed");
+        verify(ratingMetricsRecorder, never()).recordAntiEntropy("incremental_success");
+    }
+
+    @Test
+    void runAntiEntropyIncremental_CompareBeforeWrite_RecordsDriftHistograms() {
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "compareBeforeWrite", true);
+        ReflectionTestUtils.setField(antiEntropyBatchJob, "driftTolerance", new BigDecimal("0.0001"));
+        final AntiEntropyQueryRepository.SummaryDrift drift = new AntiEntropyQueryRepository.SummaryDrift(
+                new AntiEntropyQueryRepository.SummaryAggregate(1L, new BigDecimal("4.0"), new BigDecimal("1.0"), 1L, new BigDecimal("4.0")),
+                new AntiEntropyQueryRepository.SummaryAggregate(1L, new BigDecimal("8.0"), new BigDecimal("2.0"), 2L, new BigDecimal("8.0")));
+        when(antiEntropyQueryRepository.findDirtyReleaseIds(any(LocalDateTime.class), anyLong())).thenReturn(List.of(1L, 2L));
+        when(antiEntropyQueryRepository.countSummaryReleases()).thenReturn(10L);
+        when(antiEntropyQueryRepository.reconcileDriftedChunk(eq(List.of(1L, 2L)), any(LocalDateTime.class), any(BigDecimal.class)))
+                .thenReturn(new AntiEntropyQueryRepository.DriftReport(2, 1, List.of(drift), 0));
+
+        antiEntropyBatchJob.runAntiEntropyIncremental();
+
+        verify(antiEntropyQueryRepository, never()).reconcileChunk(anyList(), any(LocalDateTime.class));
+        verify(ratingMetricsRecorder).recordAntiEntropyDriftRow(1L, 1.0);
+        verify(ratingMetricsRecorder).recordAntiEntropyDriftRun(2L, 1L);
+        verify(ratingMetricsRecorder).recordAntiEntropyLiveStatsDrift(1L);
+    }
+
+    private List<Long> releaseIds(final long firstReleaseId, final int count) {
+        return java.util.stream.LongStream.range(firstReleaseId, firstReleaseId + count).boxed().toList();
+    }
 }
@@ -122,10 +122,13 @@ class AntiEntropyQueryRepositoryIntegrationTest {
 
     @Test
     @DisplayName("anti-entropy 는 ratings 와 기존 summary 양쪽 release 를 수집한다")
-    void findAllReleaseIds_IncludesRatingsAndSummaryCandidates() {
-        final List<Long> releaseIds = antiEntropyQueryRepository.findAllReleaseIds();
+    void findReleaseIdsAfter_IncludesRatingsAndSummaryCandidates() {
+        final List<Long> releaseIds = antiEntropyQueryRepository.findReleaseIdsAfter(0L, 1000);
 
         assertThat(releaseIds).contains(liveReleaseId, orphanReleaseId);
+        assertThat(releaseIds).isSorted();
+        assertThat(antiEntropyQueryRepository.findReleaseIdsAfter(Math.max(liveReleaseId, orphanReleaseId), 1000))
+                .doesNotContain(liveReleaseId, orphanReleaseId);
     }
 
     @Test
@@ -133,11 +136,13 @@ class AntiEntropyQueryRepositoryIntegrationTest {
     void reconcileChunk_DeletesOrphanSummaryAndRebuildsLiveSummary() {
         final LocalDateTime batchSyncedAt = LocalDateTime.of(2026, 3, 19, 12, 0, 0);
 
-        antiEntropyQueryRepository.reconcileChunk(List.of(liveReleaseId, orphanReleaseId), batchSyncedAt);
+        final int liveStatsDriftCount = antiEntropyQueryRepository.reconcileChunk(List.of(liveReleaseId, orphanReleaseId), batchSyncedAt);
 
+        assertThat(liveStatsDriftCount).isEqualTo(1);
         final ReleaseRatingSummary rebuiltSummary = summaryRepository.findByReleaseId(liveReleaseId).orElseThrow();
         assertThat(rebuiltSummary.getTotalRatingCount()).isEqualTo(1L);
         assertThat(rebuiltSummary.getAverageScore()).isEqualTo(4.0);
+        assertThat(rebuiltSummary.getScoreSum()).isEqualByComparingTo("4.0000");
         assertThat(rebuiltSummary.getWeightedScoreSum()).isEqualByComparingTo("3.2000");
         assertThat(rebuiltSummary.getWeightedCountSum()).isEqualByComparingTo("0.8000");
         assertThat(rebuiltSummary.getBatchSyncedAt()).isEqualTo(batchSyncedAt);
@@ -145,6 +150,30 @@ class AntiEntropyQueryRepositoryIntegrationTest {
         assertThat(summaryRepository.findByReleaseId(orphanReleaseId)).isEmpty();
     }
 
+    @Test
+    @DisplayName("compare-then-write 는 어긋난 row 만 다시 쓰고 이미 맞는 row 는 건드리지 않는다")
+    void reconcileDriftedChunk_RewritesOnlyDriftedRows() {
+        final LocalDateTime firstSyncedAt = LocalDateTime.of(2026, 3, 19, 12, 0, 0);
+        final LocalDateTime secondSyncedAt = LocalDateTime.of(2026, 3, 20, 12, 0, 0);
+        final BigDecimal tolerance = new BigDecimal("0.0001");
+
+        final AntiEntropyQueryRepository.DriftReport firstReport = antiEntropyQueryRepository.reconcileDriftedChunk(
+                List.of(liveReleaseId, orphanReleaseId), firstSyncedAt, tolerance);
+
+        assertThat(firstReport.drifts()).hasSize(1);
+        assertThat(firstReport.drifts().get(0).ratingCountDelta()).isEqualTo(8L);
+        assertThat(firstReport.liveStatsDriftCount()).isEqualTo(1);
+        assertThat(firstReport.orphanDeletedCount()).isEqualTo(1);
+        assertThat(summaryRepository.findByReleaseId(orphanReleaseId)).isEmpty();
+        assertThat(summaryRepository.findByReleaseId(liveReleaseId).orElseThrow().getBatchSyncedAt()).isEqualTo(firstSyncedAt);
+
+        final AntiEntropyQueryRepository.DriftReport secondReport = antiEntropyQueryRepository.reconcileDriftedChunk(
+                List.of(liveReleaseId), secondSyncedAt, tolerance);
+
+        assertThat(secondReport.drifts()).isEmpty();
+        assertThat(summaryRepository.findByReleaseId(liveReleaseId).orElseThrow().getBatchSyncedAt()).isEqualTo(firstSyncedAt);
+    }
+
     private void insertSummaryRow(
             final Long releaseId,
             final long totalRatingCount,
@@ -156,12 +185,13 @@ class AntiEntropyQueryRepositoryIntegrationTest {
         jdbcTemplate.update(
                 """
                 INSERT INTO release_rating_summary
-                    (release_id, total_rating_count, average_score, weighted_score_sum, weighted_count_sum, batch_synced_at, updated_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?)
+                    (release_id, total_rating_count, average_score, score_sum, weighted_score_sum, weighted_count_sum, batch_synced_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
                 """,
                 releaseId,
                 totalRatingCount,
                 averageScore,
+                averageScore * totalRatingCount,
                 weightedScoreSum,
                 weightedCountSum,
                 now,
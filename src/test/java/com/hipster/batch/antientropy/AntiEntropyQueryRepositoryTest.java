@@ -9,8 +9,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,13 +27,13 @@ class AntiEntropyQueryRepositoryTest {
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Test
-    @DisplayName("anti-entropy 대상 조회는 ratings 와 기존 summary release 를 함께 읽는다")
-    void findAllReleaseIds_UsesRatingsAndSummaryUnion() {
+    @DisplayName("anti-entropy 대상 조회는 ratings 와 기존 summary release 를 keyset 으로 함께 읽는다")
+    void findReleaseIdsAfter_UsesRatingsAndSummaryUnionWithKeyset() {
         final AntiEntropyQueryRepository repository = new AntiEntropyQueryRepository(namedParameterJdbcTemplate);
         when(namedParameterJdbcTemplate.queryForList(any(String.class), any(MapSqlParameterSource.class), org.mockito.ArgumentMatchers.eq(Long.class)))
                 .thenReturn(List.of(11L, 22L));
 
-        final List<Long> releaseIds = repository.findAllReleaseIds();
+        final List<Long> releaseIds = repository.findReleaseIdsAfter(10L, 1000);
 
         final ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
         verify(namedParameterJdbcTemplate)
@@ -41,6 +43,8 @@ class AntiEntropyQueryRepositoryTest {
         assertThat(sqlCaptor.getValue()).contains("SELECT DISTINCT release_id FROM ratings");
         assertThat(sqlCaptor.getValue()).contains("SELECT release_id FROM release_rating_summary");
         assertThat(sqlCaptor.getValue()).contains("UNION");
+        assertThat(sqlCaptor.getValue()).contains("release_id > :afterReleaseId");
+        assertThat(sqlCaptor.getValue()).contains("LIMIT :limit");
     }
 
     @Test
@@ -62,4 +66,69 @@ class AntiEntropyQueryRepositoryTest {
         assertThat(sqlCaptor.getAllValues().get(1)).contains("COUNT(*)");
         assertThat(sqlCaptor.getAllValues().get(1)).contains("ON DUPLICATE KEY UPDATE");
     }
+
+    @Test
+    @DisplayName("incremental dirty set 은 outbox 에 남은 평점 쓰기 중 batch_synced_at 이후 것만 본다")
+    void findDirtyReleaseIds_UsesOutboxSinceLastSync() {
+        final AntiEntropyQueryRepository repository = new AntiEntropyQueryRepository(namedParameterJdbcTemplate);
+        when(namedParameterJdbcTemplate.queryForList(any(String.class), any(MapSqlParameterSource.class), org.mockito.ArgumentMatchers.eq(Long.class)))
+                .thenReturn(List.of(7L));
+
+        final List<Long> releaseIds = repository.findDirtyReleaseIds(LocalDateTime.of(2026, 10, 18, 0, 0, 0), 60L);
+
+        final ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<MapSqlParameterSource> paramsCaptor = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedParameterJdbcTemplate)
+                .queryForList(sqlCaptor.capture(), paramsCaptor.capture(), org.mockito.ArgumentMatchers.eq(Long.class));
+
+        assertThat(releaseIds).containsExactly(7L);
+        assertThat(sqlCaptor.getValue()).contains("FROM rating_event_outbox");
+        assertThat(sqlCaptor.getValue()).contains("s.batch_synced_at IS NULL");
+        assertThat(paramsCaptor.getValue().getValue("syncOverlapSeconds")).isEqualTo(60L);
+    }
+
+    @Test
+    @DisplayName("incremental 청크 분할은 지정한 크기를 따른다")
+    void partition_UsesGivenChunkSize() {
+        assertThat(AntiEntropyQueryRepository.partition(List.of(1L, 2L, 3L, 4L, 5L), 2))
+                .containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+    }
+
+    @Test
+    @DisplayName("drift 비교는 허용 오차 안의 row 는 건너뛰고 어긋나거나 없는 row 만 고른다")
+    void findDrifts_SelectsOnlyRowsBeyondTolerance() {
+        final BigDecimal tolerance = new BigDecimal("0.0001");
+        final Map<Long, AntiEntropyQueryRepository.SummaryAggregate> truth = Map.of(
+                1L, aggregate(1L, "8.0", "2.0", 2L, "8.0"),
+                2L, aggregate(2L, "4.0", "1.0", 1L, "4.0"),
+                3L, aggregate(3L, "3.0", "1.0", 1L, "3.0"));
+        final Map<Long, AntiEntropyQueryRepository.SummaryAggregate> stored = Map.of(
+                1L, aggregate(1L, "8.00001", "2.0", 2L, "8.0"),
+                2L, aggregate(2L, "8.0", "2.0", 2L, "8.0"));
+
+        final List<AntiEntropyQueryRepository.SummaryDrift> drifts =
+                AntiEntropyQueryRepository.findDrifts(truth, stored, tolerance);
+
+        assertThat(drifts).extracting(AntiEntropyQueryRepository.SummaryDrift::releaseId)
+                .containsExactlyInAnyOrder(2L, 3L);
+        final AntiEntropyQueryRepository.SummaryDrift doubleCounted = drifts.stream()
+                .filter(drift -> drift.releaseId().equals(2L))
+                .findFirst()
+                .orElseThrow();
+        assertThat(doubleCounted.ratingCountDelta()).isEqualTo(1L);
+        assertThat(doubleCounted.weightedCountDelta()).isEqualByComparingTo("1.0");
+    }
+
+    private AntiEntropyQueryRepository.SummaryAggregate aggregate(final Long releaseId,
+                                                                  final String weightedScoreSum,
+                                                                  final String weightedCountSum,
+                                                                  final long totalRatingCount,
+                                                                  final String scoreSum) {
+        return new AntiEntropyQueryRepository.SummaryAggregate(
+                releaseId,
+                new BigDecimal(weightedScoreSum),
+                new BigDecimal(weightedCountSum),
+                totalRatingCount,
+                new BigDecimal(scoreSum));
+    }
 }
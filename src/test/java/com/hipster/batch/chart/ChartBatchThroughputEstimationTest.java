@@ -3,9 +3,9 @@ package com.hipster.batch.chart;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartAlgorithmProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.rating.domain.ReleaseRatingSummary;
 import com.hipster.release.repository.ReleaseRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hipster.release.domain.Release;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,7 +21,6 @@ import org.springframework.util.StopWatch;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -66,7 +65,6 @@ class ChartBatchThroughputEstimationTest {
     @Autowired private ChartScoreQueryRepository chartScoreQueryRepository;
     @Autowired private ReleaseRepository releaseRepository;
     @Autowired private ChartAlgorithmProperties chartAlgorithmProperties;
-    @Autowired private ObjectMapper objectMapper;
     /**
      * 청크 처리 시 Hibernate Session을 유지하기 위한 TransactionTemplate.
      * Spring Batch 청크 트랜잭션과 동일한 효과를 재현한다.
@@ -221,7 +219,7 @@ class ChartBatchThroughputEstimationTest {
                 summary.getWeightedCountSum().doubleValue(),
                 summary.getTotalRatingCount(),
                 result.isEsoteric(),
-                null, null, null, null, null, null
+                null, null, null, null, null, null, 0L
         );
     }
 
@@ -247,28 +245,19 @@ class ChartBatchThroughputEstimationTest {
             Release release = releaseMap.get(dto.releaseId());
             if (release == null) return dto;
 
-            String genreIdsJson = null, descriptorIdsJson = null, languagesJson = null;
-            try {
-                List<Map<String, Object>> genreData = release.getReleaseGenres().stream()
-                        .map(rg -> {
-                            Map<String, Object> m = new HashMap<>();
-                            m.put("id", rg.getGenre().getId());
-                            m.put("isPrimary", rg.getIsPrimary());
-                            return m;
-                        }).collect(Collectors.toList());
-                if (!genreData.isEmpty()) genreIdsJson = objectMapper.writeValueAsString(genreData);
-
-                List<Long> descIds = release.getReleaseDescriptors().stream()
-                        .map(rd -> rd.getDescriptor().getId()).collect(Collectors.toList());
-                if (!descIds.isEmpty()) descriptorIdsJson = objectMapper.writeValueAsString(descIds);
-
-                List<String> langs = release.getReleaseLanguages().stream()
-                        .map(rl -> rl.getLanguage().name()).collect(Collectors.toList());
-                if (!langs.isEmpty()) languagesJson = objectMapper.writeValueAsString(langs);
-
-            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-                log.error("[ESTIMATION] JSON 직렬화 실패 releaseId={}", dto.releaseId(), e);
-            }
+            final int[] genreIds = release.getReleaseGenres().stream()
+                    .mapToInt(rg -> Math.toIntExact(rg.getGenre().getId()))
+                    .toArray();
+            final int[] primaryGenreIds = release.getReleaseGenres().stream()
+                    .filter(rg -> Boolean.TRUE.equals(rg.getIsPrimary()))
+                    .mapToInt(rg -> Math.toIntExact(rg.getGenre().getId()))
+                    .toArray();
+            final int[] descriptorIds = release.getReleaseDescriptors().stream()
+                    .mapToInt(rd -> Math.toIntExact(rd.getDescriptor().getId()))
+                    .toArray();
+            final long languageMask = ChartFacetCodec.languageMask(release.getReleaseLanguages().stream()
+                    .map(rl -> rl.getLanguage())
+                    .toList());
 
             Integer releaseYear = release.getReleaseDate() != null
                     ? release.getReleaseDate().getYear() : null;
@@ -276,8 +265,8 @@ class ChartBatchThroughputEstimationTest {
             return new ChartScoreDto(
                     dto.releaseId(), dto.bayesianScore(), dto.weightedAvgRating(),
                     dto.effectiveVotes(), dto.totalRatings(), dto.isEsoteric(),
-                    genreIdsJson, release.getReleaseType(), releaseYear,
-                    descriptorIdsJson, release.getLocationId(), languagesJson
+                    genreIds, primaryGenreIds, release.getReleaseType(), releaseYear,
+                    descriptorIds, release.getLocationId(), languageMask
             );
         }).collect(Collectors.toList());
 
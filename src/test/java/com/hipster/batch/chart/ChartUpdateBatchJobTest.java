@@ -2,9 +2,12 @@ package com.hipster.batch.chart;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,10 +16,15 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.util.StopWatch;
 
 import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(properties = {
         "spring.batch.job.enabled=false",
-        "spring.batch.jdbc.initialize-schema=always"
+        "spring.batch.jdbc.initialize-schema=always",
+        "hipster.batch.chart.partition.enabled=true",
+        "hipster.batch.chart.partition.grid-size=4"
 })
 @ActiveProfiles("local")
 class ChartUpdateBatchJobTest {
@@ -61,4 +69,32 @@ class ChartUpdateBatchJobTest {
                 "배치 실행 중 예외가 발생하여 실패(롤백)했습니다. 로그를 확인하세요."
         );
     }
+
+    @Test
+    @DisplayName("chartScoreUpdateStep 은 id 구간 파티션 worker 로 나뉘어 실행되고, worker 읽기 건수 합이 manager 와 같다")
+    void chartScoreUpdateStep_RunsAsPartitionedWorkers() throws Exception {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("run.date", LocalDate.now().toString())
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters();
+
+        JobExecution jobExecution = jobLauncher.run(chartUpdateJob, jobParameters);
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        final List<StepExecution> workerExecutions = jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().startsWith("chartScoreUpdateWorkerStep:partition"))
+                .toList();
+        final StepExecution managerExecution = jobExecution.getStepExecutions().stream()
+                .filter(stepExecution -> stepExecution.getStepName().equals("chartScoreUpdateStep"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(workerExecutions).isNotEmpty().hasSizeLessThanOrEqualTo(4);
+        assertThat(workerExecutions).allSatisfy(worker -> assertThat(worker.getStatus()).isEqualTo(BatchStatus.COMPLETED));
+        assertThat(workerExecutions.stream().mapToLong(StepExecution::getReadCount).sum())
+                .isEqualTo(managerExecution.getReadCount());
+        assertThat(workerExecutions.stream().mapToLong(StepExecution::getWriteCount).sum())
+                .isEqualTo(managerExecution.getWriteCount());
+    }
 }
@@ -0,0 +1,105 @@
+package com.hipster.batch.chart.step;
+
+import com.hipster.batch.chart.dto.ChartScoreDto;
+import com.hipster.batch.chart.repository.ChartReleaseMetadataQueryRepository;
+import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
+import com.hipster.chart.service.ChartElasticsearchIndexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ChartItemWriterTest {
+
+    private ChartScoreQueryRepository chartScoreQueryRepository;
+    private ChartReleaseMetadataQueryRepository chartReleaseMetadataQueryRepository;
+    private ChartElasticsearchIndexService chartElasticsearchIndexService;
+    private ThreadPoolTaskExecutor chartEsIndexExecutor;
+    private ChartItemWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        chartScoreQueryRepository = mock(ChartScoreQueryRepository.class);
+        chartReleaseMetadataQueryRepository = mock(ChartReleaseMetadataQueryRepository.class);
+        chartElasticsearchIndexService = mock(ChartElasticsearchIndexService.class);
+        chartEsIndexExecutor = new ThreadPoolTaskExecutor();
+        chartEsIndexExecutor.setCorePoolSize(1);
+        chartEsIndexExecutor.initialize();
+
+        given(chartReleaseMetadataQueryRepository.findProjectedMetadataByReleaseIds(any())).willReturn(Map.of());
+        given(chartReleaseMetadataQueryRepository.findMetadataByReleaseIds(any())).willReturn(Map.of());
+
+        writer = new ChartItemWriter(
+                chartScoreQueryRepository,
+                chartReleaseMetadataQueryRepository,
+                chartElasticsearchIndexService,
+                chartEsIndexExecutor
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        chartEsIndexExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("fused 모드면 같은 청크를 stage UPSERT 와 함께 candidate index 에도 색인한다")
+    void write_FusedMode_IndexesSameChunkIntoCandidateIndex() throws Exception {
+        writer.beforeStep(stepExecutionWithEsIndex("chart_scores_v1"));
+        final List<ChartScoreDto> items = List.of(score(1L), score(2L));
+
+        writer.write(new Chunk<>(items));
+
+        verify(chartScoreQueryRepository).bulkUpsertPublishStageChartScores(items);
+        verify(chartElasticsearchIndexService).indexChartScores("chart_scores_v1", items);
+    }
+
+    @Test
+    @DisplayName("candidate index 가 지정되지 않으면 ES 는 건드리지 않는다")
+    void write_WithoutCandidateIndex_SkipsEs() throws Exception {
+        writer.beforeStep(new StepExecution("chartScoreUpdateStep", new JobExecution(1L)));
+
+        writer.write(new Chunk<>(List.of(score(1L))));
+
+        verify(chartElasticsearchIndexService, never()).indexChartScores(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("ES 색인이 실패하면 청크도 실패한다")
+    void write_EsFailure_FailsChunk() {
+        writer.beforeStep(stepExecutionWithEsIndex("chart_scores_v1"));
+        willThrow(new IllegalStateException("es down"))
+                .given(chartElasticsearchIndexService).indexChartScores(anyString(), anyList());
+
+        assertThatThrownBy(() -> writer.write(new Chunk<>(List.of(score(1L)))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("es down");
+    }
+
+    private StepExecution stepExecutionWithEsIndex(final String indexName) {
+        final JobExecution jobExecution = new JobExecution(1L);
+        jobExecution.getExecutionContext().putString(ChartItemWriter.CANDIDATE_ES_INDEX_KEY, indexName);
+        return new StepExecution("chartScoreUpdateWorkerStep", jobExecution);
+    }
+
+    private ChartScoreDto score(final long releaseId) {
+        return new ChartScoreDto(releaseId, 3.5, 3.5, 10.0, 10L, true, null, null, null, null, null, null, 0L);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hipster.batch.chart.step;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.hipster.batch.chart.step.ChartScoreRangePartitioner.MAX_ID_KEY;
+import static com.hipster.batch.chart.step.ChartScoreRangePartitioner.MIN_ID_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChartScoreRangePartitionerTest {
+
+    @Test
+    @DisplayName("id 구간을 겹치지 않고 빈틈없이 gridSize 개로 나눈다")
+    void split_CoversWholeRangeWithoutOverlap() {
+        final Map<String, ExecutionContext> partitions = ChartScoreRangePartitioner.split(1L, 10L, 4);
+
+        assertThat(partitions).hasSize(4);
+        final List<long[]> ranges = partitions.values().stream()
+                .map(context -> new long[]{context.getLong(MIN_ID_KEY), context.getLong(MAX_ID_KEY)})
+                .toList();
+        assertThat(ranges).extracting(range -> range[0]).containsExactly(1L, 4L, 7L, 10L);
+        assertThat(ranges).extracting(range -> range[1]).containsExactly(3L, 6L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("행 수보다 gridSize 가 크면 구간 수를 id 개수로 줄인다")
+    void split_FewerIdsThanGridSize() {
+        final Map<String, ExecutionContext> partitions = ChartScoreRangePartitioner.split(5L, 6L, 8);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get("partition1").getLong(MIN_ID_KEY)).isEqualTo(6L);
+        assertThat(partitions.get("partition1").getLong(MAX_ID_KEY)).isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("빈 테이블이면 아무것도 읽지 않는 구간 하나를 만든다")
+    void split_EmptyTable() {
+        final Map<String, ExecutionContext> partitions = ChartScoreRangePartitioner.split(null, null, 4);
+
+        assertThat(partitions).hasSize(1);
+        final ExecutionContext only = partitions.get("partition0");
+        assertThat(only.getLong(MIN_ID_KEY)).isGreaterThan(only.getLong(MAX_ID_KEY));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hipster.batch.chart.step;
+
+import com.hipster.batch.chart.dto.ChartSummaryRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChartSummaryCursorItemReaderTest {
+
+    private DataSource dataSource;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @Test
+    @DisplayName("처음 열면 minId 부터 maxId 까지 읽고, 청크 커밋 시 마지막으로 읽은 id 를 저장한다")
+    void freshStart_ReadsFromMinIdAndSavesLastReadId() throws Exception {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong("id")).thenReturn(11L, 12L);
+        when(resultSet.getLong("release_id")).thenReturn(101L, 102L);
+        when(resultSet.getLong("total_rating_count")).thenReturn(3L, 4L);
+        when(resultSet.getDouble("weighted_score_sum")).thenReturn(12.0, 8.0);
+        when(resultSet.getDouble("weighted_count_sum")).thenReturn(3.0, 2.0);
+
+        final ChartSummaryCursorItemReader reader = newReader(11L, 20L);
+        final ExecutionContext executionContext = new ExecutionContext();
+        reader.open(executionContext);
+
+        final ChartSummaryRow first = reader.read();
+        final ChartSummaryRow second = reader.read();
+        reader.update(executionContext);
+
+        verify(preparedStatement).setLong(1, 10L);
+        verify(preparedStatement).setLong(2, 20L);
+        assertThat(first).isEqualTo(new ChartSummaryRow(11L, 101L, 3L, 12.0, 3.0));
+        assertThat(second.releaseId()).isEqualTo(102L);
+        assertThat(reader.read()).isNull();
+        assertThat(executionContext.getLong("test." + ChartSummaryCursorItemReader.LAST_ID_KEY)).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("재시작하면 저장된 lastId 다음부터 cursor 를 연다")
+    void restart_ResumesAfterSavedLastId() throws Exception {
+        when(resultSet.next()).thenReturn(false);
+
+        final ChartSummaryCursorItemReader reader = newReader(11L, 20L);
+        final ExecutionContext executionContext = new ExecutionContext();
+        executionContext.putLong("test." + ChartSummaryCursorItemReader.LAST_ID_KEY, 15L);
+        reader.open(executionContext);
+
+        assertThat(reader.read()).isNull();
+        verify(preparedStatement).setLong(1, 15L);
+        verify(preparedStatement).setLong(2, 20L);
+        assertThat(reader.getLastReadId()).isEqualTo(15L);
+    }
+
+    private ChartSummaryCursorItemReader newReader(final long minId, final long maxId) {
+        final ChartSummaryCursorItemReader reader = new ChartSummaryCursorItemReader(dataSource, "test", minId, maxId, 2000);
+        reader.setVerifyCursorPosition(false);
+        return reader;
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -227,4 +228,38 @@ class BayesianScoreCalculatorTest {
         assertThat(albumE.isEsoteric()).isTrue();
         assertThat(albumF.isEsoteric()).isTrue();
     }
+
+    // -------------------------------------------------------
+    // double fast path 정합성
+    // -------------------------------------------------------
+
+    @Test
+    @DisplayName("double 경로는 임의의 summary 에 대해 BigDecimal 경로와 허용 오차 이내로 일치해야 한다")
+    void doublePath_shouldStayWithinDeviationOfDecimalPath() {
+        final Random random = new Random(20240917L);
+        final double c = C.doubleValue();
+
+        for (int i = 0; i < 100_000; i++) {
+            // 가중 수 0 ~ 100,000, 가중 평균 0.5 ~ 5.0 인 summary 를 합성한다
+            final double weightedCountSum = i % 100 == 0 ? 0.0 : random.nextDouble() * 100_000;
+            final double weightedScoreSum = weightedCountSum * (0.5 + random.nextDouble() * 4.5);
+            final BigDecimal scoreSum = BigDecimal.valueOf(weightedScoreSum);
+            final BigDecimal countSum = BigDecimal.valueOf(weightedCountSum);
+
+            final BayesianResult expected = calculator.calculate(scoreSum, countSum, C);
+
+            assertThat(calculator.calculateScore(scoreSum.doubleValue(), countSum.doubleValue(), c))
+                    .isCloseTo(expected.score().doubleValue(),
+                            org.assertj.core.data.Offset.offset(BayesianScoreCalculator.MAX_DOUBLE_PATH_DEVIATION));
+            assertThat(calculator.isEsoteric(countSum.doubleValue())).isEqualTo(expected.isEsoteric());
+        }
+    }
+
+    @Test
+    @DisplayName("double 경로도 투표 수가 0이면 C, esoteric 경계(m*k)도 BigDecimal 경로와 같아야 한다")
+    void doublePath_edgeCases_matchDecimalPath() {
+        assertThat(calculator.calculateScore(0.0, 0.0, C.doubleValue())).isEqualTo(C.doubleValue());
+        assertThat(calculator.isEsoteric(49.999)).isTrue();
+        assertThat(calculator.isEsoteric(50.0)).isFalse();
+    }
 }
@@ -0,0 +1,57 @@
+package com.hipster.chart.domain;
+
+import com.hipster.global.domain.Language;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ChartFacetCodec 단위 테스트.
+ *
+ * 테스트 실행 방법:
+ *   ./gradlew test --tests "com.hipster.chart.domain.ChartFacetCodecTest"
+ */
+class ChartFacetCodecTest {
+
+    @Test
+    @DisplayName("id 배열은 JSON 정수 배열로 인코딩되고 그대로 복원된다")
+    void encodeAndDecodeIds() {
+        final int[] ids = {12, 40, 1234567};
+
+        final String encoded = ChartFacetCodec.encodeIds(ids);
+
+        assertThat(encoded).isEqualTo("[12,40,1234567]");
+        assertThat(ChartFacetCodec.decodeIds(encoded)).containsExactly(12, 40, 1234567);
+    }
+
+    @Test
+    @DisplayName("MySQL 이 돌려주는 공백 포함 JSON 배열도 읽는다")
+    void decodeIdsWithSpaces() {
+        assertThat(ChartFacetCodec.decodeIds("[3, 7, 11, 15, 19, 23, 27, 31, 35]"))
+                .containsExactly(3, 7, 11, 15, 19, 23, 27, 31, 35);
+    }
+
+    @Test
+    @DisplayName("빈 배열은 NULL 로 저장하고, NULL/빈 값은 빈 배열로 읽는다")
+    void emptyIds() {
+        assertThat(ChartFacetCodec.encodeIds(new int[0])).isNull();
+        assertThat(ChartFacetCodec.encodeIds(null)).isNull();
+        assertThat(ChartFacetCodec.decodeIds(null)).isEmpty();
+        assertThat(ChartFacetCodec.decodeIds("[]")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("언어 mask 는 ordinal bit 로 만들어지고 enum 순서대로 이름을 복원한다")
+    void languageMaskRoundTrip() {
+        final long mask = ChartFacetCodec.languageMask(Language.JA, Language.KO, Language.OTHER);
+
+        assertThat(mask).isEqualTo((1L << Language.KO.ordinal())
+                | (1L << Language.JA.ordinal())
+                | (1L << Language.OTHER.ordinal()));
+        assertThat(ChartFacetCodec.languageNames(mask)).containsExactly("KO", "JA", "OTHER");
+        assertThat(ChartFacetCodec.languageNames(0L)).isEqualTo(List.of());
+    }
+}
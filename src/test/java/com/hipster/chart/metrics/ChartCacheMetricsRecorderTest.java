@@ -0,0 +1,61 @@
+package com.hipster.chart.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChartCacheMetricsRecorderTest {
+
+    private static final String VERSION = "v20261018090000000";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChartCacheMetricsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new ChartCacheMetricsRecorder(meterRegistry, 0.75, 4);
+    }
+
+    @Test
+    @DisplayName("window 적중률이 기준에 처음 도달할 때 steady-state 시간을 한 번만 기록한다")
+    void recordLookup_RecordsSteadyStateOnce() {
+        recorder.markVersionSwitched(VERSION);
+
+        // 1번째 window: 1/4 적중 → 미도달
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_MISS);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_MISS);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_MISS);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_REDIS);
+        assertThat(meterRegistry.get("chart.cache.steady_state").timer().count()).isZero();
+
+        // 2번째 window: 3/4 적중 → 도달
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_L1);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_L1);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_REDIS);
+        recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_MISS);
+        assertThat(meterRegistry.get("chart.cache.steady_state").timer().count()).isEqualTo(1);
+
+        for (int i = 0; i < 8; i++) {
+            recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_L1);
+        }
+        assertThat(meterRegistry.get("chart.cache.steady_state").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chart.cache.lookups").tag("tier", "l1").counter().count()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("다른 version 조회가 들어오면 새 구간으로 다시 측정한다")
+    void recordLookup_RestartsOnVersionChange() {
+        for (int i = 0; i < 4; i++) {
+            recorder.recordLookup(VERSION, ChartCacheMetricsRecorder.TIER_L1);
+        }
+        for (int i = 0; i < 4; i++) {
+            recorder.recordLookup("v20261025090000000", ChartCacheMetricsRecorder.TIER_L1);
+        }
+
+        assertThat(meterRegistry.get("chart.cache.steady_state").timer().count()).isEqualTo(2);
+    }
+}
@@ -4,9 +4,11 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.publish.domain.ChartPublishState;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
+import com.hipster.global.domain.Language;
 import com.hipster.rating.event.RatingSummaryConsumer;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.user.event.UserActivityConsumer;
@@ -119,7 +121,6 @@ class ChartPublishAliasRollbackIntegrationTest {
 
         valueOperations = mock(ValueOperations.class);
         given(redisTemplate.opsForValue()).willReturn(valueOperations);
-        given(redisTemplate.keys("chart:v1:*")).willReturn(Collections.emptySet());
 
         deleteAliasIfExists(chartPublishProperties.resolveAliasName("chart_scores_publish_it"));
         deleteIndexIfExists(chartElasticsearchIndexService.buildCandidateIndexName("v20260314101010000"));
@@ -225,12 +226,13 @@ class ChartPublishAliasRollbackIntegrationTest {
                 123.0,
                 456L,
                 false,
-                "[{\"id\":1,\"isPrimary\":true}]",
+                new int[]{1},
+                new int[]{1},
                 ReleaseType.ALBUM,
                 2024,
-                "[10,11]",
+                new int[]{10, 11},
                 82L,
-                "[\"ENGLISH\"]"
+                ChartFacetCodec.languageMask(Language.EN)
         );
     }
 }
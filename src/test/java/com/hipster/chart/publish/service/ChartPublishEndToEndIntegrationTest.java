@@ -6,10 +6,12 @@ import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
 import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.publish.domain.ChartPublishState;
 import com.hipster.chart.service.ChartCacheKeyGenerator;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
+import com.hipster.global.domain.Language;
 import com.hipster.rating.event.RatingSummaryConsumer;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.user.event.UserActivityConsumer;
@@ -340,12 +342,13 @@ class ChartPublishEndToEndIntegrationTest {
                 123.0,
                 456L,
                 false,
-                "[{\"id\":1,\"isPrimary\":true}]",
+                new int[]{1},
+                new int[]{1},
                 ReleaseType.ALBUM,
                 2024,
-                "[10,11]",
+                new int[]{10, 11},
                 82L,
-                "[\"ENGLISH\"]"
+                ChartFacetCodec.languageMask(Language.EN)
         );
     }
 }
@@ -3,10 +3,12 @@ package com.hipster.chart.publish.service;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.publish.domain.ChartPublishState;
 import com.hipster.chart.publish.domain.ChartValidationStatus;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
+import com.hipster.global.domain.Language;
 import com.hipster.rating.event.RatingSummaryConsumer;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.user.event.UserActivityConsumer;
@@ -125,7 +127,6 @@ class ChartPublishFailurePathIntegrationTest {
 
         valueOperations = mock(ValueOperations.class);
         given(redisTemplate.opsForValue()).willReturn(valueOperations);
-        given(redisTemplate.keys("chart:v1:*")).willReturn(Collections.emptySet());
         given(chartElasticsearchIndexService.buildCandidateIndexName(anyString()))
                 .willAnswer(invocation -> "chart_scores_candidate_" + invocation.getArgument(0));
         doNothing().when(chartElasticsearchIndexService).rebuildCandidateIndex(anyString(), anyInt());
@@ -176,7 +177,6 @@ class ChartPublishFailurePathIntegrationTest {
                 "chart_scores_candidate_" + version
         );
 
-        given(redisTemplate.keys("chart:v1:*")).willReturn(Collections.emptySet());
         given(valueOperations.get(anyString())).willThrow(new RuntimeException("redis read failure"));
         org.mockito.Mockito.doThrow(new RuntimeException("redis write failure"))
                 .when(valueOperations).set(anyString(), anyString());
@@ -221,12 +221,13 @@ class ChartPublishFailurePathIntegrationTest {
                 123.0,
                 456L,
                 false,
-                "[{\"id\":1,\"isPrimary\":true}]",
+                new int[]{1},
+                new int[]{1},
                 ReleaseType.ALBUM,
                 2024,
-                "[10,11]",
+                new int[]{10, 11},
                 82L,
-                "[\"ENGLISH\"]"
+                ChartFacetCodec.languageMask(Language.EN)
         );
     }
 }
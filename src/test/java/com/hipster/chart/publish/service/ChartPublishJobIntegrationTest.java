@@ -4,10 +4,12 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.publish.domain.ChartPublishState;
 import com.hipster.chart.publish.domain.ChartPublishStatus;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
+import com.hipster.global.domain.Language;
 import com.hipster.rating.event.RatingSummaryConsumer;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.user.event.UserActivityConsumer;
@@ -38,7 +40,6 @@ import org.testcontainers.utility.DockerImageName;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -147,7 +148,6 @@ class ChartPublishJobIntegrationTest {
 
         valueOperations = mock(ValueOperations.class);
         given(redisTemplate.opsForValue()).willReturn(valueOperations);
-        given(redisTemplate.keys("chart:v1:*")).willReturn(Collections.emptySet());
         given(valueOperations.get(anyString())).willReturn(null);
 
         deleteAliasIfExists(chartPublishProperties.resolveAliasName("chart_scores_publish_job_it"));
@@ -283,12 +283,13 @@ class ChartPublishJobIntegrationTest {
                 123.0,
                 456L,
                 false,
-                "[{\"id\":1,\"isPrimary\":true}]",
+                new int[]{1},
+                new int[]{1},
                 ReleaseType.ALBUM,
                 2024,
-                "[10,11]",
+                new int[]{10, 11},
                 82L,
-                "[\"ENGLISH\"]"
+                ChartFacetCodec.languageMask(Language.EN)
         );
     }
 }
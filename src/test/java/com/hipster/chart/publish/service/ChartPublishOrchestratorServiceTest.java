@@ -3,6 +3,8 @@ package com.hipster.chart.publish.service;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
 import com.hipster.chart.publish.domain.ChartPublishState;
+import com.hipster.chart.service.ChartCacheSweeper;
+import com.hipster.chart.service.ChartCacheWarmer;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
 import com.hipster.rating.repository.ReleaseRatingSummaryRepository;
@@ -11,12 +13,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +47,10 @@ class ChartPublishOrchestratorServiceTest {
     private ChartLastUpdatedService chartLastUpdatedService;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
+    private ChartCacheSweeper chartCacheSweeper;
+
+    @Mock
+    private ChartCacheWarmer chartCacheWarmer;
 
     @Test
     @DisplayName("publish 성공 시 projection, alias, metadata가 published version 기준으로 반영된다")
@@ -55,13 +64,15 @@ class ChartPublishOrchestratorServiceTest {
         final ChartPublishState publishingState = ChartPublishState.initialize("weekly_chart");
         publishingState.beginGeneration(version, "chart_scores_stage", "chart_scores_bench_v20260314153000000", logicalAsOfAt);
 
+        final String retiredVersion = "v20260314143000000";
         final ChartPublishState publishedState = ChartPublishState.initialize("weekly_chart");
+        publishedState.bootstrapPublished(retiredVersion, "chart_scores", "chart_scores_bench_v20260314143000000",
+                logicalAsOfAt.minusHours(1), LocalDateTime.of(2026, 3, 14, 14, 30));
         publishedState.beginGeneration(version, "chart_scores_stage", "chart_scores_bench_v20260314153000000", logicalAsOfAt);
         publishedState.publishCandidate(version, "chart_scores", LocalDateTime.of(2026, 3, 14, 15, 30));
 
         given(chartPublishStateService.markPublishing(version)).willReturn(publishingState);
         given(chartPublishStateService.markPublished(version)).willReturn(publishedState);
-        given(redisTemplate.keys("chart:v1:*")).willReturn(Set.of("chart:v1:v20260314101010000:all:page:0"));
 
         final ChartPublishOrchestratorService service = new ChartPublishOrchestratorService(
                 properties,
@@ -71,7 +82,8 @@ class ChartPublishOrchestratorServiceTest {
                 chartPublishStateService,
                 chartPublishedVersionService,
                 chartLastUpdatedService,
-                redisTemplate
+                chartCacheSweeper,
+                chartCacheWarmer
         );
 
         service.publishVersion(version);
@@ -80,7 +92,143 @@ class ChartPublishOrchestratorServiceTest {
         verify(chartElasticsearchIndexService).publishCandidateAlias(version);
         verify(chartPublishStateService).markPublished(version);
         verify(chartPublishedVersionService).cachePublishedVersion(version);
-        verify(redisTemplate).delete(Set.of("chart:v1:v20260314101010000:all:page:0"));
+        verify(chartCacheSweeper).sweepRetiredVersionAsync(retiredVersion);
+        verify(chartCacheWarmer).warmAfterPublish(version);
         verify(chartLastUpdatedService).cacheLastUpdated(logicalAsOfAt);
     }
+
+    @Test
+    @DisplayName("이전 published 테이블이 없으면 rollback 은 projection 과 alias 를 건드리지 않고 건너뛴다")
+    void rollbackToPreviousVersion_previousTableMissing_skipsCleanly() {
+        final ChartPublishProperties properties = new ChartPublishProperties();
+        properties.setChartName("weekly_chart");
+        final ChartPublishState state = ChartPublishState.initialize("weekly_chart");
+        state.bootstrapPublished("v20260314143000000", "chart_scores", "chart_scores_bench_v20260314143000000",
+                LocalDateTime.of(2026, 3, 14, 14, 0), LocalDateTime.of(2026, 3, 14, 14, 30));
+        state.beginGeneration("v20260314153000000", "chart_scores_stage", "chart_scores_bench_v20260314153000000",
+                LocalDateTime.of(2026, 3, 14, 15, 0));
+        state.publishCandidate("v20260314153000000", "chart_scores", LocalDateTime.of(2026, 3, 14, 15, 30));
+
+        given(chartPublishStateService.requireState()).willReturn(state);
+        given(chartScoreQueryRepository.previousTableExists()).willReturn(false);
+
+        newService(properties).rollbackToPreviousVersion("TEST_ROLLBACK");
+
+        verify(chartScoreQueryRepository, never()).rollbackPublishedTable();
+        verify(chartElasticsearchIndexService, never()).rollbackAliasToIndex(any());
+        verify(chartPublishStateService, never()).markRolledBack(any(), any());
+    }
+
+    @Test
+    @DisplayName("INCREMENTAL 모드에서 글로벌 평균 변동이 임계값 이내면 직전 projection 을 이월하고 변경분만 계산한다")
+    void planCandidateVersion_incremental_carriesForwardPublishedProjection() {
+        final ChartPublishProperties properties = incrementalProperties();
+        final LocalDateTime previousWatermark = LocalDateTime.of(2026, 3, 14, 9, 0);
+        final LocalDateTime currentWatermark = LocalDateTime.of(2026, 3, 14, 10, 0);
+
+        given(chartScoreQueryRepository.currentDatabaseTime()).willReturn(currentWatermark);
+        given(chartPublishStateService.findState())
+                .willReturn(Optional.of(publishedStateWith(new BigDecimal("3.5000000000"), previousWatermark)));
+        given(chartPublishStateService.generateNextVersion()).willReturn("v20260314100000000");
+
+        final var plan = newService(properties).planCandidateVersion(new BigDecimal("3.5050000000"));
+
+        assertThat(plan.incremental()).isTrue();
+        assertThat(plan.changedSince()).isEqualTo(previousWatermark.minusSeconds(60));
+        assertThat(plan.sourceWatermarkAt()).isEqualTo(currentWatermark);
+        verify(chartScoreQueryRepository).carryForwardPublishedToStage();
+        verify(chartScoreQueryRepository, never()).preparePublishStageTable();
+        verify(chartPublishStateService).recordCandidateInputs(
+                "v20260314100000000", new BigDecimal("3.5050000000"), new BigDecimal("3.5000000000"), currentWatermark);
+    }
+
+    @Test
+    @DisplayName("INCREMENTAL 모드라도 글로벌 평균이 임계값을 넘게 움직이면 전체 release 를 다시 계산한다")
+    void planCandidateVersion_globalAverageDrift_fallsBackToFullRescore() {
+        final ChartPublishProperties properties = incrementalProperties();
+
+        given(chartScoreQueryRepository.currentDatabaseTime()).willReturn(LocalDateTime.of(2026, 3, 14, 10, 0));
+        given(chartPublishStateService.findState())
+                .willReturn(Optional.of(publishedStateWith(new BigDecimal("3.5000000000"), LocalDateTime.of(2026, 3, 14, 9, 0))));
+        given(chartPublishStateService.generateNextVersion()).willReturn("v20260314100000000");
+
+        final var plan = newService(properties).planCandidateVersion(new BigDecimal("3.5200000000"));
+
+        assertThat(plan.incremental()).isFalse();
+        verify(chartScoreQueryRepository).preparePublishStageTable();
+        verify(chartScoreQueryRepository, never()).carryForwardPublishedToStage();
+    }
+
+    @Test
+    @DisplayName("INCREMENTAL 실행마다 임계값 아래로 움직인 C 가 누적되면 마지막 FULL 재계산의 C 기준으로 전체 재계산한다")
+    void planCandidateVersion_accumulatedDriftSinceLastFullRescore_fallsBackToFullRescore() {
+        final ChartPublishProperties properties = incrementalProperties();
+        final LocalDateTime previousWatermark = LocalDateTime.of(2026, 3, 14, 9, 0);
+        final ChartPublishState published = publishedStateWith(
+                new BigDecimal("3.5080000000"), new BigDecimal("3.5000000000"), previousWatermark);
+
+        given(chartScoreQueryRepository.currentDatabaseTime()).willReturn(LocalDateTime.of(2026, 3, 14, 10, 0));
+        given(chartPublishStateService.findState()).willReturn(Optional.of(published));
+        given(chartPublishStateService.generateNextVersion()).willReturn("v20260314100000000");
+
+        final var plan = newService(properties).planCandidateVersion(new BigDecimal("3.5120000000"));
+
+        assertThat(plan.incremental()).isFalse();
+        verify(chartScoreQueryRepository).preparePublishStageTable();
+        verify(chartPublishStateService).recordCandidateInputs(
+                eq("v20260314100000000"), eq(new BigDecimal("3.5120000000")), eq(new BigDecimal("3.5120000000")), any());
+    }
+
+    @Test
+    @DisplayName("직전 publish 의 입력 기준이 없으면 INCREMENTAL 모드라도 FULL 로 계산한다")
+    void planCandidateVersion_withoutPreviousInputs_runsFull() {
+        final ChartPublishProperties properties = incrementalProperties();
+        final ChartPublishState bootstrapped = ChartPublishState.initialize("weekly_chart");
+        bootstrapped.bootstrapPublished("v1", "chart_scores", "chart_scores_v1",
+                LocalDateTime.of(2026, 3, 14, 9, 0), LocalDateTime.of(2026, 3, 14, 9, 5));
+
+        given(chartPublishStateService.findState()).willReturn(Optional.of(bootstrapped));
+        given(chartPublishStateService.generateNextVersion()).willReturn("v20260314100000000");
+
+        final var plan = newService(properties).planCandidateVersion(new BigDecimal("3.5"));
+
+        assertThat(plan.incremental()).isFalse();
+        verify(chartScoreQueryRepository).preparePublishStageTable();
+    }
+
+    private ChartPublishProperties incrementalProperties() {
+        final ChartPublishProperties properties = new ChartPublishProperties();
+        properties.setChartName("weekly_chart");
+        properties.setMode(ChartPublishProperties.PublishMode.INCREMENTAL);
+        return properties;
+    }
+
+    private ChartPublishState publishedStateWith(final BigDecimal globalAverage, final LocalDateTime sourceWatermarkAt) {
+        return publishedStateWith(globalAverage, globalAverage, sourceWatermarkAt);
+    }
+
+    private ChartPublishState publishedStateWith(final BigDecimal globalAverage,
+                                                 final BigDecimal rescoreGlobalAverage,
+                                                 final LocalDateTime sourceWatermarkAt) {
+        final String version = "v20260314090000000";
+        final ChartPublishState state = ChartPublishState.initialize("weekly_chart");
+        state.beginGeneration(version, "chart_scores_stage", "chart_scores_" + version, sourceWatermarkAt);
+        state.recordCandidateInputs(version, globalAverage, rescoreGlobalAverage, sourceWatermarkAt);
+        state.publishCandidate(version, "chart_scores", sourceWatermarkAt.plusMinutes(5));
+        return state;
+    }
+
+    private ChartPublishOrchestratorService newService(final ChartPublishProperties properties) {
+        return new ChartPublishOrchestratorService(
+                properties,
+                releaseRatingSummaryRepository,
+                chartScoreQueryRepository,
+                chartElasticsearchIndexService,
+                chartPublishStateService,
+                chartPublishedVersionService,
+                chartLastUpdatedService,
+                chartCacheSweeper,
+                chartCacheWarmer
+        );
+    }
 }
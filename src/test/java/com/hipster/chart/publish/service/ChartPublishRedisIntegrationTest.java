@@ -3,10 +3,13 @@ package com.hipster.chart.publish.service;
 import com.hipster.batch.chart.dto.ChartScoreDto;
 import com.hipster.batch.chart.repository.ChartScoreQueryRepository;
 import com.hipster.chart.config.ChartPublishProperties;
+import com.hipster.chart.domain.ChartFacetCodec;
 import com.hipster.chart.dto.request.ChartFilterRequest;
 import com.hipster.chart.service.ChartCacheKeyGenerator;
+import com.hipster.chart.service.ChartCacheSweeper;
 import com.hipster.chart.service.ChartElasticsearchIndexService;
 import com.hipster.chart.service.ChartLastUpdatedService;
+import com.hipster.global.domain.Language;
 import com.hipster.rating.event.RatingSummaryConsumer;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.user.event.UserActivityConsumer;
@@ -98,6 +101,9 @@ class ChartPublishRedisIntegrationTest {
     @Autowired
     private ChartCacheKeyGenerator chartCacheKeyGenerator;
 
+    @Autowired
+    private ChartCacheSweeper chartCacheSweeper;
+
     @MockBean
     private ChartElasticsearchIndexService chartElasticsearchIndexService;
 
@@ -130,7 +136,7 @@ class ChartPublishRedisIntegrationTest {
     }
 
     @Test
-    @DisplayName("publish 성공 시 실제 Redis에 published version과 logical_as_of metadata가 저장되고 기존 chart cache는 비워진다")
+    @DisplayName("publish 성공 시 실제 Redis에 published version과 logical_as_of metadata가 저장되고 이전 버전 chart cache는 sweeper 가 정리한다")
     void publishWritesRedisKeysAndEvictsLegacyCache() {
         final String version = "v20260314202020000";
         final LocalDateTime logicalAsOfAt = LocalDateTime.of(2026, 3, 14, 20, 20, 20);
@@ -148,12 +154,19 @@ class ChartPublishRedisIntegrationTest {
                 .isEqualTo(version);
         assertThat(redisTemplate.opsForValue().get(ChartLastUpdatedService.LAST_UPDATED_KEY))
                 .isEqualTo(logicalAsOfAt.toString());
-        assertThat(redisTemplate.opsForValue().get("chart:v1:v20260314191919000:all:page:0")).isNull();
 
         assertThat(chartPublishedVersionService.getPublishedVersion()).isEqualTo(version);
         assertThat(chartLastUpdatedService.getLastUpdated()).isEqualTo(logicalAsOfAt);
         assertThat(chartCacheKeyGenerator.generateKey((ChartFilterRequest) null, 0))
                 .isEqualTo("chart:v1:" + version + ":all:page:0");
+
+        // publish 는 version 포인터만 바꾸고, 물러난 버전 키는 sweeper 가 SCAN/UNLINK 로 정리한다
+        redisTemplate.opsForValue().set("chart:v1:" + version + ":all:page:0", "{\"fresh\":true}");
+        chartCacheSweeper.sweepRetiredVersion("v20260314191919000");
+        chartCacheSweeper.sweepRetiredVersion(version);
+
+        assertThat(redisTemplate.opsForValue().get("chart:v1:v20260314191919000:all:page:0")).isNull();
+        assertThat(redisTemplate.opsForValue().get("chart:v1:" + version + ":all:page:0")).isEqualTo("{\"fresh\":true}");
     }
 
     @Test
@@ -196,12 +209,13 @@ class ChartPublishRedisIntegrationTest {
                 123.0,
                 456L,
                 false,
-                "[{\"id\":1,\"isPrimary\":true}]",
+                new int[]{1},
+                new int[]{1},
                 ReleaseType.ALBUM,
                 2024,
-                "[10,11]",
+                new int[]{10, 11},
                 82L,
-                "[\"ENGLISH\"]"
+                ChartFacetCodec.languageMask(Language.EN)
         );
     }
 }
@@ -0,0 +1,172 @@
+package com.hipster.chart.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import com.hipster.chart.config.ChartSearchBulkProperties;
+import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.metrics.ChartIndexMetricsRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ChartBulkIngesterTest {
+
+    private static final String INDEX_NAME = "chart_scores_v1";
+
+    private ElasticsearchClient elasticsearchClient;
+    private ThreadPoolTaskExecutor executor;
+    private ChartSearchBulkProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ChartBulkIngester ingester;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchClient = mock(ElasticsearchClient.class);
+        final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        final MappingElasticsearchConverter converter =
+                new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        given(elasticsearchOperations.getElasticsearchConverter()).willReturn(converter);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        properties = new ChartSearchBulkProperties();
+        properties.setMaxInFlightRequests(2);
+        properties.setMaxActions(2);
+        properties.setInitialBackoffMillis(1);
+        properties.setMaxBackoffMillis(1);
+        properties.setMaxRetries(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        ingester = new ChartBulkIngester(elasticsearchClient, elasticsearchOperations, executor, properties,
+                new ChartIndexMetricsRecorder(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("max-actions 단위로 나누어 보내고 색인 건수를 돌려준다")
+    void awaitCompletion_SplitsByMaxActions() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willAnswer(invocation -> success(invocation.getArgument(0)));
+
+        final ChartBulkIngester.Session session = ingester.open(INDEX_NAME);
+        for (long releaseId = 1; releaseId <= 5; releaseId++) {
+            session.add(document(releaseId));
+        }
+
+        assertThat(session.awaitCompletion()).isEqualTo(5L);
+        verify(elasticsearchClient, times(3)).bulk(any(BulkRequest.class));
+        assertThat(meterRegistry.get("chart.es.bulk.latency").tag("outcome", "success").timer().count()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("max-bytes 를 넘으면 문서 수와 관계없이 보낸다")
+    void add_FlushesWhenMaxBytesReached() throws Exception {
+        properties.setMaxActions(1_000);
+        properties.setMaxBytes(1);
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willAnswer(invocation -> success(invocation.getArgument(0)));
+
+        final ChartBulkIngester.Session session = ingester.open(INDEX_NAME);
+        session.add(document(1L));
+        session.add(document(2L));
+
+        assertThat(session.awaitCompletion()).isEqualTo(2L);
+        verify(elasticsearchClient, times(2)).bulk(any(BulkRequest.class));
+    }
+
+    @Test
+    @DisplayName("429 로 거절된 문서만 다시 보낸다")
+    void awaitCompletion_RetriesOnlyRejectedItems() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class)))
+                .willAnswer(invocation -> rejectSecond(invocation.getArgument(0)))
+                .willAnswer(invocation -> success(invocation.getArgument(0)));
+
+        final ChartBulkIngester.Session session = ingester.open(INDEX_NAME);
+        session.add(document(1L));
+        session.add(document(2L));
+
+        assertThat(session.awaitCompletion()).isEqualTo(2L);
+        final ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient, times(2)).bulk(captor.capture());
+        assertThat(captor.getAllValues().get(1).operations())
+                .extracting(operation -> operation.index().id())
+                .containsExactly("2");
+        assertThat(meterRegistry.get("chart.es.bulk.retried.docs").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 넘기도록 429 가 계속되면 실패한다")
+    void awaitCompletion_FailsAfterMaxRetries() throws Exception {
+        given(elasticsearchClient.bulk(any(BulkRequest.class))).willAnswer(invocation -> rejectSecond(invocation.getArgument(0)));
+
+        final ChartBulkIngester.Session session = ingester.open(INDEX_NAME);
+        session.add(document(1L));
+        session.add(document(2L));
+
+        assertThatThrownBy(session::awaitCompletion)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rejected after retries");
+        verify(elasticsearchClient, times(3)).bulk(any(BulkRequest.class));
+    }
+
+    private static ChartDocument document(final long releaseId) {
+        return ChartDocument.builder()
+                .releaseId(releaseId)
+                .bayesianScore(3.5)
+                .isEsoteric(false)
+                .releaseType("ALBUM")
+                .releaseYear(2020)
+                .genreIds(List.of(1))
+                .build();
+    }
+
+    private static BulkResponse success(final BulkRequest request) {
+        final List<BulkResponseItem> items = new ArrayList<>();
+        request.operations().forEach(operation -> items.add(item(operation.index().id(), 201, false)));
+        return BulkResponse.of(response -> response.errors(false).took(1).items(items));
+    }
+
+    private static BulkResponse rejectSecond(final BulkRequest request) {
+        final List<BulkResponseItem> items = new ArrayList<>();
+        for (int i = 0; i < request.operations().size(); i++) {
+            items.add(item(request.operations().get(i).index().id(), i == 1 ? 429 : 201, i == 1));
+        }
+        return BulkResponse.of(response -> response.errors(true).took(1).items(items));
+    }
+
+    private static BulkResponseItem item(final String id, final int status, final boolean rejected) {
+        return BulkResponseItem.of(item -> {
+            item.operationType(OperationType.Index).index(INDEX_NAME).id(id).status(status);
+            if (rejected) {
+                item.error(error -> error.type("es_rejected_execution_exception").reason("rejected execution"));
+            }
+            return item;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.dto.request.ChartFilterRequest;
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
+import com.hipster.release.domain.ReleaseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ChartCacheWarmerTest {
+
+    private static final String VERSION = "v20261018090000000";
+
+    @Mock
+    private ChartService chartService;
+
+    @Mock
+    private ChartRequestFrequencyTracker chartRequestFrequencyTracker;
+
+    @Mock
+    private ChartCacheMetricsRecorder chartCacheMetricsRecorder;
+
+    private ThreadPoolTaskExecutor executor;
+    private ChartCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+        warmer = new ChartCacheWarmer(chartService, chartRequestFrequencyTracker, chartCacheMetricsRecorder, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("조회 빈도 상위 대상을 모두 미리 계산하고 결과와 개수를 기록한다")
+    void warmAfterPublish_WarmsTopTargets() {
+        final ChartRequestFrequencyTracker.Target first =
+                new ChartRequestFrequencyTracker.Target(ChartFilterRequest.empty(), 0, 20);
+        final ChartRequestFrequencyTracker.Target second = new ChartRequestFrequencyTracker.Target(
+                new ChartFilterRequest(null, null, null, null, null, null, ReleaseType.ALBUM, false), 0, 20);
+        given(chartRequestFrequencyTracker.topTargets(200)).willReturn(List.of(first, second));
+
+        warmer.warmAfterPublish(VERSION);
+
+        verify(chartCacheMetricsRecorder).markVersionSwitched(VERSION);
+        verify(chartService, timeout(1000)).warmChartPayload(first.filter(), 0, 20);
+        verify(chartService, timeout(1000)).warmChartPayload(second.filter(), 0, 20);
+        verify(chartCacheMetricsRecorder, timeout(1000)).recordWarmup(eq("success"), anyLong(), eq(2));
+        verify(chartRequestFrequencyTracker, timeout(1000)).decay();
+    }
+
+    @Test
+    @DisplayName("일부 대상 계산이 실패하면 partial 로 기록한다")
+    void warmAfterPublish_RecordsPartialOnFailure() {
+        final ChartRequestFrequencyTracker.Target ok =
+                new ChartRequestFrequencyTracker.Target(ChartFilterRequest.empty(), 0, 20);
+        final ChartRequestFrequencyTracker.Target broken =
+                new ChartRequestFrequencyTracker.Target(ChartFilterRequest.empty(), 1, 20);
+        given(chartRequestFrequencyTracker.topTargets(200)).willReturn(List.of(ok, broken));
+        willThrow(new IllegalStateException("es down")).given(chartService).warmChartPayload(broken.filter(), 1, 20);
+
+        warmer.warmAfterPublish(VERSION);
+
+        verify(chartCacheMetricsRecorder, timeout(1000)).recordWarmup(eq("partial"), anyLong(), eq(1));
+    }
+
+    @Test
+    @DisplayName("조회 빈도 기록이 없으면 아무것도 계산하지 않는다")
+    void warmAfterPublish_SkipsWithoutHistory() {
+        given(chartRequestFrequencyTracker.topTargets(200)).willReturn(List.of());
+
+        warmer.warmAfterPublish(VERSION);
+
+        verify(chartService, never()).warmChartPayload(any(), anyInt(), anyInt());
+        verify(chartCacheMetricsRecorder, never()).recordWarmup(anyString(), anyLong(), anyInt());
+    }
+}
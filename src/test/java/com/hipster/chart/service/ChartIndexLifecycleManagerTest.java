@@ -0,0 +1,119 @@
+package com.hipster.chart.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.HealthStatus;
+import co.elastic.clients.elasticsearch.cluster.ElasticsearchClusterClient;
+import co.elastic.clients.elasticsearch.cluster.HealthResponse;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import com.hipster.chart.config.ChartIndexLifecycleProperties;
+import com.hipster.chart.domain.ChartDocument;
+import com.hipster.chart.metrics.ChartIndexMetricsRecorder;
+import com.hipster.release.domain.ReleaseType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ChartIndexLifecycleManagerTest {
+
+    private static final String INDEX_NAME = "chart_scores_v1";
+
+    private ElasticsearchOperations elasticsearchOperations;
+    private ElasticsearchIndicesClient indicesClient;
+    private ElasticsearchClusterClient clusterClient;
+    private HealthResponse healthResponse;
+    private ChartIndexLifecycleProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ChartIndexLifecycleManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        final ElasticsearchClient elasticsearchClient = mock(ElasticsearchClient.class);
+        indicesClient = mock(ElasticsearchIndicesClient.class);
+        clusterClient = mock(ElasticsearchClusterClient.class);
+        healthResponse = mock(HealthResponse.class);
+
+        given(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).willReturn(mock(IndexOperations.class));
+        given(elasticsearchClient.indices()).willReturn(indicesClient);
+        given(elasticsearchClient.cluster()).willReturn(clusterClient);
+        given(clusterClient.health(any(Function.class))).willReturn(healthResponse);
+
+        properties = new ChartIndexLifecycleProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new ChartIndexLifecycleManager(elasticsearchOperations, elasticsearchClient, properties,
+                new ChartIndexMetricsRecorder(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("적재용 설정은 replica 0, refresh 끔, translog async 로 만든다")
+    void loadSettings_DisablesReplicasRefreshAndFsync() {
+        properties.getLoad().setNumberOfShards(3);
+
+        final Map<String, Object> settings = manager.loadSettings();
+
+        assertThat(settings)
+                .containsEntry("number_of_shards", 3)
+                .containsEntry("number_of_replicas", 0)
+                .containsEntry("refresh_interval", "-1")
+                .containsEntry("translog.durability", "async");
+    }
+
+    @Test
+    @DisplayName("마무리 단계마다 시간을 기록하고 차트 쿼리로 warm-up 한다")
+    void finalizeForServing_RecordsEachPhaseAndWarmsUp() throws Exception {
+        given(healthResponse.timedOut()).willReturn(false);
+
+        manager.finalizeForServing(INDEX_NAME);
+
+        verify(indicesClient).forcemerge(any(Function.class));
+        verify(indicesClient).putSettings(any(Function.class));
+        verify(elasticsearchOperations, times(2 + ReleaseType.values().length))
+                .search(any(Query.class), eq(ChartDocument.class), eq(IndexCoordinates.of(INDEX_NAME)));
+        for (final String phase : new String[]{"refresh", "force_merge", "serve_settings", "wait_for_status", "warmup"}) {
+            assertThat(meterRegistry.get("chart.es.index.phase").tag("phase", phase).timer().count()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("force-merge-max-segments 가 0 이면 병합하지 않는다")
+    void finalizeForServing_SkipsForceMergeWhenDisabled() throws Exception {
+        properties.getServe().setForceMergeMaxSegments(0);
+        properties.getServe().setWarmupEnabled(false);
+        given(healthResponse.timedOut()).willReturn(false);
+
+        manager.finalizeForServing(INDEX_NAME);
+
+        verify(indicesClient, never()).forcemerge(any(Function.class));
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(ChartDocument.class), any(IndexCoordinates.class));
+    }
+
+    @Test
+    @DisplayName("목표 health 에 도달하지 못하면 alias 전환 전에 실패한다")
+    void finalizeForServing_FailsWhenHealthTimesOut() {
+        given(healthResponse.timedOut()).willReturn(true);
+        given(healthResponse.status()).willReturn(HealthStatus.Yellow);
+
+        assertThatThrownBy(() -> manager.finalizeForServing(INDEX_NAME))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not reach");
+        verify(elasticsearchOperations, never()).search(any(Query.class), eq(ChartDocument.class), any(IndexCoordinates.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.hipster.chart.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hipster.chart.dto.response.ChartPayload;
+import com.hipster.chart.dto.response.TopChartResponse;
+import com.hipster.global.dto.response.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChartPayloadEncoderTest {
+
+    private static final String VERSION = "v20261018090000000";
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    @DisplayName("캐시된 JSON 에 봉투만 붙인 결과가 ApiResponse 직렬화 결과와 바이트 단위로 같다")
+    void encode_MatchesApiResponseSerialization() throws Exception {
+        final ChartPayloadEncoder encoder = new ChartPayloadEncoder(objectMapper, 1024);
+        final TopChartResponse response = new TopChartResponse(
+                "Top 20 Releases", VERSION, LocalDateTime.of(2026, 10, 18, 9, 0), List.of());
+
+        final ChartPayload payload = encoder.encode(VERSION, objectMapper.writeValueAsString(response));
+
+        assertThat(payload.body()).isEqualTo(objectMapper.writeValueAsBytes(ApiResponse.ok(response)));
+        assertThat(payload.hasGzipBody()).isFalse();
+        assertThat(payload.etag()).startsWith("\"" + VERSION + "-").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("gzip-min-bytes 이상이면 미리 압축한 본문을 함께 만든다")
+    void encode_PrecomputesGzipBody() throws IOException {
+        final ChartPayloadEncoder encoder = new ChartPayloadEncoder(objectMapper, 0);
+
+        final ChartPayload payload = encoder.encode(VERSION, "{\"chartType\":\"Top 20 Releases\"}");
+
+        assertThat(payload.hasGzipBody()).isTrue();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.gzipBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(payload.body());
+        }
+    }
+
+    @Test
+    @DisplayName("If-None-Match 는 원본/gzip ETag, 약한 비교, 목록 형태를 모두 인식한다")
+    void matches_RecognizesEtagForms() {
+        final ChartPayloadEncoder encoder = new ChartPayloadEncoder(objectMapper, 0);
+        final ChartPayload payload = encoder.encode(VERSION, "{}");
+        final ChartPayload otherVersion = encoder.encode("v20261025090000000", "{}");
+
+        assertThat(payload.matches(payload.etag())).isTrue();
+        assertThat(payload.matches("W/" + payload.gzipEtag())).isTrue();
+        assertThat(payload.matches("\"stale\", " + payload.etag())).isTrue();
+        assertThat(payload.matches(otherVersion.etag())).isFalse();
+        assertThat(payload.matches(null)).isFalse();
+    }
+}
@@ -0,0 +1,79 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.dto.response.ChartPayload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChartResponseLocalCacheTest {
+
+    private static final String V1 = "v20261018090000000";
+    private static final String V2 = "v20261025090000000";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChartResponseLocalCache chartResponseLocalCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        chartResponseLocalCache = new ChartResponseLocalCache(meterRegistry, true, 100, 300);
+    }
+
+    @Test
+    @DisplayName("같은 published version 에서는 저장한 응답 바이트를 그대로 돌려준다")
+    void get_ReturnsCachedResponseForSameVersion() {
+        final String key = "chart:v1:" + V1 + ":all:page:0";
+        final ChartPayload payload = payload(V1);
+
+        chartResponseLocalCache.put(V1, key, payload);
+
+        assertThat(chartResponseLocalCache.get(V1, key)).isSameAs(payload);
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", "chart.l1_cache")
+                .tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("published version 이 바뀌면 이전 버전 항목을 모두 비운다")
+    void get_InvalidatesOnVersionChange() {
+        final String oldKey = "chart:v1:" + V1 + ":all:page:0";
+        chartResponseLocalCache.put(V1, oldKey, payload(V1));
+
+        assertThat(chartResponseLocalCache.get(V2, "chart:v1:" + V2 + ":all:page:0")).isNull();
+        assertThat(chartResponseLocalCache.get(V2, oldKey)).isNull();
+    }
+
+    @Test
+    @DisplayName("조회 도중 version 이 바뀌었으면 이전 버전 응답은 담지 않는다")
+    void put_IgnoresResponseOfSupersededVersion() {
+        final String oldKey = "chart:v1:" + V1 + ":all:page:0";
+        chartResponseLocalCache.get(V2, "chart:v1:" + V2 + ":all:page:0");
+
+        chartResponseLocalCache.put(V1, oldKey, payload(V1));
+        chartResponseLocalCache.get(V2, "chart:v1:" + V2 + ":all:page:0");
+
+        assertThat(chartResponseLocalCache.get(V2, oldKey)).isNull();
+    }
+
+    @Test
+    @DisplayName("비활성화되어 있으면 아무것도 담지 않는다")
+    void disabled_NeverCaches() {
+        final ChartResponseLocalCache disabled = new ChartResponseLocalCache(new SimpleMeterRegistry(), false, 100, 300);
+        final String key = "chart:v1:" + V1 + ":all:page:0";
+
+        disabled.put(V1, key, payload(V1));
+
+        assertThat(disabled.get(V1, key)).isNull();
+    }
+
+    private static ChartPayload payload(final String version) {
+        final byte[] body = "{\"status\":200}".getBytes(StandardCharsets.UTF_8);
+        return new ChartPayload(body, null, "\"" + version + "-1\"");
+    }
+}
@@ -0,0 +1,179 @@
+package com.hipster.chart.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hipster.chart.dto.request.ChartFilterRequest;
+import com.hipster.chart.dto.response.ChartPayload;
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
+import com.hipster.chart.publish.service.ChartPublishedVersionService;
+import com.hipster.chart.repository.ChartScoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ChartServiceTest {
+
+    private static final String VERSION = "v20261018090000000";
+    private static final String KEY = "chart:v1:" + VERSION + ":all:page:0";
+
+    @Mock
+    private ChartScoreRepository chartScoreRepository;
+
+    @Mock
+    private ChartSearchService chartSearchService;
+
+    @Mock
+    private ChartResponseAssembler chartResponseAssembler;
+
+    @Mock
+    private ChartLastUpdatedService chartLastUpdatedService;
+
+    @Mock
+    private ChartPublishedVersionService chartPublishedVersionService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ChartCacheKeyGenerator cacheKeyGenerator;
+
+    @Mock
+    private ChartResponseLocalCache chartResponseLocalCache;
+
+    @Mock
+    private ChartPayloadEncoder chartPayloadEncoder;
+
+    @Mock
+    private ChartRequestFrequencyTracker chartRequestFrequencyTracker;
+
+    @Mock
+    private ChartCacheMetricsRecorder chartCacheMetricsRecorder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChartService chartService;
+
+    @BeforeEach
+    void setUp() {
+        final ChartSingleFlight chartSingleFlight = new ChartSingleFlight(
+                redisTemplate, new ChartCacheMetricsRecorder(new SimpleMeterRegistry(), 0.9, 200));
+        chartService = new ChartService(
+                chartScoreRepository,
+                chartSearchService,
+                chartResponseAssembler,
+                chartLastUpdatedService,
+                chartPublishedVersionService,
+                redisTemplate,
+                cacheKeyGenerator,
+                chartResponseLocalCache,
+                chartPayloadEncoder,
+                chartRequestFrequencyTracker,
+                chartCacheMetricsRecorder,
+                chartSingleFlight,
+                transactionManager,
+                new ObjectMapper()
+        );
+        given(chartPublishedVersionService.getPublishedVersion()).willReturn(VERSION);
+        given(cacheKeyGenerator.generateKey(any(), anyInt(), eq(VERSION))).willReturn(KEY);
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 miss 에서 트랜잭션(DB 커넥션)은 leader 만 열고, 기다리는 요청은 열지 않는다")
+    void getChartPayload_WaitersDoNotHoldTransaction() throws Exception {
+        final int callers = 6;
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ChartPayload built = payload();
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(chartSearchService.searchReleaseIds(any(), anyInt(), anyInt())).willAnswer(invocation -> {
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        given(chartPayloadEncoder.encode(eq(VERSION), anyString())).willReturn(built);
+
+        final ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            final List<Future<ChartPayload>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> chartService.getChartPayload(ChartFilterRequest.empty(), 0, 20)));
+            }
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            // 나머지 요청이 leader 의 결과를 기다리는 상태가 되도록 잠시 둔다
+            Thread.sleep(200);
+
+            verify(transactionManager, times(1)).getTransaction(any());
+
+            release.countDown();
+            for (final Future<ChartPayload> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(built);
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("L1 적중은 Redis 와 트랜잭션(DB 커넥션) 없이 응답한다")
+    void getChartPayload_LocalHitOpensNoTransaction() {
+        final ChartPayload cached = payload();
+        given(chartResponseLocalCache.get(VERSION, KEY)).willReturn(cached);
+
+        final ChartPayload result = chartService.getChartPayload(ChartFilterRequest.empty(), 0, 20);
+
+        assertThat(result).isSameAs(cached);
+        verifyNoInteractions(transactionManager, redisTemplate, chartSearchService, chartScoreRepository);
+    }
+
+    @Test
+    @DisplayName("Redis 적중은 트랜잭션(DB 커넥션) 없이 응답한다")
+    void getChartPayload_RedisHitOpensNoTransaction() {
+        final ChartPayload cached = payload();
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.get(KEY)).willReturn("{}");
+        given(chartPayloadEncoder.encode(VERSION, "{}")).willReturn(cached);
+
+        final ChartPayload result = chartService.getChartPayload(ChartFilterRequest.empty(), 0, 20);
+
+        assertThat(result).isSameAs(cached);
+        verify(chartResponseLocalCache).put(VERSION, KEY, cached);
+        verifyNoInteractions(transactionManager, chartSearchService, chartScoreRepository);
+    }
+
+    private static ChartPayload payload() {
+        return new ChartPayload("{}".getBytes(StandardCharsets.UTF_8), null, "\"" + VERSION + "-0\"");
+    }
+}
@@ -0,0 +1,182 @@
+package com.hipster.chart.service;
+
+import com.hipster.chart.dto.response.ChartPayload;
+import com.hipster.chart.metrics.ChartCacheMetricsRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ChartSingleFlightTest {
+
+    private static final String KEY = "chart:v1:v20261018090000000:all:page:0";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChartSingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new ChartSingleFlight(redisTemplate, new ChartCacheMetricsRecorder(meterRegistry, 0.9, 200));
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 miss 는 loader 를 한 번만 실행하고 나머지는 그 결과를 받는다")
+    void load_CoalescesConcurrentMisses() throws Exception {
+        final int callers = 8;
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ChartPayload expected = payload();
+        final ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        try {
+            final List<Future<ChartPayload>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.load(KEY, () -> null, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return expected;
+                })));
+            }
+            // 모든 호출이 leader 의 결과를 기다리는 상태가 되도록 잠시 둔다
+            Thread.sleep(200);
+            release.countDown();
+
+            for (final Future<ChartPayload> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(counter("coalesced")).isEqualTo(callers - 1);
+    }
+
+    @Test
+    @DisplayName("선행 계산이 제한 시간 안에 끝나지 않으면 직접 계산한다")
+    void load_FallsBackAfterWaitTimeout() throws Exception {
+        ReflectionTestUtils.setField(singleFlight, "waitTimeoutMillis", 50L);
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            pool.submit(() -> singleFlight.load(KEY, () -> null, () -> {
+                leaderStarted.countDown();
+                await(release);
+                return payload();
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+
+            final ChartPayload fallback = payload();
+            assertThat(singleFlight.load(KEY, () -> null, () -> fallback)).isSameAs(fallback);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        assertThat(counter("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("leader 의 loader 가 Error 를 던져도 대기 요청은 제한 시간을 기다리지 않고 직접 계산한다")
+    void load_LeaderErrorReleasesWaiters() throws Exception {
+        ReflectionTestUtils.setField(singleFlight, "waitTimeoutMillis", 10_000L);
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            pool.submit(() -> singleFlight.load(KEY, () -> null, () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new AssertionError("loader crashed");
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+
+            final ChartPayload fallback = payload();
+            final Future<ChartPayload> waiter = pool.submit(() -> singleFlight.load(KEY, () -> null, () -> fallback));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(waiter.get(2, TimeUnit.SECONDS)).isSameAs(fallback);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        assertThat(counter("leader_failed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 lease 를 잡고 있으면 Redis 에 채워진 값을 기다려 쓴다")
+    void load_WaitsForOtherNodeLease() {
+        ReflectionTestUtils.setField(singleFlight, "leaseEnabled", true);
+        ReflectionTestUtils.setField(singleFlight, "leasePollIntervalMillis", 1L);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.setIfAbsent(eq(ChartSingleFlight.LEASE_KEY_PREFIX + KEY), anyString(), any(Duration.class)))
+                .willReturn(false);
+
+        final ChartPayload filledByOtherNode = payload();
+        final AtomicInteger lookups = new AtomicInteger();
+        final AtomicInteger loads = new AtomicInteger();
+
+        final ChartPayload result = singleFlight.load(KEY,
+                () -> lookups.incrementAndGet() < 3 ? null : filledByOtherNode,
+                () -> {
+                    loads.incrementAndGet();
+                    return payload();
+                });
+
+        assertThat(result).isSameAs(filledByOtherNode);
+        assertThat(loads.get()).isZero();
+        assertThat(counter("lease_wait_hit")).isEqualTo(1);
+    }
+
+    private double counter(final String outcome) {
+        return meterRegistry.get("chart.cache.single_flight").tag("outcome", outcome).counter().count();
+    }
+
+    private static ChartPayload payload() {
+        return new ChartPayload("{}".getBytes(StandardCharsets.UTF_8), null, "\"v20261018090000000-0\"");
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
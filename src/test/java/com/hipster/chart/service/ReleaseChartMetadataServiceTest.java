@@ -0,0 +1,71 @@
+package com.hipster.chart.service;
+
+import com.hipster.batch.chart.repository.ChartReleaseMetadataQueryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReleaseChartMetadataServiceTest {
+
+    @Mock
+    private ChartReleaseMetadataQueryRepository chartReleaseMetadataQueryRepository;
+
+    @InjectMocks
+    private ReleaseChartMetadataService releaseChartMetadataService;
+
+    @Test
+    @DisplayName("stale release 를 id keyset 으로 끝까지 따라가며 청크 단위로 다시 만든다")
+    void refreshStale_WalksStaleIdsByKeyset() {
+        given(chartReleaseMetadataQueryRepository.findStaleReleaseIds(0L, 1_000)).willReturn(List.of(3L, 7L));
+        given(chartReleaseMetadataQueryRepository.findStaleReleaseIds(7L, 1_000)).willReturn(List.of(12L));
+        given(chartReleaseMetadataQueryRepository.findStaleReleaseIds(12L, 1_000)).willReturn(List.of());
+
+        final long refreshed = releaseChartMetadataService.refreshStale();
+
+        assertThat(refreshed).isEqualTo(3L);
+        verify(chartReleaseMetadataQueryRepository).refreshProjection(List.of(3L, 7L));
+        verify(chartReleaseMetadataQueryRepository).refreshProjection(List.of(12L));
+    }
+
+    @Test
+    @DisplayName("stale release 가 없으면 projection 을 건드리지 않는다")
+    void refreshStale_NothingStale() {
+        given(chartReleaseMetadataQueryRepository.findStaleReleaseIds(0L, 1_000)).willReturn(List.of());
+
+        assertThat(releaseChartMetadataService.refreshStale()).isZero();
+        verify(chartReleaseMetadataQueryRepository, never()).refreshProjection(anyCollection());
+    }
+
+    @Test
+    @DisplayName("청크 단위 갱신은 afterId 다음 한 청크만 다시 만들고 그 id 를 돌려준다")
+    void refreshStaleChunk_RefreshesSingleChunk() {
+        given(chartReleaseMetadataQueryRepository.findStaleReleaseIds(7L, 1_000)).willReturn(List.of(12L, 15L));
+
+        assertThat(releaseChartMetadataService.refreshStaleChunk(7L)).containsExactly(12L, 15L);
+        verify(chartReleaseMetadataQueryRepository).refreshProjection(List.of(12L, 15L));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서는 즉시 갱신하고, 실패해도 예외를 전파하지 않는다")
+    void refreshAfterCommit_OutsideTransaction_RefreshesImmediatelyAndSwallowsFailure() {
+        willThrow(new IllegalStateException("db down"))
+                .given(chartReleaseMetadataQueryRepository).refreshProjection(List.of(5L));
+
+        releaseChartMetadataService.refreshAfterCommit(5L);
+
+        verify(chartReleaseMetadataQueryRepository).refreshProjection(List.of(5L));
+    }
+}
@@ -1,26 +1,54 @@
 package com.hipster.global.config;
 
+import com.hipster.rating.config.RatingSummaryProperties;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RabbitMqConfigTest {
 
     private final RabbitMqConfig rabbitMqConfig = new RabbitMqConfig();
 
     @Test
-    void ratingSummaryQueue_ConfiguresDeadLetterRouting() {
-        Queue queue = rabbitMqConfig.ratingSummaryQueue();
+    void ratingSummaryPartitionQueue_ConfiguresPerPartitionDeadLetterRouting() {
+        Queue queue = RabbitMqConfig.ratingSummaryPartitionQueue(2);
 
+        assertEquals("rating.summary.queue.2", queue.getName());
         assertEquals(RabbitMqConfig.RATING_SUMMARY_DLX, queue.getArguments().get("x-dead-letter-exchange"));
-        assertEquals(RabbitMqConfig.RATING_SUMMARY_DLQ_ROUTING_KEY, queue.getArguments().get("x-dead-letter-routing-key"));
+        assertEquals(RabbitMqConfig.RATING_SUMMARY_DLQ_ROUTING_KEY + ".2", queue.getArguments().get("x-dead-letter-routing-key"));
     }
 
     @Test
-    void ratingSummaryDeadLetterQueue_UsesDedicatedQueueName() {
-        Queue deadLetterQueue = rabbitMqConfig.ratingSummaryDeadLetterQueue();
-
-        assertEquals(RabbitMqConfig.RATING_SUMMARY_DLQ, deadLetterQueue.getName());
+    void ratingSummaryPartitionDeclarables_DeclaresQueueAndDeadLetterQueuePerPartition() {
+        RatingSummaryProperties properties = new RatingSummaryProperties();
+        properties.getPartition().setCount(3);
+
+        Declarables declarables = rabbitMqConfig.ratingSummaryPartitionDeclarables(properties);
+
+        List<Queue> queues = declarables.getDeclarablesByType(Queue.class);
+        List<Binding> bindings = declarables.getDeclarablesByType(Binding.class);
+        assertEquals(6, queues.size());
+        assertEquals(6, bindings.size());
+        for (int partition = 0; partition < 3; partition++) {
+            final String queueName = RabbitMqConfig.ratingSummaryPartitionQueueName(partition);
+            final String deadLetterQueueName = RabbitMqConfig.ratingSummaryPartitionDeadLetterQueue(partition);
+            final String routingKey = RabbitMqConfig.ratingSummaryPartitionRoutingKey(partition);
+            final String deadLetterRoutingKey = RabbitMqConfig.ratingSummaryPartitionDeadLetterRoutingKey(partition);
+
+            assertTrue(queues.stream().anyMatch(queue -> queue.getName().equals(queueName)));
+            assertTrue(queues.stream().anyMatch(queue -> queue.getName().equals(deadLetterQueueName)));
+            assertTrue(bindings.stream().anyMatch(binding -> binding.getDestination().equals(queueName)
+                    && binding.getExchange().equals(RabbitMqConfig.RATING_SUMMARY_PARTITION_EXCHANGE)
+                    && binding.getRoutingKey().equals(routingKey)));
+            assertTrue(bindings.stream().anyMatch(binding -> binding.getDestination().equals(deadLetterQueueName)
+                    && binding.getExchange().equals(RabbitMqConfig.RATING_SUMMARY_DLX)
+                    && binding.getRoutingKey().equals(deadLetterRoutingKey)));
+        }
     }
 }
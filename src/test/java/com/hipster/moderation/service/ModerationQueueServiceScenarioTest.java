@@ -18,6 +18,8 @@ import com.hipster.reward.service.RewardAccrualOutboxService;
 import com.hipster.release.domain.Release;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.release.repository.ReleaseRepository;
+import com.hipster.rating.service.RatingReferenceCache;
+import com.hipster.chart.service.ReleaseChartMetadataService;
 import com.hipster.review.domain.Review;
 import com.hipster.review.repository.ReviewRepository;
 import com.hipster.user.domain.User;
@@ -90,6 +92,12 @@ class ModerationQueueServiceScenarioTest {
     @Mock
     private RewardAccrualOutboxService rewardAccrualOutboxService;
 
+    @Mock
+    private RatingReferenceCache ratingReferenceCache;
+
+    @Mock
+    private ReleaseChartMetadataService releaseChartMetadataService;
+
     @Mock
     private ObjectMapper objectMapper;
 
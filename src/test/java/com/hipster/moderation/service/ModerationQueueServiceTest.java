@@ -25,6 +25,8 @@ import com.hipster.reward.service.RewardAccrualOutboxService;
 import com.hipster.release.domain.Release;
 import com.hipster.release.domain.ReleaseType;
 import com.hipster.release.repository.ReleaseRepository;
+import com.hipster.rating.service.RatingReferenceCache;
+import com.hipster.chart.service.ReleaseChartMetadataService;
 import com.hipster.review.domain.Review;
 import com.hipster.review.repository.ReviewRepository;
 import com.hipster.user.domain.User;
@@ -103,6 +105,12 @@ class ModerationQueueServiceTest {
     @Mock
     private RewardAccrualOutboxService rewardAccrualOutboxService;
 
+    @Mock
+    private RatingReferenceCache ratingReferenceCache;
+
+    @Mock
+    private ReleaseChartMetadataService releaseChartMetadataService;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -586,6 +594,8 @@ class ModerationQueueServiceTest {
 
         assertThat(release.getStatus().name()).isEqualTo("DELETED");
         assertThat(queueItem.getStatus()).isEqualTo(ModerationStatus.REJECTED);
+        verify(ratingReferenceCache).evictRelease(201L);
+        verify(releaseChartMetadataService).refreshAfterCommit(201L);
         verify(moderationQueueRepository).save(queueItem);
         verify(moderationAuditTrailRepository).save(argThat(audit ->
                 audit.getEventType() == ModerationAuditEventType.REJECTED
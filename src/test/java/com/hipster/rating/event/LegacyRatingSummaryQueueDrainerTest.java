@@ -0,0 +1,117 @@
+package com.hipster.rating.event;
+
+import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.service.RatingSummaryService;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class LegacyRatingSummaryQueueDrainerTest {
+
+    @Mock
+    private RabbitAdmin rabbitAdmin;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private RatingSummaryService ratingSummaryService;
+
+    @Mock
+    private Channel channel;
+
+    private LegacyRatingSummaryQueueDrainer drainer;
+
+    @BeforeEach
+    void setUp() {
+        drainer = new LegacyRatingSummaryQueueDrainer(rabbitAdmin, rabbitTemplate, messageConverter, ratingSummaryService);
+        ReflectionTestUtils.setField(drainer, "maxMessagesPerRun", 10);
+    }
+
+    @Test
+    void drainLegacyQueue_QueueAlreadyGone_DoesNothing() {
+        drainer.drainLegacyQueue();
+
+        verify(rabbitAdmin, never()).removeBinding(any());
+        verifyNoInteractions(rabbitTemplate, ratingSummaryService);
+    }
+
+    @Test
+    void drainLegacyQueue_UnbindsAppliesBacklogAndDeletesEmptyQueue() throws Exception {
+        final RatingEvent event = new RatingEvent(1L, 2L, 0.0, 4.0, true, false, 1.0, LocalDateTime.now());
+        givenLegacyQueueExists();
+        given(channel.basicGet(RabbitMqConfig.RATING_SUMMARY_QUEUE, false)).willReturn(response(7L), (GetResponse) null);
+        given(messageConverter.fromMessage(any(Message.class))).willReturn(event);
+
+        drainer.drainLegacyQueue();
+
+        verify(rabbitAdmin).removeBinding(argThat(binding ->
+                binding.getDestination().equals(RabbitMqConfig.RATING_SUMMARY_QUEUE)
+                        && binding.getExchange().equals(RabbitMqConfig.RATING_EVENT_EXCHANGE)
+                        && binding.getDestinationType() == Binding.DestinationType.QUEUE));
+        verify(ratingSummaryService).applyRatingEvent(event);
+        verify(channel).basicAck(7L, false);
+        verify(rabbitAdmin).deleteQueue(RabbitMqConfig.RATING_SUMMARY_QUEUE, true, true);
+    }
+
+    @Test
+    void drainLegacyQueue_TransientFailure_RequeuesAndKeepsQueue() throws Exception {
+        final RatingEvent event = new RatingEvent(1L, 2L, 4.0, 4.5, false, false, 1.0, LocalDateTime.now());
+        givenLegacyQueueExists();
+        given(channel.basicGet(RabbitMqConfig.RATING_SUMMARY_QUEUE, false)).willReturn(response(8L));
+        given(messageConverter.fromMessage(any(Message.class))).willReturn(event);
+        doThrow(new RuntimeException("db down")).when(ratingSummaryService).applyRatingEvent(event);
+
+        drainer.drainLegacyQueue();
+
+        verify(channel).basicNack(8L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(rabbitAdmin, never()).deleteQueue(any(), anyBoolean(), anyBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenLegacyQueueExists() {
+        given(rabbitAdmin.getQueueProperties(RabbitMqConfig.RATING_SUMMARY_QUEUE)).willReturn(new Properties());
+        given(rabbitTemplate.execute(any(ChannelCallback.class)))
+                .willAnswer(invocation -> ((ChannelCallback<Boolean>) invocation.getArgument(0)).doInRabbit(channel));
+    }
+
+    private static GetResponse response(final long deliveryTag) {
+        return new GetResponse(
+                new Envelope(deliveryTag, false, RabbitMqConfig.RATING_EVENT_EXCHANGE, "rating.summary.partition.0"),
+                new AMQP.BasicProperties.Builder().contentType("application/json").build(),
+                "{}".getBytes(),
+                0
+        );
+    }
+}
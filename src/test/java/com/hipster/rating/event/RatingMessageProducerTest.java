@@ -1,50 +1,117 @@
 package com.hipster.rating.event;
 
-import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.domain.RatingEventOutbox;
 import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingEventOutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class RatingMessageProducerTest {
 
+    @InjectMocks
+    private RatingMessageProducer ratingMessageProducer;
+
+    @Mock
+    private RatingEventOutboxService ratingEventOutboxService;
+
     @Mock
     private RabbitTemplate rabbitTemplate;
 
     @Mock
     private RatingMetricsRecorder ratingMetricsRecorder;
 
-    @InjectMocks
-    private RatingMessageProducer ratingMessageProducer;
+    @Mock
+    private RatingSummaryPartitioner ratingSummaryPartitioner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ratingMessageProducer, "publishConfirmTimeoutMillis", 5_000L);
+        ReflectionTestUtils.setField(ratingMessageProducer, "maxBatchesPerRun", 20);
+    }
+
+    @Test
+    @DisplayName("ready outbox batch is published under one confirm and marked published")
+    void relayPendingRatingEvents_PublishesBatchAndMarksPublished() {
+        final List<RatingEventOutbox> batch = List.of(outbox(11L, 2L), outbox(12L, 3L));
+
+        given(ratingEventOutboxService.claimReadyToRelay()).willReturn(batch);
+        given(ratingEventOutboxService.getBatchSize()).willReturn(500);
+        given(rabbitTemplate.invoke(any())).willReturn(null);
+
+        ratingMessageProducer.relayPendingRatingEvents();
+
+        verify(rabbitTemplate).invoke(any());
+        verify(ratingEventOutboxService).markPublished(List.of(11L, 12L));
+        verify(ratingMetricsRecorder).recordPublish("confirmed", 2);
+    }
+
+    @Test
+    @DisplayName("publish failure marks the whole batch failed and stops the run")
+    void relayPendingRatingEvents_MarksBatchFailedWhenPublishThrows() {
+        final List<RatingEventOutbox> batch = List.of(outbox(21L, 2L), outbox(22L, 3L));
+
+        given(ratingEventOutboxService.claimReadyToRelay()).willReturn(batch);
+        doThrow(new IllegalStateException("broker down")).when(rabbitTemplate).invoke(any());
+
+        ratingMessageProducer.relayPendingRatingEvents();
+
+        verify(ratingEventOutboxService).markFailed(List.of(21L, 22L), "IllegalStateException");
+        verify(ratingEventOutboxService, never()).markPublished(anyCollection());
+        verify(ratingMetricsRecorder).recordPublish("publish_failed", 2);
+        verify(ratingEventOutboxService, times(1)).claimReadyToRelay();
+    }
 
     @Test
-    void forwardRatingEventToRabbitMq_PublishSuccess_RecordsMetric() {
-        RatingEvent event = new RatingEvent(1L, 2L, 0.0, 4.5, true, false, 1.2, LocalDateTime.now());
+    @DisplayName("full batches keep draining until a partial batch is relayed")
+    void relayPendingRatingEvents_DrainsFullBatchesInOneRun() {
+        given(ratingEventOutboxService.claimReadyToRelay())
+                .willReturn(List.of(outbox(31L, 2L), outbox(32L, 2L)))
+                .willReturn(List.of(outbox(33L, 2L)));
+        given(ratingEventOutboxService.getBatchSize()).willReturn(2);
+        given(rabbitTemplate.invoke(any())).willReturn(null);
 
-        ratingMessageProducer.forwardRatingEventToRabbitMq(event);
+        ratingMessageProducer.relayPendingRatingEvents();
 
-        verify(rabbitTemplate).convertAndSend(RabbitMqConfig.RATING_EVENT_EXCHANGE, "", event);
-        verify(ratingMetricsRecorder).recordPublish("published");
+        verify(ratingEventOutboxService, times(2)).claimReadyToRelay();
+        verify(ratingEventOutboxService).markPublished(List.of(31L, 32L));
+        verify(ratingEventOutboxService).markPublished(List.of(33L));
     }
 
     @Test
-    void forwardRatingEventToRabbitMq_PublishFailure_RecordsFailureMetricAndRethrows() {
-        RatingEvent event = new RatingEvent(1L, 2L, 0.0, 4.5, true, false, 1.2, LocalDateTime.now());
-        RuntimeException failure = new RuntimeException("publish failed");
-        doThrow(failure).when(rabbitTemplate).convertAndSend(RabbitMqConfig.RATING_EVENT_EXCHANGE, "", event);
+    @DisplayName("empty outbox does not touch the broker")
+    void relayPendingRatingEvents_SkipsWhenNothingReady() {
+        given(ratingEventOutboxService.claimReadyToRelay()).willReturn(List.of());
+
+        ratingMessageProducer.relayPendingRatingEvents();
 
-        assertThrows(RuntimeException.class, () -> ratingMessageProducer.forwardRatingEventToRabbitMq(event));
+        verify(rabbitTemplate, never()).invoke(any());
+        verify(ratingEventOutboxService, never()).markFailed(anyCollection(), anyString());
+    }
 
-        verify(ratingMetricsRecorder).recordPublish("publish_failed");
+    private RatingEventOutbox outbox(final Long outboxId, final Long releaseId) {
+        final RatingEventOutbox outbox = RatingEventOutbox.pending(
+                new RatingEvent(1L, releaseId, 0.0, 4.5, true, false, 1.2, LocalDateTime.now()));
+        ReflectionTestUtils.setField(outbox, "id", outboxId);
+        return outbox;
     }
 }
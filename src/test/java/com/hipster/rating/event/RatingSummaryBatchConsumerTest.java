@@ -0,0 +1,93 @@
+package com.hipster.rating.event;
+
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingSummaryService;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryBatchConsumerTest {
+
+    @Mock
+    private RatingSummaryService ratingSummaryService;
+
+    @Mock
+    private RatingMetricsRecorder ratingMetricsRecorder;
+
+    @Mock
+    private Channel channel;
+
+    @InjectMocks
+    private RatingSummaryBatchConsumer ratingSummaryBatchConsumer;
+
+    @Test
+    void consumeRatingSummaryEvents_Success_AcksWholeBatchAndRecordsCoalescing() throws IOException {
+        RatingEvent first = new RatingEvent(1L, 2L, 0.0, 4.0, true, false, 1.0, LocalDateTime.now());
+        RatingEvent second = new RatingEvent(3L, 2L, 0.0, 5.0, true, false, 1.0, LocalDateTime.now());
+        RatingEvent third = new RatingEvent(4L, 9L, 0.0, 3.0, true, false, 1.0, LocalDateTime.now());
+        when(ratingSummaryService.applyRatingEventBatch(List.of(first, second, third))).thenReturn(2);
+
+        ratingSummaryBatchConsumer.consumeRatingSummaryEvents(
+                List.of(message(first, 11L), message(second, 12L), message(third, 13L)), channel);
+
+        verify(channel).basicAck(13L, true);
+        verify(ratingMetricsRecorder).recordConsumer("processed", 3);
+        verify(ratingMetricsRecorder).recordSummaryBatch(3, 2);
+    }
+
+    @Test
+    void consumeRatingSummaryEvents_PermanentFailure_FallsBackAndRoutesOnlyPoisonPillToDlq() throws IOException {
+        RatingEvent healthy = new RatingEvent(1L, 2L, 0.0, 4.0, true, false, 1.0, LocalDateTime.now());
+        RatingEvent poison = new RatingEvent(1L, 3L, 4.0, 0.0, false, true, 1.0, LocalDateTime.now());
+        doThrow(new DataIntegrityViolationException("bad data"))
+                .when(ratingSummaryService).applyRatingEventBatch(anyList());
+        doThrow(new DataIntegrityViolationException("bad data"))
+                .when(ratingSummaryService).applyRatingEvent(poison);
+
+        ratingSummaryBatchConsumer.consumeRatingSummaryEvents(List.of(message(healthy, 21L), message(poison, 22L)), channel);
+
+        verify(ratingSummaryService).applyRatingEvent(healthy);
+        verify(channel).basicAck(21L, false);
+        verify(channel).basicNack(22L, false, false);
+        verify(ratingMetricsRecorder).recordConsumer("batch_fallback");
+        verify(ratingMetricsRecorder).recordConsumer("permanent_failed");
+        verify(channel, never()).basicAck(22L, true);
+    }
+
+    @Test
+    void consumeRatingSummaryEvents_TransientFailure_RequeuesWholeBatch() throws IOException {
+        RatingEvent first = new RatingEvent(1L, 2L, 4.0, 4.5, false, false, 1.0, LocalDateTime.now());
+        RatingEvent second = new RatingEvent(2L, 2L, 3.0, 3.5, false, false, 1.0, LocalDateTime.now());
+        doThrow(new RuntimeException("db down"))
+                .when(ratingSummaryService).applyRatingEventBatch(anyList());
+
+        ratingSummaryBatchConsumer.consumeRatingSummaryEvents(List.of(message(first, 31L), message(second, 32L)), channel);
+
+        verify(channel).basicNack(32L, true, true);
+        verify(ratingMetricsRecorder).recordConsumer("transient_failed", 2);
+    }
+
+    private Message<RatingEvent> message(final RatingEvent event, final long deliveryTag) {
+        return MessageBuilder.withPayload(event)
+                .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                .build();
+    }
+}
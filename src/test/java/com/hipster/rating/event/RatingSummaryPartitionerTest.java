@@ -0,0 +1,59 @@
+package com.hipster.rating.event;
+
+import com.hipster.rating.config.RatingSummaryProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingSummaryPartitionerTest {
+
+    @Test
+    @DisplayName("같은 release 는 항상 같은 파티션 routing key 로 발행된다")
+    void routingKeyOf_IsStablePerRelease() {
+        final RatingSummaryPartitioner partitioner = partitioner(4);
+
+        final int partition = partitioner.partitionOf(12345L);
+
+        assertThat(partition).isBetween(0, 3);
+        assertThat(partitioner.partitionOf(12345L)).isEqualTo(partition);
+        assertThat(partitioner.routingKeyOf(12345L)).isEqualTo("rating.summary.partition." + partition);
+    }
+
+    @Test
+    @DisplayName("release 는 모든 파티션에 고르게 분산된다")
+    void partitionOf_SpreadsReleasesEvenly() {
+        final RatingSummaryPartitioner partitioner = partitioner(4);
+        final int[] counts = new int[4];
+
+        for (long releaseId = 1; releaseId <= 40_000; releaseId++) {
+            counts[partitioner.partitionOf(releaseId)]++;
+        }
+
+        for (final int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+
+    @Test
+    @DisplayName("파티션 수를 늘리면 기존 파티션 간 이동 없이 일부 release 만 새 파티션으로 옮겨간다")
+    void jumpConsistentHash_MovesOnlyToNewPartitionWhenGrowing() {
+        int moved = 0;
+        for (long releaseId = 1; releaseId <= 10_000; releaseId++) {
+            final int before = RatingSummaryPartitioner.jumpConsistentHash(releaseId, 4);
+            final int after = RatingSummaryPartitioner.jumpConsistentHash(releaseId, 5);
+            if (before != after) {
+                assertThat(after).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(1_500, 2_500);
+    }
+
+    private RatingSummaryPartitioner partitioner(final int partitionCount) {
+        final RatingSummaryProperties properties = new RatingSummaryProperties();
+        properties.getPartition().setCount(partitionCount);
+        return new RatingSummaryPartitioner(properties);
+    }
+}
@@ -0,0 +1,181 @@
+package com.hipster.rating.event;
+
+import com.hipster.rating.config.RatingSummaryProperties;
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.service.RatingSummaryService;
+import com.hipster.rating.service.RatingSummaryService.WriteBehindFlushResult;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryWriteBehindAggregatorTest {
+
+    private static final LocalDateTime EVENT_TS = LocalDateTime.of(2026, 10, 18, 12, 0, 0);
+
+    @Mock
+    private RatingSummaryService ratingSummaryService;
+
+    @Mock
+    private RatingMetricsRecorder ratingMetricsRecorder;
+
+    @Mock
+    private Channel channel;
+
+    @Mock
+    private Channel otherChannel;
+
+    private RatingSummaryWriteBehindAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        final RatingSummaryProperties properties = new RatingSummaryProperties();
+        properties.getWriteBehind().setStripes(4);
+        properties.getWriteBehind().setMaxBufferedEvents(10_000);
+        aggregator = new RatingSummaryWriteBehindAggregator(ratingSummaryService, ratingMetricsRecorder, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.stopFlushing();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_FoldsDeltasPerReleaseAndAcksMaxTagPerChannel() throws IOException {
+        aggregator.accept(new RatingEvent(1L, 7L, 0.0, 4.0, true, false, 1.0, EVENT_TS), channel, 11L);
+        aggregator.accept(new RatingEvent(2L, 7L, 0.0, 5.0, true, false, 0.5, EVENT_TS.plusSeconds(1)), channel, 12L);
+        aggregator.accept(new RatingEvent(1L, 7L, 4.0, 3.0, false, false, 1.0, EVENT_TS.plusSeconds(2)), channel, 13L);
+        aggregator.accept(new RatingEvent(3L, 8L, 2.0, 0.0, false, true, 1.0, EVENT_TS), otherChannel, 5L);
+        when(ratingSummaryService.applyWriteBehindDeltas(anyList())).thenReturn(new WriteBehindFlushResult(2, 0));
+
+        aggregator.flush();
+
+        final ArgumentCaptor<List<ReleaseDeltaSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ratingSummaryService).applyWriteBehindDeltas(captor.capture());
+        final List<ReleaseDeltaSnapshot> snapshots = captor.getValue().stream()
+                .sorted(Comparator.comparingLong(ReleaseDeltaSnapshot::releaseId))
+                .toList();
+        assertThat(snapshots).hasSize(2);
+
+        final ReleaseDeltaSnapshot created = snapshots.get(0);
+        assertThat(created.releaseId()).isEqualTo(7L);
+        assertThat(created.weightedScoreDelta()).isEqualTo(5.5);
+        assertThat(created.weightedCountDelta()).isEqualTo(1.5);
+        assertThat(created.scoreSumDelta()).isEqualTo(8.0);
+        assertThat(created.countDelta()).isEqualTo(2L);
+        assertThat(created.createdEventCount()).isEqualTo(2);
+        assertThat(created.eventCount()).isEqualTo(3);
+        assertThat(created.minEventTsMillis()).isEqualTo(RatingSummaryWriteBehindAggregator.toEpochMillis(EVENT_TS));
+        assertThat(created.maxEventTsMillis()).isEqualTo(RatingSummaryWriteBehindAggregator.toEpochMillis(EVENT_TS.plusSeconds(2)));
+
+        final ReleaseDeltaSnapshot deleted = snapshots.get(1);
+        assertThat(deleted.releaseId()).isEqualTo(8L);
+        assertThat(deleted.countDelta()).isEqualTo(-1L);
+        assertThat(deleted.weightedCountDelta()).isEqualTo(-1.0);
+
+        verify(channel).basicAck(13L, true);
+        verify(otherChannel).basicAck(5L, true);
+        verify(ratingMetricsRecorder).recordConsumer("processed", 4);
+        verify(ratingMetricsRecorder).recordSummaryBatch(4, 2);
+        assertThat(aggregator.bufferedEventCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ManyReleasesInOneStripe_RehashesWithoutLosingDeltas() {
+        for (long releaseId = 1; releaseId <= 1_000; releaseId++) {
+            aggregator.accept(new RatingEvent(releaseId, releaseId, 0.0, 3.0, true, false, 1.0, EVENT_TS), channel, releaseId);
+        }
+        when(ratingSummaryService.applyWriteBehindDeltas(anyList())).thenReturn(new WriteBehindFlushResult(1_000, 0));
+
+        aggregator.flush();
+
+        final ArgumentCaptor<List<ReleaseDeltaSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ratingSummaryService).applyWriteBehindDeltas(captor.capture());
+        assertThat(captor.getValue()).hasSize(1_000);
+        assertThat(captor.getValue()).allSatisfy(snapshot -> assertThat(snapshot.scoreSumDelta()).isEqualTo(3.0));
+    }
+
+    @Test
+    void flush_UnchangedScore_AcksWithoutWritingDelta() throws IOException {
+        aggregator.accept(new RatingEvent(1L, 7L, 4.0, 4.0, false, false, 1.0, EVENT_TS), channel, 3L);
+
+        aggregator.flush();
+
+        verify(ratingSummaryService, never()).applyWriteBehindDeltas(anyList());
+        verify(channel).basicAck(3L, true);
+    }
+
+    @Test
+    void flush_TransientFailure_RequeuesBufferedMessages() throws IOException {
+        aggregator.accept(new RatingEvent(1L, 7L, 0.0, 4.0, true, false, 1.0, EVENT_TS), channel, 21L);
+        aggregator.accept(new RatingEvent(2L, 7L, 0.0, 2.0, true, false, 1.0, EVENT_TS), channel, 22L);
+        doThrow(new RuntimeException("db down")).when(ratingSummaryService).applyWriteBehindDeltas(anyList());
+
+        aggregator.flush();
+
+        verify(channel).basicNack(22L, true, true);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+        verify(ratingMetricsRecorder).recordConsumer("transient_failed", 2);
+    }
+
+    @Test
+    void flush_PermanentFailure_RoutesOnlyFailingReleaseToDlq() throws IOException {
+        aggregator.accept(new RatingEvent(1L, 7L, 0.0, 4.0, true, false, 1.0, EVENT_TS), channel, 31L);
+        aggregator.accept(new RatingEvent(2L, 8L, 0.0, 3.0, true, false, 1.0, EVENT_TS), channel, 32L);
+        aggregator.accept(new RatingEvent(3L, 7L, 0.0, 5.0, true, false, 1.0, EVENT_TS), channel, 33L);
+        when(ratingSummaryService.applyWriteBehindDeltas(anyList())).thenAnswer(invocation -> {
+            final List<ReleaseDeltaSnapshot> snapshots = invocation.getArgument(0);
+            if (snapshots.stream().anyMatch(snapshot -> snapshot.releaseId() == 7L)) {
+                throw new DataIntegrityViolationException("bad data");
+            }
+            return new WriteBehindFlushResult(snapshots.size(), 0);
+        });
+
+        aggregator.flush();
+
+        verify(channel).basicNack(31L, false, false);
+        verify(channel).basicNack(33L, false, false);
+        verify(channel).basicAck(32L, false);
+        verify(channel, never()).basicNack(anyLong(), eq(true), eq(false));
+        verify(ratingMetricsRecorder).recordConsumer("batch_fallback");
+        verify(ratingMetricsRecorder).recordConsumer("permanent_failed", 2);
+        verify(ratingMetricsRecorder).recordConsumer("processed", 1);
+    }
+
+    @Test
+    void drainOnShutdown_FlushesBufferAndRejectsLaterEvents() throws IOException {
+        aggregator.accept(new RatingEvent(1L, 7L, 0.0, 4.0, true, false, 1.0, EVENT_TS), channel, 41L);
+        when(ratingSummaryService.applyWriteBehindDeltas(anyList())).thenReturn(new WriteBehindFlushResult(1, 0));
+
+        aggregator.drainOnShutdown();
+
+        verify(channel).basicAck(41L, true);
+        final boolean accepted = aggregator.accept(
+                new RatingEvent(2L, 7L, 0.0, 4.0, true, false, 1.0, EVENT_TS), otherChannel, 1L);
+        assertThat(accepted).isFalse();
+        verifyNoInteractions(otherChannel);
+    }
+}
@@ -0,0 +1,115 @@
+package com.hipster.rating.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hipster.batch.antientropy.AntiEntropyQueryRepository;
+import com.hipster.rating.dto.request.RatingImportFormat;
+import com.hipster.rating.dto.request.RatingImportRow;
+import com.hipster.rating.dto.response.RatingImportResponse;
+import com.hipster.rating.metrics.RatingMetricsRecorder;
+import com.hipster.rating.repository.RatingBulkImportQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatingBulkImportServiceTest {
+
+    @Mock
+    private RatingBulkImportQueryRepository ratingBulkImportQueryRepository;
+
+    @Mock
+    private AntiEntropyQueryRepository antiEntropyQueryRepository;
+
+    @Mock
+    private RatingMetricsRecorder ratingMetricsRecorder;
+
+    private RatingBulkImportService ratingBulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        ratingBulkImportService = new RatingBulkImportService(
+                ratingBulkImportQueryRepository, antiEntropyQueryRepository, ratingMetricsRecorder, new ObjectMapper());
+        ReflectionTestUtils.setField(ratingBulkImportService, "batchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importRatings_Ndjson_UpsertsInBatchesAndReconcilesAffectedReleasesOnce() {
+        when(ratingBulkImportQueryRepository.findExistingUserIds(anyCollection())).thenAnswer(inv -> Set.copyOf(inv.getArgument(0)));
+        when(ratingBulkImportQueryRepository.findActiveReleaseIds(anyCollection())).thenAnswer(inv -> Set.copyOf(inv.getArgument(0)));
+
+        final RatingImportResponse response = ratingBulkImportService.importRatings(stream("""
+                {"userId":1,"releaseId":10,"score":4.5}
+                {"userId":2,"releaseId":10,"score":3.0}
+
+                {"userId":1,"releaseId":20,"score":5.0}
+                """), RatingImportFormat.NDJSON);
+
+        assertThat(response.totalRows()).isEqualTo(3);
+        assertThat(response.upsertedRows()).isEqualTo(3);
+        assertThat(response.rejectedRows()).isZero();
+        assertThat(response.affectedReleaseCount()).isEqualTo(2);
+
+        final ArgumentCaptor<List<RatingImportRow>> batches = ArgumentCaptor.forClass(List.class);
+        verify(ratingBulkImportQueryRepository, times(2)).upsertRatings(batches.capture(), any(LocalDateTime.class));
+        assertThat(batches.getAllValues().get(0)).hasSize(2);
+        assertThat(batches.getAllValues().get(1)).containsExactly(new RatingImportRow(1L, 20L, 5.0));
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(10L, 20L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void importRatings_Csv_SkipsHeaderAndRejectsInvalidRows() {
+        when(ratingBulkImportQueryRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(ratingBulkImportQueryRepository.findActiveReleaseIds(anyCollection())).thenReturn(Set.of(10L));
+
+        final RatingImportResponse response = ratingBulkImportService.importRatings(stream("""
+                userId,releaseId,score
+                1,10,4.0
+                1,10,4.3
+                not,a,row
+                1,99,3.0
+                """), RatingImportFormat.CSV);
+
+        assertThat(response.totalRows()).isEqualTo(4);
+        assertThat(response.upsertedRows()).isEqualTo(1);
+        assertThat(response.rejectedRows()).isEqualTo(3);
+        assertThat(response.errorSamples()).hasSize(3);
+        verify(ratingMetricsRecorder).recordImport("upserted", 1);
+        verify(antiEntropyQueryRepository).reconcileChunk(eq(List.of(10L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void importRatings_AllRowsRejected_SkipsReconcile() {
+        final RatingImportResponse response = ratingBulkImportService.importRatings(stream("""
+                {"userId":1,"releaseId":10}
+                """), RatingImportFormat.NDJSON);
+
+        assertThat(response.rejectedRows()).isEqualTo(1);
+        verify(ratingBulkImportQueryRepository, never()).upsertRatings(anyList(), any(LocalDateTime.class));
+        verify(antiEntropyQueryRepository, never()).reconcileChunk(anyList(), any(LocalDateTime.class));
+    }
+
+    private static ByteArrayInputStream stream(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
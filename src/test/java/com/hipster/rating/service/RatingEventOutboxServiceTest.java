@@ -0,0 +1,147 @@
+package com.hipster.rating.service;
+
+import com.hipster.rating.domain.RatingEventOutbox;
+import com.hipster.rating.domain.RatingEventOutboxStatus;
+import com.hipster.rating.event.RatingEvent;
+import com.hipster.rating.repository.RatingEventOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RatingEventOutboxServiceTest {
+
+    @InjectMocks
+    private RatingEventOutboxService ratingEventOutboxService;
+
+    @Mock
+    private RatingEventOutboxRepository ratingEventOutboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ratingEventOutboxService, "outboxBatchSize", 500);
+        ReflectionTestUtils.setField(ratingEventOutboxService, "retryDelayMillis", 5_000L);
+        ReflectionTestUtils.setField(ratingEventOutboxService, "dispatchLeaseMillis", 30_000L);
+        ReflectionTestUtils.setField(ratingEventOutboxService, "retentionHours", 24L);
+    }
+
+    @Test
+    @DisplayName("the leading ready run is claimed with one range update and returned as is")
+    void claimReadyToRelay_ClaimsLeadingReadyRunWithSingleUpdate() {
+        final RatingEventOutbox first = outbox(1L, LocalDateTime.now().minusSeconds(1));
+        final RatingEventOutbox second = outbox(2L, LocalDateTime.now().minusSeconds(1));
+        final RatingEventOutbox waiting = outbox(5L, LocalDateTime.now().plusSeconds(5));
+        given(ratingEventOutboxRepository.findByStatusInOrderByIdAsc(any(), any()))
+                .willReturn(List.of(first, second, waiting));
+        given(ratingEventOutboxRepository.claimRangeForDispatch(eq(1L), eq(2L), any(), eq(RatingEventOutboxStatus.DISPATCHING), any(), any()))
+                .willReturn(2);
+
+        final List<RatingEventOutbox> claimed = ratingEventOutboxService.claimReadyToRelay();
+
+        assertThat(claimed).containsExactly(first, second);
+        verify(ratingEventOutboxRepository, never()).findByIdBetweenAndStatusAndNextAttemptAtOrderByIdAsc(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("when the range update count differs, only rows holding this lease are returned")
+    void claimReadyToRelay_RereadsRowsClaimedWithThisLeaseOnMismatch() {
+        final RatingEventOutbox first = outbox(1L, LocalDateTime.now().minusSeconds(1));
+        final RatingEventOutbox second = outbox(2L, LocalDateTime.now().minusSeconds(1));
+        final RatingEventOutbox third = outbox(3L, LocalDateTime.now().minusSeconds(1));
+        given(ratingEventOutboxRepository.findByStatusInOrderByIdAsc(any(), any()))
+                .willReturn(List.of(first, second, third));
+        given(ratingEventOutboxRepository.claimRangeForDispatch(eq(1L), eq(3L), any(), eq(RatingEventOutboxStatus.DISPATCHING), any(), any()))
+                .willReturn(1);
+        given(ratingEventOutboxRepository.findByIdBetweenAndStatusAndNextAttemptAtOrderByIdAsc(
+                eq(1L), eq(3L), eq(RatingEventOutboxStatus.DISPATCHING), any()))
+                .willReturn(List.of(first));
+
+        final List<RatingEventOutbox> claimed = ratingEventOutboxService.claimReadyToRelay();
+
+        assertThat(claimed).containsExactly(first);
+        final ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        final ArgumentCaptor<LocalDateTime> rereadLease = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(ratingEventOutboxRepository).claimRangeForDispatch(any(), any(), any(), any(), any(), leaseUntil.capture());
+        verify(ratingEventOutboxRepository).findByIdBetweenAndStatusAndNextAttemptAtOrderByIdAsc(any(), any(), any(), rereadLease.capture());
+        assertThat(rereadLease.getValue()).isEqualTo(leaseUntil.getValue());
+    }
+
+    @Test
+    @DisplayName("a failed batch waiting for retry at the head blocks newer rows so per-release order is kept")
+    void claimReadyToRelay_BacksOffWhileHeadIsWaitingForRetry() {
+        final RatingEventOutbox failedHead = outbox(1L, LocalDateTime.now().plusSeconds(5));
+        final RatingEventOutbox newer = outbox(2L, LocalDateTime.now().minusSeconds(1));
+        given(ratingEventOutboxRepository.findByStatusInOrderByIdAsc(any(), any()))
+                .willReturn(List.of(failedHead, newer));
+
+        assertThat(ratingEventOutboxService.claimReadyToRelay()).isEmpty();
+
+        verify(ratingEventOutboxRepository, never()).claimRangeForDispatch(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("rating event is stored as a pending outbox row that round-trips to the same event")
+    void enqueue_StoresPendingOutbox() {
+        final RatingEvent event = new RatingEvent(1L, 2L, 3.0, 4.5, false, false, 1.2, LocalDateTime.now());
+        given(ratingEventOutboxRepository.save(any(RatingEventOutbox.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        final RatingEventOutbox outbox = ratingEventOutboxService.enqueue(event);
+
+        assertThat(outbox.getStatus()).isEqualTo(RatingEventOutboxStatus.PENDING);
+        assertThat(outbox.getPublishAttemptCount()).isZero();
+        assertThat(outbox.toEvent()).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("failed batch is rescheduled after the retry delay with a trimmed error")
+    void markFailed_ReschedulesBatch() {
+        final LocalDateTime before = LocalDateTime.now();
+        final String longError = "x".repeat(RatingEventOutbox.MAX_ERROR_LENGTH + 10);
+
+        ratingEventOutboxService.markFailed(List.of(1L, 2L), longError);
+
+        final ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        final ArgumentCaptor<String> lastError = ArgumentCaptor.forClass(String.class);
+        verify(ratingEventOutboxRepository).markFailed(
+                eq(List.of(1L, 2L)),
+                eq(RatingEventOutboxStatus.FAILED),
+                eq(RatingEventOutboxStatus.PUBLISHED),
+                nextAttemptAt.capture(),
+                lastError.capture());
+        assertThat(nextAttemptAt.getValue()).isAfterOrEqualTo(before.plusSeconds(5));
+        assertThat(lastError.getValue()).hasSize(RatingEventOutbox.MAX_ERROR_LENGTH);
+    }
+
+    @Test
+    @DisplayName("empty id list does not issue an update")
+    void markPublished_SkipsEmptyBatch() {
+        assertThat(ratingEventOutboxService.markPublished(List.of())).isZero();
+
+        verify(ratingEventOutboxRepository, never()).markPublished(anyCollection(), any(), any());
+    }
+
+    private RatingEventOutbox outbox(final Long outboxId, final LocalDateTime nextAttemptAt) {
+        final RatingEventOutbox outbox = RatingEventOutbox.pending(
+                new RatingEvent(1L, 2L, 0.0, 4.5, true, false, 1.2, LocalDateTime.now()));
+        ReflectionTestUtils.setField(outbox, "id", outboxId);
+        ReflectionTestUtils.setField(outbox, "nextAttemptAt", nextAttemptAt);
+        return outbox;
+    }
+}
@@ -1,6 +1,7 @@
 package com.hipster.rating.service;
 
 import com.hipster.global.config.RabbitMqConfig;
+import com.hipster.rating.config.RatingSummaryProperties;
 import com.hipster.rating.domain.ReleaseRatingSummary;
 import com.hipster.rating.dto.request.CreateRatingRequest;
 import com.hipster.rating.repository.RatingRepository;
@@ -24,6 +25,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.RabbitMQContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -32,12 +34,16 @@ import org.testcontainers.utility.DockerImageName;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 
 @SpringBootTest
@@ -73,6 +79,9 @@ public class RatingRabbitMqArchitectureTest {
     @Autowired
     private RabbitListenerEndpointRegistry endpointRegistry;
 
+    @Autowired
+    private RatingSummaryProperties ratingSummaryProperties;
+
     @MockBean
     private LockProvider lockProvider;
 
@@ -86,6 +95,9 @@ public class RatingRabbitMqArchitectureTest {
         userRepository.deleteAllInBatch();
         releaseRepository.deleteAllInBatch();
 
+        // outbox Relay 는 @SchedulerLock 으로 보호되므로 락을 항상 허용하여 스케줄러가 outbox 를 비우게 한다.
+        given(lockProvider.lock(any())).willReturn(Optional.of(mock(SimpleLock.class)));
+
         Release release = Release.builder()
                 .title("RabbitMQ Test Album")
                 .artistId(1L)
@@ -114,14 +126,22 @@ public class RatingRabbitMqArchitectureTest {
         }
     }
 
+    private List<MessageListenerContainer> summaryPartitionContainers() {
+        List<MessageListenerContainer> containers = new ArrayList<>();
+        for (int partition = 0; partition < ratingSummaryProperties.getPartition().getCount(); partition++) {
+            containers.add(endpointRegistry.getListenerContainer(RabbitMqConfig.ratingSummaryListenerId(partition)));
+        }
+        return containers;
+    }
+
     @Test
     @DisplayName("TO-BE [Chapter 3]: 장애 격리(Fault Isolation) 및 데이터 영구 보존(Zero Message Loss) 증명")
     void rabbitMq_fault_isolation_and_durability_test() throws InterruptedException {
         // [시나리오 세팅]
         // 1. 통계 서버(Consumer)에 장애(OOM, 셧다운)가 발생하여 리스너가 작동을 멈췄다고 가정합니다.
-        MessageListenerContainer summaryContainer = endpointRegistry.getListenerContainer("ratingSummaryListener");
-        summaryContainer.stop();
-        assertThat(summaryContainer.isRunning()).isFalse();
+        List<MessageListenerContainer> summaryContainers = summaryPartitionContainers();
+        summaryContainers.forEach(MessageListenerContainer::stop);
+        assertThat(summaryContainers).noneMatch(MessageListenerContainer::isRunning);
 
         // 2. 동시성 환경에서 50명의 유저가 평점 작성 (대규모 트래픽 스파이크)
         int concurrentRequests = 50;
@@ -146,7 +166,7 @@ public class RatingRabbitMqArchitectureTest {
         latch.await();
         log.info("Successfully created/updated ratings: {}", successCount.get());
 
-        // 비동기 파이프라인 전파 대기
+        // outbox Relay 발행 및 비동기 파이프라인 전파 대기
         Thread.sleep(2000);
 
         // [증명 1: 완벽한 장애 격리 (Fault Isolation)]
@@ -168,8 +188,12 @@ public class RatingRabbitMqArchitectureTest {
 
         // 이전 장(인메모리 큐)에서는 여기서 40건의 이벤트가 공중분해(Loss)되었음.
         // 현재 RabbitMQ 아키텍처에서는 해당 50건이 브로커의 큐 버퍼 안에 안전히(Persisted) 보관되어 있어야 함.
-        Properties properties = rabbitAdmin.getQueueProperties(RabbitMqConfig.RATING_SUMMARY_QUEUE);
-        int messageCount = (Integer) properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT);
+        // releaseId 해시 파티션으로 라우팅되므로 모든 파티션 큐의 적재량을 합산한다.
+        int messageCount = 0;
+        for (int partition = 0; partition < ratingSummaryProperties.getPartition().getCount(); partition++) {
+            Properties properties = rabbitAdmin.getQueueProperties(RabbitMqConfig.ratingSummaryPartitionQueueName(partition));
+            messageCount += (Integer) properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT);
+        }
         
         log.info("============== [Zero Message Loss Proved] ==============");
         log.info("통계 컨슈머 셧다운 상태에서 유실되지 않고 버퍼링된 큐 메시지 수: {} (Expected: 50)", messageCount);
@@ -179,7 +203,7 @@ public class RatingRabbitMqArchitectureTest {
         // [증명 3: 장애 복구 후 재처리 (Disaster Recovery & Redelivery)]
         log.info("============== [Disaster Recovery Proved] ==============");
         log.info("에러가 해결되어 통계 컨슈머가 재시작(Recovery) 되었다고 가정합니다...");
-        summaryContainer.start();
+        summaryContainers.forEach(MessageListenerContainer::start);
         
         // 큐에 밀려있던 50건의 메시지가 다시 Consumer(Listener)로 빨려들어가 처리될 때까지 대기
         Thread.sleep(3000); 
@@ -0,0 +1,78 @@
+package com.hipster.rating.service;
+
+import com.hipster.release.domain.ReleaseStatus;
+import com.hipster.release.repository.ReleaseRepository;
+import com.hipster.user.dto.response.UserRatingProfile;
+import com.hipster.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RatingReferenceCacheTest {
+
+    @Mock
+    private ReleaseRepository releaseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RatingReferenceCache ratingReferenceCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ratingReferenceCache = new RatingReferenceCache(releaseRepository, userRepository, meterRegistry, 100, 60, 100, 300);
+    }
+
+    @Test
+    void isActiveRelease_CachesStatusUntilEvicted() {
+        given(releaseRepository.findStatusById(1L))
+                .willReturn(Optional.of(ReleaseStatus.PENDING), Optional.of(ReleaseStatus.ACTIVE));
+
+        assertThat(ratingReferenceCache.isActiveRelease(1L)).isFalse();
+        assertThat(ratingReferenceCache.isActiveRelease(1L)).isFalse();
+        verify(releaseRepository, times(1)).findStatusById(1L);
+
+        ratingReferenceCache.evictRelease(1L);
+
+        assertThat(ratingReferenceCache.isActiveRelease(1L)).isTrue();
+        verify(releaseRepository, times(2)).findStatusById(1L);
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", "rating.near_cache.release_status")
+                .tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void findUserProfile_DoesNotCacheMissingUser() {
+        given(userRepository.findRatingProfileById(7L))
+                .willReturn(Optional.empty(), Optional.of(new UserRatingProfile(7L, "late-joiner", 1.0)));
+
+        assertThat(ratingReferenceCache.findUserProfile(7L)).isEmpty();
+        assertThat(ratingReferenceCache.findUserProfile(7L)).contains(new UserRatingProfile(7L, "late-joiner", 1.0));
+    }
+
+    @Test
+    void evictUsers_ReloadsWeightingScore() {
+        given(userRepository.findRatingProfileById(3L))
+                .willReturn(Optional.of(new UserRatingProfile(3L, "user", 0.5)), Optional.of(new UserRatingProfile(3L, "user", 1.5)));
+
+        assertThat(ratingReferenceCache.findUserProfile(3L).orElseThrow().weightingScore()).isEqualTo(0.5);
+        ratingReferenceCache.evictUsers(List.of(3L));
+
+        assertThat(ratingReferenceCache.findUserProfile(3L).orElseThrow().weightingScore()).isEqualTo(1.5);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hipster.rating.service;
+
+import com.hipster.rating.event.RatingEvent;
+import com.hipster.rating.event.ReleaseDeltaSnapshot;
+import com.hipster.rating.repository.ReleaseRatingSummaryQueryRepository;
+import com.hipster.rating.repository.ReleaseRatingSummaryQueryRepository.SummaryDelta;
+import com.hipster.rating.repository.ReleaseRatingSummaryRepository;
+import com.hipster.rating.service.RatingSummaryService.WriteBehindFlushResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingSummaryServiceTest {
+
+    private static final LocalDateTime BATCH_SYNCED_AT = LocalDateTime.of(2026, 3, 19, 3, 0, 0);
+
+    @Test
+    @DisplayName("같은 release 의 이벤트는 하나의 증분으로 접힌다")
+    void foldRatingEvents_CoalescesDeltasPerRelease() {
+        final Map<Long, LocalDateTime> rowStates = new HashMap<>();
+        rowStates.put(1L, null);
+
+        final Map<Long, SummaryDelta> deltas = RatingSummaryService.foldRatingEvents(List.of(
+                new RatingEvent(10L, 1L, 0.0, 4.0, true, false, 1.0, BATCH_SYNCED_AT.plusMinutes(1)),
+                new RatingEvent(11L, 1L, 0.0, 5.0, true, false, 0.5, BATCH_SYNCED_AT.plusMinutes(2)),
+                new RatingEvent(10L, 1L, 4.0, 3.0, false, false, 1.0, BATCH_SYNCED_AT.plusMinutes(3))
+        ), rowStates);
+
+        assertThat(deltas).hasSize(1);
+        assertThat(deltas.get(1L).weightedScoreDelta()).isEqualByComparingTo("5.5");
+        assertThat(deltas.get(1L).weightedCountDelta()).isEqualByComparingTo("1.5");
+        assertThat(deltas.get(1L).scoreSumDelta()).isEqualByComparingTo("8.0");
+        assertThat(deltas.get(1L).countDelta()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("eventTs 가드는 이벤트마다 개별 평가되어 batch_synced_at 이전 이벤트만 버린다")
+    void foldRatingEvents_AppliesBatchSyncGuardPerEvent() {
+        final Map<Long, SummaryDelta> deltas = RatingSummaryService.foldRatingEvents(List.of(
+                new RatingEvent(10L, 1L, 0.0, 4.0, true, false, 1.0, BATCH_SYNCED_AT.minusMinutes(1)),
+                new RatingEvent(11L, 1L, 0.0, 2.0, true, false, 1.0, BATCH_SYNCED_AT.plusMinutes(1))
+        ), Map.of(1L, BATCH_SYNCED_AT));
+
+        assertThat(deltas.get(1L).weightedScoreDelta()).isEqualByComparingTo("2.0");
+        assertThat(deltas.get(1L).weightedCountDelta()).isEqualByComparingTo("1.0");
+    }
+
+    @Test
+    @DisplayName("summary row 가 없으면 수정/삭제는 무시되고 신규 등록 이후 이벤트만 반영된다")
+    void foldRatingEvents_IgnoresUpdatesBeforeRowIsCreated() {
+        final Map<Long, SummaryDelta> deltas = RatingSummaryService.foldRatingEvents(List.of(
+                new RatingEvent(10L, 7L, 3.0, 0.0, false, true, 1.0, BATCH_SYNCED_AT),
+                new RatingEvent(11L, 7L, 0.0, 4.0, true, false, 1.0, BATCH_SYNCED_AT),
+                new RatingEvent(11L, 7L, 4.0, 0.0, false, true, 1.0, BATCH_SYNCED_AT),
+                new RatingEvent(12L, 8L, 2.0, 3.0, false, false, 1.0, BATCH_SYNCED_AT)
+        ), Map.of());
+
+        assertThat(deltas).containsOnlyKeys(7L);
+        assertThat(deltas.get(7L).weightedScoreDelta()).isEqualByComparingTo("0");
+        assertThat(deltas.get(7L).weightedCountDelta()).isEqualByComparingTo("0");
+        assertThat(deltas.get(7L).countDelta()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("write-behind 증분은 eventTs 최소/최대값으로 batch_synced_at 가드를 근사한다")
+    void applyWriteBehindDeltas_ApproximatesBatchSyncGuardByEventTsRange() {
+        final ReleaseRatingSummaryQueryRepository queryRepository = mock(ReleaseRatingSummaryQueryRepository.class);
+        final RatingSummaryService service =
+                new RatingSummaryService(mock(ReleaseRatingSummaryRepository.class), queryRepository);
+        final Map<Long, LocalDateTime> rowStates = new HashMap<>();
+        rowStates.put(1L, BATCH_SYNCED_AT);
+        rowStates.put(2L, BATCH_SYNCED_AT);
+        rowStates.put(3L, BATCH_SYNCED_AT);
+        rowStates.put(4L, null);
+        when(queryRepository.lockBatchSyncedAtByReleaseIds(anyCollection())).thenReturn(rowStates);
+
+        final WriteBehindFlushResult result = service.applyWriteBehindDeltas(List.of(
+                snapshot(1L, 0, BATCH_SYNCED_AT.minusMinutes(2), BATCH_SYNCED_AT.minusMinutes(1)), // 이미 재집계된 구간
+                snapshot(2L, 0, BATCH_SYNCED_AT.plusMinutes(1), BATCH_SYNCED_AT.plusMinutes(2)),
+                snapshot(3L, 0, BATCH_SYNCED_AT.minusMinutes(1), BATCH_SYNCED_AT.plusMinutes(1)),  // 걸침
+                snapshot(4L, 0, BATCH_SYNCED_AT.minusMinutes(1), BATCH_SYNCED_AT),
+                snapshot(5L, 0, BATCH_SYNCED_AT, BATCH_SYNCED_AT),                                 // row 없음, 수정만
+                snapshot(6L, 1, BATCH_SYNCED_AT, BATCH_SYNCED_AT)                                  // row 없음, 신규 등록
+        ));
+
+        final ArgumentCaptor<Collection<SummaryDelta>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(queryRepository).applySummaryDeltas(captor.capture());
+        assertThat(captor.getValue()).extracting(SummaryDelta::releaseId).containsExactly(2L, 3L, 4L, 6L);
+        assertThat(result.appliedReleaseCount()).isEqualTo(4);
+        assertThat(result.straddledReleaseCount()).isEqualTo(1);
+    }
+
+    private static ReleaseDeltaSnapshot snapshot(final long releaseId, final int createdEventCount,
+                                                 final LocalDateTime minEventTs, final LocalDateTime maxEventTs) {
+        return new ReleaseDeltaSnapshot(releaseId, 4.0, 1.0, 4.0, createdEventCount, createdEventCount, 1,
+                minEventTs.toInstant(ZoneOffset.UTC).toEpochMilli(),
+                maxEventTs.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+}
@@ -12,6 +12,7 @@ import com.hipster.user.dto.response.WeightingResponse;
 import com.hipster.user.repository.UserRepository;
 import com.hipster.user.repository.UserWeightStatsRepository;
 import com.hipster.rating.repository.RatingRepository;
+import com.hipster.rating.service.RatingReferenceCache;
 import com.hipster.review.repository.ReviewRepository;
 import com.hipster.moderation.repository.ModerationQueueRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -54,6 +55,9 @@ class UserServiceTest {
     @Mock
     private UserWeightStatsRepository userWeightStatsRepository;
 
+    @Mock
+    private RatingReferenceCache ratingReferenceCache;
+
     @Test
     @DisplayName("유저 가중치 조회는 user_weight_stats 기준 설명 값을 반환한다")
     void getUserWeighting_ReturnsStatsBackedResponse() {
@@ -117,6 +121,7 @@ class UserServiceTest {
 
         // then
         assertThat(user.getUsername()).isEqualTo("newName");
+        verify(ratingReferenceCache).evictUser(userId);
     }
 
     @Test